@@ -77,6 +77,28 @@ public final class Location implements Comparable<Location> {
         }
     }
 
+    /**
+     * Returns both coordinates of this location packed into a single {@code long}, the x-coordinate in the upper and
+     * the y-coordinate in the lower 32 bits. Two locations are equal if and only if their packed values are equal.
+     *
+     * @return the packed coordinates
+     * @see #unpack(long)
+     */
+    public long pack() {
+        return (long) x << 32 | y & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Returns the location whose coordinates have been packed into the given value.
+     *
+     * @param packed the packed coordinates
+     * @return a new {@link Location} object with the packed coordinates
+     * @see #pack()
+     */
+    public static Location unpack(long packed) {
+        return new Location((int) (packed >>> 32), (int) packed);
+    }
+
     @Override
     public int hashCode() {
         int hashCode = 0;
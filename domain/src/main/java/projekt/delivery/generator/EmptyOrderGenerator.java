@@ -14,6 +14,11 @@ public class EmptyOrderGenerator implements OrderGenerator {
         return List.of();
     }
 
+    @Override
+    public long nextOrderTick(long tick) {
+        return Long.MAX_VALUE;
+    }
+
     /**
      * A {@link OrderGenerator.Factory} for creating a new {@link EmptyOrderGenerator}.
      */
@@ -85,6 +85,12 @@ public class FridayOrderGenerator implements OrderGenerator {
         return this.tickToExistingOrders.getOrDefault(tick, new ArrayList<>());
     }
 
+    @Override
+    public long nextOrderTick(long tick) {
+        // the orders are generated tick by tick, since every tick draws from the random number generator
+        return tick < this.lastTick ? tick : Long.MAX_VALUE;
+    }
+
     private boolean isValidTick(long tick) {
         if (tick < 0) {
             throw new IndexOutOfBoundsException(tick);
@@ -27,6 +27,18 @@ public interface OrderGenerator {
      */
     List<ConfirmedOrder> generateOrders(long tick);
 
+    /**
+     * Returns the first tick, starting at the given tick, for which {@link #generateOrders(long)} may return orders.
+     * <p>
+     * By default, every tick is considered.
+     *
+     * @param tick The tick to start at.
+     * @return The first tick that may have orders or {@link Long#MAX_VALUE} if no more orders will be generated.
+     */
+    default long nextOrderTick(long tick) {
+        return tick;
+    }
+
     /**
      * A factory for creating a new {@link OrderGenerator}.
      */
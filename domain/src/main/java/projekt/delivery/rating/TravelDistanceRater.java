@@ -8,9 +8,7 @@ import projekt.delivery.routing.Region;
 import projekt.delivery.routing.VehicleManager;
 import projekt.delivery.simulation.Simulation;
 
-import java.util.Deque;
 import java.util.List;
-import java.util.Objects;
 
 /**
  * Rates the observed {@link Simulation} based on the distance traveled by all vehicles.<p>
@@ -55,25 +53,13 @@ public class TravelDistanceRater implements Rater {
                 Region.Restaurant restaurant = deliverOrderEvent.getOrder().getRestaurant().getComponent();
                 Region.Node destination = region.getNode(deliverOrderEvent.getOrder().getLocation());
 
-                Deque<Region.Node> path = pathCalculator.getPath(restaurant, destination);
-                worstDistance += calculateDistance(path, restaurant) * 2;
+                worstDistance += pathCalculator.getDuration(restaurant, destination) * 2;
             } else if (event instanceof ArrivedAtNodeEvent arrivedAtNodeEvent) {
                 actualDistance += arrivedAtNodeEvent.getLastEdge().getDuration();
             }
         }
     }
 
-    private double calculateDistance(Deque<Region.Node> path, Region.Node startNode) {
-        Region.Node currentNode = path.pop();
-        double totalDistance = Objects.requireNonNull(region.getEdge(startNode, currentNode)).getDuration();
-        while (!path.isEmpty()) {
-            Region.Node nextNode = path.pop();
-            totalDistance += Objects.requireNonNull(region.getEdge(currentNode, nextNode)).getDuration();
-            currentNode = nextNode;
-        }
-        return totalDistance;
-    }
-
     /**
      * A {@link Rater.Factory} for creating a new {@link TravelDistanceRater}.
      */
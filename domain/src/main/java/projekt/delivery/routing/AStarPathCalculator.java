@@ -0,0 +1,128 @@
+package projekt.delivery.routing;
+
+import projekt.base.DistanceCalculator;
+import projekt.base.Location;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A {@link PathCalculator} that calculates the shortest path from a start to an end point using A*.<p>
+ * <p>
+ * The {@link DistanceCalculator} of the region is used as heuristic. Since the duration of each edge built by
+ * {@link Region.Builder} is the rounded up distance between its nodes, the heuristic never overestimates the
+ * remaining duration and the search can stop as soon as the end node is settled. For regions whose durations
+ * are shorter than the distance between their nodes, the heuristic is scaled down accordingly, and it is scaled
+ * again after the duration of an edge has been decreased.
+ * {@link #getAllPathsTo(Region.Node)} and duration tables gain nothing from a heuristic and run plain Dijkstra
+ * searches.
+ */
+public class AStarPathCalculator extends DijkstraPathCalculator {
+
+    private volatile Heuristic heuristic;
+
+    @Override
+    public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
+        if (start == end) {
+            return new ArrayDeque<>();
+        }
+        RegionGraph graph = start.getRegion().getGraph();
+        int source = graph.checkedIndexOf(start);
+        int target = graph.checkedIndexOf(end);
+        SearchWorkspace workspace = search(graph, source, target);
+
+        // The predecessors point towards the start node, which is not part of the path
+        Deque<Region.Node> path = new ArrayDeque<>();
+        for (int node = target; node != source; node = workspace.predecessor(node)) {
+            path.addFirst(graph.getNode(node));
+        }
+        return path;
+    }
+
+    @Override
+    public long getDuration(Region.Node start, Region.Node end) {
+        if (start == end) {
+            return 0;
+        }
+        RegionGraph graph = start.getRegion().getGraph();
+        int target = graph.checkedIndexOf(end);
+        return search(graph, graph.checkedIndexOf(start), target).distance(target);
+    }
+
+    /**
+     * Runs A* from {@code source} until {@code target} is settled.
+     *
+     * @throws IllegalArgumentException If the target cannot be reached.
+     */
+    private SearchWorkspace search(RegionGraph graph, int source, int target) {
+        SearchWorkspace workspace = SearchWorkspace.forward(graph.nodeCount());
+        Heuristic heuristic = getHeuristic(graph);
+        Location targetLocation = graph.getNode(target).getLocation();
+
+        workspace.reach(source, 0, heuristic.estimate(graph.getNode(source).getLocation(), targetLocation), -1);
+        while (!workspace.heap.isEmpty()) {
+            int u = workspace.settleNext();
+            if (u == target) {
+                return workspace;
+            }
+            long duration = workspace.distance(u);
+            for (int arc = graph.arcStart(u); arc < graph.arcEnd(u); arc++) {
+                int v = graph.arcTarget(arc);
+                if (workspace.isSettled(v)) {
+                    continue;
+                }
+                long weight = duration + graph.arcDuration(arc);
+                if (weight < workspace.distance(v)) {
+                    long estimate = heuristic.estimate(graph.getNode(v).getLocation(), targetLocation);
+                    workspace.reach(v, weight, weight + estimate, u);
+                }
+            }
+        }
+        throw new IllegalArgumentException("Node " + graph.getNode(source) + " cannot reach node "
+            + graph.getNode(target));
+    }
+
+    private Heuristic getHeuristic(RegionGraph graph) {
+        Heuristic heuristic = this.heuristic;
+        if (heuristic == null || heuristic.graph != graph || heuristic.version < graph.lastDecreaseVersion()) {
+            heuristic = new Heuristic(graph);
+            this.heuristic = heuristic;
+        }
+        return heuristic;
+    }
+
+    /**
+     * The heuristic used for a single {@link RegionGraph}.
+     */
+    private static final class Heuristic {
+
+        private final RegionGraph graph;
+        private final long version;
+        private final DistanceCalculator distanceCalculator;
+        /**
+         * The largest factor the distance between two nodes can be multiplied with without exceeding the duration
+         * of the edge between them. This keeps the heuristic admissible and consistent for every region.
+         */
+        private final double scale;
+
+        private Heuristic(RegionGraph graph) {
+            this.graph = graph;
+            this.version = graph.version();
+            this.distanceCalculator = graph.getRegion().getDistanceCalculator();
+            double scale = 1;
+            for (int e = 0; e < graph.edgeCount(); e++) {
+                Region.Edge edge = graph.getEdge(e);
+                double distance = distanceCalculator.calculateDistance(edge.getNodeA().getLocation(),
+                                                                       edge.getNodeB().getLocation());
+                if (distance > 0) {
+                    scale = Math.min(scale, edge.getDuration() / distance);
+                }
+            }
+            this.scale = Math.max(scale, 0);
+        }
+
+        private long estimate(Location from, Location to) {
+            return (long) Math.floor(scale * distanceCalculator.calculateDistance(from, to));
+        }
+    }
+}
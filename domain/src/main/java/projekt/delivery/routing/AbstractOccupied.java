@@ -1,8 +1,8 @@
 package projekt.delivery.routing;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 
 import org.jetbrains.annotations.Nullable;
@@ -17,12 +17,30 @@ abstract class AbstractOccupied<C extends Region.Component<? super C>> implement
 
     protected final C component;
     protected final VehicleManager vehicleManager;
-    protected final Map<VehicleImpl, VehicleStats> vehicles = new HashMap<>();
-    private final Collection<Vehicle> unmodifiableVehicles = Collections.unmodifiableCollection(vehicles.keySet());
+    /**
+     * The vehicles on this component, a view of the {@link VehicleTable} of its {@link VehicleManagerImpl}.
+     */
+    protected final Map<VehicleImpl, VehicleStats> vehicles;
+    private final Collection<Vehicle> unmodifiableVehicles;
+    /**
+     * The index of this component in the {@link VehicleTable} of its {@link VehicleManagerImpl} or
+     * {@link VehicleTable#NONE} if the {@link VehicleManager} is no {@link VehicleManagerImpl}.
+     */
+    final int index;
+    private final @Nullable VehicleTable table;
+    /**
+     * The shard of the {@link RegionPartition} this component belongs to when its {@link VehicleManagerImpl} ticks in
+     * parallel.
+     */
+    int shard;
 
     AbstractOccupied(C component, VehicleManager vehicleManager) {
         this.component = component;
         this.vehicleManager = vehicleManager;
+        this.table = vehicleManager instanceof VehicleManagerImpl manager ? manager.vehicleTable : null;
+        this.index = table == null ? VehicleTable.NONE : table.addComponent(this);
+        this.vehicles = new OccupantMap(this, table);
+        this.unmodifiableVehicles = Collections.unmodifiableCollection(vehicles.keySet());
     }
 
     @Override
@@ -40,6 +58,86 @@ abstract class AbstractOccupied<C extends Region.Component<? super C>> implement
         return unmodifiableVehicles;
     }
 
+    /**
+     * Moves the vehicles on this component that can move at the given tick, see
+     * {@link #canMove(VehicleImpl, long, long)}, in the canonical order of their ids. The {@link VehicleManagerImpl}
+     * moves them just like it does when it executes the tick. Vehicles of other {@link VehicleManager}s are only kept
+     * in {@link #vehicles}, so they are moved here.
+     *
+     * @param currentTick The tick to execute.
+     */
+    @Override
+    public void tick(long currentTick) {
+        if (vehicleManager instanceof VehicleManagerImpl manager) {
+            manager.tick(this, currentTick);
+            return;
+        }
+        VehicleImpl[] vehicles = this.vehicles.keySet().toArray(new VehicleImpl[0]);
+        Arrays.sort(vehicles);
+        for (VehicleImpl vehicle : vehicles) {
+            VehicleStats stats = this.vehicles.get(vehicle);
+            if (stats != null && canMove(vehicle, stats.arrived, currentTick)) {
+                vehicle.move(currentTick);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the given vehicle on this component moves when this component is ticked at the given tick.
+     *
+     * @param vehicle     The vehicle on this component.
+     * @param arrived     The tick at which the vehicle arrived at this component.
+     * @param currentTick The current tick.
+     * @return Whether the vehicle moves.
+     */
+    abstract boolean canMove(VehicleImpl vehicle, long arrived, long currentTick);
+
+    /**
+     * Puts the given vehicle on this component. The {@link VehicleManagerImpl} ticks a node from now on and schedules
+     * the arrival of the vehicle at the end of an edge.
+     *
+     * @param vehicle  The vehicle to put on this component.
+     * @param arrived  The tick at which the vehicle arrives.
+     * @param previous The component the vehicle came from or {@code null} if there is none.
+     * @throws IllegalArgumentException If another vehicle with the id of the given vehicle is in the
+     *                                  {@link VehicleTable} of the {@link VehicleManagerImpl}.
+     */
+    void putVehicle(VehicleImpl vehicle, long arrived, @Nullable VehicleManager.Occupied<?> previous) {
+        if (table == null) {
+            // vehicles of other vehicle managers are only moved when this component is ticked
+            vehicles.put(vehicle, new VehicleStats(arrived, previous));
+            return;
+        }
+        if (!table.register(vehicle)) {
+            // the vehicle manager would never move the vehicle
+            throw new IllegalArgumentException("Vehicle " + vehicle.getId() + " cannot be put on " + component
+                                               + ", another vehicle has the same id");
+        }
+        table.put(vehicle.getId(), index, arrived, table.indexOf(previous));
+        ((VehicleManagerImpl) vehicleManager).activate(this, vehicle.getId());
+    }
+
+    /**
+     * Removes the given vehicle from this component. Once the last vehicle is removed, the
+     * {@link VehicleManagerImpl} no longer ticks this component.
+     *
+     * @param vehicle The vehicle to remove.
+     * @return Whether the vehicle was on this component.
+     */
+    boolean removeVehicle(VehicleImpl vehicle) {
+        if (table != null && table.contains(vehicle) && table.getComponent(vehicle.getId()) == index) {
+            table.remove(vehicle.getId());
+        } else if (vehicles.containsKey(vehicle)) {
+            vehicles.remove(vehicle);
+        } else {
+            return false;
+        }
+        if (vehicles.isEmpty() && vehicleManager instanceof VehicleManagerImpl manager) {
+            manager.deactivate(this);
+        }
+        return true;
+    }
+
     @Override
     public void reset() {
         vehicles.clear();
@@ -0,0 +1,167 @@
+package projekt.delivery.routing;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A {@link PathCalculator} that calculates the shortest path from a start to an end point using a bidirectional
+ * Dijkstra search.<p>
+ * <p>
+ * One search starts at the start node and one at the end node. The search with the smaller tentative duration is
+ * advanced, and the shortest path found where both searches meet is known to be optimal as soon as the sum of the
+ * smallest tentative durations of both searches is not smaller than its duration. The search works with every
+ * {@link projekt.base.DistanceCalculator} and does not rely on the durations of the edges.<p>
+ * <p>
+ * In cross-check mode, every result is compared against {@link DijkstraPathCalculator} and an
+ * {@link IllegalStateException} is thrown if they differ. This mode is meant for tests.
+ */
+public class BidirectionalDijkstraPathCalculator extends DijkstraPathCalculator {
+
+    private final boolean crossCheck;
+
+    /**
+     * Creates a new {@link BidirectionalDijkstraPathCalculator} without cross-checks.
+     */
+    public BidirectionalDijkstraPathCalculator() {
+        this(false);
+    }
+
+    /**
+     * Creates a new {@link BidirectionalDijkstraPathCalculator}.
+     *
+     * @param crossCheck Whether every result should be compared against {@link DijkstraPathCalculator}.
+     */
+    public BidirectionalDijkstraPathCalculator(boolean crossCheck) {
+        this.crossCheck = crossCheck;
+    }
+
+    /**
+     * Returns true if every result is compared against {@link DijkstraPathCalculator}.
+     *
+     * @return True if every result is compared against {@link DijkstraPathCalculator}.
+     */
+    public boolean isCrossCheck() {
+        return crossCheck;
+    }
+
+    @Override
+    public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
+        if (start == end) {
+            return new ArrayDeque<>();
+        }
+        RegionGraph graph = start.getRegion().getGraph();
+        int source = graph.checkedIndexOf(start);
+        int target = graph.checkedIndexOf(end);
+        SearchWorkspace forward = SearchWorkspace.forward(graph.nodeCount());
+        SearchWorkspace backward = SearchWorkspace.backward(graph.nodeCount());
+        int meeting = search(graph, source, target, forward, backward);
+
+        Deque<Region.Node> path = new ArrayDeque<>();
+        for (int node = meeting; node != source; node = forward.predecessor(node)) {
+            path.addFirst(graph.getNode(node));
+        }
+        for (int node = backward.predecessor(meeting); node >= 0; node = backward.predecessor(node)) {
+            path.addLast(graph.getNode(node));
+        }
+
+        if (crossCheck) {
+            long duration = forward.distance(meeting) + backward.distance(meeting);
+            checkPath(graph, source, target, path, duration);
+            checkDuration(start, end, duration);
+        }
+        return path;
+    }
+
+    @Override
+    public long getDuration(Region.Node start, Region.Node end) {
+        if (start == end) {
+            return 0;
+        }
+        RegionGraph graph = start.getRegion().getGraph();
+        SearchWorkspace forward = SearchWorkspace.forward(graph.nodeCount());
+        SearchWorkspace backward = SearchWorkspace.backward(graph.nodeCount());
+        int meeting = search(graph, graph.checkedIndexOf(start), graph.checkedIndexOf(end), forward, backward);
+        long duration = forward.distance(meeting) + backward.distance(meeting);
+
+        if (crossCheck) {
+            checkDuration(start, end, duration);
+        }
+        return duration;
+    }
+
+    /**
+     * Runs the bidirectional search between the given nodes.
+     *
+     * @return The node at which the shortest path switches from the forward to the backward search.
+     * @throws IllegalArgumentException If the target cannot be reached.
+     */
+    private static int search(RegionGraph graph,
+                              int source,
+                              int target,
+                              SearchWorkspace forward,
+                              SearchWorkspace backward) {
+        forward.reach(source, 0, 0, -1);
+        backward.reach(target, 0, 0, -1);
+        long best = SearchWorkspace.INFINITY;
+        int meeting = -1;
+
+        while (!forward.heap.isEmpty() && !backward.heap.isEmpty()) {
+            long forwardKey = forward.heap.peekKey();
+            long backwardKey = backward.heap.peekKey();
+            if (best != SearchWorkspace.INFINITY && forwardKey + backwardKey >= best) {
+                break;
+            }
+            SearchWorkspace current = forwardKey <= backwardKey ? forward : backward;
+            SearchWorkspace other = current == forward ? backward : forward;
+            int u = current.settleNext();
+            long duration = current.distance(u);
+
+            for (int arc = graph.arcStart(u); arc < graph.arcEnd(u); arc++) {
+                int v = graph.arcTarget(arc);
+                if (current.isSettled(v)) {
+                    continue;
+                }
+                long weight = duration + graph.arcDuration(arc);
+                current.reach(v, weight, weight, u);
+                if (other.isReached(v) && current.distance(v) + other.distance(v) < best) {
+                    best = current.distance(v) + other.distance(v);
+                    meeting = v;
+                }
+            }
+        }
+
+        if (meeting < 0) {
+            throw new IllegalArgumentException("Node " + graph.getNode(source) + " cannot reach node "
+                + graph.getNode(target));
+        }
+        return meeting;
+    }
+
+    private static void checkPath(RegionGraph graph, int source, int target, Deque<Region.Node> path, long duration) {
+        long pathDuration = 0;
+        int current = source;
+        for (Region.Node node : path) {
+            int next = graph.indexOf(node);
+            int arc = graph.findArc(current, next);
+            if (arc < 0) {
+                throw new IllegalStateException("Path contains nodes %s and %s which are not connected"
+                    .formatted(graph.getNode(current), node));
+            }
+            pathDuration += graph.arcDuration(arc);
+            current = next;
+        }
+        if (current != target || pathDuration != duration) {
+            throw new IllegalStateException("Path from %s to %s ends at %s with duration %d instead of %d"
+                .formatted(graph.getNode(source), graph.getNode(target), graph.getNode(current), pathDuration,
+                    duration));
+        }
+    }
+
+    private void checkDuration(Region.Node start, Region.Node end, long duration) {
+        long expected = super.getDuration(start, end);
+        if (expected != duration) {
+            throw new IllegalStateException("Duration from %s to %s is %d but DijkstraPathCalculator found %d"
+                .formatted(start, end, duration, expected));
+        }
+    }
+}
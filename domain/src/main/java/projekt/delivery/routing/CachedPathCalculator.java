@@ -1,26 +1,65 @@
 package projekt.delivery.routing;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedHashSet;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.jetbrains.annotations.Nullable;
 
 /**
  * A {@link PathCalculator} that is based on another {@link PathCalculator} and caches its result
- * for later use.
+ * for later use.<p>
+ * <p>
+ * The cache stores the result of {@link PathCalculator#getAllPathsTo(Region.Node)} of the delegate for every
+ * requested end node and can be shared between threads. Concurrent misses for the same end node are computed only
+ * once. If the delegate returns a {@link ShortestPathTree}, only the tree is stored; other results are wrapped in an
+ * unmodifiable view. In both cases, a path is created when it is accessed, so {@link #getPath(Region.Node,
+ * Region.Node)} returns a new {@link Deque} containing only the requested path and
+ * {@link #getAllPathsTo(Region.Node)} returns the cached map itself.<p>
+ * <p>
+ * The least recently used end nodes are evicted if the cache holds more end nodes than its size or if the
+ * estimated memory of the cached paths exceeds its byte budget. The end nodes are spread over independently locked
+ * stripes that keep them in access order, so a hit only locks its stripe and an eviction only compares the eldest end
+ * node of every stripe. End nodes whose paths could not be computed by the delegate are not kept.<p>
+ * <p>
+ * Every entry remembers the {@link RegionGraph#version()} it has been computed for. When the durations of edges
+ * change, a cached {@link ShortestPathTree} is repaired the next time it is accessed via
+ * {@link ShortestPathTree#repair(int[])}, which keeps it unchanged if it is not affected by the changed edges. Other
+ * results are computed again.
  */
 public class CachedPathCalculator implements PathCalculator {
 
+    /**
+     * The default amount of bytes the cached paths may occupy.
+     */
+    public static final long DEFAULT_MAXIMUM_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * The amount of independently locked parts of the cache.
+     */
+    private static final int STRIPES = 16;
+
     private final PathCalculator delegate;
-    private final Map<Region.Node, Map<Region.Node, Deque<Region.Node>>> cache = new HashMap<>();
+    private final Stripe[] stripes = new Stripe[STRIPES];
     private final int size;
-    private final Set<Region.Node> accessOrder;
+    private final long maximumBytes;
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger entries = new AtomicInteger();
+    private final AtomicLong bytes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder repairs = new LongAdder();
 
     /**
      * Creates a new {@link CachedPathCalculator}.<p>
@@ -34,55 +73,375 @@ public class CachedPathCalculator implements PathCalculator {
     }
 
     /**
-     * Creates a new {@link CachedPathCalculator}.
+     * Creates a new {@link CachedPathCalculator}.<p>
+     * The byte budget of the cache will be set to {@link #DEFAULT_MAXIMUM_BYTES}
      *
      * @param delegate The {@link PathCalculator} this {@link CachedPathCalculator} uses to
      *                 calculate the paths.
      * @param size     The size of the cache.
      */
     public CachedPathCalculator(PathCalculator delegate, int size) {
+        this(delegate, size, DEFAULT_MAXIMUM_BYTES);
+    }
+
+    /**
+     * Creates a new {@link CachedPathCalculator}.
+     *
+     * @param delegate     The {@link PathCalculator} this {@link CachedPathCalculator} uses to
+     *                     calculate the paths.
+     * @param size         The maximum amount of end nodes whose paths are cached.
+     * @param maximumBytes The estimated amount of bytes the cached paths may occupy.
+     */
+    public CachedPathCalculator(PathCalculator delegate, int size, long maximumBytes) {
+        if (size < 0 || maximumBytes < 0) {
+            throw new IllegalArgumentException("size and maximumBytes must not be negative");
+        }
         this.delegate = delegate;
         this.size = size;
-        this.accessOrder = new LinkedHashSet<>(size);
+        this.maximumBytes = maximumBytes;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
     }
 
     @Override
     public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
-        return getAllPathsTo(end).get(start);
+        @Nullable Deque<Region.Node> path = getCachedPaths(end).get(start);
+        if (path == null) {
+            throw new IllegalArgumentException("Node " + start + " cannot reach node " + end);
+        }
+        return path;
     }
 
     @Override
     public Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end) {
-        @Nullable Map<Region.Node, Deque<Region.Node>> path = cache.get(end);
-        if (path != null) {
-            return copyPath(path);
+        return getCachedPaths(end);
+    }
+
+    @Override
+    public long getDuration(Region.Node start, Region.Node end) {
+        Map<Region.Node, Deque<Region.Node>> paths = getCachedPaths(end);
+        if (paths instanceof ShortestPathTree tree) {
+            return tree.getDuration(start);
+        }
+        @Nullable Deque<Region.Node> path = paths.get(start);
+        if (path == null) {
+            throw new IllegalArgumentException("Node " + start + " cannot reach node " + end);
+        }
+        long duration = 0;
+        Region.Node current = start;
+        for (Region.Node node : path) {
+            duration += Objects.requireNonNull(current.getEdge(node)).getDuration();
+            current = node;
+        }
+        return duration;
+    }
+
+    /**
+     * Duration tables are not cached and are calculated by the delegate.
+     */
+    @Override
+    public long[][] getDurationTable(List<? extends Region.Node> sources, List<? extends Region.Node> targets) {
+        return delegate.getDurationTable(sources, targets);
+    }
+
+    private Map<Region.Node, Deque<Region.Node>> getCachedPaths(Region.Node end) {
+        RegionGraph graph = end.getRegion().getGraph();
+        Stripe stripe = stripes[Math.floorMod(end.hashCode() * 0x9E3779B9, STRIPES)];
+        while (true) {
+            Entry entry = stripe.access(end);
+            @Nullable Snapshot snapshot = entry.snapshot;
+            if (snapshot != null && snapshot.isCurrent(graph)) {
+                hits.increment();
+                return snapshot.paths();
+            }
+            synchronized (entry) {
+                if (entry.removed) {
+                    // evicted or failed while waiting for the lock
+                    continue;
+                }
+                snapshot = entry.snapshot;
+                if (snapshot != null && snapshot.isCurrent(graph)) {
+                    hits.increment();
+                    return snapshot.paths();
+                }
+                snapshot = compute(stripe, entry, snapshot, graph);
+            }
+            evict();
+            return snapshot.paths();
         }
+    }
 
-        path = delegate.getAllPathsTo(end);
+    /**
+     * Repairs or computes the paths of the given {@link Entry} while holding its lock. If the delegate fails, an
+     * {@link Entry} without paths is removed again, so it neither counts towards the size of this cache nor blocks
+     * the eviction of others.
+     */
+    private Snapshot compute(Stripe stripe, Entry entry, @Nullable Snapshot snapshot, RegionGraph graph) {
+        // changes made while the paths are computed are repaired on the next access
+        long version = graph.version();
+        if (snapshot != null && snapshot.paths() instanceof ShortestPathTree tree && tree.getGraph() == graph) {
+            int @Nullable [] changedEdges = graph.changedEdgesSince(snapshot.version());
+            if (changedEdges != null) {
+                repairs.increment();
+                entry.snapshot = new Snapshot(tree.repair(changedEdges), graph, version);
+                return entry.snapshot;
+            }
+        }
 
-        // Limit cache size
-        if (accessOrder.size() >= size) {
-            Iterator<Region.Node> iterator = accessOrder.iterator();
-            cache.remove(iterator.next());
-            iterator.remove();
+        misses.increment();
+        boolean computed = false;
+        try {
+            Map<Region.Node, Deque<Region.Node>> paths = delegate.getAllPathsTo(entry.end);
+            long entryBytes = estimateBytes(paths);
+            if (!(paths instanceof ShortestPathTree)) {
+                paths = new PathsView(paths);
+            }
+            // entries are only evicted after their paths are set, so the bytes are accounted for first
+            bytes.addAndGet(entryBytes - entry.bytes);
+            entry.bytes = entryBytes;
+            entry.snapshot = new Snapshot(paths, graph, version);
+            computed = true;
+            return entry.snapshot;
+        } finally {
+            if (!computed && entry.snapshot == null) {
+                stripe.remove(entry);
+                entry.removed = true;
+            }
         }
+    }
 
-        // Update access order if the element already exists
-        accessOrder.remove(end);
-        accessOrder.add(end);
-        cache.put(end, path);
+    /**
+     * Evicts the least recently used end nodes until the limits of this cache are met. Every {@link Stripe} keeps its
+     * entries in access order, so the least recently used end node is the eldest of the eldest entries of all
+     * stripes.
+     */
+    private void evict() {
+        while (entries.get() > size || bytes.get() > maximumBytes) {
+            @Nullable Stripe eldestStripe = null;
+            @Nullable Entry eldest = null;
+            long eldestAccess = Long.MAX_VALUE;
+            for (Stripe stripe : stripes) {
+                @Nullable Entry candidate = stripe.eldest();
+                long lastAccess = candidate == null ? Long.MAX_VALUE : candidate.lastAccess;
+                if (lastAccess < eldestAccess) {
+                    eldestStripe = stripe;
+                    eldest = candidate;
+                    eldestAccess = lastAccess;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            if (eldestStripe.evict(eldest, eldestAccess)) {
+                synchronized (eldest) {
+                    eldest.removed = true;
+                    bytes.addAndGet(-eldest.bytes);
+                    eldest.bytes = 0;
+                }
+                evictions.increment();
+            }
+        }
+    }
 
-        return copyPath(path);
+    /**
+     * Estimates the amount of bytes occupied by the given paths.
+     */
+    private static long estimateBytes(Map<Region.Node, Deque<Region.Node>> paths) {
+        if (paths instanceof ShortestPathTree tree) {
+            return tree.estimatedBytes();
+        }
+        // a map entry, a deque and one reference per node of each path
+        long bytes = 64;
+        for (Deque<Region.Node> path : paths.values()) {
+            bytes += 80 + 8L * path.size();
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the current {@link Statistics} of this {@link CachedPathCalculator}.
+     *
+     * @return The current {@link Statistics} of this {@link CachedPathCalculator}.
+     */
+    public Statistics getStatistics() {
+        return new Statistics(hits.sum(), misses.sum(), evictions.sum(), repairs.sum(), bytes.get(), entries.get());
     }
 
-    private Map<Region.Node, Deque<Region.Node>> copyPath(Map<Region.Node, Deque<Region.Node>> path) {
-        return path.entrySet()
-                   .stream()
-                   .map(entry -> Map.entry(entry.getKey(), new LinkedList<>(entry.getValue())))
-                   .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    /**
+     * Returns the maximum amount of end nodes whose paths are cached.
+     *
+     * @return The size of the cache.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the estimated amount of bytes the cached paths may occupy.
+     *
+     * @return The byte budget of the cache.
+     */
+    public long getMaximumBytes() {
+        return maximumBytes;
     }
 
+    /**
+     * Returns the {@link PathCalculator} this {@link CachedPathCalculator} uses to calculate the paths.
+     *
+     * @return The {@link PathCalculator} this {@link CachedPathCalculator} uses to calculate the paths.
+     */
     public PathCalculator getDelegate() {
         return delegate;
     }
+
+    /**
+     * A snapshot of the counters of a {@link CachedPathCalculator}.
+     *
+     * @param hits           The amount of requests that were answered from the cache.
+     * @param misses         The amount of requests that were delegated.
+     * @param evictions      The amount of end nodes that were evicted.
+     * @param repairs        The amount of cached paths that were repaired after durations of edges changed.
+     * @param estimatedBytes The estimated amount of bytes occupied by the cached paths.
+     * @param entries        The amount of cached end nodes.
+     */
+    public record Statistics(long hits, long misses, long evictions, long repairs, long estimatedBytes, int entries) {
+    }
+
+    /**
+     * A part of the cache that keeps its entries in access order and is guarded by its own lock.
+     */
+    private final class Stripe {
+
+        private final LinkedHashMap<Region.Node, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        /**
+         * Returns the {@link Entry} of the given end node, creating it if necessary, and marks it as the most
+         * recently used one.
+         */
+        private synchronized Entry access(Region.Node end) {
+            Entry entry = this.entries.get(end);
+            if (entry == null) {
+                entry = new Entry(end);
+                this.entries.put(end, entry);
+                CachedPathCalculator.this.entries.incrementAndGet();
+            }
+            entry.lastAccess = clock.incrementAndGet();
+            return entry;
+        }
+
+        /**
+         * Returns the least recently used {@link Entry} of this stripe whose paths have been computed.
+         */
+        private synchronized @Nullable Entry eldest() {
+            for (Entry entry : this.entries.values()) {
+                if (entry.snapshot != null) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Removes the given {@link Entry} if it has not been accessed since it had the given access stamp.
+         */
+        private synchronized boolean evict(Entry entry, long lastAccess) {
+            return entry.lastAccess == lastAccess && remove(entry);
+        }
+
+        private synchronized boolean remove(Entry entry) {
+            if (!this.entries.remove(entry.end, entry)) {
+                return false;
+            }
+            CachedPathCalculator.this.entries.decrementAndGet();
+            return true;
+        }
+    }
+
+    /**
+     * The cached paths to a single end node. Its paths and bytes are changed while holding its lock, its access stamp
+     * while holding the lock of its {@link Stripe}. The lock of an entry is never requested while holding the lock of a
+     * {@link Stripe}.
+     */
+    private static final class Entry {
+
+        private final Region.Node end;
+        private volatile @Nullable Snapshot snapshot;
+        private volatile long lastAccess;
+        private long bytes;
+        private boolean removed;
+
+        private Entry(Region.Node end) {
+            this.end = end;
+        }
+    }
+
+    /**
+     * The cached paths to a single end node and the version of the {@link RegionGraph} they have been computed for.
+     *
+     * @param paths   The cached paths.
+     * @param graph   The {@link RegionGraph} the paths have been computed for.
+     * @param version The version of the {@link RegionGraph} the paths have been computed for.
+     */
+    private record Snapshot(Map<Region.Node, Deque<Region.Node>> paths, RegionGraph graph, long version) {
+
+        private boolean isCurrent(RegionGraph graph) {
+            return this.graph == graph && version == graph.version();
+        }
+    }
+
+    /**
+     * An unmodifiable view of cached paths that copies a path when it is accessed.
+     */
+    private static final class PathsView extends AbstractMap<Region.Node, Deque<Region.Node>> {
+
+        private final Map<Region.Node, Deque<Region.Node>> paths;
+
+        private PathsView(Map<Region.Node, Deque<Region.Node>> paths) {
+            this.paths = paths;
+        }
+
+        @Override
+        public @Nullable Deque<Region.Node> get(Object key) {
+            @Nullable Deque<Region.Node> path = paths.get(key);
+            return path == null ? null : new ArrayDeque<>(path);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return paths.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return paths.size();
+        }
+
+        @Override
+        public Set<Map.Entry<Region.Node, Deque<Region.Node>>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<Region.Node, Deque<Region.Node>>> iterator() {
+                    Iterator<Map.Entry<Region.Node, Deque<Region.Node>>> iterator = paths.entrySet().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<Region.Node, Deque<Region.Node>> next() {
+                            Map.Entry<Region.Node, Deque<Region.Node>> entry = iterator.next();
+                            return Map.entry(entry.getKey(), new ArrayDeque<>(entry.getValue()));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return paths.size();
+                }
+            };
+        }
+    }
 }
@@ -0,0 +1,569 @@
+package projekt.delivery.routing;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * The preprocessed data of a contraction hierarchy over a {@link RegionGraph}.<p>
+ * <p>
+ * Every node has a rank. The upward graph contains, for every node, the arcs to adjacent nodes of higher rank,
+ * which are either original edges or shortcuts. A shortcut replaces the two arcs leading over its middle node,
+ * which has a lower rank than both of its endpoints. Because the region is undirected, the same upward graph is
+ * used by the forward and the backward search of a query.<p>
+ * <p>
+ * Nodes are contracted in rounds. Each round contracts an independent set of nodes whose priority is lower than
+ * the priority of all their neighbors; the shortcuts of these nodes are computed in parallel.
+ */
+public final class ContractionHierarchy {
+
+    /**
+     * The maximum amount of nodes a single witness search may settle before it gives up and a shortcut is added.
+     */
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    /**
+     * The maximum amount of nodes a witness search may settle while estimating the priority of a node.
+     */
+    private static final int SIMULATION_SETTLE_LIMIT = 50;
+
+    private final RegionGraph graph;
+    private final long version;
+    private final int[] ranks;
+    private final int[] offsets;
+    private final int[] targets;
+    private final long[] weights;
+    private final int[] middles;
+
+    private ContractionHierarchy(RegionGraph graph,
+                                 long version,
+                                 int[] ranks,
+                                 int[] offsets,
+                                 int[] targets,
+                                 long[] weights,
+                                 int[] middles) {
+        this.graph = graph;
+        this.version = version;
+        this.ranks = ranks;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.middles = middles;
+    }
+
+    /**
+     * Preprocesses the given {@link RegionGraph}.
+     *
+     * @param graph The {@link RegionGraph} to preprocess.
+     * @return The created {@link ContractionHierarchy}.
+     */
+    public static ContractionHierarchy build(RegionGraph graph) {
+        return new Contractor(graph).contract();
+    }
+
+    /**
+     * Restores a {@link ContractionHierarchy} from previously stored data.
+     *
+     * @param graph   The {@link RegionGraph} the data has been computed for.
+     * @param ranks   The rank of each node.
+     * @param offsets The offsets of the upward arcs of each node.
+     * @param targets The target of each upward arc.
+     * @param weights The weight of each upward arc.
+     * @param middles The middle node of each upward arc or -1 if it is an original edge.
+     * @return The restored {@link ContractionHierarchy}.
+     * @throws IllegalArgumentException If the data does not fit the given {@link RegionGraph}.
+     */
+    public static ContractionHierarchy restore(RegionGraph graph,
+                                               int[] ranks,
+                                               int[] offsets,
+                                               int[] targets,
+                                               long[] weights,
+                                               int[] middles) {
+        int n = graph.nodeCount();
+        if (ranks.length != n || offsets.length != n + 1 || offsets[0] != 0 || offsets[n] != targets.length
+            || weights.length != targets.length || middles.length != targets.length) {
+            throw new IllegalArgumentException("Contraction hierarchy does not fit a graph with " + n + " nodes");
+        }
+        for (int u = 0; u < n; u++) {
+            if (offsets[u] > offsets[u + 1]) {
+                throw new IllegalArgumentException("Offsets of the contraction hierarchy are not ascending");
+            }
+            for (int arc = offsets[u]; arc < offsets[u + 1]; arc++) {
+                int v = targets[arc];
+                if (v < 0 || v >= n || ranks[v] <= ranks[u] || middles[arc] >= n
+                    || (middles[arc] >= 0 && ranks[middles[arc]] >= ranks[u])) {
+                    throw new IllegalArgumentException("Invalid upward arc from " + u + " to " + v);
+                }
+            }
+        }
+        return new ContractionHierarchy(graph, graph.version(), ranks, offsets, targets, weights, middles);
+    }
+
+    /**
+     * Returns the {@link RegionGraph} this {@link ContractionHierarchy} has been computed for.
+     *
+     * @return The {@link RegionGraph} this {@link ContractionHierarchy} has been computed for.
+     */
+    public RegionGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns true if the durations of the {@link RegionGraph} have not changed since this
+     * {@link ContractionHierarchy} has been computed.
+     *
+     * @return True if this {@link ContractionHierarchy} matches the current durations of its {@link RegionGraph}.
+     */
+    public boolean isCurrent() {
+        return version == graph.version();
+    }
+
+    /**
+     * Returns a copy of the ranks of all nodes.
+     *
+     * @return A copy of the ranks of all nodes.
+     */
+    public int[] getRanks() {
+        return ranks.clone();
+    }
+
+    /**
+     * Returns a copy of the offsets of the upward arcs of all nodes.
+     *
+     * @return A copy of the offsets of the upward arcs of all nodes.
+     */
+    public int[] getOffsets() {
+        return offsets.clone();
+    }
+
+    /**
+     * Returns a copy of the targets of all upward arcs.
+     *
+     * @return A copy of the targets of all upward arcs.
+     */
+    public int[] getTargets() {
+        return targets.clone();
+    }
+
+    /**
+     * Returns a copy of the weights of all upward arcs.
+     *
+     * @return A copy of the weights of all upward arcs.
+     */
+    public long[] getWeights() {
+        return weights.clone();
+    }
+
+    /**
+     * Returns a copy of the middle nodes of all upward arcs, -1 marks original edges.
+     *
+     * @return A copy of the middle nodes of all upward arcs.
+     */
+    public int[] getMiddles() {
+        return middles.clone();
+    }
+
+    /**
+     * Returns the amount of shortcuts in this {@link ContractionHierarchy}.
+     *
+     * @return The amount of shortcuts in this {@link ContractionHierarchy}.
+     */
+    public int shortcutCount() {
+        return (int) Arrays.stream(middles).filter(middle -> middle >= 0).count();
+    }
+
+    int upStart(int node) {
+        return offsets[node];
+    }
+
+    int upEnd(int node) {
+        return offsets[node + 1];
+    }
+
+    int upTarget(int arc) {
+        return targets[arc];
+    }
+
+    long upWeight(int arc) {
+        return weights[arc];
+    }
+
+    /**
+     * Appends the nodes of the original path represented by the upward arc between the two given nodes to the
+     * given buffer, excluding {@code from} and including {@code to}.
+     *
+     * @param from   The first node.
+     * @param to     The second node.
+     * @param buffer The buffer to append the nodes to.
+     */
+    void unpack(int from, int to, IntBuffer buffer) {
+        IntBuffer stack = new IntBuffer();
+        stack.add(to);
+        stack.add(from);
+        while (!stack.isEmpty()) {
+            int u = stack.pop();
+            int v = stack.pop();
+            int middle = middles[findUpArc(u, v)];
+            if (middle < 0) {
+                buffer.add(v);
+            } else {
+                // expand (u, middle) before (middle, v)
+                stack.add(v);
+                stack.add(middle);
+                stack.add(middle);
+                stack.add(u);
+            }
+        }
+    }
+
+    private int findUpArc(int u, int v) {
+        int lower = ranks[u] < ranks[v] ? u : v;
+        int upper = lower == u ? v : u;
+        int low = offsets[lower];
+        int high = offsets[lower + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (targets[middle] < upper) {
+                low = middle + 1;
+            } else if (targets[middle] > upper) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        throw new IllegalStateException("No upward arc between " + u + " and " + v);
+    }
+
+    /**
+     * A growable list of ints.
+     */
+    static final class IntBuffer {
+
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int pop() {
+            return values[--size];
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * Contracts all nodes of a {@link RegionGraph}.
+     */
+    private static final class Contractor {
+
+        private final RegionGraph graph;
+        private final long version;
+        private final int n;
+        // adjacency of the remaining graph including shortcuts, one entry per adjacent node
+        private final int[][] adjacentNodes;
+        private final long[][] adjacentWeights;
+        private final int[][] adjacentMiddles;
+        private final int[] degrees;
+        private final int[] priorities;
+        private final int[] contractedNeighbors;
+        private final int[] ranks;
+        // upward arcs of contracted nodes
+        private final int[][] upTargets;
+        private final long[][] upWeights;
+        private final int[][] upMiddles;
+        private final boolean[] contracted;
+        private final boolean[] contracting;
+        private final boolean[] touched;
+
+        private Contractor(RegionGraph graph) {
+            this.graph = graph;
+            this.version = graph.version();
+            this.n = graph.nodeCount();
+            adjacentNodes = new int[n][];
+            adjacentWeights = new long[n][];
+            adjacentMiddles = new int[n][];
+            degrees = new int[n];
+            priorities = new int[n];
+            contractedNeighbors = new int[n];
+            ranks = new int[n];
+            upTargets = new int[n][];
+            upWeights = new long[n][];
+            upMiddles = new int[n][];
+            contracted = new boolean[n];
+            contracting = new boolean[n];
+            touched = new boolean[n];
+            for (int u = 0; u < n; u++) {
+                int degree = graph.arcEnd(u) - graph.arcStart(u);
+                adjacentNodes[u] = new int[Math.max(degree, 1)];
+                adjacentWeights[u] = new long[Math.max(degree, 1)];
+                adjacentMiddles[u] = new int[Math.max(degree, 1)];
+                for (int arc = graph.arcStart(u); arc < graph.arcEnd(u); arc++) {
+                    if (graph.arcTarget(arc) != u) {
+                        addOrImprove(u, graph.arcTarget(arc), graph.arcDuration(arc), -1);
+                    }
+                }
+            }
+        }
+
+        private ContractionHierarchy contract() {
+            IntStream.range(0, n).parallel().forEach(v -> priorities[v] = computePriority(v));
+
+            int[] remaining = IntStream.range(0, n).toArray();
+            int remainingCount = n;
+            int nextRank = 0;
+            while (remainingCount > 0) {
+                int[] round = selectIndependentSet(remaining, remainingCount);
+                for (int v : round) {
+                    contracting[v] = true;
+                }
+                Shortcuts[] shortcuts = new Shortcuts[round.length];
+                IntStream.range(0, round.length)
+                         .parallel()
+                         .forEach(i -> shortcuts[i] = findShortcuts(round[i], WITNESS_SETTLE_LIMIT));
+
+                for (int i = 0; i < round.length; i++) {
+                    int v = round[i];
+                    ranks[v] = nextRank++;
+                    contracted[v] = true;
+                    contracting[v] = false;
+                    removeNode(v);
+                    Shortcuts found = shortcuts[i];
+                    for (int s = 0; s < found.size; s++) {
+                        addOrImprove(found.from[s], found.to[s], found.weight[s], v);
+                        addOrImprove(found.to[s], found.from[s], found.weight[s], v);
+                    }
+                }
+
+                // update the priorities of all neighbors of the contracted nodes
+                IntBuffer touched = new IntBuffer();
+                for (int v : round) {
+                    for (int i = 0; i < upTargets[v].length; i++) {
+                        int u = upTargets[v][i];
+                        contractedNeighbors[u]++;
+                        if (!this.touched[u]) {
+                            this.touched[u] = true;
+                            touched.add(u);
+                        }
+                    }
+                }
+                int[] neighbors = new int[touched.size()];
+                for (int i = 0; i < neighbors.length; i++) {
+                    neighbors[i] = touched.get(i);
+                    this.touched[neighbors[i]] = false;
+                }
+                IntStream.of(neighbors).parallel().forEach(u -> priorities[u] = computePriority(u));
+
+                int kept = 0;
+                for (int i = 0; i < remainingCount; i++) {
+                    if (!contracted[remaining[i]]) {
+                        remaining[kept++] = remaining[i];
+                    }
+                }
+                remainingCount = kept;
+            }
+
+            return buildUpwardGraph();
+        }
+
+        /**
+         * Selects all remaining nodes whose priority is lower than the priority of all their remaining neighbors.
+         */
+        private int[] selectIndependentSet(int[] remaining, int remainingCount) {
+            return IntStream.range(0, remainingCount).parallel().map(i -> remaining[i]).filter(v -> {
+                for (int i = 0; i < degrees[v]; i++) {
+                    int u = adjacentNodes[v][i];
+                    if (priorities[u] < priorities[v] || (priorities[u] == priorities[v] && u < v)) {
+                        return false;
+                    }
+                }
+                return true;
+            }).toArray();
+        }
+
+        private int computePriority(int v) {
+            int shortcuts = findShortcuts(v, SIMULATION_SETTLE_LIMIT).size;
+            return 2 * (shortcuts - degrees[v]) + contractedNeighbors[v];
+        }
+
+        /**
+         * Finds all shortcuts needed to contract the given node. Witness searches ignore contracted nodes and all
+         * nodes that are contracted in the current round.
+         */
+        private Shortcuts findShortcuts(int v, int settleLimit) {
+            Shortcuts shortcuts = new Shortcuts();
+            int degree = degrees[v];
+            int[] neighbors = adjacentNodes[v];
+            long[] weights = adjacentWeights[v];
+            for (int i = 0; i < degree - 1; i++) {
+                long maxWeight = 0;
+                for (int j = i + 1; j < degree; j++) {
+                    maxWeight = Math.max(maxWeight, weights[j]);
+                }
+                SearchWorkspace workspace = SearchWorkspace.forward(n);
+                witnessSearch(neighbors[i], v, weights[i] + maxWeight, neighbors, i + 1, degree, settleLimit,
+                              workspace);
+                for (int j = i + 1; j < degree; j++) {
+                    long shortcutWeight = weights[i] + weights[j];
+                    if (workspace.distance(neighbors[j]) > shortcutWeight) {
+                        shortcuts.add(neighbors[i], neighbors[j], shortcutWeight);
+                    }
+                }
+            }
+            return shortcuts;
+        }
+
+        /**
+         * Searches the remaining graph from the given source until all targets in {@code targets[from, to)} are
+         * settled, the given distance is exceeded or the given amount of nodes has been settled.
+         */
+        private void witnessSearch(int source,
+                                   int ignored,
+                                   long maxDistance,
+                                   int[] targets,
+                                   int from,
+                                   int to,
+                                   int settleLimit,
+                                   SearchWorkspace workspace) {
+            workspace.reach(source, 0, 0, -1);
+            int unsettledTargets = to - from;
+            int settled = 0;
+            while (!workspace.heap.isEmpty() && workspace.heap.peekKey() <= maxDistance
+                   && settled++ < settleLimit) {
+                int u = workspace.settleNext();
+                for (int i = from; i < to; i++) {
+                    if (targets[i] == u && --unsettledTargets == 0) {
+                        return;
+                    }
+                }
+                long distance = workspace.distance(u);
+                for (int i = 0; i < degrees[u]; i++) {
+                    int x = adjacentNodes[u][i];
+                    if (x == ignored || contracting[x] || contracted[x] || workspace.isSettled(x)) {
+                        continue;
+                    }
+                    long weight = distance + adjacentWeights[u][i];
+                    if (weight <= maxDistance) {
+                        workspace.reach(x, weight, weight, u);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Removes the given node from the remaining graph and stores its remaining adjacency as upward arcs.
+         */
+        private void removeNode(int v) {
+            int degree = degrees[v];
+            upTargets[v] = Arrays.copyOf(adjacentNodes[v], degree);
+            upWeights[v] = Arrays.copyOf(adjacentWeights[v], degree);
+            upMiddles[v] = Arrays.copyOf(adjacentMiddles[v], degree);
+            for (int i = 0; i < degree; i++) {
+                int u = adjacentNodes[v][i];
+                int index = indexOfAdjacent(u, v);
+                int last = --degrees[u];
+                adjacentNodes[u][index] = adjacentNodes[u][last];
+                adjacentWeights[u][index] = adjacentWeights[u][last];
+                adjacentMiddles[u][index] = adjacentMiddles[u][last];
+            }
+            degrees[v] = 0;
+            adjacentNodes[v] = null;
+            adjacentWeights[v] = null;
+            adjacentMiddles[v] = null;
+        }
+
+        private int indexOfAdjacent(int u, int v) {
+            for (int i = 0; i < degrees[u]; i++) {
+                if (adjacentNodes[u][i] == v) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void addOrImprove(int u, int v, long weight, int middle) {
+            int index = indexOfAdjacent(u, v);
+            if (index >= 0) {
+                if (weight < adjacentWeights[u][index]) {
+                    adjacentWeights[u][index] = weight;
+                    adjacentMiddles[u][index] = middle;
+                }
+                return;
+            }
+            if (degrees[u] == adjacentNodes[u].length) {
+                int capacity = adjacentNodes[u].length * 2;
+                adjacentNodes[u] = Arrays.copyOf(adjacentNodes[u], capacity);
+                adjacentWeights[u] = Arrays.copyOf(adjacentWeights[u], capacity);
+                adjacentMiddles[u] = Arrays.copyOf(adjacentMiddles[u], capacity);
+            }
+            adjacentNodes[u][degrees[u]] = v;
+            adjacentWeights[u][degrees[u]] = weight;
+            adjacentMiddles[u][degrees[u]] = middle;
+            degrees[u]++;
+        }
+
+        private ContractionHierarchy buildUpwardGraph() {
+            int[] offsets = new int[n + 1];
+            for (int u = 0; u < n; u++) {
+                offsets[u + 1] = offsets[u] + upTargets[u].length;
+            }
+            int[] targets = new int[offsets[n]];
+            long[] weights = new long[offsets[n]];
+            int[] middles = new int[offsets[n]];
+            for (int u = 0; u < n; u++) {
+                Integer[] order = new Integer[upTargets[u].length];
+                for (int i = 0; i < order.length; i++) {
+                    order[i] = i;
+                }
+                int[] uTargets = upTargets[u];
+                Arrays.sort(order, (a, b) -> Integer.compare(uTargets[a], uTargets[b]));
+                for (int i = 0; i < order.length; i++) {
+                    targets[offsets[u] + i] = uTargets[order[i]];
+                    weights[offsets[u] + i] = upWeights[u][order[i]];
+                    middles[offsets[u] + i] = upMiddles[u][order[i]];
+                }
+            }
+            return new ContractionHierarchy(graph, version, ranks, offsets, targets, weights, middles);
+        }
+    }
+
+    /**
+     * The shortcuts needed to contract a single node.
+     */
+    private static final class Shortcuts {
+
+        private int[] from = new int[4];
+        private int[] to = new int[4];
+        private long[] weight = new long[4];
+        private int size;
+
+        private void add(int from, int to, long weight) {
+            if (size == this.from.length) {
+                this.from = Arrays.copyOf(this.from, size * 2);
+                this.to = Arrays.copyOf(this.to, size * 2);
+                this.weight = Arrays.copyOf(this.weight, size * 2);
+            }
+            this.from[size] = from;
+            this.to[size] = to;
+            this.weight[size] = weight;
+            size++;
+        }
+    }
+}
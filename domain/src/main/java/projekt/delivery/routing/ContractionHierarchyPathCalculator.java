@@ -0,0 +1,271 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * A {@link PathCalculator} that answers queries on a {@link ContractionHierarchy}.<p>
+ * <p>
+ * The hierarchy is built the first time a path in a {@link Region} is requested, unless it has been provided
+ * beforehand via {@link #setHierarchy(ContractionHierarchy)}, e.g. after reading it from a file. A query runs a
+ * bidirectional Dijkstra search that only follows arcs to nodes of higher rank, skips nodes that are reached on a
+ * shorter path from above (stall-on-demand) and unpacks the shortcuts of the found path afterwards.
+ * {@link #getAllPathsTo(Region.Node)} runs a plain Dijkstra search. The hierarchy is built again after the duration
+ * of an edge of the {@link Region} has changed.
+ */
+public class ContractionHierarchyPathCalculator extends DijkstraPathCalculator {
+
+    private volatile @Nullable ContractionHierarchy hierarchy;
+
+    /**
+     * Returns the {@link ContractionHierarchy} for the given {@link Region}, building it if necessary.
+     *
+     * @param region The {@link Region} to return the {@link ContractionHierarchy} for.
+     * @return The {@link ContractionHierarchy} for the given {@link Region}.
+     */
+    public ContractionHierarchy getHierarchy(Region region) {
+        RegionGraph graph = region.getGraph();
+        ContractionHierarchy hierarchy = this.hierarchy;
+        if (hierarchy != null && hierarchy.getGraph() == graph && hierarchy.isCurrent()) {
+            return hierarchy;
+        }
+        synchronized (this) {
+            hierarchy = this.hierarchy;
+            if (hierarchy == null || hierarchy.getGraph() != graph || !hierarchy.isCurrent()) {
+                hierarchy = ContractionHierarchy.build(graph);
+                this.hierarchy = hierarchy;
+            }
+            return hierarchy;
+        }
+    }
+
+    /**
+     * Returns true if this {@link ContractionHierarchyPathCalculator} holds a {@link ContractionHierarchy} for the
+     * given {@link Region} that matches its current durations.
+     *
+     * @param region The {@link Region} to check.
+     * @return True if a {@link ContractionHierarchy} for the given {@link Region} is present.
+     */
+    public boolean hasHierarchy(Region region) {
+        ContractionHierarchy hierarchy = this.hierarchy;
+        return hierarchy != null && hierarchy.getGraph() == region.getGraph() && hierarchy.isCurrent();
+    }
+
+    /**
+     * Sets the {@link ContractionHierarchy} used by this {@link ContractionHierarchyPathCalculator}.
+     *
+     * @param hierarchy The {@link ContractionHierarchy} to use.
+     */
+    public void setHierarchy(ContractionHierarchy hierarchy) {
+        this.hierarchy = hierarchy;
+    }
+
+    @Override
+    public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
+        if (start == end) {
+            return new ArrayDeque<>();
+        }
+        ContractionHierarchy hierarchy = getHierarchy(start.getRegion());
+        RegionGraph graph = hierarchy.getGraph();
+        int source = graph.checkedIndexOf(start);
+        int target = graph.checkedIndexOf(end);
+        SearchWorkspace forward = SearchWorkspace.forward(graph.nodeCount());
+        SearchWorkspace backward = SearchWorkspace.backward(graph.nodeCount());
+        int meeting = query(hierarchy, source, target, forward, backward);
+
+        // the upward path from the start to the meeting node followed by the downward path to the end
+        ContractionHierarchy.IntBuffer upward = new ContractionHierarchy.IntBuffer();
+        for (int node = meeting; node != -1; node = forward.predecessor(node)) {
+            upward.add(node);
+        }
+        ContractionHierarchy.IntBuffer nodes = new ContractionHierarchy.IntBuffer();
+        for (int i = upward.size() - 1; i > 0; i--) {
+            hierarchy.unpack(upward.get(i), upward.get(i - 1), nodes);
+        }
+        for (int node = meeting; node != target; node = backward.predecessor(node)) {
+            hierarchy.unpack(node, backward.predecessor(node), nodes);
+        }
+
+        Deque<Region.Node> path = new ArrayDeque<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            path.add(graph.getNode(nodes.get(i)));
+        }
+        return path;
+    }
+
+    @Override
+    public long getDuration(Region.Node start, Region.Node end) {
+        if (start == end) {
+            return 0;
+        }
+        ContractionHierarchy hierarchy = getHierarchy(start.getRegion());
+        RegionGraph graph = hierarchy.getGraph();
+        SearchWorkspace forward = SearchWorkspace.forward(graph.nodeCount());
+        SearchWorkspace backward = SearchWorkspace.backward(graph.nodeCount());
+        int meeting = query(hierarchy, graph.checkedIndexOf(start), graph.checkedIndexOf(end), forward, backward);
+        return forward.distance(meeting) + backward.distance(meeting);
+    }
+
+    /**
+     * Runs the bidirectional upward search between the given nodes.
+     *
+     * @return The node at which the shortest path switches from the forward to the backward search.
+     * @throws IllegalArgumentException If the target cannot be reached.
+     */
+    private static int query(ContractionHierarchy hierarchy,
+                             int source,
+                             int target,
+                             SearchWorkspace forward,
+                             SearchWorkspace backward) {
+        RegionGraph graph = hierarchy.getGraph();
+
+        forward.reach(source, 0, 0, -1);
+        backward.reach(target, 0, 0, -1);
+        long best = SearchWorkspace.INFINITY;
+        int meeting = -1;
+        while (true) {
+            long forwardKey = forward.heap.isEmpty() ? SearchWorkspace.INFINITY : forward.heap.peekKey();
+            long backwardKey = backward.heap.isEmpty() ? SearchWorkspace.INFINITY : backward.heap.peekKey();
+            if (Math.min(forwardKey, backwardKey) >= best) {
+                break;
+            }
+            SearchWorkspace current = forwardKey <= backwardKey ? forward : backward;
+            SearchWorkspace other = current == forward ? backward : forward;
+            int u = current.settleNext();
+            long distance = current.distance(u);
+            if (other.isReached(u) && distance + other.distance(u) < best) {
+                best = distance + other.distance(u);
+                meeting = u;
+            }
+            if (isStalled(hierarchy, current, u, distance)) {
+                continue;
+            }
+            for (int arc = hierarchy.upStart(u); arc < hierarchy.upEnd(u); arc++) {
+                int v = hierarchy.upTarget(arc);
+                long weight = distance + hierarchy.upWeight(arc);
+                if (current.reach(v, weight, weight, u) && other.isReached(v) && weight + other.distance(v) < best) {
+                    best = weight + other.distance(v);
+                    meeting = v;
+                }
+            }
+        }
+
+        if (meeting < 0) {
+            throw new IllegalArgumentException("Node " + graph.getNode(source) + " cannot reach node "
+                + graph.getNode(target));
+        }
+        return meeting;
+    }
+
+    /**
+     * Calculates the duration table with one upward search per source and per target. The backward searches of
+     * the targets store their distances in buckets at the reached nodes, which the forward searches of the sources
+     * scan afterwards. The searches in each direction run in parallel.
+     */
+    @Override
+    public long[][] getDurationTable(List<? extends Region.Node> sources, List<? extends Region.Node> targets) {
+        long[][] table = new long[sources.size()][targets.size()];
+        for (long[] row : table) {
+            Arrays.fill(row, UNREACHABLE);
+        }
+        if (sources.isEmpty() || targets.isEmpty()) {
+            return table;
+        }
+        ContractionHierarchy hierarchy = getHierarchy(sources.get(0).getRegion());
+        RegionGraph graph = hierarchy.getGraph();
+        int nodeCount = graph.nodeCount();
+        int[] sourceIds = sources.stream().mapToInt(graph::checkedIndexOf).toArray();
+        int[] targetIds = targets.stream().mapToInt(graph::checkedIndexOf).toArray();
+
+        int[][] reachedNodes = new int[targetIds.length][];
+        long[][] reachedDistances = new long[targetIds.length][];
+        IntStream.range(0, targetIds.length).parallel().forEach(j -> {
+            SearchWorkspace workspace = SearchWorkspace.backward(nodeCount);
+            ContractionHierarchy.IntBuffer settled = upwardSearch(hierarchy, targetIds[j], workspace);
+            reachedNodes[j] = new int[settled.size()];
+            reachedDistances[j] = new long[settled.size()];
+            for (int k = 0; k < settled.size(); k++) {
+                reachedNodes[j][k] = settled.get(k);
+                reachedDistances[j][k] = workspace.distance(settled.get(k));
+            }
+        });
+
+        int[] bucketOffsets = new int[nodeCount + 1];
+        for (int[] nodes : reachedNodes) {
+            for (int node : nodes) {
+                bucketOffsets[node + 1]++;
+            }
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            bucketOffsets[node + 1] += bucketOffsets[node];
+        }
+        int[] bucketTargets = new int[bucketOffsets[nodeCount]];
+        long[] bucketDistances = new long[bucketOffsets[nodeCount]];
+        int[] next = Arrays.copyOf(bucketOffsets, nodeCount);
+        for (int j = 0; j < targetIds.length; j++) {
+            for (int k = 0; k < reachedNodes[j].length; k++) {
+                int entry = next[reachedNodes[j][k]]++;
+                bucketTargets[entry] = j;
+                bucketDistances[entry] = reachedDistances[j][k];
+            }
+        }
+
+        IntStream.range(0, sourceIds.length).parallel().forEach(i -> {
+            SearchWorkspace workspace = SearchWorkspace.forward(nodeCount);
+            ContractionHierarchy.IntBuffer settled = upwardSearch(hierarchy, sourceIds[i], workspace);
+            long[] row = table[i];
+            for (int k = 0; k < settled.size(); k++) {
+                int node = settled.get(k);
+                long distance = workspace.distance(node);
+                for (int entry = bucketOffsets[node]; entry < bucketOffsets[node + 1]; entry++) {
+                    row[bucketTargets[entry]] = Math.min(row[bucketTargets[entry]], distance + bucketDistances[entry]);
+                }
+            }
+        });
+        return table;
+    }
+
+    /**
+     * Settles all nodes reachable from the given node over arcs to nodes of higher rank.
+     *
+     * @return The settled nodes.
+     */
+    private static ContractionHierarchy.IntBuffer upwardSearch(ContractionHierarchy hierarchy,
+                                                               int source,
+                                                               SearchWorkspace workspace) {
+        ContractionHierarchy.IntBuffer settled = new ContractionHierarchy.IntBuffer();
+        workspace.reach(source, 0, 0, -1);
+        while (!workspace.heap.isEmpty()) {
+            int u = workspace.settleNext();
+            settled.add(u);
+            long distance = workspace.distance(u);
+            for (int arc = hierarchy.upStart(u); arc < hierarchy.upEnd(u); arc++) {
+                long weight = distance + hierarchy.upWeight(arc);
+                workspace.reach(hierarchy.upTarget(arc), weight, weight, u);
+            }
+        }
+        return settled;
+    }
+
+    /**
+     * Returns true if the given node can be reached on a shorter path over a node of higher rank. Such a node
+     * cannot be part of a shortest path found by the search and its arcs do not need to be relaxed.
+     */
+    private static boolean isStalled(ContractionHierarchy hierarchy,
+                                     SearchWorkspace workspace,
+                                     int node,
+                                     long distance) {
+        for (int arc = hierarchy.upStart(node); arc < hierarchy.upEnd(node); arc++) {
+            int v = hierarchy.upTarget(arc);
+            if (workspace.isReached(v) && workspace.distance(v) + hierarchy.upWeight(arc) < distance) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -2,255 +2,192 @@ package projekt.delivery.routing;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Queue;
-
-import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
+import java.util.stream.IntStream;
 
 /**
  * A {@link PathCalculator} that calculates the shortest path between from a start and end point
- * using Dijkstra.
+ * using Dijkstra.<p>
+ * <p>
+ * The search runs on the {@link RegionGraph} of the region and uses the {@link SearchWorkspace} of the current
+ * thread, so apart from the returned paths it does not allocate. Duration tables run one search per source, and
+ * the searches of different sources run in parallel.<p>
+ * <p>
+ * Among equally fast paths, the search picks the same path as a search with a {@link java.util.PriorityQueue} that
+ * relaxes the adjacent nodes in the iteration order of {@link Region.Node#getAdjacentNodes()}: it queues its nodes
+ * in a {@link LazyHeap} and relaxes the arcs in the order of {@link RegionGraph#adjacentArc(int)}. The
+ * {@link java.util.PriorityQueue} compared durations that changed while the nodes were queued, which rarely settled
+ * a node before its duration was final. Such nodes are queued again when a shorter duration is found, and the
+ * search only stops at the target once no queued node is closer to the source.
  */
 public class DijkstraPathCalculator implements PathCalculator {
 
     @Override
     public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
-        Map<Region.Node, DijkstraNode> references = execute(end);
+        if (start == end) {
+            return new ArrayDeque<>();
+        }
+        RegionGraph graph = end.getRegion().getGraph();
+        int source = graph.checkedIndexOf(end);
+        int target = graph.checkedIndexOf(start);
+        SearchWorkspace workspace = SearchWorkspace.forward(graph.nodeCount());
+        execute(graph, source, target, workspace);
 
-        return reconstructPath(references, start, end);
+        return reconstructPath(graph, workspace, target);
     }
 
     /**
-     * Executes Dijkstra's algorithm starting at the given node.
+     * Executes Dijkstra's algorithm starting at the given node.<p>
+     * <p>
+     * Afterwards, the predecessor of each settled node in the given {@link SearchWorkspace} is the adjacent node
+     * that lies on the shortest path to the source.
      *
-     * @param end The starting node.
-     * @return The result of the algorithm. Each {@link DijkstraNode} contains the information
-     * about which adjacent node
-     * lies on the shortest path to given node.
+     * @param graph     The searched {@link RegionGraph}.
+     * @param source    The id of the starting node.
+     * @param target    The id of the node at which the search can stop or -1 to search the whole graph.
+     * @param workspace The reset {@link SearchWorkspace} to store the result in.
      */
+    static void execute(RegionGraph graph, int source, int target, SearchWorkspace workspace) {
+        workspace.relax(source, 0, -1);
 
-    private Map<Region.Node, DijkstraNode> execute(Region.Node end) {
-        // Initialize SSSP
-        int size = end.getRegion().getNodes().size();
-        Queue<DijkstraNode> queue = new PriorityQueue<>(size);
-        Map<Region.Node, DijkstraNode> references = new HashMap<>(size);
-        initSSSP(queue, references, end);
-
-        // Relax edges
-        while (!queue.isEmpty()) {
-            DijkstraNode u = queue.poll();
-
-            // Trick priority queue to not work on the same node twice
-            if (u.visited) {
-                continue;
-            }
-            u.visited = true;
-
-            // If the lowest distance in the queue is infinity, we can stop as all relax attempts
-            // from here will fail
-            if (u.duration == null) {
-                break;
-            }
-
-            for (Region.Node node : u.node.getAdjacentNodes()) {
-                DijkstraNode v = references.get(node);
-                // Only relax if the node is not visited (v must be in Q)
-                if (v.visited) {
-                    continue;
-                }
-                Region.Edge edge = u.node.getEdge(node);
-                assert edge != null;
-                if (relax(u, v, edge)) {
-                    queue.add(v);
-                }
+        for (int u = workspace.settleNextQueued(); u >= 0; u = workspace.settleNextQueued()) {
+            if (u == target && workspace.minQueuedDistance() >= workspace.distance(u)) {
+                return;
             }
+            relaxArcs(graph, u, workspace);
         }
-
-        return references;
     }
 
     /**
-     * Relaxes the given edge.
+     * Executes Dijkstra's algorithm starting at the given node until all given targets are settled. Only the
+     * distances are needed, so the search uses the {@link IndexedHeap} and the arcs in the order of their targets.
      *
-     * @param u the first node of the edge
-     * @param v the second node of the edge
-     * @param w the edge between the two nodes
-     * @return {@code true} if the edge was relaxed, {@code false} otherwise
+     * @param graph       The searched {@link RegionGraph}.
+     * @param source      The id of the starting node.
+     * @param isTarget    Marks the ids of the nodes at which the search can stop.
+     * @param targetCount The amount of marked nodes.
+     * @param workspace   The reset {@link SearchWorkspace} to store the result in.
      */
-    private boolean relax(DijkstraNode u, DijkstraNode v, Region.Edge w) {
-        Long weight = w.getDuration();
-        if (u.duration != null) {
-            weight = u.duration + weight;
-        }
-        // Relax the edge if the new duration is shorter
-        // New weight must be smaller than the old weight (new weight can be infinity)
-        if (v.duration == null || weight.compareTo(v.duration) < 0) {
-            v.duration = weight;
-            v.previous = u;
-            return true;
+    static void execute(RegionGraph graph,
+                        int source,
+                        boolean[] isTarget,
+                        int targetCount,
+                        SearchWorkspace workspace) {
+        workspace.reach(source, 0, 0, -1);
+        int remaining = targetCount;
+
+        while (!workspace.heap.isEmpty()) {
+            int u = workspace.settleNext();
+            if (isTarget[u] && --remaining == 0) {
+                return;
+            }
+            long duration = workspace.distance(u);
+            for (int arc = graph.arcStart(u); arc < graph.arcEnd(u); arc++) {
+                int v = graph.arcTarget(arc);
+                if (workspace.isSettled(v)) {
+                    continue;
+                }
+                long weight = duration + graph.arcDuration(arc);
+                workspace.reach(v, weight, weight, u);
+            }
         }
-        return false;
     }
 
     /**
-     * Initializes the SSSP for the given start node.
-     *
-     * @param queue      the queue to add the initialized dijkstra nodes to.
-     * @param references the map to reference the dijkstra nodes by their region node.
-     * @param start      the start node.
+     * Relaxes the arcs leaving the given node in the order of {@link RegionGraph#adjacentArc(int)}. A settled node
+     * is only relaxed if the {@link LazyHeap} settled it too early, which queues it again.
      */
-    private void initSSSP(Queue<DijkstraNode> queue, Map<Region.Node, DijkstraNode> references, Region.Node start) {
-        for (Region.Node node : start.getRegion().getNodes()) {
-            DijkstraNode dijkstraNode;
-            if (node.equals(start)) {
-                dijkstraNode = new DijkstraNode(node, 0L);
-                // Starting node in queue only contains the starting node since new relaxed node
-                // will be added to the queue anyway
-                queue.add(dijkstraNode);
-            } else {
-                // Infinity weight
-                dijkstraNode = new DijkstraNode(node);
-            }
-            references.put(node, dijkstraNode);
+    private static void relaxArcs(RegionGraph graph, int u, SearchWorkspace workspace) {
+        long duration = workspace.distance(u);
+        for (int position = graph.arcStart(u); position < graph.arcEnd(u); position++) {
+            int arc = graph.adjacentArc(position);
+            workspace.relax(graph.arcTarget(arc), duration + graph.arcDuration(arc), u);
         }
     }
 
     /**
-     * Reconstructs the path from {@code start} to {@code end} after Dijkstra's algorithm was
+     * Reconstructs the path from {@code start} to the source of the search after Dijkstra's algorithm was
      * performed.
      *
-     * @param references the results of Dijkstra's algorithm.
-     * @param start      the start node of the path.
-     * @param end        the end node of the path.
-     * @return The reconstructed path from {@code start} to {@code end}.
+     * @param graph     The searched {@link RegionGraph}.
+     * @param workspace The {@link SearchWorkspace} containing the results of Dijkstra's algorithm.
+     * @param start     The id of the start node of the path.
+     * @return The reconstructed path from {@code start} to the source of the search.
      */
-    private Deque<Region.Node> reconstructPath(Map<Region.Node, DijkstraNode> references,
-                                               Region.Node start,
-                                               Region.Node end) {
-
-        if (start == end) {
-            return new ArrayDeque<>();
+    static Deque<Region.Node> reconstructPath(RegionGraph graph, SearchWorkspace workspace, int start) {
+        if (!workspace.isReached(start)) {
+            throw new IllegalArgumentException("Node " + graph.getNode(start) + " cannot reach the end node");
         }
         // Reconstruct path, the start node is not part of the path
-        Deque<Region.Node> path = new ArrayDeque<>(start.getRegion().getNodes().size());
-        DijkstraNode node = references.get(start);
-        DijkstraNode endNode = references.get(end);
-
-        //don't add the startNode to the path
-        node = node.previous;
-
-        while (node != endNode) {
-            assert node != null;
-            path.addLast(node.node);
-            node = node.previous;
+        Deque<Region.Node> path = new ArrayDeque<>();
+        for (int node = workspace.predecessor(start); node >= 0; node = workspace.predecessor(node)) {
+            path.addLast(graph.getNode(node));
         }
-
-        //add endNode to path
-        path.addLast(endNode.node);
-
         return path;
     }
 
     @Override
-    public Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end) {
-
-        Map<Region.Node, DijkstraNode> references = execute(end);
-
-        Map<Region.Node, Deque<Region.Node>> paths = new HashMap<>();
+    public long getDuration(Region.Node start, Region.Node end) {
+        if (start == end) {
+            return 0;
+        }
+        RegionGraph graph = end.getRegion().getGraph();
+        int source = graph.checkedIndexOf(end);
+        int target = graph.checkedIndexOf(start);
+        SearchWorkspace workspace = SearchWorkspace.forward(graph.nodeCount());
+        execute(graph, source, target, workspace);
+
+        if (!workspace.isReached(target)) {
+            throw new IllegalArgumentException("Node " + start + " cannot reach node " + end);
+        }
+        return workspace.distance(target);
+    }
 
-        for (Region.Node node : end.getRegion().getNodes()) {
-            paths.put(node, reconstructPath(references, node, end));
+    @Override
+    public long[][] getDurationTable(List<? extends Region.Node> sources, List<? extends Region.Node> targets) {
+        long[][] table = new long[sources.size()][targets.size()];
+        if (sources.isEmpty() || targets.isEmpty()) {
+            return table;
+        }
+        RegionGraph graph = sources.get(0).getRegion().getGraph();
+        int[] sourceIds = sources.stream().mapToInt(graph::checkedIndexOf).toArray();
+        int[] targetIds = targets.stream().mapToInt(graph::checkedIndexOf).toArray();
+        boolean[] isTarget = new boolean[graph.nodeCount()];
+        int targetCount = 0;
+        for (int target : targetIds) {
+            if (!isTarget[target]) {
+                isTarget[target] = true;
+                targetCount++;
+            }
         }
+        int distinctTargets = targetCount;
 
-        return paths;
+        IntStream.range(0, sourceIds.length).parallel().forEach(i -> {
+            SearchWorkspace workspace = SearchWorkspace.forward(graph.nodeCount());
+            execute(graph, sourceIds[i], isTarget, distinctTargets, workspace);
+            for (int j = 0; j < targetIds.length; j++) {
+                table[i][j] = workspace.distance(targetIds[j]);
+            }
+        });
+        return table;
     }
 
     /**
-     * Wraps a region node which contains additional information for the dijkstra algorithm.
+     * Calculates the shortest path from every node in the region to {@code end}.<p>
+     * <p>
+     * The paths are returned as a {@link ShortestPathTree} that creates each path only when it is accessed.
+     *
+     * @param end The end {@link Region.Node} of all paths.
+     * @return A {@link ShortestPathTree} containing the paths of all nodes that can reach {@code end}.
      */
-    private static class DijkstraNode implements Comparable<DijkstraNode> {
-
-        /**
-         * The region node which is wrapped.
-         */
-        public final @NotNull Region.Node node;
-        /**
-         * The duration (weight) of the shortest path from the start node to this node. If the
-         * duration is {@code null}, it means
-         * that the duration is infinite.
-         */
-        public @Nullable Long duration;
-        /**
-         * The previous node in the shortest path from the start node to this node.
-         */
-        public @Nullable DijkstraNode previous;
-        /**
-         * Whether this node has been visited. Since a {@link PriorityQueue} cannot update its
-         * priority after an element was
-         * updated, this is used to mark whether the node has been visited.
-         */
-        public boolean visited;
-
-        /**
-         * Constructs and initializes a new dijkstra node with no previous node and is not
-         * visited yet.
-         *
-         * @param node     the wrapped region node
-         * @param distance the distance (weight) of the shortest path from the start node to this
-         *                 node
-         */
-        public DijkstraNode(Region.Node node, Long distance) {
-            this(node, distance, null, false);
-        }
-
-        /**
-         * Constructs and initializes a new dijkstra node.
-         *
-         * @param node     the wrapped region node
-         * @param duration the duration (weight) of the shortest path from the start node to this
-         *                 node
-         * @param previous the previous node in the shortest path from the start node to this node
-         * @param visited  whether this node has been visited
-         */
-        private DijkstraNode(@NotNull Region.Node node,
-                             @Nullable Long duration,
-                             @Nullable DijkstraNode previous,
-                             boolean visited) {
-            this.node = node;
-            this.duration = duration;
-            this.previous = previous;
-            this.visited = visited;
-        }
-
-        /**
-         * Constructs and initializes a new dijkstra node with an infinite distance, no previous
-         * node and is not visited yet.
-         *
-         * @param node the wrapped region node
-         */
-        public DijkstraNode(Region.Node node) {
-            this(node, null, null, false);
-        }
+    @Override
+    public Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end) {
+        RegionGraph graph = end.getRegion().getGraph();
+        int root = graph.checkedIndexOf(end);
+        SearchWorkspace workspace = SearchWorkspace.forward(graph.nodeCount());
+        execute(graph, root, -1, workspace);
 
-        @Override
-        public int compareTo(@NotNull DijkstraNode o) {
-            // If the weight is infinite, it is always greater than any other weight or equal to it
-            if (this.duration == null) {
-                // If both weights are infinite
-                if (o.duration == null) {
-                    return 0;
-                }
-                return 1;
-            }
-            // If the other weight is infinite, it is always less than this weight
-            else if (o.duration == null) {
-                return -1;
-            }
-            // If both weights are finite, compare them
-            return duration.compareTo(o.duration);
-        }
+        return new ShortestPathTree(graph, root, workspace);
     }
 }
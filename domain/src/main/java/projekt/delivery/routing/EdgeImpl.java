@@ -6,6 +6,7 @@ import java.util.Comparator;
 import java.util.Objects;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Represents a weighted edge in a graph.
@@ -17,7 +18,19 @@ class EdgeImpl implements Region.Edge {
     private final String name;
     private final Location locationA;
     private final Location locationB;
-    private final long duration;
+    private volatile long duration;
+    /**
+     * The hash code of this {@link EdgeImpl}, which is computed again whenever its duration changes.
+     */
+    private volatile int hash;
+    /**
+     * The id of this {@link EdgeImpl} in the {@link RegionGraph} of its {@link Region} or -1 if it has not been
+     * assigned yet.
+     */
+    int index = -1;
+    private @Nullable Region.Node nodeA;
+    private @Nullable Region.Node nodeB;
+    private volatile @Nullable TravelTimeProfile profile;
 
     /**
      * Creates a new {@link EdgeImpl} instance.
@@ -40,6 +53,19 @@ class EdgeImpl implements Region.Edge {
         this.locationA = locationA;
         this.locationB = locationB;
         this.duration = duration;
+        this.hash = Objects.hash(name, locationA, locationB, duration);
+    }
+
+    /**
+     * Binds this {@link EdgeImpl} to its nodes when its {@link Region} is frozen. Afterwards, {@link #getNodeA()}
+     * and {@link #getNodeB()} return the given nodes without looking them up in the {@link Region}.
+     *
+     * @param nodeA The node at {@link #getLocationA()}.
+     * @param nodeB The node at {@link #getLocationB()}.
+     */
+    void bind(Region.Node nodeA, Region.Node nodeB) {
+        this.nodeA = nodeA;
+        this.nodeB = nodeB;
     }
 
     /**
@@ -75,14 +101,46 @@ class EdgeImpl implements Region.Edge {
         return duration;
     }
 
+    /**
+     * Sets the duration of this {@link EdgeImpl}. Only called by {@link RegionImpl#setEdgeDuration(Region.Edge,
+     * long)}, which also updates the {@link RegionGraph} and notifies the listeners of the {@link Region}.<p>
+     * <p>
+     * The duration is part of the hash code, so hash based collections containing this {@link EdgeImpl} cannot find
+     * it anymore. Lookups that have to survive a change use the id of this {@link EdgeImpl} in the
+     * {@link RegionGraph} instead.
+     *
+     * @param duration The new duration of this {@link EdgeImpl}.
+     */
+    void setDuration(long duration) {
+        this.duration = duration;
+        this.hash = Objects.hash(name, locationA, locationB, duration);
+    }
+
+    @Override
+    public @Nullable TravelTimeProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Sets the {@link TravelTimeProfile} of this {@link EdgeImpl}. Only called by
+     * {@link RegionImpl#setEdgeProfile(Region.Edge, TravelTimeProfile)}, which also updates the {@link RegionGraph}.
+     *
+     * @param profile The new {@link TravelTimeProfile} or {@code null}.
+     */
+    void setProfile(@Nullable TravelTimeProfile profile) {
+        this.profile = profile;
+    }
+
     @Override
     public Region.Node getNodeA() {
-        return this.region.getNode(locationA);
+        Region.Node nodeA = this.nodeA;
+        return nodeA != null ? nodeA : this.region.getNode(locationA);
     }
 
     @Override
     public Region.Node getNodeB() {
-        return this.region.getNode(locationB);
+        Region.Node nodeB = this.nodeB;
+        return nodeB != null ? nodeB : this.region.getNode(locationB);
     }
 
     @Override
@@ -94,7 +152,7 @@ class EdgeImpl implements Region.Edge {
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, locationA, locationB, duration);
+        return hash;
     }
 
     @Override
@@ -106,8 +164,8 @@ class EdgeImpl implements Region.Edge {
             return false;
         }
         EdgeImpl edge = (EdgeImpl) o;
-        return duration == edge.duration && name.equals(edge.name) && locationA.equals(edge.locationA)
-               && locationB.equals(edge.locationB);
+        return hash == edge.hash && duration == edge.duration && name.equals(edge.name)
+               && locationA.equals(edge.locationA) && locationB.equals(edge.locationB);
     }
 
     @Override
@@ -0,0 +1,164 @@
+package projekt.delivery.routing;
+
+import java.util.Arrays;
+
+/**
+ * An indexed d-ary min-heap of dense int ids with {@code long} priorities that supports decrease-key.<p>
+ * <p>
+ * Ids with equal priorities are ordered by their value, which makes the order in which they are polled
+ * deterministic. The heap reuses its arrays between searches, so after warming up it does not allocate.
+ */
+final class IndexedHeap {
+
+    private static final int ARITY = 4;
+
+    private int[] heap = new int[0];
+    private int[] positions = new int[0];
+    private long[] keys = new long[0];
+    private int size;
+
+    /**
+     * Removes all ids from this {@link IndexedHeap} and makes sure ids in {@code [0, capacity)} can be inserted.
+     *
+     * @param capacity The amount of distinct ids that can be inserted.
+     */
+    void clear(int capacity) {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+        if (capacity > positions.length) {
+            heap = new int[capacity];
+            keys = new long[capacity];
+            positions = new int[capacity];
+            Arrays.fill(positions, -1);
+        }
+    }
+
+    /**
+     * Returns true if this {@link IndexedHeap} does not contain any ids.
+     *
+     * @return True if this {@link IndexedHeap} does not contain any ids.
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the amount of ids in this {@link IndexedHeap}.
+     *
+     * @return The amount of ids in this {@link IndexedHeap}.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the given id is contained in this {@link IndexedHeap}.
+     *
+     * @param id The id to check.
+     * @return True if the given id is contained in this {@link IndexedHeap}.
+     */
+    boolean contains(int id) {
+        return positions[id] >= 0;
+    }
+
+    /**
+     * Inserts the given id or lowers its priority if it is already contained and the given priority is smaller.
+     *
+     * @param id  The id to insert.
+     * @param key The priority of the id.
+     */
+    void insertOrDecrease(int id, long key) {
+        int position = positions[id];
+        if (position < 0) {
+            keys[id] = key;
+            heap[size] = id;
+            positions[id] = size;
+            siftUp(size++);
+        } else if (key < keys[id]) {
+            keys[id] = key;
+            siftUp(position);
+        }
+    }
+
+    /**
+     * Returns the smallest priority in this {@link IndexedHeap}.
+     *
+     * @return The smallest priority in this {@link IndexedHeap}.
+     */
+    long peekKey() {
+        return keys[heap[0]];
+    }
+
+    /**
+     * Returns the id with the smallest priority without removing it.
+     *
+     * @return The id with the smallest priority.
+     */
+    int peek() {
+        return heap[0];
+    }
+
+    /**
+     * Removes and returns the id with the smallest priority.
+     *
+     * @return The removed id.
+     */
+    int poll() {
+        int top = heap[0];
+        positions[top] = -1;
+        if (--size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            positions[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private boolean less(int a, int b) {
+        return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+    }
+
+    private void siftUp(int position) {
+        int id = heap[position];
+        while (position > 0) {
+            int parentPosition = (position - 1) / ARITY;
+            int parent = heap[parentPosition];
+            if (!less(id, parent)) {
+                break;
+            }
+            heap[position] = parent;
+            positions[parent] = position;
+            position = parentPosition;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+
+    private void siftDown(int position) {
+        int id = heap[position];
+        while (true) {
+            int firstChild = position * ARITY + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int best = firstChild;
+            int lastChild = Math.min(firstChild + ARITY, size);
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                if (less(heap[child], heap[best])) {
+                    best = child;
+                }
+            }
+            if (!less(heap[best], id)) {
+                break;
+            }
+            heap[position] = heap[best];
+            positions[heap[best]] = position;
+            position = best;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+}
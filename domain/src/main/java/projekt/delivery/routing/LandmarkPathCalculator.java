@@ -0,0 +1,159 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A {@link PathCalculator} that calculates the shortest path from a start to an end point using A* with
+ * {@link Landmarks} and the triangle inequality as heuristic (ALT).<p>
+ * <p>
+ * The landmarks are selected the first time a path in a {@link Region} is requested, unless they have been provided
+ * beforehand via {@link #setLandmarks(Landmarks)}, e.g. after reading them from a file. The heuristic never
+ * overestimates the remaining duration and is consistent, so the search can stop as soon as the end node is
+ * settled. {@link #getAllPathsTo(Region.Node)} and duration tables gain nothing from a heuristic and run plain
+ * Dijkstra searches. The landmarks are selected again after the duration of an edge has been decreased.
+ */
+public class LandmarkPathCalculator extends DijkstraPathCalculator {
+
+    /**
+     * The amount of landmarks selected if no amount is given.
+     */
+    public static final int DEFAULT_LANDMARK_COUNT = 8;
+
+    private final int landmarkCount;
+    private volatile @Nullable Landmarks landmarks;
+
+    /**
+     * Creates a new {@link LandmarkPathCalculator} selecting {@link #DEFAULT_LANDMARK_COUNT} landmarks.
+     */
+    public LandmarkPathCalculator() {
+        this(DEFAULT_LANDMARK_COUNT);
+    }
+
+    /**
+     * Creates a new {@link LandmarkPathCalculator}.
+     *
+     * @param landmarkCount The maximum amount of landmarks to select.
+     * @throws IllegalArgumentException If the amount of landmarks is not positive.
+     */
+    public LandmarkPathCalculator(int landmarkCount) {
+        if (landmarkCount <= 0) {
+            throw new IllegalArgumentException("The amount of landmarks must be positive, got " + landmarkCount);
+        }
+        this.landmarkCount = landmarkCount;
+    }
+
+    /**
+     * Returns the maximum amount of landmarks this {@link LandmarkPathCalculator} selects.
+     *
+     * @return The maximum amount of landmarks.
+     */
+    public int getLandmarkCount() {
+        return landmarkCount;
+    }
+
+    /**
+     * Returns the {@link Landmarks} for the given {@link Region}, selecting them if necessary.
+     *
+     * @param region The {@link Region} to return the {@link Landmarks} for.
+     * @return The {@link Landmarks} for the given {@link Region}.
+     */
+    public Landmarks getLandmarks(Region region) {
+        RegionGraph graph = region.getGraph();
+        Landmarks landmarks = this.landmarks;
+        if (landmarks != null && landmarks.getGraph() == graph && landmarks.isCurrent()) {
+            return landmarks;
+        }
+        synchronized (this) {
+            landmarks = this.landmarks;
+            if (landmarks == null || landmarks.getGraph() != graph || !landmarks.isCurrent()) {
+                landmarks = Landmarks.select(graph, landmarkCount);
+                this.landmarks = landmarks;
+            }
+            return landmarks;
+        }
+    }
+
+    /**
+     * Returns true if this {@link LandmarkPathCalculator} holds valid {@link Landmarks} for the given {@link Region}.
+     *
+     * @param region The {@link Region} to check.
+     * @return True if {@link Landmarks} for the given {@link Region} are present.
+     */
+    public boolean hasLandmarks(Region region) {
+        Landmarks landmarks = this.landmarks;
+        return landmarks != null && landmarks.getGraph() == region.getGraph() && landmarks.isCurrent();
+    }
+
+    /**
+     * Sets the {@link Landmarks} used by this {@link LandmarkPathCalculator}.
+     *
+     * @param landmarks The {@link Landmarks} to use.
+     */
+    public void setLandmarks(Landmarks landmarks) {
+        this.landmarks = landmarks;
+    }
+
+    @Override
+    public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
+        if (start == end) {
+            return new ArrayDeque<>();
+        }
+        Landmarks landmarks = getLandmarks(start.getRegion());
+        RegionGraph graph = landmarks.getGraph();
+        int source = graph.checkedIndexOf(start);
+        int target = graph.checkedIndexOf(end);
+        SearchWorkspace workspace = search(landmarks, source, target);
+
+        // The predecessors point towards the start node, which is not part of the path
+        Deque<Region.Node> path = new ArrayDeque<>();
+        for (int node = target; node != source; node = workspace.predecessor(node)) {
+            path.addFirst(graph.getNode(node));
+        }
+        return path;
+    }
+
+    @Override
+    public long getDuration(Region.Node start, Region.Node end) {
+        if (start == end) {
+            return 0;
+        }
+        Landmarks landmarks = getLandmarks(start.getRegion());
+        RegionGraph graph = landmarks.getGraph();
+        int target = graph.checkedIndexOf(end);
+        return search(landmarks, graph.checkedIndexOf(start), target).distance(target);
+    }
+
+    /**
+     * Runs A* from {@code source} until {@code target} is settled.
+     *
+     * @throws IllegalArgumentException If the target cannot be reached.
+     */
+    private static SearchWorkspace search(Landmarks landmarks, int source, int target) {
+        RegionGraph graph = landmarks.getGraph();
+        SearchWorkspace workspace = SearchWorkspace.forward(graph.nodeCount());
+
+        workspace.reach(source, 0, landmarks.lowerBound(source, target), -1);
+        while (!workspace.heap.isEmpty()) {
+            int u = workspace.settleNext();
+            if (u == target) {
+                return workspace;
+            }
+            long duration = workspace.distance(u);
+            for (int arc = graph.arcStart(u); arc < graph.arcEnd(u); arc++) {
+                int v = graph.arcTarget(arc);
+                if (workspace.isSettled(v)) {
+                    continue;
+                }
+                long weight = duration + graph.arcDuration(arc);
+                if (weight < workspace.distance(v)) {
+                    workspace.reach(v, weight, weight + landmarks.lowerBound(v, target), u);
+                }
+            }
+        }
+        throw new IllegalArgumentException("Node " + graph.getNode(source) + " cannot reach node "
+            + graph.getNode(target));
+    }
+}
@@ -0,0 +1,211 @@
+package projekt.delivery.routing;
+
+import java.util.Arrays;
+
+/**
+ * The landmarks of a {@link RegionGraph} and the durations between every node and every landmark.<p>
+ * <p>
+ * By the triangle inequality, the duration between two nodes is at least the difference of their durations to any
+ * landmark. Unlike the distance between their locations, this lower bound follows the actual durations of the
+ * edges and stays tight for regions whose durations diverge from the straight-line geometry.<p>
+ * <p>
+ * The landmarks are chosen by farthest-point selection: every new landmark is the node whose duration to the
+ * closest landmark chosen so far is the largest, starting with the node farthest away from the first node of the
+ * graph. Nodes that cannot reach any landmark are chosen first, so every connected component of the graph gets a
+ * landmark if there are enough of them. The durations are stored node by node in a single array, so the bound for
+ * a node only reads a single contiguous block.
+ */
+public final class Landmarks {
+
+    private final RegionGraph graph;
+    private final long version;
+    private final int[] nodes;
+    /**
+     * The duration between node {@code v} and landmark {@code i} at index {@code v * nodes.length + i} or
+     * {@link SearchWorkspace#INFINITY} if they are not connected.
+     */
+    private final long[] durations;
+
+    private Landmarks(RegionGraph graph, long version, int[] nodes, long[] durations) {
+        this.graph = graph;
+        this.version = version;
+        this.nodes = nodes;
+        this.durations = durations;
+    }
+
+    /**
+     * Selects up to the given amount of landmarks of the given {@link RegionGraph} and computes the durations
+     * between every node and every landmark.
+     *
+     * @param graph The {@link RegionGraph} to select the landmarks of.
+     * @param count The maximum amount of landmarks to select.
+     * @return The selected {@link Landmarks}.
+     * @throws IllegalArgumentException If the amount of landmarks is not positive.
+     */
+    public static Landmarks select(RegionGraph graph, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("The amount of landmarks must be positive, got " + count);
+        }
+        long version = graph.version();
+        int n = graph.nodeCount();
+        count = Math.min(count, n);
+        long[][] columns = new long[count][];
+        int[] nodes = new int[count];
+        long[] closest = new long[n];
+        Arrays.fill(closest, SearchWorkspace.INFINITY);
+
+        int next = -1;
+        if (n > 0) {
+            // the first landmark is the farthest node in the component of the first node
+            long[] first = search(graph, 0);
+            for (int v = 0; v < n; v++) {
+                first[v] = first[v] == SearchWorkspace.INFINITY ? 0 : first[v];
+            }
+            next = Math.max(farthest(first), 0);
+        }
+        int selected = 0;
+        while (selected < count && next >= 0) {
+            long[] column = search(graph, next);
+            nodes[selected] = next;
+            columns[selected++] = column;
+            for (int v = 0; v < n; v++) {
+                closest[v] = Math.min(closest[v], column[v]);
+            }
+            next = farthest(closest);
+        }
+
+        long[] durations = new long[n * selected];
+        for (int i = 0; i < selected; i++) {
+            for (int v = 0; v < n; v++) {
+                durations[v * selected + i] = columns[i][v];
+            }
+        }
+        return new Landmarks(graph, version, Arrays.copyOf(nodes, selected), durations);
+    }
+
+    /**
+     * Restores previously selected {@link Landmarks} of the given {@link RegionGraph}.
+     *
+     * @param graph     The {@link RegionGraph} the {@link Landmarks} have been selected for.
+     * @param nodes     The ids of the landmarks, as returned by {@link #getNodes()}.
+     * @param durations The durations to the landmarks, as returned by {@link #getDurations()}.
+     * @return The restored {@link Landmarks}.
+     * @throws IllegalArgumentException If the given arrays do not describe landmarks of the given graph.
+     */
+    public static Landmarks restore(RegionGraph graph, int[] nodes, long[] durations) {
+        int n = graph.nodeCount();
+        if (nodes.length == 0 && n > 0 || nodes.length > n) {
+            throw new IllegalArgumentException("Invalid amount of landmarks: " + nodes.length);
+        }
+        if (durations.length != n * nodes.length) {
+            throw new IllegalArgumentException("Expected %d durations but got %d"
+                .formatted(n * nodes.length, durations.length));
+        }
+        for (int i = 0; i < nodes.length; i++) {
+            if (nodes[i] < 0 || nodes[i] >= n || durations[nodes[i] * nodes.length + i] != 0) {
+                throw new IllegalArgumentException("Invalid landmark: " + nodes[i]);
+            }
+        }
+        for (long duration : durations) {
+            if (duration < 0) {
+                throw new IllegalArgumentException("Negative duration: " + duration);
+            }
+        }
+        return new Landmarks(graph, graph.version(), nodes.clone(), durations.clone());
+    }
+
+    /**
+     * Returns the distances of all nodes to the given source, using {@link SearchWorkspace#INFINITY} for nodes
+     * that cannot be reached.
+     */
+    private static long[] search(RegionGraph graph, int source) {
+        SearchWorkspace workspace = SearchWorkspace.forward(graph.nodeCount());
+        DijkstraPathCalculator.execute(graph, source, -1, workspace);
+        long[] distances = new long[graph.nodeCount()];
+        workspace.copyDistances(distances);
+        return distances;
+    }
+
+    /**
+     * Returns the id of the node with the largest non-zero distance, -1 if all distances are zero.
+     */
+    private static int farthest(long[] distances) {
+        int farthest = -1;
+        for (int v = 0; v < distances.length; v++) {
+            if (distances[v] > 0 && (farthest < 0 || distances[v] > distances[farthest])) {
+                farthest = v;
+            }
+        }
+        return farthest;
+    }
+
+    /**
+     * Returns the {@link RegionGraph} these {@link Landmarks} have been selected for.
+     *
+     * @return The {@link RegionGraph} these {@link Landmarks} have been selected for.
+     */
+    public RegionGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns true if the lower bounds of these {@link Landmarks} are still valid for the current durations of the
+     * {@link RegionGraph}. Increased durations keep the bounds valid, decreased durations invalidate them.
+     *
+     * @return True if the lower bounds never overestimate the current durations.
+     */
+    public boolean isCurrent() {
+        return version >= graph.lastDecreaseVersion();
+    }
+
+    /**
+     * Returns the amount of landmarks.
+     *
+     * @return The amount of landmarks.
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * Returns the ids of the landmarks in the order they have been selected.
+     *
+     * @return A copy of the ids of the landmarks.
+     */
+    public int[] getNodes() {
+        return nodes.clone();
+    }
+
+    /**
+     * Returns the durations between all nodes and all landmarks. The duration between node {@code v} and the
+     * {@code i}-th landmark is stored at index {@code v * size() + i}, {@link Long#MAX_VALUE} marks nodes that are
+     * not connected.
+     *
+     * @return A copy of the durations between all nodes and all landmarks.
+     */
+    public long[] getDurations() {
+        return durations.clone();
+    }
+
+    /**
+     * Returns a lower bound of the duration of the shortest path between the given nodes.
+     *
+     * @param from The id of the start node.
+     * @param to   The id of the end node.
+     * @return A lower bound of the duration between the given nodes.
+     */
+    long lowerBound(int from, int to) {
+        int k = nodes.length;
+        int fromOffset = from * k;
+        int toOffset = to * k;
+        long bound = 0;
+        for (int i = 0; i < k; i++) {
+            long fromDuration = durations[fromOffset + i];
+            long toDuration = durations[toOffset + i];
+            if (fromDuration != SearchWorkspace.INFINITY && toDuration != SearchWorkspace.INFINITY) {
+                bound = Math.max(bound, Math.abs(toDuration - fromDuration));
+            }
+        }
+        return bound;
+    }
+}
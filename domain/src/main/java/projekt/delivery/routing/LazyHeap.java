@@ -0,0 +1,113 @@
+package projekt.delivery.routing;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of dense int ids that are ordered by the values they currently have in a {@code long[]}.<p>
+ * <p>
+ * Unlike {@link IndexedHeap}, this heap does not support decrease-key. A node whose distance is lowered is added
+ * again, and the entries left behind are skipped when they are polled. The comparisons always use the current
+ * distances, including those of entries that have been lowered since they were added. Adding and polling work
+ * exactly like {@link java.util.PriorityQueue#add(Object)} and {@link java.util.PriorityQueue#poll()}, so ids
+ * with equal distances are polled in the same order as by the {@link java.util.PriorityQueue} that
+ * {@link DijkstraPathCalculator} used before. The heap reuses its array between searches and only grows it.<p>
+ * <p>
+ * Lowering the distance of a contained id can leave it below its parent, so the polled id does not always have
+ * the smallest distance. Searches using this heap have to check their results, see
+ * {@link SearchWorkspace#minQueuedDistance()}.
+ */
+final class LazyHeap {
+
+    private int[] heap = new int[16];
+    private int size;
+
+    /**
+     * Removes all ids from this {@link LazyHeap}.
+     */
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Returns true if this {@link LazyHeap} does not contain any ids.
+     *
+     * @return True if this {@link LazyHeap} does not contain any ids.
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the amount of entries in this {@link LazyHeap}, counting ids that have been added more than once.
+     *
+     * @return The amount of entries in this {@link LazyHeap}.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the id of the entry at the given position, in no particular order.
+     *
+     * @param position The position of the entry in {@code [0, size())}.
+     * @return The id of the entry.
+     */
+    int get(int position) {
+        return heap[position];
+    }
+
+    /**
+     * Adds the given id, even if it is already contained.
+     *
+     * @param id        The id to add.
+     * @param distances The current distances of all ids.
+     */
+    void add(int id, long[] distances) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, 2 * heap.length);
+        }
+        int position = size++;
+        long distance = distances[id];
+        while (position > 0) {
+            int parentPosition = (position - 1) >>> 1;
+            int parent = heap[parentPosition];
+            if (distance >= distances[parent]) {
+                break;
+            }
+            heap[position] = parent;
+            position = parentPosition;
+        }
+        heap[position] = id;
+    }
+
+    /**
+     * Removes and returns the id with the smallest distance.
+     *
+     * @param distances The current distances of all ids.
+     * @return The removed id.
+     */
+    int poll(long[] distances) {
+        int top = heap[0];
+        int n = --size;
+        if (n > 0) {
+            int last = heap[n];
+            long distance = distances[last];
+            int position = 0;
+            int half = n >>> 1;
+            while (position < half) {
+                int child = 2 * position + 1;
+                int right = child + 1;
+                if (right < n && distances[heap[child]] > distances[heap[right]]) {
+                    child = right;
+                }
+                if (distance <= distances[heap[child]]) {
+                    break;
+                }
+                heap[position] = heap[child];
+                position = child;
+            }
+            heap[position] = last;
+        }
+        return top;
+    }
+}
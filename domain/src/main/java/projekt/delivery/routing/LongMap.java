@@ -0,0 +1,107 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * A hash map from {@code long} keys, e.g. {@link projekt.base.Location#pack() packed locations}, to non-null values.
+ * <p>
+ * The keys and values are stored in two arrays using open addressing with linear probing, so a lookup neither boxes
+ * its key nor follows the pointers of a bucket chain. The arrays are at most half full.
+ *
+ * @param <V> The type of the values.
+ */
+final class LongMap<V> {
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+
+    /**
+     * Creates a new, empty {@link LongMap} that holds the given amount of entries without growing.
+     *
+     * @param expected The expected amount of entries.
+     */
+    LongMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(2 * expected - 1, 1)) << 1;
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+    }
+
+    private static int hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ hash >>> 32);
+    }
+
+    /**
+     * Returns the value of the given key.
+     *
+     * @param key The key to look up.
+     * @return The value of the key or {@code null} if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable V get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; values[slot] != null; slot = slot + 1 & mask) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sets the value of the given key.
+     *
+     * @param key   The key.
+     * @param value The new value of the key.
+     * @return The previous value of the key or {@code null} if there was none.
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable V put(long key, V value) {
+        Objects.requireNonNull(value, "value");
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        for (; values[slot] != null; slot = slot + 1 & mask) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the amount of entries of this {@link LongMap}.
+     *
+     * @return The amount of entries.
+     */
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new Object[oldValues.length * 2];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (values[slot] != null) {
+                    slot = slot + 1 & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * A {@link PathCalculator} that precomputes the durations and next hops between all pairs of nodes of a
+ * {@link Region}.<p>
+ * <p>
+ * The tables are filled with one Dijkstra search per node, in parallel, the first time a path in a {@link Region}
+ * is requested and again after the duration of an edge has changed. Afterwards,
+ * {@link #getPath(Region.Node, Region.Node)} only walks the next hops and
+ * {@link #getDuration(Region.Node, Region.Node)} is a single lookup. Next hops are stored as {@code short}s for
+ * regions with fewer than 65535 nodes and as {@code int}s otherwise.<p>
+ * <p>
+ * If the tables of a {@link Region} would need more memory than the configured maximum, or a duration does not
+ * fit into an {@code int}, all requests for this {@link Region} are answered by the delegate.
+ */
+public class MatrixPathCalculator implements PathCalculator {
+
+    /**
+     * The default amount of bytes the tables may occupy.
+     */
+    public static final long DEFAULT_MAXIMUM_BYTES = 64L * 1024 * 1024;
+
+    private static final int SHORT_NONE = 0xFFFF;
+
+    private final PathCalculator delegate;
+    private final long maximumBytes;
+    private volatile @Nullable Matrix matrix;
+
+    /**
+     * Creates a new {@link MatrixPathCalculator} that may use {@link #DEFAULT_MAXIMUM_BYTES} and falls back to a
+     * {@link DijkstraPathCalculator}.
+     */
+    public MatrixPathCalculator() {
+        this(new DijkstraPathCalculator(), DEFAULT_MAXIMUM_BYTES);
+    }
+
+    /**
+     * Creates a new {@link MatrixPathCalculator}.
+     *
+     * @param delegate     The {@link PathCalculator} used for {@link Region}s whose tables would be too large.
+     * @param maximumBytes The amount of bytes the tables of a single {@link Region} may occupy.
+     */
+    public MatrixPathCalculator(PathCalculator delegate, long maximumBytes) {
+        if (maximumBytes < 0) {
+            throw new IllegalArgumentException("maximumBytes must not be negative: " + maximumBytes);
+        }
+        this.delegate = delegate;
+        this.maximumBytes = maximumBytes;
+    }
+
+    /**
+     * Returns the amount of bytes the tables for a {@link Region} with the given amount of nodes occupy.
+     *
+     * @param nodeCount The amount of nodes.
+     * @return The amount of bytes the tables occupy.
+     */
+    public static long requiredBytes(int nodeCount) {
+        long entries = (long) nodeCount * nodeCount;
+        return entries * (Integer.BYTES + (nodeCount < SHORT_NONE ? Short.BYTES : Integer.BYTES));
+    }
+
+    /**
+     * Returns the {@link PathCalculator} used for {@link Region}s whose tables would be too large.
+     *
+     * @return The delegate of this {@link MatrixPathCalculator}.
+     */
+    public PathCalculator getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Returns the amount of bytes the tables of a single {@link Region} may occupy.
+     *
+     * @return The maximum amount of bytes of the tables.
+     */
+    public long getMaximumBytes() {
+        return maximumBytes;
+    }
+
+    /**
+     * Returns true if requests for the given {@link Region} are answered from the precomputed tables, computing
+     * them if necessary.
+     *
+     * @param region The {@link Region} to check.
+     * @return True if the tables for the given {@link Region} are used, false if requests are delegated.
+     */
+    public boolean usesMatrix(Region region) {
+        return getMatrix(region.getGraph()).distances != null;
+    }
+
+    @Override
+    public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
+        if (start == end) {
+            return new ArrayDeque<>();
+        }
+        Matrix matrix = getMatrix(end.getRegion().getGraph());
+        if (matrix.distances == null) {
+            return delegate.getPath(start, end);
+        }
+        return matrix.path(matrix.graph.checkedIndexOf(start), matrix.graph.checkedIndexOf(end));
+    }
+
+    @Override
+    public long getDuration(Region.Node start, Region.Node end) {
+        if (start == end) {
+            return 0;
+        }
+        Matrix matrix = getMatrix(end.getRegion().getGraph());
+        if (matrix.distances == null) {
+            return delegate.getDuration(start, end);
+        }
+        int source = matrix.graph.checkedIndexOf(start);
+        int target = matrix.graph.checkedIndexOf(end);
+        int duration = matrix.distances[matrix.index(target, source)];
+        if (duration < 0) {
+            throw new IllegalArgumentException("Node " + start + " cannot reach node " + end);
+        }
+        return duration;
+    }
+
+    @Override
+    public long[][] getDurationTable(List<? extends Region.Node> sources, List<? extends Region.Node> targets) {
+        if (sources.isEmpty() || targets.isEmpty()) {
+            return new long[sources.size()][targets.size()];
+        }
+        Matrix matrix = getMatrix(sources.get(0).getRegion().getGraph());
+        if (matrix.distances == null) {
+            return delegate.getDurationTable(sources, targets);
+        }
+        int[] targetIds = targets.stream().mapToInt(matrix.graph::checkedIndexOf).toArray();
+        long[][] table = new long[sources.size()][targets.size()];
+        for (int i = 0; i < table.length; i++) {
+            int source = matrix.graph.checkedIndexOf(sources.get(i));
+            for (int j = 0; j < targetIds.length; j++) {
+                int duration = matrix.distances[matrix.index(targetIds[j], source)];
+                table[i][j] = duration < 0 ? UNREACHABLE : duration;
+            }
+        }
+        return table;
+    }
+
+    @Override
+    public Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end) {
+        Matrix matrix = getMatrix(end.getRegion().getGraph());
+        if (matrix.distances == null) {
+            return delegate.getAllPathsTo(end);
+        }
+        RegionGraph graph = matrix.graph;
+        int target = graph.checkedIndexOf(end);
+        int[] predecessors = new int[graph.nodeCount()];
+        long[] durations = new long[graph.nodeCount()];
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            int duration = matrix.distances[matrix.index(target, node)];
+            predecessors[node] = matrix.nextHop(node, target);
+            durations[node] = duration < 0 ? SearchWorkspace.INFINITY : duration;
+        }
+        return new ShortestPathTree(graph, target, predecessors, durations);
+    }
+
+    private Matrix getMatrix(RegionGraph graph) {
+        Matrix matrix = this.matrix;
+        if (matrix != null && matrix.graph == graph && matrix.version == graph.version()) {
+            return matrix;
+        }
+        synchronized (this) {
+            matrix = this.matrix;
+            if (matrix == null || matrix.graph != graph || matrix.version != graph.version()) {
+                matrix = new Matrix(graph, maximumBytes);
+                this.matrix = matrix;
+            }
+            return matrix;
+        }
+    }
+
+    /**
+     * The tables of a single {@link RegionGraph}. The row of a node contains the durations from every node to it
+     * and the node every other node has to move to next on its way there.
+     */
+    private static final class Matrix {
+
+        private final RegionGraph graph;
+        private final long version;
+        private final int nodeCount;
+        private final int @Nullable [] distances;
+        private final short @Nullable [] shortHops;
+        private final int @Nullable [] intHops;
+
+        private Matrix(RegionGraph graph, long maximumBytes) {
+            this.graph = graph;
+            this.version = graph.version();
+            this.nodeCount = graph.nodeCount();
+            long entries = (long) nodeCount * nodeCount;
+            if (requiredBytes(nodeCount) > maximumBytes || entries > Integer.MAX_VALUE - 8) {
+                distances = null;
+                shortHops = null;
+                intHops = null;
+                return;
+            }
+            int[] distances = new int[(int) entries];
+            short[] shortHops = nodeCount < SHORT_NONE ? new short[(int) entries] : null;
+            int[] intHops = shortHops == null ? new int[(int) entries] : null;
+            AtomicBoolean overflow = new AtomicBoolean();
+
+            IntStream.range(0, nodeCount).parallel().forEach(target -> {
+                SearchWorkspace workspace = SearchWorkspace.forward(nodeCount);
+                DijkstraPathCalculator.execute(graph, target, -1, workspace);
+                int row = target * nodeCount;
+                for (int node = 0; node < nodeCount; node++) {
+                    long distance = workspace.distance(node);
+                    if (distance == SearchWorkspace.INFINITY) {
+                        distances[row + node] = -1;
+                    } else if (distance > Integer.MAX_VALUE) {
+                        overflow.set(true);
+                    } else {
+                        distances[row + node] = (int) distance;
+                    }
+                    int hop = workspace.predecessor(node);
+                    if (shortHops != null) {
+                        shortHops[row + node] = (short) (hop < 0 ? SHORT_NONE : hop);
+                    } else {
+                        intHops[row + node] = hop;
+                    }
+                }
+            });
+
+            boolean usable = !overflow.get();
+            this.distances = usable ? distances : null;
+            this.shortHops = usable ? shortHops : null;
+            this.intHops = usable ? intHops : null;
+        }
+
+        private int index(int target, int node) {
+            return target * nodeCount + node;
+        }
+
+        private int nextHop(int node, int target) {
+            if (shortHops != null) {
+                int hop = Short.toUnsignedInt(shortHops[index(target, node)]);
+                return hop == SHORT_NONE ? -1 : hop;
+            }
+            return intHops[index(target, node)];
+        }
+
+        private Deque<Region.Node> path(int start, int target) {
+            if (distances[index(target, start)] < 0) {
+                throw new IllegalArgumentException("Node " + graph.getNode(start) + " cannot reach node "
+                    + graph.getNode(target));
+            }
+            Deque<Region.Node> path = new ArrayDeque<>();
+            for (int node = nextHop(start, target); node >= 0; node = nextHop(node, target)) {
+                path.addLast(graph.getNode(node));
+            }
+            return path;
+        }
+    }
+}
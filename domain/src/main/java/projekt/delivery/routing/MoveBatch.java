@@ -0,0 +1,169 @@
+package projekt.delivery.routing;
+
+import projekt.delivery.event.Event;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * A batch of vehicles that move to the next node of their paths in the same tick, i.e. from a node onto an edge or
+ * from the end of an edge to a node.
+ * <p>
+ * Large batches of a {@link VehicleManagerImpl} that ticks in parallel are moved on the common
+ * {@link java.util.concurrent.ForkJoinPool}, one task per shard of the {@link RegionPartition}. Every occupied
+ * component belongs to one shard and is only changed by the task of its shard. A vehicle that crosses the border of
+ * two shards is handed off in two phases: the tasks of the source shards remove the vehicles from their components,
+ * then the tasks of the target shards put them on their new components and create the arrival events. Finally, the
+ * events are posted and the new components are activated in the order the vehicles have been added to the batch, so
+ * the result is the same as moving the vehicles one after another in this order.
+ */
+final class MoveBatch {
+
+    /**
+     * The smallest batch that is moved in parallel. Smaller batches are not worth forking tasks for.
+     */
+    static final int PARALLEL_THRESHOLD = 64;
+
+    private final VehicleManagerImpl vehicleManager;
+    private final int shardCount;
+    private VehicleImpl[] vehicles = new VehicleImpl[PARALLEL_THRESHOLD];
+    private AbstractOccupied<?>[] sources = new AbstractOccupied<?>[PARALLEL_THRESHOLD];
+    private AbstractOccupied<?>[] targets = new AbstractOccupied<?>[PARALLEL_THRESHOLD];
+    private Event[] events = new Event[PARALLEL_THRESHOLD];
+    private int size;
+
+    /**
+     * Creates a new, empty {@link MoveBatch}.
+     *
+     * @param vehicleManager The {@link VehicleManagerImpl} of the moved vehicles.
+     * @param shardCount     The amount of shards of the components of the {@link VehicleManagerImpl}.
+     */
+    MoveBatch(VehicleManagerImpl vehicleManager, int shardCount) {
+        this.vehicleManager = vehicleManager;
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * Adds the given vehicle to this batch. The vehicle must have a {@link VehicleImpl#getNextNode() next node} and
+     * must not be part of this batch yet.
+     *
+     * @param vehicle The vehicle to add.
+     */
+    void add(VehicleImpl vehicle) {
+        if (size == vehicles.length) {
+            vehicles = Arrays.copyOf(vehicles, size * 2);
+            sources = Arrays.copyOf(sources, size * 2);
+            targets = Arrays.copyOf(targets, size * 2);
+            events = Arrays.copyOf(events, size * 2);
+        }
+        vehicles[size] = vehicle;
+        sources[size] = (AbstractOccupied<?>) vehicle.getOccupied();
+        size++;
+    }
+
+    /**
+     * Moves all vehicles of this batch and empties it.
+     *
+     * @param currentTick The current tick.
+     */
+    void execute(long currentTick) {
+        try {
+            if (shardCount == 1 || size < PARALLEL_THRESHOLD || !findTargets()) {
+                for (int i = 0; i < size; i++) {
+                    vehicles[i].move(currentTick);
+                }
+                return;
+            }
+            VehicleTable table = vehicleManager.vehicleTable;
+            forEachShard(shard -> {
+                for (int i = 0; i < size; i++) {
+                    if (sources[i].shard == shard) {
+                        table.remove(vehicles[i].getId());
+                    }
+                }
+            });
+            forEachShard(shard -> {
+                for (int i = 0; i < size; i++) {
+                    if (targets[i].shard == shard) {
+                        handOff(i, currentTick);
+                    }
+                }
+            });
+            for (int i = 0; i < size; i++) {
+                vehicleManager.getEventBus().queuePost(events[i]);
+                if (sources[i].vehicles.isEmpty()) {
+                    vehicleManager.deactivate(sources[i]);
+                }
+                vehicleManager.activate(targets[i], vehicles[i].getId());
+            }
+        } finally {
+            Arrays.fill(vehicles, 0, size, null);
+            Arrays.fill(sources, 0, size, null);
+            Arrays.fill(targets, 0, size, null);
+            Arrays.fill(events, 0, size, null);
+            size = 0;
+        }
+    }
+
+    /**
+     * Looks up the component every vehicle moves to.
+     *
+     * @return {@code false} if a vehicle is not in the {@link VehicleTable} or has no component to move to, so moving
+     * it fails like moving it on its own.
+     */
+    private boolean findTargets() {
+        Region region = vehicleManager.getRegion();
+        VehicleTable table = vehicleManager.vehicleTable;
+        for (int i = 0; i < size; i++) {
+            if (!table.contains(vehicles[i]) || table.getComponent(vehicles[i].getId()) != sources[i].index) {
+                // the vehicle has been moved away from the component it has been added with
+                return false;
+            }
+        }
+        forEachShard(shard -> {
+            for (int i = 0; i < size; i++) {
+                if (sources[i].shard == shard) {
+                    Region.Node next = vehicles[i].getNextNode();
+                    if (sources[i] instanceof OccupiedNodeImpl<?> node) {
+                        Region.Edge edge = region.getEdge(node.getComponent(), next);
+                        targets[i] = edge == null ? null : vehicleManager.getOccupiedEdge(edge);
+                    } else {
+                        targets[i] = vehicleManager.occupiedNodes.get(next);
+                    }
+                }
+            }
+        });
+        for (int i = 0; i < size; i++) {
+            if (targets[i] == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Puts the vehicle at the given index on its new component, just like
+     * {@link VehicleManager.Occupied#addVehicle(VehicleImpl, long)} does after removing it from its previous
+     * component.
+     */
+    private void handOff(int index, long currentTick) {
+        VehicleImpl vehicle = vehicles[index];
+        AbstractOccupied<?> source = sources[index];
+        AbstractOccupied<?> target = targets[index];
+        vehicleManager.vehicleTable.put(vehicle.getId(), target.index, currentTick, source.index);
+        vehicle.setOccupied(target);
+        if (target instanceof OccupiedEdgeImpl edge) {
+            events[index] = edge.createArrivedEvent(vehicle, (OccupiedNodeImpl<?>) source, currentTick);
+        } else {
+            vehicle.removeNextNode();
+            events[index] = ((OccupiedNodeImpl<?>) target).createArrivedEvent(vehicle,
+                                                                              (OccupiedEdgeImpl) source,
+                                                                              currentTick);
+        }
+    }
+
+    private void forEachShard(IntConsumer action) {
+        IntStream.range(0, shardCount).parallel().forEach(action);
+    }
+}
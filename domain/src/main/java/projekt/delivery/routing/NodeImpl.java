@@ -2,6 +2,8 @@ package projekt.delivery.routing;
 
 import projekt.base.Location;
 
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -14,6 +16,15 @@ class NodeImpl implements Region.Node {
     protected final Region region;
     protected final String name;
     protected final Location location;
+    /**
+     * The id of this {@link NodeImpl} in the {@link RegionGraph} of its {@link Region} or -1 if it has not been
+     * assigned yet.
+     */
+    int index = -1;
+    private boolean frozen;
+    private int hash;
+    private @Nullable Set<Region.Node> adjacentNodes;
+    private @Nullable Set<Region.Edge> adjacentEdges;
 
     /**
      * Creates a new {@link NodeImpl} instance.
@@ -31,6 +42,18 @@ class NodeImpl implements Region.Node {
         this.connections = connections;
     }
 
+    /**
+     * Freezes this {@link NodeImpl} once all nodes and edges of its {@link Region} have been added. Afterwards, its
+     * hash code and its adjacent nodes and edges are no longer computed on every call. The adjacent nodes and edges
+     * keep the iteration order they had before, which the searches of {@link DijkstraPathCalculator} depend on.
+     */
+    void freeze() {
+        adjacentNodes = Collections.unmodifiableSet(new LinkedHashSet<>(getAdjacentNodes()));
+        adjacentEdges = Collections.unmodifiableSet(new LinkedHashSet<>(getAdjacentEdges()));
+        hash = hashCode();
+        frozen = true;
+    }
+
     @Override
     public Region getRegion() {
         return region;
@@ -57,11 +80,17 @@ class NodeImpl implements Region.Node {
 
     @Override
     public Set<Region.Node> getAdjacentNodes() {
+        if (frozen) {
+            return adjacentNodes;
+        }
         return this.connections.stream().map(region::getNode).collect(Collectors.toSet());
     }
 
     @Override
     public Set<Region.Edge> getAdjacentEdges() {
+        if (frozen) {
+            return adjacentEdges;
+        }
         return this.connections.stream().map(l -> this.region.getEdge(this.location, l)).collect(Collectors.toSet());
     }
 
@@ -72,6 +101,9 @@ class NodeImpl implements Region.Node {
 
     @Override
     public int hashCode() {
+        if (frozen) {
+            return hash;
+        }
         return Objects.hash(name, location, connections);
     }
 
@@ -84,6 +116,9 @@ class NodeImpl implements Region.Node {
             return false;
         }
         NodeImpl node = (NodeImpl) o;
+        if (frozen && node.frozen && hash != node.hash) {
+            return false;
+        }
         return Objects.equals(name, node.name) && Objects.equals(location, node.location) && Objects.equals(connections,
                                                                                                             node.connections);
     }
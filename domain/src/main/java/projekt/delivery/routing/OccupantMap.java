@@ -0,0 +1,183 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The vehicles on a component and their {@link AbstractOccupied.VehicleStats}, as a view of the {@link VehicleTable}
+ * of its {@link VehicleManagerImpl}.
+ * <p>
+ * The {@link AbstractOccupied.VehicleStats} are created from the table whenever they are requested. Putting a
+ * vehicle in this map registers it in the table and moves it from the component it is on to the component of this
+ * map. A vehicle that cannot be registered, because another vehicle with the same id has been registered, is
+ * rejected, since the {@link VehicleManagerImpl} would never move it. Only the vehicles of components without a
+ * {@link VehicleTable} are kept in a separate {@link HashMap}.
+ */
+final class OccupantMap extends AbstractMap<VehicleImpl, AbstractOccupied.VehicleStats> {
+
+    private final AbstractOccupied<?> occupied;
+    private final @Nullable VehicleTable table;
+    private @Nullable Map<VehicleImpl, AbstractOccupied.VehicleStats> others;
+    private @Nullable Set<Entry<VehicleImpl, AbstractOccupied.VehicleStats>> entrySet;
+
+    /**
+     * Creates a new {@link OccupantMap} of the given component.
+     *
+     * @param occupied The component.
+     * @param table    The {@link VehicleTable} the component is registered in or {@code null} if there is none.
+     */
+    OccupantMap(AbstractOccupied<?> occupied, @Nullable VehicleTable table) {
+        this.occupied = occupied;
+        this.table = table;
+    }
+
+    /**
+     * Returns the id of the given vehicle if it is on the component of this map according to the
+     * {@link VehicleTable}.
+     */
+    private int idOf(@Nullable Object key) {
+        if (table != null && key instanceof VehicleImpl vehicle && table.contains(vehicle)
+            && table.getComponent(vehicle.getId()) == occupied.index) {
+            return vehicle.getId();
+        }
+        return VehicleTable.NONE;
+    }
+
+    @Override
+    public int size() {
+        return (table == null ? 0 : table.getVehicleCount(occupied.index)) + (others == null ? 0 : others.size());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return idOf(key) != VehicleTable.NONE || others != null && others.containsKey(key);
+    }
+
+    @Override
+    public AbstractOccupied.@Nullable VehicleStats get(Object key) {
+        int id = idOf(key);
+        if (id != VehicleTable.NONE) {
+            return table.getStats(id);
+        }
+        return others == null ? null : others.get(key);
+    }
+
+    /**
+     * Puts the given vehicle on the component of this map, see
+     * {@link AbstractOccupied#putVehicle(VehicleImpl, long, VehicleManager.Occupied)}.
+     *
+     * @throws IllegalArgumentException If another vehicle with the id of the given vehicle is in the
+     *                                  {@link VehicleTable} of the component.
+     */
+    @Override
+    public AbstractOccupied.@Nullable VehicleStats put(VehicleImpl key, AbstractOccupied.@Nullable VehicleStats value) {
+        if (table != null) {
+            AbstractOccupied.VehicleStats previous = get(key);
+            occupied.putVehicle(key, value == null ? 0 : value.arrived, value == null ? null : value.previous);
+            return previous;
+        }
+        if (others == null) {
+            others = new HashMap<>();
+        }
+        return others.put(key, value);
+    }
+
+    @Override
+    public AbstractOccupied.@Nullable VehicleStats remove(Object key) {
+        int id = idOf(key);
+        if (id != VehicleTable.NONE) {
+            AbstractOccupied.VehicleStats stats = table.getStats(id);
+            table.remove(id);
+            return stats;
+        }
+        return others == null ? null : others.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        if (table != null) {
+            while (table.getFirstVehicle(occupied.index) != VehicleTable.NONE) {
+                table.remove(table.getFirstVehicle(occupied.index));
+            }
+        }
+        others = null;
+    }
+
+    @Override
+    public Set<Entry<VehicleImpl, AbstractOccupied.VehicleStats>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<VehicleImpl, AbstractOccupied.VehicleStats>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return OccupantMap.this.size();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    /**
+     * Iterates over the vehicles of the {@link VehicleTable} in the order they arrived and then over the other
+     * vehicles.
+     */
+    private final class EntryIterator implements Iterator<Entry<VehicleImpl, AbstractOccupied.VehicleStats>> {
+
+        private int next = table == null ? VehicleTable.NONE : table.getFirstVehicle(occupied.index);
+        private int last = VehicleTable.NONE;
+        private @Nullable Iterator<Entry<VehicleImpl, AbstractOccupied.VehicleStats>> othersIterator;
+
+        @Override
+        public boolean hasNext() {
+            if (next != VehicleTable.NONE) {
+                return true;
+            }
+            if (othersIterator == null) {
+                othersIterator = others == null ? null : others.entrySet().iterator();
+            }
+            return othersIterator != null && othersIterator.hasNext();
+        }
+
+        @Override
+        public Entry<VehicleImpl, AbstractOccupied.VehicleStats> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (next != VehicleTable.NONE) {
+                last = next;
+                next = table.getNextVehicle(next);
+                return new SimpleImmutableEntry<>(table.getVehicle(last), table.getStats(last));
+            }
+            last = VehicleTable.NONE;
+            return othersIterator.next();
+        }
+
+        @Override
+        public void remove() {
+            if (last != VehicleTable.NONE) {
+                table.remove(last);
+                last = VehicleTable.NONE;
+            } else if (othersIterator != null) {
+                othersIterator.remove();
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package projekt.delivery.routing;
 
 import projekt.delivery.event.ArrivedAtEdgeEvent;
+import projekt.delivery.event.Event;
 
-import java.util.List;
-import java.util.Map;
+import org.jetbrains.annotations.Nullable;
 
 class OccupiedEdgeImpl extends AbstractOccupied<Region.Edge> {
 
@@ -17,15 +17,24 @@ class OccupiedEdgeImpl extends AbstractOccupied<Region.Edge> {
         super(edge, vehicleManager);
     }
 
+    /**
+     * Returns whether the given vehicle reaches the end of this edge at the given tick or has reached it before.
+     */
     @Override
-    public void tick(long currentTick) {
-        // it is important to create a copy here. The move method in vehicle will probably modify
-        // this map
-        for (Map.Entry<VehicleImpl, VehicleStats> entry : List.copyOf(vehicles.entrySet())) {
-            if (currentTick >= entry.getValue().arrived + component.getDuration()) {
-                entry.getKey().move(currentTick);
-            }
-        }
+    boolean canMove(VehicleImpl vehicle, long arrived, long currentTick) {
+        return currentTick >= getArrivalTick(arrived);
+    }
+
+    /**
+     * Returns the tick at which a vehicle that entered this edge at the given tick reaches its end. If the edge has a
+     * {@link TravelTimeProfile}, its duration at the tick the vehicle entered it is used.
+     *
+     * @param arrived The tick the vehicle entered this edge.
+     * @return The tick the vehicle reaches the end of this edge.
+     */
+    long getArrivalTick(long arrived) {
+        @Nullable TravelTimeProfile profile = component.getProfile();
+        return arrived + (profile == null ? component.getDuration() : profile.getDuration(arrived));
     }
 
     @Override
@@ -38,12 +47,23 @@ class OccupiedEdgeImpl extends AbstractOccupied<Region.Edge> {
             throw new AssertionError("Vehicle " + vehicle.getId() + " cannot move directly from edge to edge");
         }
         final OccupiedNodeImpl<?> previousNode = (OccupiedNodeImpl<?>) previous;
-        if (previousNode.vehicles.remove(vehicle) == null) {
+        if (!previousNode.removeVehicle(vehicle)) {
             throw new AssertionError("Vehicle " + vehicle.getId() + " was not found in previous node");
         }
-        vehicles.put(vehicle, new VehicleStats(currentTick, previous));
+        putVehicle(vehicle, currentTick, previousNode);
         vehicle.setOccupied(this);
-        vehicleManager.getEventBus()
-                      .queuePost(ArrivedAtEdgeEvent.of(currentTick, vehicle, component, previousNode.getComponent()));
+        vehicleManager.getEventBus().queuePost(createArrivedEvent(vehicle, previousNode, currentTick));
+    }
+
+    /**
+     * Creates the {@link Event} of the given vehicle arriving on this edge.
+     *
+     * @param vehicle      The arriving vehicle.
+     * @param previousNode The node the vehicle came from.
+     * @param tick         The tick of the arrival.
+     * @return The created {@link Event}.
+     */
+    Event createArrivedEvent(VehicleImpl vehicle, OccupiedNodeImpl<?> previousNode, long tick) {
+        return ArrivedAtEdgeEvent.of(tick, vehicle, component, previousNode.getComponent());
     }
 }
@@ -2,6 +2,7 @@ package projekt.delivery.routing;
 
 import projekt.delivery.event.ArrivedAtNeighborhoodEvent;
 import projekt.delivery.event.DeliverOrderEvent;
+import projekt.delivery.event.Event;
 
 class OccupiedNeighborhoodImpl extends OccupiedNodeImpl<Region.Neighborhood> implements VehicleManager.OccupiedNeighborhood {
 
@@ -27,8 +28,7 @@ class OccupiedNeighborhoodImpl extends OccupiedNodeImpl<Region.Neighborhood> imp
     }
 
     @Override
-    protected void emitArrivedEvent(VehicleImpl vehicle, OccupiedEdgeImpl previousEdge, long tick) {
-        vehicleManager.getEventBus()
-                      .queuePost(ArrivedAtNeighborhoodEvent.of(tick, vehicle, component, previousEdge.getComponent()));
+    protected Event createArrivedEvent(VehicleImpl vehicle, OccupiedEdgeImpl previousEdge, long tick) {
+        return ArrivedAtNeighborhoodEvent.of(tick, vehicle, component, previousEdge.getComponent());
     }
 }
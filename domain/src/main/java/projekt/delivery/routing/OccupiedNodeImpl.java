@@ -1,9 +1,7 @@
 package projekt.delivery.routing;
 
 import projekt.delivery.event.ArrivedAtNodeEvent;
-
-import java.util.List;
-import java.util.Map;
+import projekt.delivery.event.Event;
 
 class OccupiedNodeImpl<C extends Region.Node> extends AbstractOccupied<C> {
 
@@ -17,14 +15,12 @@ class OccupiedNodeImpl<C extends Region.Node> extends AbstractOccupied<C> {
         super(node, vehicleManager);
     }
 
+    /**
+     * Returns whether the given vehicle has a path to move along.
+     */
     @Override
-    public void tick(long currentTick) {
-        // it is important to create a copy here. The move method in vehicle will probably modify
-        // this map
-        // TODO: Only move things that can be moved
-        for (Map.Entry<VehicleImpl, VehicleStats> entry : List.copyOf(vehicles.entrySet())) {
-            entry.getKey().move(currentTick);
-        }
+    boolean canMove(VehicleImpl vehicle, long arrived, long currentTick) {
+        return vehicle.hasPendingMoves();
     }
 
     @Override
@@ -37,16 +33,27 @@ class OccupiedNodeImpl<C extends Region.Node> extends AbstractOccupied<C> {
             throw new AssertionError("Vehicle " + vehicle.getId() + " cannot move directly from node to node");
         }
         final OccupiedEdgeImpl previousEdge = (OccupiedEdgeImpl) previous;
-        if (previousEdge.vehicles.remove(vehicle) == null) {
+        if (!previousEdge.removeVehicle(vehicle)) {
             throw new AssertionError("Vehicle " + vehicle.getId() + " was not found in previous edge");
         }
-        vehicles.put(vehicle, new VehicleStats(currentTick, previous));
+        putVehicle(vehicle, currentTick, previousEdge);
         vehicle.setOccupied(this);
         emitArrivedEvent(vehicle, previousEdge, currentTick);
     }
 
     protected void emitArrivedEvent(VehicleImpl vehicle, OccupiedEdgeImpl previousEdge, long tick) {
-        vehicleManager.getEventBus()
-                      .queuePost(ArrivedAtNodeEvent.of(tick, vehicle, component, previousEdge.getComponent()));
+        vehicleManager.getEventBus().queuePost(createArrivedEvent(vehicle, previousEdge, tick));
+    }
+
+    /**
+     * Creates the {@link Event} of the given vehicle arriving at this node.
+     *
+     * @param vehicle      The arriving vehicle.
+     * @param previousEdge The edge the vehicle came from.
+     * @param tick         The tick of the arrival.
+     * @return The created {@link Event}.
+     */
+    protected Event createArrivedEvent(VehicleImpl vehicle, OccupiedEdgeImpl previousEdge, long tick) {
+        return ArrivedAtNodeEvent.of(tick, vehicle, component, previousEdge.getComponent());
     }
 }
@@ -1,6 +1,7 @@
 package projekt.delivery.routing;
 
 import projekt.delivery.event.ArrivedAtRestaurantEvent;
+import projekt.delivery.event.Event;
 import projekt.delivery.event.LoadOrderEvent;
 
 class OccupiedRestaurantImpl extends OccupiedNodeImpl<Region.Restaurant> implements VehicleManager.OccupiedRestaurant {
@@ -26,8 +27,7 @@ class OccupiedRestaurantImpl extends OccupiedNodeImpl<Region.Restaurant> impleme
     }
 
     @Override
-    protected void emitArrivedEvent(VehicleImpl vehicle, OccupiedEdgeImpl previousEdge, long currentTick) {
-        vehicleManager.getEventBus()
-                      .queuePost(ArrivedAtRestaurantEvent.of(currentTick, vehicle, this, previousEdge.getComponent()));
+    protected Event createArrivedEvent(VehicleImpl vehicle, OccupiedEdgeImpl previousEdge, long currentTick) {
+        return ArrivedAtRestaurantEvent.of(currentTick, vehicle, this, previousEdge.getComponent());
     }
 }
@@ -1,6 +1,7 @@
 package projekt.delivery.routing;
 
 import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -8,6 +9,11 @@ import java.util.Map;
  */
 public interface PathCalculator {
 
+    /**
+     * The duration stored in a duration table for a target that cannot be reached from a source.
+     */
+    long UNREACHABLE = Long.MAX_VALUE;
+
     /**
      * Calculates the shortest path from {@code start} to {@code end}.
      *
@@ -26,4 +32,53 @@ public interface PathCalculator {
      * (excluding start and including end) that represent the path from start to end
      */
     Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end);
+
+    /**
+     * Calculates the duration of the shortest path from {@code start} to {@code end}.<p>
+     * <p>
+     * The default implementation sums up the durations of the edges of {@link #getPath(Region.Node, Region.Node)}.
+     *
+     * @param start The start {@link Region.Node}
+     * @param end   The end {@link Region.Node}
+     * @return The duration of the shortest path from start to end
+     * @throws IllegalArgumentException If there is no path from start to end
+     */
+    default long getDuration(Region.Node start, Region.Node end) {
+        long duration = 0;
+        Region.Node current = start;
+        for (Region.Node node : getPath(start, end)) {
+            Region.Edge edge = start.getRegion().getEdge(current, node);
+            if (edge == null) {
+                throw new IllegalStateException("Path contains nodes %s and %s which are not connected"
+                    .formatted(current, node));
+            }
+            duration += edge.getDuration();
+            current = node;
+        }
+        return duration;
+    }
+
+    /**
+     * Calculates the durations of the shortest paths from every source to every target.<p>
+     * <p>
+     * The default implementation calls {@link #getDuration(Region.Node, Region.Node)} for every pair.
+     *
+     * @param sources The start {@link Region.Node}s
+     * @param targets The end {@link Region.Node}s
+     * @return A table whose entry {@code [i][j]} contains the duration of the shortest path from the i-th source to
+     * the j-th target or {@link #UNREACHABLE} if there is no such path
+     */
+    default long[][] getDurationTable(List<? extends Region.Node> sources, List<? extends Region.Node> targets) {
+        long[][] table = new long[sources.size()][targets.size()];
+        for (int i = 0; i < sources.size(); i++) {
+            for (int j = 0; j < targets.size(); j++) {
+                try {
+                    table[i][j] = getDuration(sources.get(i), targets.get(j));
+                } catch (IllegalArgumentException e) {
+                    table[i][j] = UNREACHABLE;
+                }
+            }
+        }
+        return table;
+    }
 }
@@ -23,6 +23,29 @@ public interface Region {
         return new RegionBuilderImpl();
     }
 
+    /**
+     * Returns a new {@link Region.BulkBuilder} instance for the given amount of nodes and edges, e.g. for imports of
+     * large maps. The amounts are only used to size its arrays, more components can be added.
+     *
+     * @param nodeCount The expected amount of nodes.
+     * @param edgeCount The expected amount of edges.
+     * @return A new {@link Region.BulkBuilder} instance.
+     * @throws IllegalArgumentException If an amount is negative.
+     */
+    static BulkBuilder bulkBuilder(int nodeCount, int edgeCount) {
+        return new RegionBulkBuilderImpl(nodeCount, edgeCount);
+    }
+
+    /**
+     * Returns a new {@link RegionGenerator} that generates synthetic {@link Region}s from the given seed.
+     *
+     * @param seed The seed of all random choices of the {@link RegionGenerator}.
+     * @return A new {@link RegionGenerator} instance.
+     */
+    static RegionGenerator generator(long seed) {
+        return new RegionGenerator(seed);
+    }
+
     /**
      * Returns the {@link Region.Node} at the given {@link Location}.
      *
@@ -76,6 +99,95 @@ public interface Region {
      */
     DistanceCalculator getDistanceCalculator();
 
+    /**
+     * Returns the {@link RegionGraph} of this {@link Region}.<p>
+     * <p>
+     * The {@link RegionGraph} is an index-based snapshot of all {@link Node}s and {@link Edge}s that allows
+     * traversing the graph without hashing or allocating.
+     *
+     * @return The {@link RegionGraph} of this {@link Region}.
+     */
+    RegionGraph getGraph();
+
+    /**
+     * Returns the {@link SpatialIndex} over the {@link Node}s of this {@link Region}.<p>
+     * <p>
+     * The {@link SpatialIndex} answers exact-location, nearest-node and bounding-box queries without scanning all
+     * {@link Node}s.
+     *
+     * @return The {@link SpatialIndex} of this {@link Region}.
+     */
+    SpatialIndex getSpatialIndex();
+
+    /**
+     * Returns a {@link RegionPartition} of this {@link Region} into the given amount of shards.<p>
+     * <p>
+     * The partition is computed the first time it is requested for an amount of shards and shared afterwards, so
+     * all components working on shards of this {@link Region} use the same shards.
+     *
+     * @param shardCount The amount of shards.
+     * @return The {@link RegionPartition} of this {@link Region} into the given amount of shards.
+     * @throws IllegalArgumentException If the amount of shards is not positive.
+     */
+    RegionPartition getPartition(int shardCount);
+
+    /**
+     * Changes the duration of the given {@link Edge}, e.g. to model a closure or congestion.<p>
+     * <p>
+     * The {@link RegionGraph} of this {@link Region} is updated in place and all registered
+     * {@link EdgeDurationListener}s are notified afterwards. The duration is part of the hash code of an
+     * {@link Edge}, so hash based collections containing the {@link Edge} have to be rebuilt.
+     *
+     * @param edge     The {@link Edge} to change.
+     * @param duration The new duration of the {@link Edge}.
+     * @throws IllegalArgumentException If the {@link Edge} is not part of this {@link Region} or the duration is
+     *                                  negative or larger than {@link Integer#MAX_VALUE}.
+     */
+    void setEdgeDuration(Edge edge, long duration);
+
+    /**
+     * Sets the {@link TravelTimeProfile} of the given {@link Edge}, e.g. to model rush hours. The profile is used by
+     * time-dependent searches and by the vehicles of a {@link VehicleManager} that travel along the {@link Edge}, the
+     * static duration of the {@link Edge} stays unchanged. All registered {@link EdgeDurationListener}s are notified
+     * afterwards with the static duration as both the old and the new duration.
+     *
+     * @param edge    The {@link Edge} to change.
+     * @param profile The new {@link TravelTimeProfile} or {@code null} to remove the profile.
+     * @throws IllegalArgumentException If the {@link Edge} is not part of this {@link Region}.
+     */
+    void setEdgeProfile(Edge edge, @Nullable TravelTimeProfile profile);
+
+    /**
+     * Registers the given {@link EdgeDurationListener}, which is notified whenever the duration of an {@link Edge}
+     * of this {@link Region} changes.
+     *
+     * @param listener The {@link EdgeDurationListener} to register.
+     */
+    void addEdgeDurationListener(EdgeDurationListener listener);
+
+    /**
+     * Removes the given {@link EdgeDurationListener}.
+     *
+     * @param listener The {@link EdgeDurationListener} to remove.
+     */
+    void removeEdgeDurationListener(EdgeDurationListener listener);
+
+    /**
+     * A listener that is notified whenever the duration or the {@link TravelTimeProfile} of an {@link Edge} changes.
+     */
+    @FunctionalInterface
+    interface EdgeDurationListener {
+
+        /**
+         * Called after the duration of the given {@link Edge} changed.
+         *
+         * @param edge        The changed {@link Edge}.
+         * @param oldDuration The duration of the {@link Edge} before the change.
+         * @param newDuration The duration of the {@link Edge} after the change.
+         */
+        void onEdgeDurationChanged(Edge edge, long oldDuration, long newDuration);
+    }
+
     /**
      * Represents a component of the underlying graph.
      *
@@ -148,6 +260,28 @@ public interface Region {
          */
         long getDuration();
 
+        /**
+         * Returns the duration of this {@link Edge} when departing at the given tick. Without a
+         * {@link TravelTimeProfile}, this is the same as {@link #getDuration()}.
+         *
+         * @param tick The departure tick.
+         * @return The duration of this {@link Edge} when departing at the given tick.
+         */
+        default long getDuration(long tick) {
+            @Nullable TravelTimeProfile profile = getProfile();
+            return profile == null ? getDuration() : profile.getDuration(tick);
+        }
+
+        /**
+         * Returns the {@link TravelTimeProfile} of this {@link Edge}.
+         *
+         * @return The {@link TravelTimeProfile} of this {@link Edge} or {@code null} if its duration does not depend
+         * on the time.
+         */
+        default @Nullable TravelTimeProfile getProfile() {
+            return null;
+        }
+
         /**
          * Returns the start {@link Region.Node} of this {@link EdgeImpl}.
          *
@@ -314,9 +448,94 @@ public interface Region {
         Builder removeComponent(String name);
 
         /**
-         * Constructs the new {@link Region}.
+         * Constructs the new {@link Region}. No nodes or edges can be added to the returned {@link Region}, only
+         * the durations of its edges can be changed via {@link Region#setEdgeDuration(Edge, long)}. It returns the
+         * same unmodifiable collections from {@link Region#getNodes()} and {@link Region#getEdges()} on every call.
+         *
+         * @return The constructed {@link Region}.
+         */
+        Region build();
+    }
+
+    /**
+     * Builds a {@link Region} from a large amount of components.<p>
+     * <p>
+     * Unlike {@link Builder}, components can only be added, not checked or removed. They are collected in arrays and
+     * duplicates are detected by hash lookups. {@link #build()} creates the nodes and edges in parallel and returns
+     * a {@link Region} equal to the one {@link Builder} would build from the same components.
+     */
+    interface BulkBuilder {
+
+        /**
+         * Sets the used {@link DistanceCalculator} to the given {@link DistanceCalculator}.
+         *
+         * @param distanceCalculator The new {@link DistanceCalculator}.
+         * @return The current {@link BulkBuilder}.
+         */
+        BulkBuilder distanceCalculator(DistanceCalculator distanceCalculator);
+
+        /**
+         * Adds a new {@link Node} to the constructed {@link Region}.
+         *
+         * @param name     The name of the new {@link Node}.
+         * @param location The {@link Location} of the new {@link Node}.
+         * @return The current {@link BulkBuilder}.
+         * @throws IllegalArgumentException If the name or the {@link Location} is already used.
+         */
+        BulkBuilder addNode(String name, Location location);
+
+        /**
+         * Adds a new {@link Neighborhood} to the constructed {@link Region}.
+         *
+         * @param name     The name of the new {@link Neighborhood}.
+         * @param location The {@link Location} of the new {@link Neighborhood}.
+         * @return The current {@link BulkBuilder}.
+         * @throws IllegalArgumentException If the name or the {@link Location} is already used.
+         */
+        BulkBuilder addNeighborhood(String name, Location location);
+
+        /**
+         * Adds a new {@link Restaurant} to the constructed {@link Region}.
+         *
+         * @param name          The name of the new {@link Restaurant}.
+         * @param location      The {@link Location} of the new {@link Restaurant}.
+         * @param availableFood The available food of the new {@link Restaurant}.
+         * @return The current {@link BulkBuilder}.
+         * @throws IllegalArgumentException If the name or the {@link Location} is already used.
+         */
+        BulkBuilder addRestaurant(String name, Location location, List<String> availableFood);
+
+        /**
+         * Adds a new {@link Edge} to the constructed {@link Region}. Its nodes may be added later.
+         *
+         * @param name      The name of the new {@link Edge}.
+         * @param locationA The start {@link Location} of the new {@link Edge}.
+         * @param locationB The end {@link Location} of the new {@link Edge}.
+         * @return The current {@link BulkBuilder}.
+         * @throws IllegalArgumentException If the name is already used or the {@link Location}s are already
+         *                                  connected.
+         */
+        BulkBuilder addEdge(String name, Location locationA, Location locationB);
+
+        /**
+         * Adds a new {@link Edge} with the given duration to the constructed {@link Region}, e.g. an imported road
+         * that is longer than the distance between its nodes. Its nodes may be added later.
+         *
+         * @param name      The name of the new {@link Edge}.
+         * @param locationA The start {@link Location} of the new {@link Edge}.
+         * @param locationB The end {@link Location} of the new {@link Edge}.
+         * @param duration  The duration of the new {@link Edge}.
+         * @return The current {@link BulkBuilder}.
+         * @throws IllegalArgumentException If the name is already used, the {@link Location}s are already
+         *                                  connected or the duration is negative.
+         */
+        BulkBuilder addEdge(String name, Location locationA, Location locationB, long duration);
+
+        /**
+         * Constructs the new {@link Region} the same way {@link Builder#build()} does.
          *
          * @return The constructed {@link Region}.
+         * @throws IllegalArgumentException If an {@link Edge} connects a {@link Location} without a {@link Node}.
          */
         Region build();
     }
@@ -114,9 +114,7 @@ class RegionBuilderImpl implements Region.Builder {
             return false;
         }
 
-        return edges.stream()
-                    .noneMatch(edgeBuilder -> edgeBuilder.getLocationA().equals(locationA) && edgeBuilder.getLocationB()
-                                                                                                         .equals(locationB));
+        return !edges.contains(new EdgeBuilder(name, locationA, locationB));
     }
 
     @Override
@@ -127,15 +125,8 @@ class RegionBuilderImpl implements Region.Builder {
 
         allNames.remove(name);
 
-        for (NodeBuilder nodeBuilder : nodes.values()) {
-            if (nodeBuilder.name.equals(name)) {
-                nodes.remove(nodes.keySet()
-                                  .stream()
-                                  .filter(key -> nodes.get(key).equals(nodeBuilder))
-                                  .findFirst()
-                                  .orElseThrow());
-                return this;
-            }
+        if (nodes.values().removeIf(nodeBuilder -> nodeBuilder.name.equals(name))) {
+            return this;
         }
 
         for (EdgeBuilder edgeBuilder : edges) {
@@ -168,6 +159,7 @@ class RegionBuilderImpl implements Region.Builder {
             nodes.get(e.locationB).connections.add(e.locationA);
             region.putEdge(e.build(region, distanceCalc));
         });
+        region.freeze();
         return region;
     }
 
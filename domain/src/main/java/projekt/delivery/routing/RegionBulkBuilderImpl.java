@@ -0,0 +1,235 @@
+package projekt.delivery.routing;
+
+import projekt.base.DistanceCalculator;
+import projekt.base.Location;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * The implementation of {@link Region.BulkBuilder}.<p>
+ * <p>
+ * Nodes and edges are stored in parallel arrays that grow by doubling. The indices of the nodes are kept in a
+ * {@link HashMap} by their {@link Location}, names and connected pairs of {@link Location}s in {@link HashSet}s, all
+ * sized for the expected amounts. {@link #build()} resolves the nodes of every edge, gathers the connections of the
+ * nodes in a compressed adjacency array and then creates the nodes and edges in parallel.
+ */
+class RegionBulkBuilderImpl implements Region.BulkBuilder {
+
+    private static final byte NODE = 0;
+    private static final byte NEIGHBORHOOD = 1;
+    private static final byte RESTAURANT = 2;
+
+    private final Map<Location, Integer> nodeIndices;
+    private final Set<String> allNames;
+    private final Set<Connection> connections;
+    private final Map<Integer, List<String>> availableFoods = new HashMap<>();
+    private String[] nodeNames;
+    private Location[] nodeLocations;
+    private byte[] nodeTypes;
+    private int nodeCount;
+    private String[] edgeNames;
+    private Location[] edgeLocationsA;
+    private Location[] edgeLocationsB;
+    /**
+     * The durations of the edges or -1 if the duration is calculated from the distance of the nodes.
+     */
+    private long[] edgeDurations;
+    private int edgeCount;
+    private DistanceCalculator distanceCalc;
+
+    RegionBulkBuilderImpl(int nodeCount, int edgeCount) {
+        if (nodeCount < 0 || edgeCount < 0) {
+            throw new IllegalArgumentException("The amounts of nodes and edges must not be negative, got %d and %d"
+                .formatted(nodeCount, edgeCount));
+        }
+        this.nodeIndices = new HashMap<>(capacity(nodeCount));
+        this.allNames = new HashSet<>(capacity(nodeCount + edgeCount));
+        this.connections = new HashSet<>(capacity(edgeCount));
+        this.nodeNames = new String[nodeCount];
+        this.nodeLocations = new Location[nodeCount];
+        this.nodeTypes = new byte[nodeCount];
+        this.edgeNames = new String[edgeCount];
+        this.edgeLocationsA = new Location[edgeCount];
+        this.edgeLocationsB = new Location[edgeCount];
+        this.edgeDurations = new long[edgeCount];
+    }
+
+    /**
+     * Returns the initial capacity of a hash table that holds the given amount of entries without rehashing.
+     */
+    private static int capacity(int expected) {
+        return (int) Math.min((long) Math.ceil(expected / 0.75), 1 << 30);
+    }
+
+    @Override
+    public Region.BulkBuilder distanceCalculator(DistanceCalculator distanceCalculator) {
+        this.distanceCalc = distanceCalculator;
+        return this;
+    }
+
+    @Override
+    public Region.BulkBuilder addNode(String name, Location location) {
+        putNode(name, location, NODE);
+        return this;
+    }
+
+    @Override
+    public Region.BulkBuilder addNeighborhood(String name, Location location) {
+        putNode(name, location, NEIGHBORHOOD);
+        return this;
+    }
+
+    @Override
+    public Region.BulkBuilder addRestaurant(String name, Location location, List<String> availableFood) {
+        availableFoods.put(putNode(name, location, RESTAURANT), availableFood);
+        return this;
+    }
+
+    private int putNode(String name, Location location, byte type) {
+        addName(name);
+        if (nodeIndices.putIfAbsent(location, nodeCount) != null) {
+            allNames.remove(name);
+            throw new IllegalArgumentException("Duplicate node at location " + location);
+        }
+        if (nodeCount == nodeNames.length) {
+            int length = Math.max(16, nodeCount * 2);
+            nodeNames = Arrays.copyOf(nodeNames, length);
+            nodeLocations = Arrays.copyOf(nodeLocations, length);
+            nodeTypes = Arrays.copyOf(nodeTypes, length);
+        }
+        nodeNames[nodeCount] = name;
+        nodeLocations[nodeCount] = location;
+        nodeTypes[nodeCount] = type;
+        return nodeCount++;
+    }
+
+    @Override
+    public Region.BulkBuilder addEdge(String name, Location locationA, Location locationB) {
+        putEdge(name, locationA, locationB, -1);
+        return this;
+    }
+
+    @Override
+    public Region.BulkBuilder addEdge(String name, Location locationA, Location locationB, long duration) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("The duration must not be negative, got " + duration);
+        }
+        putEdge(name, locationA, locationB, duration);
+        return this;
+    }
+
+    private void putEdge(String name, Location locationA, Location locationB, long duration) {
+        if (locationA.compareTo(locationB) > 0) {
+            putEdge(name, locationB, locationA, duration);
+            return;
+        }
+        addName(name);
+        if (!connections.add(new Connection(locationA, locationB))) {
+            allNames.remove(name);
+            throw new IllegalArgumentException("Duplicate edge connecting %s to %s".formatted(locationA, locationB));
+        }
+        if (edgeCount == edgeNames.length) {
+            int length = Math.max(16, edgeCount * 2);
+            edgeNames = Arrays.copyOf(edgeNames, length);
+            edgeLocationsA = Arrays.copyOf(edgeLocationsA, length);
+            edgeLocationsB = Arrays.copyOf(edgeLocationsB, length);
+            edgeDurations = Arrays.copyOf(edgeDurations, length);
+        }
+        edgeNames[edgeCount] = name;
+        edgeLocationsA[edgeCount] = locationA;
+        edgeLocationsB[edgeCount] = locationB;
+        edgeDurations[edgeCount] = duration;
+        edgeCount++;
+    }
+
+    private void addName(String name) {
+        if (!allNames.add(name)) {
+            throw new IllegalArgumentException(String.format("Duplicate name '%s'", name));
+        }
+    }
+
+    @Override
+    public Region build() {
+        Objects.requireNonNull(distanceCalc, "distanceCalculator");
+        RegionImpl region = new RegionImpl(distanceCalc);
+
+        int[] nodesA = new int[edgeCount];
+        int[] nodesB = new int[edgeCount];
+        IntStream.range(0, edgeCount).parallel().forEach(edge -> {
+            Integer nodeA = nodeIndices.get(edgeLocationsA[edge]);
+            Integer nodeB = nodeIndices.get(edgeLocationsB[edge]);
+            if (nodeA == null || nodeB == null) {
+                throw new IllegalArgumentException(
+                    "Can't create an edge if one of the connected nodes wasn't added to the region");
+            }
+            nodesA[edge] = nodeA;
+            nodesB[edge] = nodeB;
+        });
+
+        // the connections of node i are neighbors[offsets[i]] to neighbors[offsets[i + 1] - 1]
+        int[] offsets = new int[nodeCount + 1];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            offsets[nodesA[edge] + 1]++;
+            offsets[nodesB[edge] + 1]++;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            offsets[node + 1] += offsets[node];
+        }
+        Location[] neighbors = new Location[offsets[nodeCount]];
+        int[] next = Arrays.copyOf(offsets, nodeCount);
+        for (int edge = 0; edge < edgeCount; edge++) {
+            neighbors[next[nodesA[edge]]++] = edgeLocationsB[edge];
+            neighbors[next[nodesB[edge]]++] = edgeLocationsA[edge];
+        }
+
+        NodeImpl[] nodes = new NodeImpl[nodeCount];
+        IntStream.range(0, nodeCount).parallel().forEach(node -> {
+            Set<Location> connections = new HashSet<>(capacity(offsets[node + 1] - offsets[node]));
+            connections.addAll(Arrays.asList(neighbors).subList(offsets[node], offsets[node + 1]));
+            nodes[node] = buildNode(region, node, Collections.unmodifiableSet(connections));
+        });
+        EdgeImpl[] edges = new EdgeImpl[edgeCount];
+        IntStream.range(0, edgeCount).parallel().forEach(edge -> edges[edge] = edgeDurations[edge] < 0
+            ? new RegionBuilderImpl.EdgeBuilder(edgeNames[edge], edgeLocationsA[edge], edgeLocationsB[edge])
+            .build(region, distanceCalc)
+            : new EdgeImpl(region, edgeNames[edge], edgeLocationsA[edge], edgeLocationsB[edge], edgeDurations[edge]));
+        // the incremental builder adds its edges in this order
+        Arrays.parallelSort(edges, Comparator.comparing(EdgeImpl::getLocationA).thenComparing(EdgeImpl::getLocationB));
+
+        for (NodeImpl node : nodes) {
+            region.putNode(node);
+        }
+        for (EdgeImpl edge : edges) {
+            region.putEdge(edge);
+        }
+        region.freeze();
+        return region;
+    }
+
+    private NodeImpl buildNode(Region region, int node, Set<Location> connections) {
+        return switch (nodeTypes[node]) {
+            case NEIGHBORHOOD -> new NeighborhoodImpl(region, nodeNames[node], nodeLocations[node], connections);
+            case RESTAURANT -> new RestaurantImpl(region,
+                                                  nodeNames[node],
+                                                  nodeLocations[node],
+                                                  connections,
+                                                  availableFoods.get(node));
+            default -> new NodeImpl(region, nodeNames[node], nodeLocations[node], connections);
+        };
+    }
+
+    /**
+     * A pair of connected {@link Location}s in ascending order.
+     */
+    private record Connection(Location locationA, Location locationB) {
+    }
+}
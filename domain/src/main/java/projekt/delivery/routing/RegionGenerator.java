@@ -0,0 +1,539 @@
+package projekt.delivery.routing;
+
+import projekt.base.DistanceCalculator;
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * Generates synthetic {@link Region}s of any size, e.g. to measure routing and simulation performance on large road
+ * networks.<p>
+ * <p>
+ * The generated road network follows one of the {@link Layout}s. It is always connected: the generator first adds a
+ * spanning tree of the nodes and then adds further edges of the layout until the {@link #averageDegree(double)} is
+ * reached or the layout has no more edges to offer. The given amounts of {@link Region.Restaurant}s and
+ * {@link Region.Neighborhood}s are placed on randomly chosen nodes, all other nodes are plain {@link Region.Node}s.
+ * <p>
+ * All random choices are made by a {@link Random} created from the seed, so the same seed and settings always
+ * generate the same {@link Region}. The {@link Region} is built with a {@link Region.BulkBuilder} and can be written
+ * like any other {@link Region}.
+ */
+public final class RegionGenerator {
+
+    private static final List<Region.Restaurant.Preset> PRESETS = List.of(Region.Restaurant.LOS_FOPBOTS_HERMANOS,
+                                                                          Region.Restaurant.JAVA_HUT,
+                                                                          Region.Restaurant.PASTAFAR,
+                                                                          Region.Restaurant.PALPAPIZZA,
+                                                                          Region.Restaurant.ISENJAR,
+                                                                          Region.Restaurant.MIDDLE_FOP,
+                                                                          Region.Restaurant.MOUNT_DOOM_PIZZA);
+
+    private final long seed;
+    private Layout layout = Layout.GRID;
+    private int nodeCount = 100;
+    private int restaurantCount = 1;
+    private int neighborhoodCount = 10;
+    private double averageDegree = 3;
+    private int spacing = 10;
+    private DistanceCalculator distanceCalculator = new EuclideanDistanceCalculator();
+
+    /**
+     * Creates a new {@link RegionGenerator} that generates a grid of 100 nodes with one {@link Region.Restaurant}, 10
+     * {@link Region.Neighborhood}s, an average degree of 3 and a spacing of 10.
+     *
+     * @param seed The seed of all random choices.
+     */
+    RegionGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the {@link Layout} of the generated road network.
+     *
+     * @param layout The new {@link Layout}.
+     * @return The current {@link RegionGenerator}.
+     */
+    public RegionGenerator layout(Layout layout) {
+        this.layout = layout;
+        return this;
+    }
+
+    /**
+     * Sets the amount of nodes of the generated {@link Region}.
+     *
+     * @param nodeCount The new amount of nodes.
+     * @return The current {@link RegionGenerator}.
+     * @throws IllegalArgumentException If the amount is not positive.
+     */
+    public RegionGenerator nodeCount(int nodeCount) {
+        if (nodeCount <= 0) {
+            throw new IllegalArgumentException("The amount of nodes must be positive, got " + nodeCount);
+        }
+        this.nodeCount = nodeCount;
+        return this;
+    }
+
+    /**
+     * Sets the amount of {@link Region.Restaurant}s of the generated {@link Region}.
+     *
+     * @param restaurantCount The new amount of {@link Region.Restaurant}s.
+     * @return The current {@link RegionGenerator}.
+     * @throws IllegalArgumentException If the amount is negative.
+     */
+    public RegionGenerator restaurantCount(int restaurantCount) {
+        if (restaurantCount < 0) {
+            throw new IllegalArgumentException("The amount of restaurants must not be negative, got "
+                + restaurantCount);
+        }
+        this.restaurantCount = restaurantCount;
+        return this;
+    }
+
+    /**
+     * Sets the amount of {@link Region.Neighborhood}s of the generated {@link Region}.
+     *
+     * @param neighborhoodCount The new amount of {@link Region.Neighborhood}s.
+     * @return The current {@link RegionGenerator}.
+     * @throws IllegalArgumentException If the amount is negative.
+     */
+    public RegionGenerator neighborhoodCount(int neighborhoodCount) {
+        if (neighborhoodCount < 0) {
+            throw new IllegalArgumentException("The amount of neighborhoods must not be negative, got "
+                + neighborhoodCount);
+        }
+        this.neighborhoodCount = neighborhoodCount;
+        return this;
+    }
+
+    /**
+     * Sets the average amount of edges per node of the generated {@link Region}. The generated {@link Region} has at
+     * least the edges of a spanning tree, i.e. an average degree of almost 2, and at most the edges its
+     * {@link Layout} offers.
+     *
+     * @param averageDegree The new average degree.
+     * @return The current {@link RegionGenerator}.
+     * @throws IllegalArgumentException If the average degree is negative or not a number.
+     */
+    public RegionGenerator averageDegree(double averageDegree) {
+        if (!(averageDegree >= 0)) {
+            throw new IllegalArgumentException("The average degree must not be negative, got " + averageDegree);
+        }
+        this.averageDegree = averageDegree;
+        return this;
+    }
+
+    /**
+     * Sets the distance between neighboring nodes of the generated {@link Region}. Nodes of a
+     * {@link Layout#RANDOM_GEOMETRIC} network are on average this far apart.
+     *
+     * @param spacing The new spacing.
+     * @return The current {@link RegionGenerator}.
+     * @throws IllegalArgumentException If the spacing is less than 2.
+     */
+    public RegionGenerator spacing(int spacing) {
+        if (spacing < 2) {
+            throw new IllegalArgumentException("The spacing must be at least 2, got " + spacing);
+        }
+        this.spacing = spacing;
+        return this;
+    }
+
+    /**
+     * Sets the {@link DistanceCalculator} of the generated {@link Region}.
+     *
+     * @param distanceCalculator The new {@link DistanceCalculator}.
+     * @return The current {@link RegionGenerator}.
+     */
+    public RegionGenerator distanceCalculator(DistanceCalculator distanceCalculator) {
+        this.distanceCalculator = distanceCalculator;
+        return this;
+    }
+
+    /**
+     * Generates a new {@link Region} with the current settings.
+     *
+     * @return The generated {@link Region}.
+     * @throws IllegalArgumentException If there are more {@link Region.Restaurant}s and {@link Region.Neighborhood}s
+     *                                  than nodes or the nodes do not fit into the coordinate range.
+     */
+    public Region generate() {
+        if ((long) restaurantCount + neighborhoodCount > nodeCount) {
+            throw new IllegalArgumentException("%d restaurants and %d neighborhoods do not fit into %d nodes"
+                .formatted(restaurantCount, neighborhoodCount, nodeCount));
+        }
+        if ((long) Math.ceil(Math.sqrt(nodeCount)) * spacing * 2 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("%d nodes with a spacing of %d exceed the coordinate range"
+                .formatted(nodeCount, spacing));
+        }
+        Random random = new Random(seed);
+        long targetEdgeCount = Math.max(nodeCount - 1, Math.round(nodeCount * averageDegree / 2));
+        Network network = switch (layout) {
+            case GRID -> grid(random);
+            case RADIAL -> radial(random);
+            case RANDOM_GEOMETRIC -> randomGeometric(random, targetEdgeCount);
+        };
+
+        int edgeCount = (int) Math.min(targetEdgeCount, network.tree.size + network.candidates.size);
+        Region.BulkBuilder builder = Region.bulkBuilder(nodeCount, edgeCount).distanceCalculator(distanceCalculator);
+        addNodes(builder, network.locations, random);
+        for (int edge = 0; edge < edgeCount; edge++) {
+            Pairs pairs = edge < network.tree.size ? network.tree : network.candidates;
+            int i = edge < network.tree.size ? edge : edge - network.tree.size;
+            builder.addEdge("E" + edge, network.locations[pairs.first[i]], network.locations[pairs.second[i]]);
+        }
+        return builder.build();
+    }
+
+    private void addNodes(Region.BulkBuilder builder, Location[] locations, Random random) {
+        int[] order = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            order[i] = i;
+        }
+        // the first positions of a partial Fisher-Yates shuffle choose the restaurants and neighborhoods
+        for (int i = 0; i < restaurantCount + neighborhoodCount; i++) {
+            int j = i + random.nextInt(nodeCount - i);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            int node = order[i];
+            if (i < restaurantCount) {
+                Region.Restaurant.Preset preset = PRESETS.get(i % PRESETS.size());
+                builder.addRestaurant(preset.name() + " " + node, locations[node], preset.availableFoods());
+            } else if (i < restaurantCount + neighborhoodCount) {
+                builder.addNeighborhood("H" + node, locations[node]);
+            } else {
+                builder.addNode("N" + node, locations[node]);
+            }
+        }
+    }
+
+    /**
+     * Places the nodes row by row on a square grid. The tree consists of all rows and the first column, the
+     * remaining columns are added before the diagonals.
+     */
+    private Network grid(Random random) {
+        int side = (int) Math.ceil(Math.sqrt(nodeCount));
+        Location[] locations = new Location[nodeCount];
+        Pairs tree = new Pairs(nodeCount);
+        Pairs columns = new Pairs(nodeCount);
+        Pairs diagonals = new Pairs(2 * nodeCount);
+        for (int node = 0; node < nodeCount; node++) {
+            int column = node % side;
+            locations[node] = new Location(column * spacing, node / side * spacing);
+            if (column + 1 < side && node + 1 < nodeCount) {
+                tree.add(node, node + 1);
+            }
+            if (node + side < nodeCount) {
+                (column == 0 ? tree : columns).add(node, node + side);
+            }
+            if (column + 1 < side && node + side + 1 < nodeCount) {
+                diagonals.add(node, node + side + 1);
+            }
+            if (column > 0 && node + side - 1 < nodeCount) {
+                diagonals.add(node, node + side - 1);
+            }
+        }
+        columns.shuffle(random);
+        diagonals.shuffle(random);
+        columns.addAll(diagonals);
+        return new Network(locations, tree, columns);
+    }
+
+    /**
+     * Places the nodes on rings around a center, the ring with index r consisting of 6r nodes. The tree connects
+     * every node to the closest node of the next inner ring, the ring roads are added before second connections to
+     * the inner ring.
+     */
+    private Network radial(Random random) {
+        Location[] locations = new Location[nodeCount];
+        Pairs tree = new Pairs(nodeCount);
+        Pairs rings = new Pairs(nodeCount);
+        Pairs spokes = new Pairs(nodeCount);
+        locations[0] = new Location(0, 0);
+        for (int ring = 1, start = 1; start < nodeCount; start += 6 * ring, ring++) {
+            int size = 6 * ring;
+            int innerStart = start - 6 * (ring - 1);
+            int innerSize = Math.max(1, 6 * (ring - 1));
+            for (int j = 0; j < size && start + j < nodeCount; j++) {
+                int node = start + j;
+                double angle = 2 * Math.PI * j / size;
+                locations[node] = new Location((int) Math.round(Math.cos(angle) * ring * spacing),
+                                               (int) Math.round(Math.sin(angle) * ring * spacing));
+                double inner = (double) j * innerSize / size;
+                int closest = (int) Math.round(inner) % innerSize;
+                tree.add(node, ring == 1 ? 0 : innerStart + closest);
+                int other = (closest == (int) Math.floor(inner) ? (int) Math.ceil(inner) : (int) Math.floor(inner))
+                    % innerSize;
+                if (ring > 1 && other != closest) {
+                    spokes.add(node, innerStart + other);
+                }
+                if (j > 0) {
+                    rings.add(node - 1, node);
+                }
+                if (j == size - 1) {
+                    rings.add(node, start);
+                }
+            }
+        }
+        rings.shuffle(random);
+        spokes.shuffle(random);
+        rings.addAll(spokes);
+        return new Network(locations, tree, rings);
+    }
+
+    /**
+     * Places the nodes uniformly at random in a square and connects every node to its nearest neighbors. The tree is
+     * the minimum spanning forest of these connections, joined by connecting every further component to its closest
+     * node outside of it. The remaining connections are added shortest first.
+     */
+    private Network randomGeometric(Random random, long targetEdgeCount) {
+        int side = (int) Math.ceil(Math.sqrt(nodeCount));
+        Location[] locations = new Location[nodeCount];
+        Set<Location> used = new HashSet<>();
+        for (int node = 0; node < nodeCount; node++) {
+            do {
+                locations[node] = new Location(random.nextInt(side * spacing), random.nextInt(side * spacing));
+            } while (!used.add(locations[node]));
+        }
+        Cells cells = new Cells(locations, side, spacing);
+
+        int neighbors = (int) Math.min(nodeCount - 1, Math.max(2, Math.ceil(targetEdgeCount * 2.0 / nodeCount) + 1));
+        long[] keys = new long[nodeCount * neighbors];
+        int size = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            for (int neighbor : cells.nearest(node, neighbors, other -> true)) {
+                keys[size++] = (long) Math.min(node, neighbor) << 32 | Math.max(node, neighbor);
+            }
+        }
+        Arrays.sort(keys, 0, size);
+        int unique = 0;
+        for (int i = 0; i < size; i++) {
+            if (unique == 0 || keys[unique - 1] != keys[i]) {
+                keys[unique++] = keys[i];
+            }
+        }
+        // sort by squared length, ties by position in keys
+        long[] order = new long[unique];
+        for (int i = 0; i < unique; i++) {
+            long length = cells.squaredDistance((int) (keys[i] >>> 32), (int) keys[i]);
+            order[i] = Math.min(length, Integer.MAX_VALUE) << 32 | i;
+        }
+        Arrays.sort(order);
+
+        int[] parents = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            parents[node] = node;
+        }
+        Pairs tree = new Pairs(nodeCount);
+        Pairs candidates = new Pairs(unique);
+        for (long entry : order) {
+            long key = keys[(int) entry];
+            int nodeA = (int) (key >>> 32);
+            int nodeB = (int) key;
+            if (union(parents, nodeA, nodeB)) {
+                tree.add(nodeA, nodeB);
+            } else {
+                candidates.add(nodeA, nodeB);
+            }
+        }
+        for (int node = 1; node < nodeCount; node++) {
+            while (find(parents, node) != find(parents, 0)) {
+                int component = find(parents, node);
+                int closest = cells.nearest(node, 1, other -> find(parents, other) != component)[0];
+                union(parents, node, closest);
+                tree.add(node, closest);
+            }
+        }
+        return new Network(locations, tree, candidates);
+    }
+
+    private static int find(int[] parents, int node) {
+        while (parents[node] != node) {
+            parents[node] = parents[parents[node]];
+            node = parents[node];
+        }
+        return node;
+    }
+
+    private static boolean union(int[] parents, int nodeA, int nodeB) {
+        int rootA = find(parents, nodeA);
+        int rootB = find(parents, nodeB);
+        if (rootA == rootB) {
+            return false;
+        }
+        parents[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        return true;
+    }
+
+    /**
+     * The layout of a generated road network.
+     */
+    public enum Layout {
+
+        /**
+         * Nodes on a square grid, connected to their horizontal, vertical and, for average degrees above 4, diagonal
+         * neighbors.
+         */
+        GRID,
+
+        /**
+         * Nodes on rings around a center, connected along the rings and to the next inner ring, like the roads of a
+         * city growing around its center.
+         */
+        RADIAL,
+
+        /**
+         * Nodes at random positions, connected to their nearest neighbors.
+         */
+        RANDOM_GEOMETRIC
+    }
+
+    /**
+     * The nodes of a generated network, the edges of its spanning tree and the further edges in the order they are
+     * added.
+     */
+    private record Network(Location[] locations, Pairs tree, Pairs candidates) {
+    }
+
+    /**
+     * A growable list of pairs of node indices.
+     */
+    private static final class Pairs {
+
+        private int[] first;
+        private int[] second;
+        private int size;
+
+        private Pairs(int capacity) {
+            this.first = new int[Math.max(capacity, 1)];
+            this.second = new int[Math.max(capacity, 1)];
+        }
+
+        private void add(int nodeA, int nodeB) {
+            if (size == first.length) {
+                first = Arrays.copyOf(first, size * 2);
+                second = Arrays.copyOf(second, size * 2);
+            }
+            first[size] = nodeA;
+            second[size] = nodeB;
+            size++;
+        }
+
+        private void addAll(Pairs pairs) {
+            for (int i = 0; i < pairs.size; i++) {
+                add(pairs.first[i], pairs.second[i]);
+            }
+        }
+
+        private void shuffle(Random random) {
+            for (int i = size - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = first[i];
+                first[i] = first[j];
+                first[j] = swap;
+                swap = second[i];
+                second[i] = second[j];
+                second[j] = swap;
+            }
+        }
+    }
+
+    /**
+     * The nodes of a network sorted into square cells with the spacing as side length, for nearest neighbor
+     * searches.
+     */
+    private static final class Cells {
+
+        private final Location[] locations;
+        private final int side;
+        private final int spacing;
+        /**
+         * The nodes in cell c are nodes[starts[c]] to nodes[starts[c + 1] - 1].
+         */
+        private final int[] starts;
+        private final int[] nodes;
+
+        private Cells(Location[] locations, int side, int spacing) {
+            this.locations = locations;
+            this.side = side;
+            this.spacing = spacing;
+            this.starts = new int[side * side + 1];
+            this.nodes = new int[locations.length];
+            for (Location location : locations) {
+                starts[cell(location) + 1]++;
+            }
+            for (int c = 0; c < side * side; c++) {
+                starts[c + 1] += starts[c];
+            }
+            int[] next = Arrays.copyOf(starts, side * side);
+            for (int node = 0; node < locations.length; node++) {
+                nodes[next[cell(locations[node])]++] = node;
+            }
+        }
+
+        private int cell(Location location) {
+            return location.getY() / spacing * side + location.getX() / spacing;
+        }
+
+        private long squaredDistance(int nodeA, int nodeB) {
+            long dx = locations[nodeA].getX() - locations[nodeB].getX();
+            long dy = locations[nodeA].getY() - locations[nodeB].getY();
+            return dx * dx + dy * dy;
+        }
+
+        /**
+         * Returns up to the given amount of nodes closest to the given node that match the filter, searching the
+         * cells ring by ring around the cell of the node.
+         */
+        private int[] nearest(int node, int count, IntPredicate filter) {
+            int[] found = new int[count];
+            long[] distances = new long[count];
+            int size = 0;
+            int x = locations[node].getX() / spacing;
+            int y = locations[node].getY() / spacing;
+            for (int ring = 0; ring < side; ring++) {
+                for (int cy = Math.max(0, y - ring); cy <= Math.min(side - 1, y + ring); cy++) {
+                    int step = cy == y - ring || cy == y + ring ? 1 : 2 * ring;
+                    for (int cx = x - ring; cx <= x + ring; cx += Math.max(step, 1)) {
+                        if (cx < 0 || cx >= side) {
+                            continue;
+                        }
+                        int c = cy * side + cx;
+                        for (int i = starts[c]; i < starts[c + 1]; i++) {
+                            int other = nodes[i];
+                            if (other == node || !filter.test(other)) {
+                                continue;
+                            }
+                            long distance = squaredDistance(node, other);
+                            if (size == count && distance >= distances[count - 1]) {
+                                continue;
+                            }
+                            int j = size == count ? count - 1 : size++;
+                            while (j > 0 && distances[j - 1] > distance) {
+                                distances[j] = distances[j - 1];
+                                found[j] = found[j - 1];
+                                j--;
+                            }
+                            distances[j] = distance;
+                            found[j] = other;
+                        }
+                    }
+                }
+                // nodes outside of the searched rings are at least ring * spacing away
+                long reach = (long) ring * spacing;
+                if (size == count && distances[count - 1] <= reach * reach) {
+                    break;
+                }
+            }
+            return Arrays.copyOf(found, size);
+        }
+    }
+}
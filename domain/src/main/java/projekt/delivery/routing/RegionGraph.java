@@ -0,0 +1,581 @@
+package projekt.delivery.routing;
+
+import projekt.base.Location;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Objects;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A frozen, index-based view of the graph underlying a {@link Region}.<p>
+ * <p>
+ * Every {@link Region.Node} is assigned a dense id in {@code [0, nodeCount())}, in ascending {@link Location} order.
+ * The adjacency is stored in compressed-sparse-row form: the arcs leaving the node {@code u} are the arcs
+ * {@code arcStart(u)} (inclusive) to {@code arcEnd(u)} (exclusive), sorted by their target id. Every
+ * {@link Region.Edge} is stored as two arcs, one in each direction. The arcs leaving a node are also available in
+ * the iteration order of {@link Region.Node#getAdjacentNodes()} via {@link #adjacentArc(int)}.<p>
+ * <p>
+ * The structure of the graph never changes, but the durations of its arcs are updated in place when the duration
+ * of an {@link Region.Edge} is changed via {@link Region#setEdgeDuration(Region.Edge, long)}. Every change
+ * increments the {@link #version()} of the graph, and the most recent changes are logged so that data derived from
+ * the graph can be repaired instead of being recomputed.<p>
+ * <p>
+ * Edges may have a {@link TravelTimeProfile}, which is only used by time-dependent searches via
+ * {@link #arcDuration(int, long)}. Changing a profile increments the {@link #profileVersion()} instead of the
+ * {@link #version()}, so data derived from the static durations stays valid.
+ */
+public final class RegionGraph {
+
+    /**
+     * The amount of duration changes that are logged.
+     */
+    static final int CHANGE_LOG_SIZE = 1024;
+
+    private final Region region;
+    private final Region.Node[] nodes;
+    private final Region.Edge[] edges;
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] arcEdges;
+    private final long[] durations;
+    private final int[] adjacentArcs;
+    private final int[] endpointsA;
+    private final int[] endpointsB;
+    private final int[] changes = new int[CHANGE_LOG_SIZE];
+    private volatile long version;
+    private volatile long lastDecrease;
+    private long fingerprint;
+    private long fingerprintVersion;
+    /**
+     * The {@link TravelTimeProfile} of each edge or {@code null} if no edge has one. The array is replaced, never
+     * modified, when a profile changes.
+     */
+    private volatile TravelTimeProfile @Nullable [] profiles;
+    private volatile long profileVersion;
+
+    /**
+     * Creates a new {@link RegionGraph} instance.
+     *
+     * @param region The {@link Region} this {@link RegionGraph} represents.
+     * @param nodes  All {@link Region.Node}s of the given {@link Region}.
+     * @param edges  All {@link Region.Edge}s of the given {@link Region}.
+     */
+    RegionGraph(Region region, Collection<? extends Region.Node> nodes, Collection<? extends Region.Edge> edges) {
+        this.region = region;
+        this.nodes = nodes.toArray(Region.Node[]::new);
+        Arrays.sort(this.nodes, Comparator.comparing(Region.Node::getLocation));
+        this.xs = new int[this.nodes.length];
+        this.ys = new int[this.nodes.length];
+        for (int i = 0; i < this.nodes.length; i++) {
+            Location location = this.nodes[i].getLocation();
+            xs[i] = location.getX();
+            ys[i] = location.getY();
+            if (this.nodes[i] instanceof NodeImpl node) {
+                node.index = i;
+            }
+        }
+
+        this.endpointsA = new int[edges.size()];
+        this.endpointsB = new int[edges.size()];
+        this.edges = edges.toArray(Region.Edge[]::new);
+        Arrays.sort(this.edges, Comparator.comparing(RegionGraph::locationA).thenComparing(RegionGraph::locationB));
+        this.offsets = new int[this.nodes.length + 1];
+        for (int e = 0; e < this.edges.length; e++) {
+            if (this.edges[e] instanceof EdgeImpl edge) {
+                edge.index = e;
+            }
+            endpointsA[e] = indexOf(locationA(this.edges[e]));
+            endpointsB[e] = indexOf(locationB(this.edges[e]));
+            if (endpointsA[e] < 0 || endpointsB[e] < 0) {
+                throw new IllegalArgumentException("Edge " + this.edges[e]
+                    + " is not connected to nodes of the region");
+            }
+            offsets[endpointsA[e] + 1]++;
+            offsets[endpointsB[e] + 1]++;
+        }
+        for (int i = 0; i < this.nodes.length; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        this.targets = new int[2 * this.edges.length];
+        this.arcEdges = new int[2 * this.edges.length];
+        this.durations = new long[2 * this.edges.length];
+        int[] next = Arrays.copyOf(offsets, this.nodes.length);
+        TravelTimeProfile[] profiles = null;
+        for (int e = 0; e < this.edges.length; e++) {
+            long duration = this.edges[e].getDuration();
+            @Nullable TravelTimeProfile profile = this.edges[e].getProfile();
+            if (profile != null) {
+                profiles = profiles == null ? new TravelTimeProfile[this.edges.length] : profiles;
+                profiles[e] = profile;
+            }
+            int arc = next[endpointsA[e]]++;
+            targets[arc] = endpointsB[e];
+            arcEdges[arc] = e;
+            durations[arc] = duration;
+            arc = next[endpointsB[e]]++;
+            targets[arc] = endpointsA[e];
+            arcEdges[arc] = e;
+            durations[arc] = duration;
+        }
+        for (int u = 0; u < this.nodes.length; u++) {
+            sortArcs(offsets[u], offsets[u + 1]);
+        }
+        this.adjacentArcs = new int[targets.length];
+        for (int u = 0; u < this.nodes.length; u++) {
+            orderAdjacentArcs(u);
+        }
+        this.profiles = profiles;
+        this.fingerprint = computeFingerprint();
+    }
+
+    private long computeFingerprint() {
+        long hash = 31L * nodes.length + edges.length;
+        for (int i = 0; i < nodes.length; i++) {
+            hash = 31 * (31 * hash + xs[i]) + ys[i];
+        }
+        for (int arc = 0; arc < targets.length; arc++) {
+            hash = 31 * (31 * hash + targets[arc]) + durations[arc];
+        }
+        return hash;
+    }
+
+    private static Location locationA(Region.Edge edge) {
+        return edge instanceof EdgeImpl edgeImpl ? edgeImpl.getLocationA() : edge.getNodeA().getLocation();
+    }
+
+    private static Location locationB(Region.Edge edge) {
+        return edge instanceof EdgeImpl edgeImpl ? edgeImpl.getLocationB() : edge.getNodeB().getLocation();
+    }
+
+    /**
+     * Sorts the arcs in the given range by their target. Adjacency lists are short, so insertion sort is sufficient.
+     */
+    private void sortArcs(int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int target = targets[i];
+            int edge = arcEdges[i];
+            long duration = durations[i];
+            int j = i - 1;
+            while (j >= from && targets[j] > target) {
+                targets[j + 1] = targets[j];
+                arcEdges[j + 1] = arcEdges[j];
+                durations[j + 1] = durations[j];
+                j--;
+            }
+            targets[j + 1] = target;
+            arcEdges[j + 1] = edge;
+            durations[j + 1] = duration;
+        }
+    }
+
+    /**
+     * Stores the arcs leaving the given node in the iteration order of its adjacent nodes. If the adjacent nodes do
+     * not match the arcs, e.g. because of parallel edges, the arcs keep the order of their targets.
+     */
+    private void orderAdjacentArcs(int u) {
+        int position = offsets[u];
+        for (Region.Node adjacent : nodes[u].getAdjacentNodes()) {
+            int arc = adjacent == null || position == offsets[u + 1] ? -1 : findArc(u, indexOf(adjacent));
+            if (arc < 0) {
+                position = -1;
+                break;
+            }
+            adjacentArcs[position++] = arc;
+        }
+        if (position != offsets[u + 1]) {
+            for (int arc = offsets[u]; arc < offsets[u + 1]; arc++) {
+                adjacentArcs[arc] = arc;
+            }
+        }
+    }
+
+    /**
+     * Returns the {@link Region} represented by this {@link RegionGraph}.
+     *
+     * @return The {@link Region} represented by this {@link RegionGraph}.
+     */
+    public Region getRegion() {
+        return region;
+    }
+
+    /**
+     * Returns the amount of {@link Region.Node}s in this {@link RegionGraph}.
+     *
+     * @return The amount of {@link Region.Node}s in this {@link RegionGraph}.
+     */
+    public int nodeCount() {
+        return nodes.length;
+    }
+
+    /**
+     * Returns the amount of {@link Region.Edge}s in this {@link RegionGraph}.
+     *
+     * @return The amount of {@link Region.Edge}s in this {@link RegionGraph}.
+     */
+    public int edgeCount() {
+        return edges.length;
+    }
+
+    /**
+     * Returns the {@link Region.Node} with the given id.
+     *
+     * @param id The id of the {@link Region.Node}.
+     * @return The {@link Region.Node} with the given id.
+     */
+    public Region.Node getNode(int id) {
+        return nodes[id];
+    }
+
+    /**
+     * Returns the {@link Region.Edge} with the given id.
+     *
+     * @param id The id of the {@link Region.Edge}.
+     * @return The {@link Region.Edge} with the given id.
+     */
+    public Region.Edge getEdge(int id) {
+        return edges[id];
+    }
+
+    /**
+     * Returns the x-coordinate of the {@link Region.Node} with the given id.
+     *
+     * @param id The id of the {@link Region.Node}.
+     * @return The x-coordinate of the {@link Region.Node}.
+     */
+    public int getX(int id) {
+        return xs[id];
+    }
+
+    /**
+     * Returns the y-coordinate of the {@link Region.Node} with the given id.
+     *
+     * @param id The id of the {@link Region.Node}.
+     * @return The y-coordinate of the {@link Region.Node}.
+     */
+    public int getY(int id) {
+        return ys[id];
+    }
+
+    /**
+     * Returns the id of the given {@link Region.Node}.
+     *
+     * @param node The {@link Region.Node} to return the id of.
+     * @return The id of the given {@link Region.Node} or {@code -1} if it is not part of this {@link RegionGraph}.
+     */
+    public int indexOf(Region.Node node) {
+        if (node instanceof NodeImpl nodeImpl) {
+            int index = nodeImpl.index;
+            if (index >= 0 && index < nodes.length && nodes[index] == node) {
+                return index;
+            }
+        }
+        return indexOf(node.getLocation());
+    }
+
+    /**
+     * Returns the id of the given {@link Region.Node}.
+     *
+     * @param node The {@link Region.Node} to return the id of.
+     * @return The id of the given {@link Region.Node}.
+     * @throws IllegalArgumentException If the {@link Region.Node} is not part of this {@link RegionGraph}.
+     */
+    int checkedIndexOf(Region.Node node) {
+        int index = indexOf(node);
+        if (index < 0) {
+            throw new IllegalArgumentException("Node " + node + " is not part of the region");
+        }
+        return index;
+    }
+
+    /**
+     * Returns the id of the {@link Region.Node} at the given {@link Location}.
+     *
+     * @param location The {@link Location} of the {@link Region.Node}.
+     * @return The id of the {@link Region.Node} at the given {@link Location} or {@code -1} if there is none.
+     */
+    public int indexOf(Location location) {
+        int x = location.getX();
+        int y = location.getY();
+        int low = 0;
+        int high = nodes.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int cmp = xs[middle] != x ? Integer.compare(xs[middle], x) : Integer.compare(ys[middle], y);
+            if (cmp < 0) {
+                low = middle + 1;
+            } else if (cmp > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the first arc leaving the {@link Region.Node} with the given id.
+     *
+     * @param id The id of the {@link Region.Node}.
+     * @return The first arc leaving the {@link Region.Node}.
+     */
+    public int arcStart(int id) {
+        return offsets[id];
+    }
+
+    /**
+     * Returns the arc after the last arc leaving the {@link Region.Node} with the given id.
+     *
+     * @param id The id of the {@link Region.Node}.
+     * @return The arc after the last arc leaving the {@link Region.Node}.
+     */
+    public int arcEnd(int id) {
+        return offsets[id + 1];
+    }
+
+    /**
+     * Returns the arc at the given position among the arcs leaving a {@link Region.Node}, in the iteration order of
+     * {@link Region.Node#getAdjacentNodes()}. The positions of the arcs leaving the {@link Region.Node} with the id
+     * {@code u} are {@code arcStart(u)} (inclusive) to {@code arcEnd(u)} (exclusive).
+     *
+     * @param position The position of the arc.
+     * @return The arc at the given position.
+     */
+    public int adjacentArc(int position) {
+        return adjacentArcs[position];
+    }
+
+    /**
+     * Returns the id of the {@link Region.Node} the given arc leads to.
+     *
+     * @param arc The arc.
+     * @return The id of the target {@link Region.Node} of the arc.
+     */
+    public int arcTarget(int arc) {
+        return targets[arc];
+    }
+
+    /**
+     * Returns the duration of the given arc.
+     *
+     * @param arc The arc.
+     * @return The duration of the arc.
+     */
+    public long arcDuration(int arc) {
+        return durations[arc];
+    }
+
+    /**
+     * Returns the duration of the given arc when departing at the given tick. Arcs without a
+     * {@link TravelTimeProfile} have their static duration.
+     *
+     * @param arc  The arc.
+     * @param tick The departure tick.
+     * @return The duration of the arc when departing at the given tick.
+     */
+    public long arcDuration(int arc, long tick) {
+        TravelTimeProfile @Nullable [] profiles = this.profiles;
+        @Nullable TravelTimeProfile profile = profiles == null ? null : profiles[arcEdges[arc]];
+        return profile == null ? durations[arc] : profile.getDuration(tick);
+    }
+
+    /**
+     * Returns the smallest duration of the given arc at any tick.
+     *
+     * @param arc The arc.
+     * @return The smallest duration of the arc.
+     */
+    public long arcMinDuration(int arc) {
+        TravelTimeProfile @Nullable [] profiles = this.profiles;
+        @Nullable TravelTimeProfile profile = profiles == null ? null : profiles[arcEdges[arc]];
+        return profile == null ? durations[arc] : profile.getMinDuration();
+    }
+
+    /**
+     * Returns true if at least one {@link Region.Edge} of this {@link RegionGraph} has a {@link TravelTimeProfile}.
+     *
+     * @return True if the durations of this {@link RegionGraph} depend on the time.
+     */
+    public boolean hasProfiles() {
+        return profiles != null;
+    }
+
+    /**
+     * Sets the {@link TravelTimeProfile} of the given {@link Region.Edge}.
+     *
+     * @param edge    The id of the {@link Region.Edge}.
+     * @param profile The new {@link TravelTimeProfile} or {@code null} to use the static duration.
+     */
+    synchronized void setProfile(int edge, @Nullable TravelTimeProfile profile) {
+        TravelTimeProfile @Nullable [] profiles = this.profiles;
+        TravelTimeProfile[] copy = profiles == null ? new TravelTimeProfile[edges.length] : profiles.clone();
+        copy[edge] = profile;
+        this.profiles = Arrays.stream(copy).anyMatch(Objects::nonNull) ? copy : null;
+        profileVersion++;
+    }
+
+    /**
+     * Returns the version of the {@link TravelTimeProfile}s of this {@link RegionGraph}, which is incremented
+     * whenever a profile changes.
+     *
+     * @return The version of the {@link TravelTimeProfile}s.
+     */
+    public long profileVersion() {
+        return profileVersion;
+    }
+
+    /**
+     * Returns the id of the {@link Region.Edge} the given arc belongs to.
+     *
+     * @param arc The arc.
+     * @return The id of the {@link Region.Edge} of the arc.
+     */
+    public int arcEdge(int arc) {
+        return arcEdges[arc];
+    }
+
+    /**
+     * Returns the arc connecting the two given {@link Region.Node}s.
+     *
+     * @param from The id of the first {@link Region.Node}.
+     * @param to   The id of the second {@link Region.Node}.
+     * @return The arc from {@code from} to {@code to} or {@code -1} if they are not directly connected.
+     */
+    public int findArc(int from, int to) {
+        int low = offsets[from];
+        int high = offsets[from + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (targets[middle] < to) {
+                low = middle + 1;
+            } else if (targets[middle] > to) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the id of the given {@link Region.Edge}.
+     *
+     * @param edge The {@link Region.Edge}.
+     * @return The id of the {@link Region.Edge} or {@code -1} if it is not part of this {@link RegionGraph}.
+     */
+    public int indexOf(Region.Edge edge) {
+        if (edge instanceof EdgeImpl edgeImpl) {
+            int index = edgeImpl.index;
+            if (index >= 0 && index < edges.length && edges[index] == edge) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the id of the first node of the given {@link Region.Edge}.
+     *
+     * @param edge The id of the {@link Region.Edge}.
+     * @return The id of the node at {@link Region.Edge#getNodeA()}.
+     */
+    int edgeNodeA(int edge) {
+        return endpointsA[edge];
+    }
+
+    /**
+     * Returns the id of the second node of the given {@link Region.Edge}.
+     *
+     * @param edge The id of the {@link Region.Edge}.
+     * @return The id of the node at {@link Region.Edge#getNodeB()}.
+     */
+    int edgeNodeB(int edge) {
+        return endpointsB[edge];
+    }
+
+    /**
+     * Sets the duration of both arcs of the given {@link Region.Edge} and logs the change.
+     *
+     * @param edge     The id of the {@link Region.Edge}.
+     * @param duration The new duration.
+     */
+    synchronized void setDuration(int edge, long duration) {
+        long previous = -1;
+        for (int node : new int[] {endpointsA[edge], endpointsB[edge]}) {
+            for (int arc = offsets[node]; arc < offsets[node + 1]; arc++) {
+                if (arcEdges[arc] == edge) {
+                    previous = durations[arc];
+                    durations[arc] = duration;
+                }
+            }
+        }
+        long version = this.version + 1;
+        changes[(int) (version % CHANGE_LOG_SIZE)] = edge;
+        if (duration < previous) {
+            lastDecrease = version;
+        }
+        this.version = version;
+    }
+
+    /**
+     * Returns the version of this {@link RegionGraph}, which is incremented whenever the duration of an
+     * {@link Region.Edge} changes.
+     *
+     * @return The version of this {@link RegionGraph}.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Returns the version at which the duration of an {@link Region.Edge} was decreased the last time. Lower
+     * bounds of durations computed at this version or later are still valid.
+     *
+     * @return The version of the last decrease or 0 if no duration has been decreased.
+     */
+    long lastDecreaseVersion() {
+        return lastDecrease;
+    }
+
+    /**
+     * Returns the ids of the {@link Region.Edge}s whose durations changed after the given version.
+     *
+     * @param since The version to return the changes after.
+     * @return The ids of the changed {@link Region.Edge}s, possibly containing duplicates, or {@code null} if the
+     * changes are no longer logged.
+     */
+    synchronized int @Nullable [] changedEdgesSince(long since) {
+        if (version - since > CHANGE_LOG_SIZE) {
+            return null;
+        }
+        int[] changed = new int[(int) (version - since)];
+        for (int i = 0; i < changed.length; i++) {
+            changed[i] = changes[(int) ((since + 1 + i) % CHANGE_LOG_SIZE)];
+        }
+        return changed;
+    }
+
+    /**
+     * Returns a hash over the locations of all {@link Region.Node}s and the arcs between them. Data derived from
+     * this {@link RegionGraph} can store the fingerprint to detect whether it still matches a graph.
+     *
+     * @return The fingerprint of this {@link RegionGraph}.
+     */
+    public synchronized long fingerprint() {
+        if (fingerprintVersion != version) {
+            fingerprint = computeFingerprint();
+            fingerprintVersion = version;
+        }
+        return fingerprint;
+    }
+
+    @Override
+    public String toString() {
+        return "RegionGraph(nodes=" + nodes.length + ", edges=" + edges.length + ")";
+    }
+}
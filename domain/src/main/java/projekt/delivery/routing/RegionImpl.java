@@ -10,15 +10,47 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.jetbrains.annotations.Nullable;
 
+/**
+ * The implementation of {@link Region}.<p>
+ * <p>
+ * Regions created by {@link Region.Builder#build()} are frozen: no nodes or edges can be added, their collections,
+ * hash codes, {@link RegionGraph} and {@link SpatialIndex} are computed once and every {@link EdgeImpl} references
+ * its nodes directly instead of looking them up by location. Nodes and edges are looked up in {@link LongMap}s keyed
+ * by {@link Location#pack() packed locations} and node ids instead of the nested maps keyed by {@link Location}. Only
+ * the durations of the edges can still change.
+ */
 class RegionImpl implements Region {
 
+    /**
+     * The amount of nodes or edges from which on {@link #freeze()} processes them in parallel.
+     */
+    private static final int PARALLEL_FREEZE_THRESHOLD = 1 << 14;
+
     private final Map<Location, NodeImpl> nodes = new HashMap<>();
     private final Map<Location, Map<Location, EdgeImpl>> edges = new HashMap<>();
     private final List<EdgeImpl> allEdges = new ArrayList<>();
     private final DistanceCalculator distanceCalculator;
+    private volatile @Nullable RegionGraph graph;
+    private volatile @Nullable SpatialIndex spatialIndex;
+    private final List<EdgeDurationListener> edgeDurationListeners = new CopyOnWriteArrayList<>();
+    private final Map<Integer, RegionPartition> partitions = new ConcurrentHashMap<>();
+    private volatile boolean frozen;
+    private @Nullable Collection<Node> frozenNodes;
+    private @Nullable Collection<Edge> frozenEdges;
+    /**
+     * The nodes of this frozen region by their {@link Location#pack() packed locations}.
+     */
+    private @Nullable LongMap<NodeImpl> nodeTable;
+    /**
+     * The edges of this frozen region by the ids of their nodes in its {@link RegionGraph}.
+     */
+    private @Nullable LongMap<EdgeImpl> edgeTable;
+    private int hash;
 
     /**
      * Creates a new, empty {@link RegionImpl} instance using a {@link EuclideanDistanceCalculator}.
@@ -36,11 +68,28 @@ class RegionImpl implements Region {
 
     @Override
     public @Nullable Node getNode(Location location) {
+        if (frozen) {
+            return nodeTable.get(location.pack());
+        }
         return this.nodes.get(location);
     }
 
+    @Override
+    public @Nullable Edge getEdge(Node nodeA, Node nodeB) {
+        if (frozen && nodeA instanceof NodeImpl a && nodeB instanceof NodeImpl b && a.region == this
+            && b.region == this && a.index >= 0 && b.index >= 0) {
+            return edgeTable.get(edgeKey(a.index, b.index));
+        }
+        return getEdge(nodeA.getLocation(), nodeB.getLocation());
+    }
+
     @Override
     public @Nullable Edge getEdge(Location locationA, Location locationB) {
+        if (frozen) {
+            NodeImpl nodeA = nodeTable.get(locationA.pack());
+            NodeImpl nodeB = nodeTable.get(locationB.pack());
+            return nodeA == null || nodeB == null ? null : edgeTable.get(edgeKey(nodeA.index, nodeB.index));
+        }
         EdgeImpl edge = this.getEdgeHelper(locationA, locationB);
         if (edge == null) {
             return this.getEdgeHelper(locationB, locationA);
@@ -48,6 +97,10 @@ class RegionImpl implements Region {
         return edge;
     }
 
+    private static long edgeKey(int nodeA, int nodeB) {
+        return (long) Math.min(nodeA, nodeB) << 32 | Math.max(nodeA, nodeB);
+    }
+
     @Nullable
     private EdgeImpl getEdgeHelper(Location locationA, Location locationB) {
         Map<Location, EdgeImpl> locationEdges = this.edges.get(locationA);
@@ -59,11 +112,17 @@ class RegionImpl implements Region {
 
     @Override
     public Collection<Node> getNodes() {
+        if (frozen) {
+            return frozenNodes;
+        }
         return this.nodes.values().stream().map(node -> (Node) node).toList();
     }
 
     @Override
     public Collection<Edge> getEdges() {
+        if (frozen) {
+            return frozenEdges;
+        }
         return this.allEdges.stream().map(edge -> (Edge) edge).toList();
     }
 
@@ -72,12 +131,164 @@ class RegionImpl implements Region {
         return distanceCalculator;
     }
 
+    @Override
+    public RegionGraph getGraph() {
+        RegionGraph graph = this.graph;
+        if (frozen) {
+            return graph;
+        }
+        // rebuild the snapshot if nodes or edges have been added since it was created
+        if (graph == null || graph.nodeCount() != nodes.size() || graph.edgeCount() != allEdges.size()) {
+            graph = buildGraph();
+        }
+        return graph;
+    }
+
+    @Override
+    public SpatialIndex getSpatialIndex() {
+        SpatialIndex spatialIndex = this.spatialIndex;
+        if (frozen) {
+            return spatialIndex;
+        }
+        RegionGraph graph = getGraph();
+        if (spatialIndex == null || spatialIndex.getGraph() != graph) {
+            spatialIndex = new SpatialIndex(graph);
+            this.spatialIndex = spatialIndex;
+        }
+        return spatialIndex;
+    }
+
+    @Override
+    public RegionPartition getPartition(int shardCount) {
+        RegionGraph graph = getGraph();
+        RegionPartition partition = partitions.get(shardCount);
+        if (partition == null || partition.getGraph() != graph) {
+            partition = RegionPartition.compute(graph, shardCount);
+            partitions.put(shardCount, partition);
+        }
+        return partition;
+    }
+
+    @Override
+    public void setEdgeDuration(Edge edge, long duration) {
+        if (!(edge instanceof EdgeImpl edgeImpl)
+            || getEdgeHelper(edgeImpl.getLocationA(), edgeImpl.getLocationB()) != edge) {
+            throw new IllegalArgumentException("Edge " + edge + " is not part of the region");
+        }
+        if (duration < 0 || duration > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid duration: " + duration);
+        }
+        long oldDuration;
+        synchronized (this) {
+            oldDuration = edgeImpl.getDuration();
+            if (oldDuration == duration) {
+                return;
+            }
+            edgeImpl.setDuration(duration);
+            // an outdated graph is rebuilt with the current durations when it is requested
+            @Nullable RegionGraph graph = this.graph;
+            if (graph != null && graph.indexOf(edge) >= 0) {
+                graph.setDuration(graph.indexOf(edge), duration);
+            }
+        }
+        for (EdgeDurationListener listener : edgeDurationListeners) {
+            listener.onEdgeDurationChanged(edge, oldDuration, duration);
+        }
+    }
+
+    @Override
+    public void setEdgeProfile(Edge edge, @Nullable TravelTimeProfile profile) {
+        if (!(edge instanceof EdgeImpl edgeImpl)
+            || getEdgeHelper(edgeImpl.getLocationA(), edgeImpl.getLocationB()) != edge) {
+            throw new IllegalArgumentException("Edge " + edge + " is not part of the region");
+        }
+        synchronized (this) {
+            edgeImpl.setProfile(profile);
+            @Nullable RegionGraph graph = this.graph;
+            if (graph != null && graph.indexOf(edge) >= 0) {
+                graph.setProfile(graph.indexOf(edge), profile);
+            }
+        }
+        for (EdgeDurationListener listener : edgeDurationListeners) {
+            listener.onEdgeDurationChanged(edge, edge.getDuration(), edge.getDuration());
+        }
+    }
+
+    @Override
+    public void addEdgeDurationListener(EdgeDurationListener listener) {
+        edgeDurationListeners.add(listener);
+    }
+
+    @Override
+    public void removeEdgeDurationListener(EdgeDurationListener listener) {
+        edgeDurationListeners.remove(listener);
+    }
+
+    /**
+     * Builds the {@link RegionGraph} of this {@link RegionImpl} from its current nodes and edges.
+     *
+     * @return The new {@link RegionGraph}.
+     */
+    RegionGraph buildGraph() {
+        RegionGraph graph = new RegionGraph(this, nodes.values(), allEdges);
+        this.graph = graph;
+        return graph;
+    }
+
+    /**
+     * Freezes this {@link RegionImpl}. Afterwards, no nodes or edges can be added, the collections returned by
+     * {@link #getNodes()} and {@link #getEdges()} are created once, the hash codes of this region and its nodes are
+     * cached and all edges reference their nodes directly.
+     */
+    void freeze() {
+        if (frozen) {
+            return;
+        }
+        // binding and freezing only read the maps of this region, so large regions do it in parallel
+        (allEdges.size() < PARALLEL_FREEZE_THRESHOLD ? allEdges.stream() : allEdges.parallelStream())
+            .forEach(edge -> edge.bind(nodes.get(edge.getLocationA()), nodes.get(edge.getLocationB())));
+        (nodes.size() < PARALLEL_FREEZE_THRESHOLD ? nodes.values().stream() : nodes.values().parallelStream())
+            .forEach(NodeImpl::freeze);
+        frozenNodes = List.copyOf(nodes.values());
+        frozenEdges = List.copyOf(allEdges);
+        hash = Objects.hash(nodes, edges);
+        spatialIndex = new SpatialIndex(buildGraph());
+        // the graph has assigned the ids of the nodes
+        nodeTable = new LongMap<>(nodes.size());
+        for (NodeImpl node : nodes.values()) {
+            nodeTable.put(node.getLocation().pack(), node);
+        }
+        edgeTable = new LongMap<>(allEdges.size());
+        for (EdgeImpl edge : allEdges) {
+            edgeTable.put(edgeKey(((NodeImpl) edge.getNodeA()).index, ((NodeImpl) edge.getNodeB()).index), edge);
+        }
+        frozen = true;
+    }
+
+    /**
+     * Returns true if this {@link RegionImpl} has been frozen.
+     *
+     * @return True if this {@link RegionImpl} has been frozen.
+     * @see #freeze()
+     */
+    boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("Region is frozen and cannot be modified");
+        }
+    }
+
     /**
      * Adds the given {@link NodeImpl} to this {@link RegionImpl}.
      *
      * @param node the {@link NodeImpl} to add.
+     * @throws IllegalStateException If this {@link RegionImpl} is frozen.
      */
     void putNode(NodeImpl node) {
+        checkNotFrozen();
         if (this.equals(node.region)) {
             this.nodes.put(node.getLocation(), node);
         } else {
@@ -89,8 +300,10 @@ class RegionImpl implements Region {
      * Adds the given {@link EdgeImpl} to this {@link RegionImpl}.
      *
      * @param edge the {@link EdgeImpl} to add.
+     * @throws IllegalStateException If this {@link RegionImpl} is frozen.
      */
     void putEdge(EdgeImpl edge) {
+        checkNotFrozen();
         if (!this.equals(edge.getRegion())) {
             throw new IllegalArgumentException("Edge " + edge + " has incorrect region");
         }
@@ -111,6 +324,9 @@ class RegionImpl implements Region {
 
     @Override
     public int hashCode() {
+        if (frozen) {
+            return hash;
+        }
         return Objects.hash(nodes, edges);
     }
 
@@ -123,6 +339,9 @@ class RegionImpl implements Region {
             return false;
         }
         RegionImpl region = (RegionImpl) o;
+        if (frozen && region.frozen && hash != region.hash) {
+            return false;
+        }
         return Objects.equals(nodes, region.nodes) && Objects.equals(edges, region.edges);
     }
 }
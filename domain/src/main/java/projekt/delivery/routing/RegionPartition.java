@@ -0,0 +1,570 @@
+package projekt.delivery.routing;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A partition of the {@link Region.Node}s of a {@link RegionGraph} into balanced shards of nearby nodes.<p>
+ * <p>
+ * The shards are grown by breadth-first searches from seeds that are spread over the largest connected component of
+ * the graph: the first seed is a node at its periphery, every further seed the node farthest away from all previous
+ * seeds, counted in edges. The smallest shard that can still grow always grows next. Once all shards that can grow
+ * are full, e.g. because the others are enclosed or their connected component is exhausted, the smallest shard
+ * continues with the first unassigned node, so all shards end up with about the same amount of nodes. Afterwards,
+ * nodes on the border of a shard are moved to the neighboring shard holding most of their neighbors as long as this
+ * reduces the amount of edges between shards and keeps the shards balanced.<p>
+ * <p>
+ * Every {@link Region.Edge} belongs to the shard of its {@link Region.Edge#getNodeA()}. Edges whose nodes lie in
+ * different shards are cut edges, and their nodes are boundary nodes of their shards. The partition only depends
+ * on the structure of the graph, not on the durations of its edges.
+ */
+public final class RegionPartition {
+
+    /**
+     * The fraction by which a shard may exceed the average amount of nodes when nodes are moved between shards.
+     */
+    static final double MAXIMUM_IMBALANCE = 0.05;
+
+    /**
+     * The amount of passes over all nodes that move boundary nodes between shards.
+     */
+    private static final int REFINEMENT_PASSES = 4;
+
+    private final RegionGraph graph;
+    private final int[] shardOfNode;
+    private final int[] shardOfEdge;
+    private final List<Shard> shards;
+    private final Report report;
+
+    private RegionPartition(RegionGraph graph, int shardCount, int[] shardOfNode) {
+        this.graph = graph;
+        this.shardOfNode = shardOfNode;
+        this.shardOfEdge = new int[graph.edgeCount()];
+
+        int[] nodeCounts = new int[shardCount];
+        int[] edgeCounts = new int[shardCount];
+        int[] boundaryNodeCounts = new int[shardCount];
+        int[] boundaryEdgeCounts = new int[shardCount];
+        boolean[] boundary = new boolean[graph.nodeCount()];
+        int cutSize = 0;
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            int shardA = shardOfNode[graph.edgeNodeA(e)];
+            int shardB = shardOfNode[graph.edgeNodeB(e)];
+            shardOfEdge[e] = shardA;
+            edgeCounts[shardA]++;
+            if (shardA != shardB) {
+                cutSize++;
+                boundary[graph.edgeNodeA(e)] = true;
+                boundary[graph.edgeNodeB(e)] = true;
+                boundaryEdgeCounts[shardA]++;
+                boundaryEdgeCounts[shardB]++;
+            }
+        }
+        for (int v = 0; v < shardOfNode.length; v++) {
+            nodeCounts[shardOfNode[v]]++;
+            if (boundary[v]) {
+                boundaryNodeCounts[shardOfNode[v]]++;
+            }
+        }
+
+        int[][] nodes = new int[shardCount][];
+        int[][] edges = new int[shardCount][];
+        int[][] boundaryNodes = new int[shardCount][];
+        int[][] boundaryEdges = new int[shardCount][];
+        for (int s = 0; s < shardCount; s++) {
+            nodes[s] = new int[nodeCounts[s]];
+            edges[s] = new int[edgeCounts[s]];
+            boundaryNodes[s] = new int[boundaryNodeCounts[s]];
+            boundaryEdges[s] = new int[boundaryEdgeCounts[s]];
+        }
+        // the ids are added in ascending order, so every array is sorted
+        Arrays.fill(nodeCounts, 0);
+        Arrays.fill(boundaryNodeCounts, 0);
+        for (int v = 0; v < shardOfNode.length; v++) {
+            int s = shardOfNode[v];
+            nodes[s][nodeCounts[s]++] = v;
+            if (boundary[v]) {
+                boundaryNodes[s][boundaryNodeCounts[s]++] = v;
+            }
+        }
+        Arrays.fill(edgeCounts, 0);
+        Arrays.fill(boundaryEdgeCounts, 0);
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            int shardA = shardOfEdge[e];
+            int shardB = shardOfNode[graph.edgeNodeB(e)];
+            edges[shardA][edgeCounts[shardA]++] = e;
+            if (shardA != shardB) {
+                boundaryEdges[shardA][boundaryEdgeCounts[shardA]++] = e;
+                boundaryEdges[shardB][boundaryEdgeCounts[shardB]++] = e;
+            }
+        }
+
+        Shard[] shards = new Shard[shardCount];
+        int smallest = Integer.MAX_VALUE;
+        int largest = 0;
+        int boundaryNodeCount = 0;
+        for (int s = 0; s < shardCount; s++) {
+            shards[s] = new Shard(s, nodes[s], edges[s], boundaryNodes[s], boundaryEdges[s]);
+            smallest = Math.min(smallest, nodes[s].length);
+            largest = Math.max(largest, nodes[s].length);
+            boundaryNodeCount += boundaryNodes[s].length;
+        }
+        this.shards = List.of(shards);
+        double average = (double) graph.nodeCount() / shardCount;
+        double imbalance = average == 0 ? 0 : largest / average - 1;
+        this.report = new Report(shardCount, cutSize, graph.edgeCount(), boundaryNodeCount, smallest, largest,
+                                 imbalance);
+    }
+
+    /**
+     * Partitions the given {@link RegionGraph} into the given amount of shards.
+     *
+     * @param graph      The {@link RegionGraph} to partition.
+     * @param shardCount The amount of shards.
+     * @return The created {@link RegionPartition}.
+     * @throws IllegalArgumentException If the amount of shards is not positive.
+     */
+    public static RegionPartition compute(RegionGraph graph, int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("The amount of shards must be positive, got " + shardCount);
+        }
+        int[] shardOfNode = grow(graph, shardCount);
+        refine(graph, shardCount, shardOfNode);
+        return new RegionPartition(graph, shardCount, shardOfNode);
+    }
+
+    /**
+     * Grows the shards from spread seeds, always extending the smallest shard.
+     */
+    private static int[] grow(RegionGraph graph, int shardCount) {
+        int n = graph.nodeCount();
+        int[] shardOfNode = new int[n];
+        Arrays.fill(shardOfNode, -1);
+        int[] sizes = new int[shardCount];
+        List<ArrayDeque<Integer>> frontiers = new ArrayList<>(shardCount);
+        int[] seeds = seeds(graph, shardCount);
+        for (int s = 0; s < shardCount; s++) {
+            frontiers.add(new ArrayDeque<>());
+            if (s < seeds.length) {
+                frontiers.get(s).add(seeds[s]);
+            }
+        }
+
+        int capacity = (n + shardCount - 1) / shardCount;
+        int assigned = 0;
+        int nextUnassigned = 0;
+        while (assigned < n) {
+            int shard = -1;
+            for (int s = 0; s < shardCount; s++) {
+                ArrayDeque<Integer> frontier = frontiers.get(s);
+                while (!frontier.isEmpty() && shardOfNode[frontier.peek()] >= 0) {
+                    frontier.poll();
+                }
+                if (!frontier.isEmpty() && (shard < 0 || sizes[s] < sizes[shard])) {
+                    shard = s;
+                }
+            }
+            if (shard < 0 || sizes[shard] >= capacity) {
+                // the shards that can still grow are full, so the smallest shard continues elsewhere
+                shard = 0;
+                for (int s = 1; s < shardCount; s++) {
+                    shard = sizes[s] < sizes[shard] ? s : shard;
+                }
+                while (shardOfNode[nextUnassigned] >= 0) {
+                    nextUnassigned++;
+                }
+                frontiers.get(shard).clear();
+                frontiers.get(shard).add(nextUnassigned);
+            }
+            ArrayDeque<Integer> frontier = frontiers.get(shard);
+            int node = frontier.poll();
+            shardOfNode[node] = shard;
+            sizes[shard]++;
+            assigned++;
+            for (int arc = graph.arcStart(node); arc < graph.arcEnd(node); arc++) {
+                if (shardOfNode[graph.arcTarget(arc)] < 0) {
+                    frontier.add(graph.arcTarget(arc));
+                }
+            }
+        }
+        return shardOfNode;
+    }
+
+    /**
+     * Selects up to the given amount of seeds in the largest connected component by farthest-point selection on the
+     * hop distances. Smaller components are absorbed by the shards while they grow.
+     */
+    private static int[] seeds(RegionGraph graph, int count) {
+        int n = graph.nodeCount();
+        if (count == 0) {
+            return new int[0];
+        }
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        int[] first = new int[n];
+        Arrays.fill(first, Integer.MAX_VALUE);
+        int largest = 0;
+        int largestSize = 0;
+        for (int v = 0; v < n; v++) {
+            if (first[v] == Integer.MAX_VALUE) {
+                int size = bfs(graph, v, first, queue);
+                if (size > largestSize) {
+                    largest = v;
+                    largestSize = size;
+                }
+            }
+        }
+        Arrays.fill(first, Integer.MAX_VALUE);
+        bfs(graph, largest, first, queue);
+
+        int[] seeds = new int[count];
+        int[] hops = new int[n];
+        int[] seedHops = new int[n];
+        long[] sums = new long[n];
+        Arrays.fill(hops, Integer.MAX_VALUE);
+        int seed = farthest(first, sums);
+        int selected = 0;
+        while (selected < count && seed >= 0) {
+            seeds[selected++] = seed;
+            Arrays.fill(seedHops, Integer.MAX_VALUE);
+            bfs(graph, seed, seedHops, queue);
+            for (int v = 0; v < n; v++) {
+                hops[v] = Math.min(hops[v], seedHops[v]);
+                sums[v] += seedHops[v] == Integer.MAX_VALUE ? 0 : seedHops[v];
+            }
+            seed = farthest(hops, sums);
+        }
+        return Arrays.copyOf(seeds, selected);
+    }
+
+    /**
+     * Returns the node with the largest finite, non-zero hop distance, preferring nodes with a larger sum of
+     * distances to all seeds, or -1 if there is none.
+     */
+    private static int farthest(int[] hops, long[] sums) {
+        int farthest = -1;
+        for (int v = 0; v < hops.length; v++) {
+            if (hops[v] != Integer.MAX_VALUE && hops[v] > 0 && (farthest < 0 || hops[v] > hops[farthest]
+                || hops[v] == hops[farthest] && sums[v] > sums[farthest])) {
+                farthest = v;
+            }
+        }
+        return farthest;
+    }
+
+    /**
+     * Lowers the given hop distances to the distances from the given source.
+     *
+     * @return The amount of nodes whose distance has been lowered.
+     */
+    private static int bfs(RegionGraph graph, int source, int[] hops, ArrayDeque<Integer> queue) {
+        int lowered = hops[source] == 0 ? 0 : 1;
+        hops[source] = 0;
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            for (int arc = graph.arcStart(u); arc < graph.arcEnd(u); arc++) {
+                int v = graph.arcTarget(arc);
+                if (hops[u] + 1 < hops[v]) {
+                    lowered += hops[v] == Integer.MAX_VALUE ? 1 : 0;
+                    hops[v] = hops[u] + 1;
+                    queue.add(v);
+                }
+            }
+        }
+        return lowered;
+    }
+
+    /**
+     * Moves nodes to the neighboring shard holding most of their neighbors if this reduces the amount of cut edges
+     * and keeps all shards within the allowed imbalance.
+     */
+    private static void refine(RegionGraph graph, int shardCount, int[] shardOfNode) {
+        int n = graph.nodeCount();
+        int maximumSize = (int) Math.ceil((double) n / shardCount * (1 + MAXIMUM_IMBALANCE));
+        int minimumSize = (int) Math.floor((double) n / shardCount * (1 - MAXIMUM_IMBALANCE));
+        int[] sizes = new int[shardCount];
+        for (int shard : shardOfNode) {
+            sizes[shard]++;
+        }
+        int[] neighbors = new int[shardCount];
+        for (int pass = 0; pass < REFINEMENT_PASSES; pass++) {
+            boolean moved = false;
+            for (int v = 0; v < n; v++) {
+                int current = shardOfNode[v];
+                for (int arc = graph.arcStart(v); arc < graph.arcEnd(v); arc++) {
+                    neighbors[shardOfNode[graph.arcTarget(arc)]]++;
+                }
+                int best = -1;
+                for (int arc = graph.arcStart(v); arc < graph.arcEnd(v); arc++) {
+                    int shard = shardOfNode[graph.arcTarget(arc)];
+                    if (shard != current && (best < 0 || neighbors[shard] > neighbors[best]
+                        || neighbors[shard] == neighbors[best] && sizes[shard] < sizes[best])) {
+                        best = shard;
+                    }
+                }
+                // the move removes more cut edges than it adds
+                if (best >= 0 && neighbors[best] > neighbors[current] && sizes[best] < maximumSize
+                    && sizes[current] > minimumSize) {
+                    shardOfNode[v] = best;
+                    sizes[current]--;
+                    sizes[best]++;
+                    moved = true;
+                }
+                for (int arc = graph.arcStart(v); arc < graph.arcEnd(v); arc++) {
+                    neighbors[shardOfNode[graph.arcTarget(arc)]] = 0;
+                }
+            }
+            if (!moved) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Returns the {@link RegionGraph} this {@link RegionPartition} has been computed for.
+     *
+     * @return The {@link RegionGraph} this {@link RegionPartition} has been computed for.
+     */
+    public RegionGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the amount of shards of this {@link RegionPartition}.
+     *
+     * @return The amount of shards.
+     */
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Returns all shards of this {@link RegionPartition}, ordered by their index.
+     *
+     * @return An unmodifiable {@link List} of all shards.
+     */
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    /**
+     * Returns the index of the shard the given {@link Region.Node} belongs to.
+     *
+     * @param node The {@link Region.Node}.
+     * @return The index of the shard of the given {@link Region.Node}.
+     * @throws IllegalArgumentException If the {@link Region.Node} is not part of the partitioned graph.
+     */
+    public int getShard(Region.Node node) {
+        return shardOfNode[graph.checkedIndexOf(node)];
+    }
+
+    /**
+     * Returns the index of the shard the given {@link Region.Edge} belongs to, which is the shard of its
+     * {@link Region.Edge#getNodeA()}.
+     *
+     * @param edge The {@link Region.Edge}.
+     * @return The index of the shard of the given {@link Region.Edge}.
+     * @throws IllegalArgumentException If the {@link Region.Edge} is not part of the partitioned graph.
+     */
+    public int getShard(Region.Edge edge) {
+        int index = graph.indexOf(edge);
+        if (index < 0) {
+            throw new IllegalArgumentException("Edge " + edge + " is not part of the region");
+        }
+        return shardOfEdge[index];
+    }
+
+    /**
+     * Returns the shard of the node with the given id.
+     *
+     * @param node The id of the node.
+     * @return The index of the shard of the node.
+     */
+    int shardOfNode(int node) {
+        return shardOfNode[node];
+    }
+
+    /**
+     * Returns the shard of the edge with the given id.
+     *
+     * @param edge The id of the edge.
+     * @return The index of the shard of the edge.
+     */
+    int shardOfEdge(int edge) {
+        return shardOfEdge[edge];
+    }
+
+    /**
+     * Returns the quality of this {@link RegionPartition}.
+     *
+     * @return The {@link Report} of this {@link RegionPartition}.
+     */
+    public Report getReport() {
+        return report;
+    }
+
+    @Override
+    public String toString() {
+        return "RegionPartition(" + report + ")";
+    }
+
+    /**
+     * A single shard of a {@link RegionPartition}.
+     */
+    public final class Shard {
+
+        private final int index;
+        private final int[] nodes;
+        private final int[] edges;
+        private final int[] boundaryNodes;
+        private final int[] boundaryEdges;
+
+        private Shard(int index, int[] nodes, int[] edges, int[] boundaryNodes, int[] boundaryEdges) {
+            this.index = index;
+            this.nodes = nodes;
+            this.edges = edges;
+            this.boundaryNodes = boundaryNodes;
+            this.boundaryEdges = boundaryEdges;
+        }
+
+        /**
+         * Returns the index of this {@link Shard}.
+         *
+         * @return The index of this {@link Shard}.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Returns the {@link Region.Node}s of this {@link Shard} in ascending {@link projekt.base.Location} order.
+         *
+         * @return An unmodifiable {@link List} of the {@link Region.Node}s of this {@link Shard}.
+         */
+        public List<Region.Node> getNodes() {
+            return new NodeList(nodes);
+        }
+
+        /**
+         * Returns the {@link Region.Edge}s that belong to this {@link Shard}.
+         *
+         * @return An unmodifiable {@link List} of the {@link Region.Edge}s of this {@link Shard}.
+         */
+        public List<Region.Edge> getEdges() {
+            return new EdgeList(edges);
+        }
+
+        /**
+         * Returns the {@link Region.Node}s of this {@link Shard} that are adjacent to a node of another shard.
+         *
+         * @return An unmodifiable {@link List} of the boundary nodes of this {@link Shard}.
+         */
+        public List<Region.Node> getBoundaryNodes() {
+            return new NodeList(boundaryNodes);
+        }
+
+        /**
+         * Returns the cut edges between this {@link Shard} and other shards, including those that belong to the
+         * other shard.
+         *
+         * @return An unmodifiable {@link List} of the boundary edges of this {@link Shard}.
+         */
+        public List<Region.Edge> getBoundaryEdges() {
+            return new EdgeList(boundaryEdges);
+        }
+
+        /**
+         * Returns the ids of the nodes of this {@link Shard} in ascending order.
+         *
+         * @return The ids of the nodes of this {@link Shard}, which must not be modified.
+         */
+        int[] nodeIds() {
+            return nodes;
+        }
+
+        /**
+         * Returns the ids of the edges of this {@link Shard} in ascending order.
+         *
+         * @return The ids of the edges of this {@link Shard}, which must not be modified.
+         */
+        int[] edgeIds() {
+            return edges;
+        }
+
+        @Override
+        public String toString() {
+            return "Shard(index=" + index + ", nodes=" + nodes.length + ", edges=" + edges.length
+                + ", boundaryNodes=" + boundaryNodes.length + ", boundaryEdges=" + boundaryEdges.length + ")";
+        }
+    }
+
+    /**
+     * The quality of a {@link RegionPartition}.
+     *
+     * @param shardCount    The amount of shards.
+     * @param cutSize       The amount of edges between nodes of different shards.
+     * @param edgeCount     The amount of edges of the partitioned graph.
+     * @param boundaryNodes The amount of nodes adjacent to a node of another shard.
+     * @param smallestShard The amount of nodes of the smallest shard.
+     * @param largestShard  The amount of nodes of the largest shard.
+     * @param imbalance     The fraction by which the largest shard exceeds the average amount of nodes per shard.
+     */
+    public record Report(int shardCount,
+                         int cutSize,
+                         int edgeCount,
+                         int boundaryNodes,
+                         int smallestShard,
+                         int largestShard,
+                         double imbalance) {
+
+        /**
+         * Returns the fraction of edges that are cut.
+         *
+         * @return The fraction of edges between nodes of different shards.
+         */
+        public double cutRatio() {
+            return edgeCount == 0 ? 0 : (double) cutSize / edgeCount;
+        }
+    }
+
+    private final class NodeList extends AbstractList<Region.Node> {
+
+        private final int[] ids;
+
+        private NodeList(int[] ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public Region.Node get(int index) {
+            return graph.getNode(ids[index]);
+        }
+
+        @Override
+        public int size() {
+            return ids.length;
+        }
+    }
+
+    private final class EdgeList extends AbstractList<Region.Edge> {
+
+        private final int[] ids;
+
+        private EdgeList(int[] ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public Region.Edge get(int index) {
+            return graph.getEdge(ids[index]);
+        }
+
+        @Override
+        public int size() {
+            return ids.length;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * An immutable sequence of {@link Region.Node}s from a start node (excluded) to an end node (included) that can be
+ * shared by the paths of many vehicles. The position of the next node of every path is kept in the
+ * {@link VehicleTable}.
+ * <p>
+ * The nodes are stored as their ids in the {@link RegionGraph} of their {@link Region}. The sum of the durations of
+ * the edges of the route is computed when the route is created and computed again once the version of the
+ * {@link RegionGraph} changed.
+ */
+final class Route {
+
+    private static final int[] NO_NODES = new int[0];
+
+    private final @Nullable RegionGraph graph;
+    private final int start;
+    private final int[] nodes;
+    /**
+     * The duration of this route together with the version of the {@link RegionGraph} it has been computed at. Both
+     * are replaced at once, so the threads that share this route never see a duration of another version.
+     */
+    private volatile Duration duration;
+
+    /**
+     * Creates a new {@link Route} that visits the given nodes in their order.
+     *
+     * @param graph The {@link RegionGraph} of the nodes.
+     * @param start The start node of the route or {@code null} if it is not known, in which case the duration of the
+     *              route starts at its first node.
+     * @param nodes The nodes of the route, excluding its start node.
+     * @throws IllegalArgumentException If a node is not part of the {@link RegionGraph}.
+     */
+    Route(RegionGraph graph, @Nullable Region.Node start, Collection<Region.Node> nodes) {
+        this.graph = graph;
+        this.start = start == null ? -1 : graph.checkedIndexOf(start);
+        this.nodes = new int[nodes.size()];
+        int index = 0;
+        for (Region.Node node : nodes) {
+            this.nodes[index++] = graph.checkedIndexOf(node);
+        }
+        this.duration = computeDuration();
+    }
+
+    /**
+     * Creates a new {@link Route} with an unknown start node that visits the given nodes in their order.
+     *
+     * @param nodes The nodes of the route.
+     * @throws IllegalArgumentException If a node is not part of the {@link RegionGraph} of the {@link Region} of the
+     *                                  first node.
+     */
+    Route(Collection<Region.Node> nodes) {
+        if (nodes.isEmpty()) {
+            this.graph = null;
+            this.start = -1;
+            this.nodes = NO_NODES;
+            this.duration = new Duration(0, 0);
+        } else {
+            this.graph = nodes.iterator().next().getRegion().getGraph();
+            this.start = -1;
+            this.nodes = new int[nodes.size()];
+            int index = 0;
+            for (Region.Node node : nodes) {
+                this.nodes[index++] = graph.checkedIndexOf(node);
+            }
+            this.duration = computeDuration();
+        }
+    }
+
+    /**
+     * Returns the amount of nodes of this {@link Route}.
+     *
+     * @return The amount of nodes.
+     */
+    int length() {
+        return nodes.length;
+    }
+
+    /**
+     * Returns the node at the given position of this {@link Route}.
+     *
+     * @param index The position of the node.
+     * @return The node at the given position.
+     */
+    Region.Node getNode(int index) {
+        return graph.getNode(nodes[index]);
+    }
+
+    /**
+     * Returns whether this {@link Route} consists of the given nodes.
+     *
+     * @param other The nodes to compare to.
+     * @return Whether the nodes are the same.
+     */
+    boolean matches(Collection<Region.Node> other) {
+        if (other.size() != nodes.length) {
+            return false;
+        }
+        Iterator<Region.Node> iterator = other.iterator();
+        for (int node : nodes) {
+            if (graph.indexOf(iterator.next()) != node) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the sum of the current durations of the edges of this {@link Route}. The sum is cached until the
+     * version of the {@link RegionGraph} changes, i.e. until the duration of an edge changes.
+     *
+     * @return The duration of this {@link Route}.
+     */
+    long getDuration() {
+        Duration duration = this.duration;
+        if (graph != null && duration.version() != graph.version()) {
+            duration = computeDuration();
+            this.duration = duration;
+        }
+        return duration.value();
+    }
+
+    private Duration computeDuration() {
+        // the version is read first, so a duration changed while summing up is noticed by the next call
+        long version = graph.version();
+        long sum = 0;
+        int previous = start;
+        for (int node : nodes) {
+            int arc = previous < 0 ? -1 : graph.findArc(previous, node);
+            if (arc >= 0) {
+                sum += graph.arcDuration(arc);
+            }
+            previous = node;
+        }
+        return new Duration(version, sum);
+    }
+
+    /**
+     * The duration of a {@link Route} at a version of its {@link RegionGraph}.
+     *
+     * @param version The version of the {@link RegionGraph}.
+     * @param value   The sum of the durations of the edges of the {@link Route}.
+     */
+    private record Duration(long version, long value) {
+    }
+}
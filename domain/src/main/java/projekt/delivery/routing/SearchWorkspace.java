@@ -0,0 +1,227 @@
+package projekt.delivery.routing;
+
+import java.util.Arrays;
+
+/**
+ * The reusable state of a single shortest path search over a {@link RegionGraph}.<p>
+ * <p>
+ * Each thread owns a forward and a backward {@link SearchWorkspace}. Resetting a workspace does not clear its
+ * arrays; instead, every search gets a new generation and entries written by an older generation count as
+ * unreached. This way a search only pays for the nodes it actually touches.<p>
+ * <p>
+ * A search either queues its nodes in the {@link IndexedHeap} via {@link #reach(int, long, long, int)} and
+ * {@link #settleNext()}, or in the {@link LazyHeap} via {@link #relax(int, long, int)} and
+ * {@link #settleNextQueued()}.
+ */
+final class SearchWorkspace {
+
+    /**
+     * The distance of nodes that have not been reached.
+     */
+    static final long INFINITY = Long.MAX_VALUE;
+
+    private static final ThreadLocal<SearchWorkspace> FORWARD = ThreadLocal.withInitial(SearchWorkspace::new);
+    private static final ThreadLocal<SearchWorkspace> BACKWARD = ThreadLocal.withInitial(SearchWorkspace::new);
+
+    final IndexedHeap heap = new IndexedHeap();
+    final LazyHeap queue = new LazyHeap();
+    private long[] distances = new long[0];
+    private int[] predecessors = new int[0];
+    private int[] reached = new int[0];
+    private int[] settled = new int[0];
+    private int generation;
+
+    /**
+     * Returns the forward {@link SearchWorkspace} of the current thread, reset for a graph with the given size.
+     *
+     * @param size The amount of nodes of the searched graph.
+     * @return The reset {@link SearchWorkspace}.
+     */
+    static SearchWorkspace forward(int size) {
+        SearchWorkspace workspace = FORWARD.get();
+        workspace.reset(size);
+        return workspace;
+    }
+
+    /**
+     * Returns the backward {@link SearchWorkspace} of the current thread, reset for a graph with the given size.
+     *
+     * @param size The amount of nodes of the searched graph.
+     * @return The reset {@link SearchWorkspace}.
+     */
+    static SearchWorkspace backward(int size) {
+        SearchWorkspace workspace = BACKWARD.get();
+        workspace.reset(size);
+        return workspace;
+    }
+
+    private void reset(int size) {
+        if (size > distances.length) {
+            distances = new long[size];
+            predecessors = new int[size];
+            reached = new int[size];
+            settled = new int[size];
+            generation = 0;
+        }
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(reached, 0);
+            Arrays.fill(settled, 0);
+            generation = 1;
+        }
+        heap.clear(size);
+        queue.clear();
+    }
+
+    /**
+     * Returns true if the given node has been reached by the current search.
+     *
+     * @param node The id of the node.
+     * @return True if the node has been reached.
+     */
+    boolean isReached(int node) {
+        return reached[node] == generation;
+    }
+
+    /**
+     * Returns true if the distance of the given node is final.
+     *
+     * @param node The id of the node.
+     * @return True if the node has been settled.
+     */
+    boolean isSettled(int node) {
+        return settled[node] == generation;
+    }
+
+    /**
+     * Returns the tentative distance of the given node.
+     *
+     * @param node The id of the node.
+     * @return The tentative distance of the node or {@link #INFINITY} if it has not been reached.
+     */
+    long distance(int node) {
+        return reached[node] == generation ? distances[node] : INFINITY;
+    }
+
+    /**
+     * Returns the node the given node has been reached from.
+     *
+     * @param node The id of the node.
+     * @return The id of the predecessor or -1 if the node is the source or has not been reached.
+     */
+    int predecessor(int node) {
+        return reached[node] == generation ? predecessors[node] : -1;
+    }
+
+    /**
+     * Reaches the given node with the given distance and adds it to the heap with the given priority, if it has
+     * not been reached before or the given distance is smaller than its current distance.
+     *
+     * @param node        The id of the reached node.
+     * @param distance    The distance of the node.
+     * @param priority    The priority of the node in the heap.
+     * @param predecessor The id of the node it has been reached from or -1.
+     * @return True if the node has been updated.
+     */
+    boolean reach(int node, long distance, long priority, int predecessor) {
+        if (reached[node] == generation && distances[node] <= distance) {
+            return false;
+        }
+        reached[node] = generation;
+        distances[node] = distance;
+        predecessors[node] = predecessor;
+        heap.insertOrDecrease(node, priority);
+        return true;
+    }
+
+    /**
+     * Reaches the given node with the given distance and adds it to the {@link LazyHeap} of this workspace, if it
+     * has not been reached before or the given distance is smaller than its current distance. The node is added
+     * again even if it is still queued, and a settled node is no longer settled afterwards.
+     *
+     * @param node        The id of the reached node.
+     * @param distance    The distance of the node.
+     * @param predecessor The id of the node it has been reached from or -1.
+     * @return True if the node has been updated.
+     */
+    boolean relax(int node, long distance, int predecessor) {
+        if (reached[node] == generation && distances[node] <= distance) {
+            return false;
+        }
+        reached[node] = generation;
+        distances[node] = distance;
+        predecessors[node] = predecessor;
+        settled[node] = 0;
+        queue.add(node, distances);
+        return true;
+    }
+
+    /**
+     * Returns the smallest distance of the nodes in the {@link LazyHeap} of this workspace that have not been
+     * settled. If it is not smaller than the distance of a settled node, that distance is final, even though the
+     * {@link LazyHeap} may have settled it too early.
+     *
+     * @return The smallest distance of the queued nodes or {@link #INFINITY} if there are none.
+     */
+    long minQueuedDistance() {
+        long min = INFINITY;
+        for (int position = 0; position < queue.size(); position++) {
+            int node = queue.get(position);
+            if (settled[node] != generation) {
+                min = Math.min(min, distances[node]);
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Removes nodes from the {@link LazyHeap} of this workspace until it finds one that has not been settled yet
+     * and marks it as settled.
+     *
+     * @return The id of the settled node or -1 if no queued node is left.
+     */
+    int settleNextQueued() {
+        while (!queue.isEmpty()) {
+            int node = queue.poll(distances);
+            if (settled[node] != generation) {
+                settled[node] = generation;
+                return node;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the node with the lowest priority from the heap and marks it as settled.
+     *
+     * @return The id of the settled node.
+     */
+    int settleNext() {
+        int node = heap.poll();
+        settled[node] = generation;
+        return node;
+    }
+
+    /**
+     * Copies the distances of the current search into the given array, using {@link #INFINITY} for nodes that
+     * have not been reached.
+     *
+     * @param target The array to copy the distances into.
+     */
+    void copyDistances(long[] target) {
+        for (int node = 0; node < target.length; node++) {
+            target[node] = distance(node);
+        }
+    }
+
+    /**
+     * Copies the predecessors of the current search into the given array, using -1 for nodes that have not been
+     * reached.
+     *
+     * @param target The array to copy the predecessors into.
+     */
+    void copyPredecessors(int[] target) {
+        for (int node = 0; node < target.length; node++) {
+            target[node] = predecessor(node);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The shortest paths from every node of a {@link RegionGraph} to a single root node.<p>
+ * <p>
+ * The tree only stores the predecessor and the duration of every node. As a {@link Map}, it maps every node that
+ * can reach the root to its path to the root (excluding the node and including the root), which is created when
+ * it is accessed. Every access returns a new {@link Deque} that may be modified by the caller. The map itself is
+ * unmodifiable.<p>
+ * <p>
+ * When the durations of edges change, {@link #repair(int[])} derives a tree for the new durations that only
+ * recomputes the parts of the tree affected by the changes.
+ */
+public final class ShortestPathTree extends AbstractMap<Region.Node, Deque<Region.Node>> {
+
+    private final RegionGraph graph;
+    private final int root;
+    private final int[] predecessors;
+    private final long[] durations;
+    private final int size;
+
+    /**
+     * Creates a new {@link ShortestPathTree} from the results of a search started at the root.
+     *
+     * @param graph     The searched {@link RegionGraph}.
+     * @param root      The id of the root node.
+     * @param workspace The {@link SearchWorkspace} containing the results of the search.
+     */
+    ShortestPathTree(RegionGraph graph, int root, SearchWorkspace workspace) {
+        this.graph = graph;
+        this.root = root;
+        this.predecessors = new int[graph.nodeCount()];
+        this.durations = new long[graph.nodeCount()];
+        workspace.copyPredecessors(predecessors);
+        workspace.copyDistances(durations);
+        this.size = countReached(durations);
+    }
+
+    /**
+     * Creates a new {@link ShortestPathTree} from the given arrays, which are not copied.
+     *
+     * @param graph        The {@link RegionGraph} the tree spans.
+     * @param root         The id of the root node.
+     * @param predecessors The id of the next node on the path of every node or -1.
+     * @param durations    The duration of the path of every node or {@link Long#MAX_VALUE}.
+     */
+    ShortestPathTree(RegionGraph graph, int root, int[] predecessors, long[] durations) {
+        this.graph = graph;
+        this.root = root;
+        this.predecessors = predecessors;
+        this.durations = durations;
+        this.size = countReached(durations);
+    }
+
+    private static int countReached(long[] durations) {
+        int size = 0;
+        for (long duration : durations) {
+            if (duration != SearchWorkspace.INFINITY) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the root of this {@link ShortestPathTree}, which is the end of all its paths.
+     *
+     * @return The root of this {@link ShortestPathTree}.
+     */
+    public Region.Node getRoot() {
+        return graph.getNode(root);
+    }
+
+    /**
+     * Returns the duration of the path from the given {@link Region.Node} to the root.
+     *
+     * @param node The start {@link Region.Node} of the path.
+     * @return The duration of the path.
+     * @throws IllegalArgumentException If the {@link Region.Node} cannot reach the root.
+     */
+    public long getDuration(Region.Node node) {
+        int id = idOf(node);
+        if (id < 0) {
+            throw new IllegalArgumentException("Node " + node + " cannot reach node " + getRoot());
+        }
+        return durations[id];
+    }
+
+    /**
+     * Returns the next {@link Region.Node} on the path from the given {@link Region.Node} to the root.
+     *
+     * @param node The start {@link Region.Node} of the path.
+     * @return The next {@link Region.Node} or {@code null} if the given {@link Region.Node} is the root or cannot
+     * reach the root.
+     */
+    public @Nullable Region.Node getNextNode(Region.Node node) {
+        int id = idOf(node);
+        return id < 0 || predecessors[id] < 0 ? null : graph.getNode(predecessors[id]);
+    }
+
+    /**
+     * Returns the estimated amount of bytes occupied by this {@link ShortestPathTree}.
+     *
+     * @return The estimated amount of bytes occupied by this {@link ShortestPathTree}.
+     */
+    public long estimatedBytes() {
+        return 64 + (long) predecessors.length * (Integer.BYTES + Long.BYTES);
+    }
+
+    /**
+     * Returns the {@link RegionGraph} this {@link ShortestPathTree} spans.
+     *
+     * @return The {@link RegionGraph} this {@link ShortestPathTree} spans.
+     */
+    RegionGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns a {@link ShortestPathTree} for the current durations of the graph after the durations of the given
+     * edges changed.<p>
+     * <p>
+     * A change only affects this tree if the changed edge is part of the tree or if it offers a shorter path to the
+     * root than the tree. The nodes below changed tree edges are detached from the tree and reattached via their
+     * neighbors in the remaining tree, and shorter paths are propagated from the changed edges with a Dijkstra
+     * search that only visits nodes whose paths change (in the style of Ramalingam and Reps).
+     *
+     * @param changedEdges The ids of the changed edges.
+     * @return This tree if none of the changes affects it, a repaired copy otherwise.
+     */
+    ShortestPathTree repair(int[] changedEdges) {
+        boolean affected = false;
+        for (int edge : changedEdges) {
+            affected |= isAffected(edge, predecessors, durations);
+        }
+        if (!affected) {
+            return this;
+        }
+
+        int n = predecessors.length;
+        int[] predecessors = this.predecessors.clone();
+        long[] durations = this.durations.clone();
+        boolean[] detached = new boolean[n];
+        int[] detachedNodes = new int[n];
+        int detachedCount = 0;
+        int[] stack = new int[n];
+
+        // detach the subtrees below all changed tree edges
+        for (int edge : changedEdges) {
+            int a = graph.edgeNodeA(edge);
+            int b = graph.edgeNodeB(edge);
+            for (int child : new int[] {a, b}) {
+                int parent = child == a ? b : a;
+                if (detached[child] || predecessors[child] != parent
+                    || durations[child] == durations[parent] + graph.arcDuration(graph.findArc(child, parent))) {
+                    continue;
+                }
+                int top = 0;
+                stack[top++] = child;
+                detached[child] = true;
+                while (top > 0) {
+                    int node = stack[--top];
+                    detachedNodes[detachedCount++] = node;
+                    for (int arc = graph.arcStart(node); arc < graph.arcEnd(node); arc++) {
+                        int next = graph.arcTarget(arc);
+                        if (!detached[next] && predecessors[next] == node) {
+                            detached[next] = true;
+                            stack[top++] = next;
+                        }
+                    }
+                }
+            }
+        }
+
+        IndexedHeap heap = new IndexedHeap();
+        heap.clear(n);
+        // reattach the detached nodes via their neighbors in the remaining tree
+        for (int i = 0; i < detachedCount; i++) {
+            int node = detachedNodes[i];
+            durations[node] = SearchWorkspace.INFINITY;
+            predecessors[node] = -1;
+        }
+        for (int i = 0; i < detachedCount; i++) {
+            int node = detachedNodes[i];
+            for (int arc = graph.arcStart(node); arc < graph.arcEnd(node); arc++) {
+                int next = graph.arcTarget(arc);
+                if (!detached[next] && durations[next] != SearchWorkspace.INFINITY
+                    && durations[next] + graph.arcDuration(arc) < durations[node]) {
+                    durations[node] = durations[next] + graph.arcDuration(arc);
+                    predecessors[node] = next;
+                }
+            }
+            if (durations[node] != SearchWorkspace.INFINITY) {
+                heap.insertOrDecrease(node, durations[node]);
+            }
+        }
+        // changed edges that now offer shorter paths
+        for (int edge : changedEdges) {
+            int a = graph.edgeNodeA(edge);
+            int b = graph.edgeNodeB(edge);
+            relax(a, b, graph.findArc(a, b), predecessors, durations, heap);
+            relax(b, a, graph.findArc(b, a), predecessors, durations, heap);
+        }
+
+        while (!heap.isEmpty()) {
+            int node = heap.poll();
+            for (int arc = graph.arcStart(node); arc < graph.arcEnd(node); arc++) {
+                relax(graph.arcTarget(arc), node, arc, predecessors, durations, heap);
+            }
+        }
+        return new ShortestPathTree(graph, root, predecessors, durations);
+    }
+
+    /**
+     * Returns true if the given edge is a tree edge whose duration no longer matches the tree or if it offers a
+     * shorter path to the root.
+     */
+    private boolean isAffected(int edge, int[] predecessors, long[] durations) {
+        int a = graph.edgeNodeA(edge);
+        int b = graph.edgeNodeB(edge);
+        if (a == b) {
+            return false;
+        }
+        long duration = graph.arcDuration(graph.findArc(a, b));
+        return predecessors[a] == b && durations[a] != durations[b] + duration
+            || predecessors[b] == a && durations[b] != durations[a] + duration
+            || durations[b] != SearchWorkspace.INFINITY && durations[b] + duration < durations[a]
+            || durations[a] != SearchWorkspace.INFINITY && durations[a] + duration < durations[b];
+    }
+
+    /**
+     * Lets the path of {@code node} continue via {@code next} if that is shorter.
+     */
+    private void relax(int node, int next, int arc, int[] predecessors, long[] durations, IndexedHeap heap) {
+        if (arc < 0 || durations[next] == SearchWorkspace.INFINITY) {
+            return;
+        }
+        long duration = durations[next] + graph.arcDuration(arc);
+        if (duration < durations[node]) {
+            durations[node] = duration;
+            predecessors[node] = next;
+            heap.insertOrDecrease(node, duration);
+        }
+    }
+
+    /**
+     * Returns the id of the given object if it is a node of the graph that can reach the root, -1 otherwise.
+     */
+    private int idOf(@Nullable Object object) {
+        if (!(object instanceof Region.Node node)) {
+            return -1;
+        }
+        int id = graph.indexOf(node);
+        return id >= 0 && graph.getNode(id) == node && durations[id] != SearchWorkspace.INFINITY ? id : -1;
+    }
+
+    private Deque<Region.Node> path(int id) {
+        Deque<Region.Node> path = new ArrayDeque<>();
+        for (int node = predecessors[id]; node >= 0; node = predecessors[node]) {
+            path.addLast(graph.getNode(node));
+        }
+        return path;
+    }
+
+    @Override
+    public @Nullable Deque<Region.Node> get(Object key) {
+        int id = idOf(key);
+        return id < 0 ? null : path(id);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return idOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Map.Entry<Region.Node, Deque<Region.Node>>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<Region.Node, Deque<Region.Node>>> iterator() {
+                return new Iterator<>() {
+                    private int next = advance(0);
+
+                    private int advance(int from) {
+                        int id = from;
+                        while (id < durations.length && durations[id] == SearchWorkspace.INFINITY) {
+                            id++;
+                        }
+                        return id;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < durations.length;
+                    }
+
+                    @Override
+                    public Map.Entry<Region.Node, Deque<Region.Node>> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int id = next;
+                        next = advance(id + 1);
+                        return Map.entry(graph.getNode(id), path(id));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
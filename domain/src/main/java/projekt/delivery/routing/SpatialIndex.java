@@ -0,0 +1,295 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+import projekt.base.Location;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A spatial index over the {@link Region.Node}s of a {@link RegionGraph}.<p>
+ * <p>
+ * The nodes are stored as an implicit, balanced k-d tree: the node in the middle of every range of the index array
+ * splits the range by its x coordinate on even and by its y coordinate on odd levels. Exact lookups use the sorted
+ * ids of the {@link RegionGraph} and take logarithmic time, nearest-node and bounding-box queries only visit the
+ * parts of the tree that can contain results. Distances are Euclidean distances between {@link Location}s.
+ */
+public final class SpatialIndex {
+
+    private final RegionGraph graph;
+    /**
+     * The ids of the nodes in k-d tree order.
+     */
+    private final int[] tree;
+
+    /**
+     * Creates a new {@link SpatialIndex} over the nodes of the given {@link RegionGraph}.
+     *
+     * @param graph The {@link RegionGraph} to index.
+     */
+    SpatialIndex(RegionGraph graph) {
+        this.graph = graph;
+        this.tree = new int[graph.nodeCount()];
+        for (int i = 0; i < tree.length; i++) {
+            tree[i] = i;
+        }
+        build(0, tree.length, 0);
+    }
+
+    /**
+     * Arranges the given range so that its middle element splits it along the given axis and recurses into both
+     * halves.
+     */
+    private void build(int from, int to, int depth) {
+        if (to - from <= 1) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        select(from, to - 1, middle, depth & 1);
+        build(from, middle, depth + 1);
+        build(middle + 1, to, depth + 1);
+    }
+
+    /**
+     * Partially sorts the given inclusive range so that the element at index {@code k} is the one that would be
+     * there if the range was sorted along the given axis (quickselect).
+     */
+    private void select(int left, int right, int k, int axis) {
+        while (left < right) {
+            long pivot = coordinate(tree[(left + right) >>> 1], axis);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coordinate(tree[i], axis) < pivot) {
+                    i++;
+                }
+                while (coordinate(tree[j], axis) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = tree[i];
+                    tree[i++] = tree[j];
+                    tree[j--] = swap;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private long coordinate(int node, int axis) {
+        return axis == 0 ? graph.getX(node) : graph.getY(node);
+    }
+
+    /**
+     * Returns the {@link RegionGraph} this {@link SpatialIndex} has been built for.
+     *
+     * @return The {@link RegionGraph} this {@link SpatialIndex} has been built for.
+     */
+    public RegionGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the {@link Region.Node} at the given {@link Location}.
+     *
+     * @param location The {@link Location} of the {@link Region.Node}.
+     * @return The {@link Region.Node} at the given {@link Location} or {@code null} if there is none.
+     */
+    public @Nullable Region.Node getNode(Location location) {
+        int id = graph.indexOf(location);
+        return id < 0 ? null : graph.getNode(id);
+    }
+
+    /**
+     * Returns the {@link Region.Node} closest to the given {@link Location}.
+     *
+     * @param location The {@link Location} to search around.
+     * @return The closest {@link Region.Node} or {@code null} if the {@link Region} has no nodes.
+     */
+    public @Nullable Region.Node getNearestNode(Location location) {
+        List<Region.Node> nearest = getNearestNodes(location, 1, node -> true);
+        return nearest.isEmpty() ? null : nearest.get(0);
+    }
+
+    /**
+     * Returns the {@link Region.Node} closest to the given {@link Location} that matches the given filter, e.g. the
+     * closest {@link Region.Neighborhood}.
+     *
+     * @param location The {@link Location} to search around.
+     * @param filter   The filter the returned {@link Region.Node} has to match.
+     * @return The closest matching {@link Region.Node} or {@code null} if no {@link Region.Node} matches.
+     */
+    public @Nullable Region.Node getNearestNode(Location location, Predicate<? super Region.Node> filter) {
+        List<Region.Node> nearest = getNearestNodes(location, 1, filter);
+        return nearest.isEmpty() ? null : nearest.get(0);
+    }
+
+    /**
+     * Returns the given amount of {@link Region.Node}s closest to the given {@link Location}.
+     *
+     * @param location The {@link Location} to search around.
+     * @param count    The maximum amount of {@link Region.Node}s to return.
+     * @return The closest {@link Region.Node}s, ordered by their distance to the given {@link Location}.
+     * @throws IllegalArgumentException If the amount is negative.
+     */
+    public List<Region.Node> getNearestNodes(Location location, int count) {
+        return getNearestNodes(location, count, node -> true);
+    }
+
+    /**
+     * Returns the given amount of {@link Region.Node}s closest to the given {@link Location} that match the given
+     * filter.
+     *
+     * @param location The {@link Location} to search around.
+     * @param count    The maximum amount of {@link Region.Node}s to return.
+     * @param filter   The filter the returned {@link Region.Node}s have to match.
+     * @return The closest matching {@link Region.Node}s, ordered by their distance to the given {@link Location}.
+     * Nodes with the same distance are ordered by their {@link Location}.
+     * @throws IllegalArgumentException If the amount is negative.
+     */
+    public List<Region.Node> getNearestNodes(Location location, int count, Predicate<? super Region.Node> filter) {
+        if (count < 0) {
+            throw new IllegalArgumentException("The amount of nodes must not be negative, got " + count);
+        }
+        Candidates candidates = new Candidates(Math.min(count, tree.length));
+        if (candidates.capacity > 0) {
+            nearest(0, tree.length, 0, location.getX(), location.getY(), filter, candidates);
+        }
+        List<Region.Node> result = new ArrayList<>(candidates.size);
+        for (int i = 0; i < candidates.size; i++) {
+            result.add(graph.getNode(candidates.nodes[i]));
+        }
+        return result;
+    }
+
+    private void nearest(int from,
+                         int to,
+                         int depth,
+                         long x,
+                         long y,
+                         Predicate<? super Region.Node> filter,
+                         Candidates candidates) {
+        if (from >= to) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        int node = tree[middle];
+        long dx = graph.getX(node) - x;
+        long dy = graph.getY(node) - y;
+        if (candidates.accepts(dx * dx + dy * dy, node) && filter.test(graph.getNode(node))) {
+            candidates.add(dx * dx + dy * dy, node);
+        }
+
+        long difference = (depth & 1) == 0 ? -dx : -dy;
+        boolean lowerFirst = difference <= 0;
+        nearest(lowerFirst ? from : middle + 1, lowerFirst ? middle : to, depth + 1, x, y, filter, candidates);
+        // the other half can only contain closer nodes if the splitting line is closer than the farthest candidate
+        if (!candidates.isFull() || difference * difference <= candidates.farthest()) {
+            nearest(lowerFirst ? middle + 1 : from, lowerFirst ? to : middle, depth + 1, x, y, filter, candidates);
+        }
+    }
+
+    /**
+     * Returns all {@link Region.Node}s inside the given bounding box, including its border.
+     *
+     * @param minX The smallest x coordinate of the bounding box.
+     * @param minY The smallest y coordinate of the bounding box.
+     * @param maxX The largest x coordinate of the bounding box.
+     * @param maxY The largest y coordinate of the bounding box.
+     * @return The {@link Region.Node}s inside the bounding box in ascending {@link Location} order.
+     */
+    public List<Region.Node> getNodesInRange(int minX, int minY, int maxX, int maxY) {
+        int[] found = new int[16];
+        int size = range(0, tree.length, 0, minX, minY, maxX, maxY, found, 0);
+        found = size > found.length ? collect(minX, minY, maxX, maxY, size) : found;
+        Arrays.sort(found, 0, size);
+        List<Region.Node> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(graph.getNode(found[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Counts the nodes inside the bounding box and stores as many of them as fit into the given array.
+     *
+     * @return The amount of nodes inside the bounding box.
+     */
+    private int range(int from, int to, int depth, int minX, int minY, int maxX, int maxY, int[] found, int size) {
+        if (from >= to) {
+            return size;
+        }
+        int middle = (from + to) >>> 1;
+        int node = tree[middle];
+        int x = graph.getX(node);
+        int y = graph.getY(node);
+        if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+            if (size < found.length) {
+                found[size] = node;
+            }
+            size++;
+        }
+        int value = (depth & 1) == 0 ? x : y;
+        if (value >= ((depth & 1) == 0 ? minX : minY)) {
+            size = range(from, middle, depth + 1, minX, minY, maxX, maxY, found, size);
+        }
+        if (value <= ((depth & 1) == 0 ? maxX : maxY)) {
+            size = range(middle + 1, to, depth + 1, minX, minY, maxX, maxY, found, size);
+        }
+        return size;
+    }
+
+    private int[] collect(int minX, int minY, int maxX, int maxY, int size) {
+        int[] found = new int[size];
+        range(0, tree.length, 0, minX, minY, maxX, maxY, found, 0);
+        return found;
+    }
+
+    /**
+     * The closest nodes found so far, sorted by their squared distance and their id.
+     */
+    private static final class Candidates {
+
+        private final int capacity;
+        private final long[] distances;
+        private final int[] nodes;
+        private int size;
+
+        private Candidates(int capacity) {
+            this.capacity = capacity;
+            this.distances = new long[capacity];
+            this.nodes = new int[capacity];
+        }
+
+        private boolean isFull() {
+            return size == capacity;
+        }
+
+        private long farthest() {
+            return distances[size - 1];
+        }
+
+        private boolean accepts(long distance, int node) {
+            return !isFull() || distance < farthest() || distance == farthest() && node < nodes[size - 1];
+        }
+
+        private void add(long distance, int node) {
+            int i = isFull() ? size - 1 : size++;
+            while (i > 0 && (distances[i - 1] > distance || distances[i - 1] == distance && nodes[i - 1] > node)) {
+                distances[i] = distances[i - 1];
+                nodes[i] = nodes[i - 1];
+                i--;
+            }
+            distances[i] = distance;
+            nodes[i] = node;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+import projekt.base.DistanceCalculator;
+import projekt.base.Location;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link PathCalculator} that calculates the fastest path from a start to an end point for a given departure tick,
+ * following the {@link TravelTimeProfile}s of the edges.<p>
+ * <p>
+ * The search is a time-dependent A*: the duration of an edge is evaluated at the tick the edge is entered. Since all
+ * profiles satisfy the FIFO property, the search can stop as soon as the end node is settled. The heuristic is the
+ * distance to the end node, scaled down so that it never exceeds the smallest duration of any edge.<p>
+ * <p>
+ * Departure ticks are grouped into buckets of {@link #getBucketSize()} ticks. The path between two nodes is
+ * calculated once per bucket, for the first tick of the bucket, and cached, so repeated queries in the same bucket
+ * only look the path up. Durations are always evaluated for the exact departure tick along the cached path. The
+ * cache is cleared when a duration or a profile of the {@link Region} changes.<p>
+ * <p>
+ * The methods without a departure tick use the tick returned by the supplier given on construction. Without a
+ * supplier, they use the current tick of the {@link VehicleManager} this calculator is given to, so the vehicles are
+ * routed for the ticks at which they depart, or tick 0 if it has not been given to one.
+ * {@link #getAllPathsTo(Region.Node)} runs a plain Dijkstra search on the durations at that tick. This calculator
+ * caches its results itself and should not be wrapped in a {@link CachedPathCalculator}.
+ */
+public class TimeDependentPathCalculator implements PathCalculator {
+
+    /**
+     * The amount of ticks in a bucket if no amount is given.
+     */
+    public static final long DEFAULT_BUCKET_SIZE = 15;
+
+    /**
+     * The amount of paths cached if no amount is given.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 4096;
+
+    private final boolean usesVehicleManagerTick;
+    private volatile LongSupplier departureTick;
+    private final long bucketSize;
+    private final int cacheSize;
+    private final Map<Query, int[]> cache;
+    private @Nullable RegionGraph cachedGraph;
+    private long cachedVersion;
+    private long cachedProfileVersion;
+    private @Nullable Heuristic heuristic;
+
+    /**
+     * Creates a new {@link TimeDependentPathCalculator} with {@link #DEFAULT_BUCKET_SIZE} and
+     * {@link #DEFAULT_CACHE_SIZE} that departs at the current tick of its {@link VehicleManager} unless a tick is
+     * given.
+     */
+    public TimeDependentPathCalculator() {
+        this(DEFAULT_BUCKET_SIZE, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a new {@link TimeDependentPathCalculator} that departs at the current tick of its
+     * {@link VehicleManager} unless a tick is given.
+     *
+     * @param bucketSize The amount of ticks whose departures share their paths.
+     * @param cacheSize  The maximum amount of cached paths.
+     * @throws IllegalArgumentException If the bucket size is not positive or the cache size is negative.
+     */
+    public TimeDependentPathCalculator(long bucketSize, int cacheSize) {
+        this(() -> 0, bucketSize, cacheSize, true);
+    }
+
+    /**
+     * Creates a new {@link TimeDependentPathCalculator} with {@link #DEFAULT_BUCKET_SIZE} and
+     * {@link #DEFAULT_CACHE_SIZE}.
+     *
+     * @param departureTick The supplier of the departure tick used by the methods without a departure tick.
+     */
+    public TimeDependentPathCalculator(LongSupplier departureTick) {
+        this(departureTick, DEFAULT_BUCKET_SIZE, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a new {@link TimeDependentPathCalculator}.
+     *
+     * @param departureTick The supplier of the departure tick used by the methods without a departure tick.
+     * @param bucketSize    The amount of ticks whose departures share their paths.
+     * @param cacheSize     The maximum amount of cached paths.
+     * @throws IllegalArgumentException If the bucket size is not positive or the cache size is negative.
+     */
+    public TimeDependentPathCalculator(LongSupplier departureTick, long bucketSize, int cacheSize) {
+        this(departureTick, bucketSize, cacheSize, false);
+    }
+
+    private TimeDependentPathCalculator(LongSupplier departureTick,
+                                        long bucketSize,
+                                        int cacheSize,
+                                        boolean usesVehicleManagerTick) {
+        if (bucketSize <= 0) {
+            throw new IllegalArgumentException("The bucket size must be positive, got " + bucketSize);
+        }
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("The cache size must not be negative, got " + cacheSize);
+        }
+        this.departureTick = departureTick;
+        this.usesVehicleManagerTick = usesVehicleManagerTick;
+        this.bucketSize = bucketSize;
+        this.cacheSize = cacheSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Query, int[]> eldest) {
+                return size() > TimeDependentPathCalculator.this.cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the amount of ticks whose departures share their paths.
+     *
+     * @return The size of a bucket in ticks.
+     */
+    public long getBucketSize() {
+        return bucketSize;
+    }
+
+    /**
+     * Returns the maximum amount of cached paths.
+     *
+     * @return The maximum amount of cached paths.
+     */
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * Returns true if the methods without a departure tick use the current tick of the {@link VehicleManager} this
+     * calculator is given to, i.e. no supplier of the departure tick has been given on construction.
+     *
+     * @return True if the current tick of the {@link VehicleManager} is used.
+     */
+    public boolean usesVehicleManagerTick() {
+        return usesVehicleManagerTick;
+    }
+
+    /**
+     * Lets the methods without a departure tick use the given current tick of a {@link VehicleManager}, unless a
+     * supplier of the departure tick has been given on construction.
+     *
+     * @param currentTick The supplier of the current tick of the {@link VehicleManager}.
+     */
+    void setVehicleManagerTick(LongSupplier currentTick) {
+        if (usesVehicleManagerTick) {
+            departureTick = currentTick;
+        }
+    }
+
+    @Override
+    public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
+        return getPath(start, end, departureTick.getAsLong());
+    }
+
+    /**
+     * Calculates the fastest path from {@code start} to {@code end} when departing at the given tick.
+     *
+     * @param start The start {@link Region.Node}
+     * @param end   The end {@link Region.Node}
+     * @param tick  The departure tick.
+     * @return A list of nodes (excluding start and including end) that represent a path from start to end
+     * @throws IllegalArgumentException If there is no path from start to end
+     */
+    public Deque<Region.Node> getPath(Region.Node start, Region.Node end, long tick) {
+        Deque<Region.Node> path = new ArrayDeque<>();
+        if (start == end) {
+            return path;
+        }
+        RegionGraph graph = start.getRegion().getGraph();
+        for (int arc : getArcs(graph, graph.checkedIndexOf(start), graph.checkedIndexOf(end), tick)) {
+            path.addLast(graph.getNode(graph.arcTarget(arc)));
+        }
+        return path;
+    }
+
+    @Override
+    public long getDuration(Region.Node start, Region.Node end) {
+        return getDuration(start, end, departureTick.getAsLong());
+    }
+
+    /**
+     * Calculates the duration of the fastest path from {@code start} to {@code end} when departing at the given
+     * tick.
+     *
+     * @param start The start {@link Region.Node}
+     * @param end   The end {@link Region.Node}
+     * @param tick  The departure tick.
+     * @return The duration of the fastest path from start to end
+     * @throws IllegalArgumentException If there is no path from start to end
+     */
+    public long getDuration(Region.Node start, Region.Node end, long tick) {
+        if (start == end) {
+            return 0;
+        }
+        RegionGraph graph = start.getRegion().getGraph();
+        long arrival = tick;
+        for (int arc : getArcs(graph, graph.checkedIndexOf(start), graph.checkedIndexOf(end), tick)) {
+            arrival += graph.arcDuration(arc, arrival);
+        }
+        return arrival - tick;
+    }
+
+    @Override
+    public Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end) {
+        RegionGraph graph = end.getRegion().getGraph();
+        int target = graph.checkedIndexOf(end);
+        long tick = departureTick.getAsLong();
+        SearchWorkspace workspace = SearchWorkspace.forward(graph.nodeCount());
+
+        workspace.reach(target, 0, 0, -1);
+        while (!workspace.heap.isEmpty()) {
+            int u = workspace.settleNext();
+            long duration = workspace.distance(u);
+            for (int arc = graph.arcStart(u); arc < graph.arcEnd(u); arc++) {
+                long weight = duration + graph.arcDuration(arc, tick);
+                workspace.reach(graph.arcTarget(arc), weight, weight, u);
+            }
+        }
+
+        int[] predecessors = new int[graph.nodeCount()];
+        long[] durations = new long[graph.nodeCount()];
+        workspace.copyPredecessors(predecessors);
+        workspace.copyDistances(durations);
+        // not exposed as a ShortestPathTree, which would be repaired using the static durations
+        return Collections.unmodifiableMap(new ShortestPathTree(graph, target, predecessors, durations));
+    }
+
+    /**
+     * Returns the arcs of the path between the given nodes for the bucket of the given tick, calculating and caching
+     * them if necessary.
+     */
+    private int[] getArcs(RegionGraph graph, int source, int target, long tick) {
+        long bucket = Math.floorDiv(tick, bucketSize);
+        Query query = new Query(source, target, bucket);
+        Heuristic heuristic;
+        synchronized (cache) {
+            if (cachedGraph != graph || cachedVersion != graph.version()
+                || cachedProfileVersion != graph.profileVersion()) {
+                cache.clear();
+                cachedGraph = graph;
+                cachedVersion = graph.version();
+                cachedProfileVersion = graph.profileVersion();
+                this.heuristic = new Heuristic(graph);
+            }
+            int @Nullable [] arcs = cache.get(query);
+            if (arcs != null) {
+                return arcs;
+            }
+            heuristic = this.heuristic;
+        }
+
+        int[] arcs = search(graph, heuristic, source, target, bucket * bucketSize);
+        synchronized (cache) {
+            if (cachedGraph == graph && heuristic == this.heuristic) {
+                cache.put(query, arcs);
+            }
+        }
+        return arcs;
+    }
+
+    /**
+     * Runs the time-dependent A* from {@code source} until {@code target} is settled.
+     *
+     * @return The arcs of the found path.
+     * @throws IllegalArgumentException If the target cannot be reached.
+     */
+    private static int[] search(RegionGraph graph, Heuristic heuristic, int source, int target, long tick) {
+        SearchWorkspace workspace = SearchWorkspace.forward(graph.nodeCount());
+        Location targetLocation = graph.getNode(target).getLocation();
+
+        workspace.reach(source, 0, heuristic.estimate(graph.getNode(source).getLocation(), targetLocation), -1);
+        while (!workspace.heap.isEmpty()) {
+            int u = workspace.settleNext();
+            if (u == target) {
+                return arcs(graph, workspace, source, target);
+            }
+            long duration = workspace.distance(u);
+            for (int arc = graph.arcStart(u); arc < graph.arcEnd(u); arc++) {
+                int v = graph.arcTarget(arc);
+                if (workspace.isSettled(v)) {
+                    continue;
+                }
+                long weight = duration + graph.arcDuration(arc, tick + duration);
+                if (weight < workspace.distance(v)) {
+                    long estimate = heuristic.estimate(graph.getNode(v).getLocation(), targetLocation);
+                    workspace.reach(v, weight, weight + estimate, u);
+                }
+            }
+        }
+        throw new IllegalArgumentException("Node " + graph.getNode(source) + " cannot reach node "
+            + graph.getNode(target));
+    }
+
+    private static int[] arcs(RegionGraph graph, SearchWorkspace workspace, int source, int target) {
+        int length = 0;
+        for (int node = target; node != source; node = workspace.predecessor(node)) {
+            length++;
+        }
+        int[] arcs = new int[length];
+        for (int node = target; node != source; node = workspace.predecessor(node)) {
+            arcs[--length] = graph.findArc(workspace.predecessor(node), node);
+        }
+        return arcs;
+    }
+
+    /**
+     * A cached query: the ids of the start and end node and the bucket of the departure tick.
+     */
+    private record Query(int source, int target, long bucket) {
+    }
+
+    /**
+     * The heuristic used for a single {@link RegionGraph}, scaled by the smallest durations of its edges.
+     */
+    private static final class Heuristic {
+
+        private final DistanceCalculator distanceCalculator;
+        private final double scale;
+
+        private Heuristic(RegionGraph graph) {
+            this.distanceCalculator = graph.getRegion().getDistanceCalculator();
+            double scale = 1;
+            for (int u = 0; u < graph.nodeCount(); u++) {
+                for (int arc = graph.arcStart(u); arc < graph.arcEnd(u); arc++) {
+                    double distance = distanceCalculator.calculateDistance(graph.getNode(u).getLocation(),
+                                                                           graph.getNode(graph.arcTarget(arc))
+                                                                                .getLocation());
+                    if (distance > 0) {
+                        scale = Math.min(scale, graph.arcMinDuration(arc) / distance);
+                    }
+                }
+            }
+            this.scale = Math.max(scale, 0);
+        }
+
+        private long estimate(Location from, Location to) {
+            return (long) Math.floor(scale * distanceCalculator.calculateDistance(from, to));
+        }
+    }
+}
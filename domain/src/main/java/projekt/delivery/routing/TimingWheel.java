@@ -0,0 +1,224 @@
+package projekt.delivery.routing;
+
+import java.util.Arrays;
+
+/**
+ * A hierarchical timing wheel that hands out scheduled {@code long} values once their tick is due.
+ * <p>
+ * The wheel has {@value #LEVELS} levels of {@value #SLOTS} slots. A value is put on the level of the highest group of
+ * {@value #BITS} bits in which its tick differs from the first tick that has not been {@link #advance(long) advanced}
+ * past yet, and in the slot given by that group of its tick. The slots of level {@code l} thus span
+ * {@code 64^l} ticks. Whenever the wheel advances into a slot of a higher level, the values of this slot are moved
+ * to the lower levels, so every value moves at most {@value #LEVELS} times, no matter how far ahead it is scheduled.
+ * Scheduling is done in constant time and advancing only looks at slots that contain values.
+ * <p>
+ * The values, their ticks and the order they have been scheduled in are stored in primitive arrays that only grow,
+ * so neither scheduling nor advancing allocates once the wheel has warmed up.
+ */
+final class TimingWheel {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int LEVELS = (Long.SIZE + BITS - 1) / BITS;
+
+    private final Slot[] slots = new Slot[LEVELS * SLOTS];
+    /**
+     * The slots of every level that contain values, one bit per slot.
+     */
+    private final long[] occupiedSlots = new long[LEVELS];
+    /**
+     * The values that have been due at the last {@link #advance(long) advanced} ticks.
+     */
+    private long[] due = new long[SLOTS];
+    /**
+     * The first tick that has not been advanced past yet. Every scheduled value is due at this tick or later.
+     */
+    private long base;
+    private long sequence;
+    private int size;
+
+    /**
+     * Creates a new, empty {@link TimingWheel} whose first tick is 0.
+     */
+    TimingWheel() {
+    }
+
+    /**
+     * Schedules the given value for the given tick. Values scheduled for a tick that has already been advanced past
+     * are due at the next tick.
+     *
+     * @param value The value to schedule.
+     * @param tick  The tick at which the value is due.
+     */
+    void schedule(long value, long tick) {
+        place(value, Math.max(tick, base), sequence++);
+        size++;
+    }
+
+    /**
+     * Removes all values that are due at the given tick or earlier. The values are ordered by the ticks they are due
+     * at and values due at the same tick by the order they have been scheduled in and can be read with
+     * {@link #getDue(int)} until the next call of this method.
+     *
+     * @param tick The tick to advance to.
+     * @return The amount of values that are due.
+     */
+    int advance(long tick) {
+        int dueCount = 0;
+        while (size > 0) {
+            long next = nextTick();
+            if (next > tick) {
+                break;
+            }
+            moveBase(next);
+            Slot slot = slots[(int) (next & SLOTS - 1)];
+            slot.sortBySequence();
+            if (dueCount + slot.size > due.length) {
+                due = Arrays.copyOf(due, Math.max(due.length * 2, dueCount + slot.size));
+            }
+            System.arraycopy(slot.values, 0, due, dueCount, slot.size);
+            dueCount += slot.size;
+            size -= slot.size;
+            slot.size = 0;
+            occupiedSlots[0] &= ~(1L << (next & SLOTS - 1));
+            moveBase(next + 1);
+        }
+        if (tick >= base && tick < Long.MAX_VALUE) {
+            moveBase(tick + 1);
+        }
+        return dueCount;
+    }
+
+    /**
+     * Returns a value that has been due at the last {@link #advance(long) advanced} ticks.
+     *
+     * @param index The index of the value, less than the amount returned by {@link #advance(long)}.
+     * @return The value at the given index.
+     */
+    long getDue(int index) {
+        return due[index];
+    }
+
+    /**
+     * Returns the first tick at which a value is due.
+     *
+     * @return The first tick at which a value is due or {@link Long#MAX_VALUE} if no value is scheduled.
+     */
+    long nextTick() {
+        for (int level = 0; level < LEVELS; level++) {
+            if (occupiedSlots[level] != 0) {
+                int slot = Long.numberOfTrailingZeros(occupiedSlots[level]);
+                if (level == 0) {
+                    return base & -SLOTS | slot;
+                }
+                // the values of the first slot of a higher level are due in no particular order
+                Slot entries = slots[level * SLOTS + slot];
+                long next = Long.MAX_VALUE;
+                for (int i = 0; i < entries.size; i++) {
+                    next = Math.min(next, entries.ticks[i]);
+                }
+                return next;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns the amount of scheduled values.
+     *
+     * @return The amount of scheduled values.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes all scheduled values and resets the first tick to 0.
+     */
+    void clear() {
+        for (Slot slot : slots) {
+            if (slot != null) {
+                slot.size = 0;
+            }
+        }
+        Arrays.fill(occupiedSlots, 0);
+        base = 0;
+        size = 0;
+    }
+
+    private void place(long value, long tick, long sequence) {
+        int level = tick == base ? 0 : (63 - Long.numberOfLeadingZeros(tick ^ base)) / BITS;
+        int slot = (int) (tick >>> level * BITS) & SLOTS - 1;
+        int index = level * SLOTS + slot;
+        if (slots[index] == null) {
+            slots[index] = new Slot();
+        }
+        slots[index].add(value, tick, sequence);
+        occupiedSlots[level] |= 1L << slot;
+    }
+
+    /**
+     * Sets the first tick that has not been advanced past yet. No value may be due before the given tick.
+     */
+    private void moveBase(long tick) {
+        base = tick;
+        // the values of the slots of the new tick now differ from it in a lower group of bits
+        for (int level = LEVELS - 1; level > 0; level--) {
+            int slot = (int) (tick >>> level * BITS) & SLOTS - 1;
+            if ((occupiedSlots[level] & 1L << slot) != 0) {
+                Slot entries = slots[level * SLOTS + slot];
+                occupiedSlots[level] &= ~(1L << slot);
+                // the values move to lower levels only, never back into this slot
+                for (int i = 0; i < entries.size; i++) {
+                    place(entries.values[i], entries.ticks[i], entries.sequences[i]);
+                }
+                entries.size = 0;
+            }
+        }
+    }
+
+    /**
+     * The values of a slot, their ticks and the order they have been scheduled in.
+     */
+    private static final class Slot {
+
+        private long[] values = new long[4];
+        private long[] ticks = new long[4];
+        private long[] sequences = new long[4];
+        private int size;
+
+        private void add(long value, long tick, long sequence) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+                ticks = Arrays.copyOf(ticks, size * 2);
+                sequences = Arrays.copyOf(sequences, size * 2);
+            }
+            values[size] = value;
+            ticks[size] = tick;
+            sequences[size] = sequence;
+            size++;
+        }
+
+        /**
+         * Sorts the values by the order they have been scheduled in. The values are appended in runs that are
+         * already sorted, one run per cascade from a higher level, so an insertion sort only moves few values.
+         */
+        private void sortBySequence() {
+            for (int i = 1; i < size; i++) {
+                long value = values[i];
+                long tick = ticks[i];
+                long sequence = sequences[i];
+                int j = i - 1;
+                while (j >= 0 && sequences[j] > sequence) {
+                    values[j + 1] = values[j];
+                    ticks[j + 1] = ticks[j];
+                    sequences[j + 1] = sequences[j];
+                    j--;
+                }
+                values[j + 1] = value;
+                ticks[j + 1] = tick;
+                sequences[j + 1] = sequence;
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package projekt.delivery.routing;
+
+import java.util.Arrays;
+
+/**
+ * The time-dependent travel time of a {@link Region.Edge}.<p>
+ * <p>
+ * The profile repeats every {@link #getPeriod()} ticks, e.g. once per simulated day. Within a period, it is a
+ * piecewise-linear function given by its breakpoints: the travel time at the tick of a breakpoint is the duration
+ * of that breakpoint, between two breakpoints it is interpolated linearly and rounded down. After the last
+ * breakpoint, the travel time is interpolated towards the first breakpoint of the next period.<p>
+ * <p>
+ * Every profile satisfies the FIFO property: departing later never leads to an earlier arrival, i.e. the travel time
+ * decreases by at most one tick per tick. This keeps time-dependent shortest path searches label-setting. The
+ * breakpoints are stored in two {@code int} arrays.
+ */
+public final class TravelTimeProfile {
+
+    private final int period;
+    private final int[] ticks;
+    private final int[] durations;
+    private final int minDuration;
+    private final int maxDuration;
+
+    private TravelTimeProfile(int period, int[] ticks, int[] durations) {
+        this.period = period;
+        this.ticks = ticks;
+        this.durations = durations;
+        this.minDuration = Arrays.stream(durations).min().orElseThrow();
+        this.maxDuration = Arrays.stream(durations).max().orElseThrow();
+    }
+
+    /**
+     * Creates a new {@link TravelTimeProfile} from the given breakpoints.
+     *
+     * @param period    The amount of ticks after which the profile repeats.
+     * @param ticks     The ticks of the breakpoints in ascending order, relative to the start of a period.
+     * @param durations The travel time at each breakpoint.
+     * @return The created {@link TravelTimeProfile}.
+     * @throws IllegalArgumentException If the period is not positive, the arrays are empty or of different length,
+     *                                  a tick is outside the period or not ascending, a duration is negative or the
+     *                                  profile violates the FIFO property.
+     */
+    public static TravelTimeProfile of(int period, int[] ticks, int[] durations) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("The period must be positive, got " + period);
+        }
+        if (ticks.length == 0 || ticks.length != durations.length) {
+            throw new IllegalArgumentException("Ticks and durations must have the same positive length, got %d and %d"
+                .formatted(ticks.length, durations.length));
+        }
+        for (int i = 0; i < ticks.length; i++) {
+            if (ticks[i] < 0 || ticks[i] >= period || i > 0 && ticks[i] <= ticks[i - 1]) {
+                throw new IllegalArgumentException("Invalid tick of breakpoint " + i + ": " + ticks[i]);
+            }
+            if (durations[i] < 0) {
+                throw new IllegalArgumentException("Invalid duration of breakpoint " + i + ": " + durations[i]);
+            }
+        }
+        for (int i = 0; i < ticks.length; i++) {
+            int next = (i + 1) % ticks.length;
+            long length = next > i ? ticks[next] - ticks[i] : (long) ticks[next] + period - ticks[i];
+            if (durations[i] - durations[next] > length) {
+                throw new IllegalArgumentException("Travel time drops by more than one tick per tick after tick "
+                    + ticks[i]);
+            }
+        }
+        return new TravelTimeProfile(period, ticks.clone(), durations.clone());
+    }
+
+    /**
+     * Creates a new {@link TravelTimeProfile} with the same travel time at every tick.
+     *
+     * @param duration The travel time.
+     * @return The created {@link TravelTimeProfile}.
+     * @throws IllegalArgumentException If the duration is negative.
+     */
+    public static TravelTimeProfile constant(int duration) {
+        return of(1, new int[] {0}, new int[] {duration});
+    }
+
+    /**
+     * Returns the travel time when departing at the given tick.
+     *
+     * @param tick The departure tick.
+     * @return The travel time when departing at the given tick.
+     */
+    public long getDuration(long tick) {
+        int offset = (int) Math.floorMod(tick, (long) period);
+        int i = Arrays.binarySearch(ticks, offset);
+        if (i >= 0) {
+            return durations[i];
+        }
+        // interpolate between the breakpoints around the offset, wrapping around the end of the period
+        int last = ticks.length - 1;
+        int previous = -i - 2;
+        int next;
+        long from;
+        long to;
+        if (previous < 0) {
+            previous = last;
+            next = 0;
+            from = ticks[last] - (long) period;
+            to = ticks[0];
+        } else if (previous == last) {
+            next = 0;
+            from = ticks[last];
+            to = ticks[0] + (long) period;
+        } else {
+            next = previous + 1;
+            from = ticks[previous];
+            to = ticks[next];
+        }
+        long delta = (long) durations[next] - durations[previous];
+        return durations[previous] + Math.floorDiv(delta * (offset - from), to - from);
+    }
+
+    /**
+     * Returns the smallest travel time of this {@link TravelTimeProfile}.
+     *
+     * @return The smallest travel time.
+     */
+    public long getMinDuration() {
+        return minDuration;
+    }
+
+    /**
+     * Returns the largest travel time of this {@link TravelTimeProfile}.
+     *
+     * @return The largest travel time.
+     */
+    public long getMaxDuration() {
+        return maxDuration;
+    }
+
+    /**
+     * Returns the amount of ticks after which this {@link TravelTimeProfile} repeats.
+     *
+     * @return The period of this {@link TravelTimeProfile}.
+     */
+    public int getPeriod() {
+        return period;
+    }
+
+    /**
+     * Returns the ticks of the breakpoints of this {@link TravelTimeProfile}.
+     *
+     * @return A copy of the ticks of the breakpoints.
+     */
+    public int[] getTicks() {
+        return ticks.clone();
+    }
+
+    /**
+     * Returns the travel times at the breakpoints of this {@link TravelTimeProfile}.
+     *
+     * @return A copy of the travel times at the breakpoints.
+     */
+    public int[] getDurations() {
+        return durations.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        TravelTimeProfile that = (TravelTimeProfile) o;
+        return period == that.period && Arrays.equals(ticks, that.ticks) && Arrays.equals(durations, that.durations);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * period + Arrays.hashCode(ticks)) + Arrays.hashCode(durations);
+    }
+
+    @Override
+    public String toString() {
+        return "TravelTimeProfile(period=" + period + ", breakpoints=" + ticks.length + ", duration=" + minDuration
+            + ".." + maxDuration + ")";
+    }
+}
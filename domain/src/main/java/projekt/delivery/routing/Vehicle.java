@@ -38,6 +38,17 @@ public interface Vehicle extends Comparable<Vehicle> {
      */
     List<? extends Path> getPaths();
 
+    /**
+     * Returns whether this {@link Vehicle} has {@link Path}s queued, i.e. whether it will move or execute an arrival
+     * action. This is the same as checking whether {@link #getPaths()} is not empty, without creating the
+     * {@link List}.
+     *
+     * @return True, if this {@link Vehicle} has {@link Path}s queued.
+     */
+    default boolean hasPendingMoves() {
+        return !getPaths().isEmpty();
+    }
+
     /**
      * Deletes the entire move queue and moves directly to the provided {@link Region.Node}.
      */
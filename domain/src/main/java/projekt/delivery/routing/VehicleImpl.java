@@ -1,10 +1,14 @@
 package projekt.delivery.routing;
 
+import java.util.AbstractList;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.BiConsumer;
 
 import org.jetbrains.annotations.Nullable;
@@ -15,7 +19,8 @@ public class VehicleImpl implements Vehicle {
     private final double capacity;
     private final List<ConfirmedOrder> orders = new ArrayList<>();
     private final VehicleManagerImpl vehicleManager;
-    private final Deque<PathImpl> moveQueue = new LinkedList<>();
+    private final Deque<PathImpl> moveQueue = new ArrayDeque<>();
+    private final List<PathImpl> paths = new PathList();
     private final VehicleManager.OccupiedRestaurant startingNode;
     private AbstractOccupied<?> occupied;
 
@@ -41,13 +46,80 @@ public class VehicleImpl implements Vehicle {
 
     @Override
     public List<? extends Path> getPaths() {
-        return new LinkedList<>(moveQueue);
+        return paths;
+    }
+
+    @Override
+    public boolean hasPendingMoves() {
+        return !moveQueue.isEmpty();
+    }
+
+    /**
+     * Returns the next node of the current path of this vehicle, i.e. the node it moves towards when it is moved.
+     *
+     * @return The next node or {@code null} if this vehicle has no path or executes an arrival action when it is
+     * moved.
+     */
+    @Nullable Region.Node getNextNode() {
+        PathImpl path = moveQueue.peek();
+        if (path == null) {
+            return null;
+        }
+        int cursor = getPathCursor();
+        return path.isEmpty(cursor) ? null : path.getNextNode(cursor);
+    }
+
+    /**
+     * Removes the next node from the current path of this vehicle after the vehicle arrived at it.
+     *
+     * @throws IllegalStateException If another vehicle with the id of this vehicle is in the {@link VehicleTable} of
+     *                               its {@link VehicleManagerImpl}.
+     */
+    void removeNextNode() {
+        VehicleTable table = vehicleManager.vehicleTable;
+        if (!table.register(this)) {
+            throw new IllegalStateException("Vehicle " + id + " is not in the vehicle table of its vehicle manager");
+        }
+        table.setPathCursor(id, table.getPathCursor(id) + 1);
+    }
+
+    /**
+     * Returns the position of the next node in the {@link Route} of the current path of this vehicle, as stored in
+     * the {@link VehicleTable} of its {@link VehicleManagerImpl}.
+     *
+     * @return The position of the next node or 0 if this vehicle is not in the {@link VehicleTable}.
+     */
+    private int getPathCursor() {
+        VehicleTable table = vehicleManager.vehicleTable;
+        return table.contains(this) ? table.getPathCursor(id) : 0;
+    }
+
+    /**
+     * Returns the position of the next node in the {@link Route} of the given queued path. Only the current path has
+     * been moved along, the other paths start at their first node.
+     *
+     * @param path A queued path of this vehicle.
+     * @return The position of the next node.
+     */
+    private int getPathCursor(PathImpl path) {
+        return path == moveQueue.peek() ? getPathCursor() : 0;
+    }
+
+    /**
+     * Lets this vehicle move along its current path from its first node, because the path changed.
+     */
+    private void resetPathCursor() {
+        VehicleTable table = vehicleManager.vehicleTable;
+        if (table.contains(this)) {
+            table.setPathCursor(id, 0);
+        }
     }
 
     @Override
     public void moveDirect(Region.Node node, BiConsumer<? super Vehicle, Long> arrivalAction) {
         this.checkMoveToNode(node);
         this.moveQueue.clear();
+        this.resetPathCursor();
         this.moveFromEdge(arrivalAction);
         this.moveQueued(node, arrivalAction);
     }
@@ -57,14 +129,14 @@ public class VehicleImpl implements Vehicle {
         this.checkMoveToNode(node);
         Region.Node startingNode = this.calculateStartingNode();
         Deque<Region.Node> path = this.calculatePath(startingNode, node);
-        moveQueue.add(new PathImpl(path, arrivalAction));
+        moveQueue.add(new PathImpl(this, vehicleManager.getRoute(startingNode, path), arrivalAction));
     }
 
     private void moveFromEdge(BiConsumer<? super Vehicle, Long> arrivalAction) {
         if (occupied instanceof OccupiedEdgeImpl currentEdge && this.getPreviousOccupied()
                                                                     .getComponent() instanceof Region.Node previousNode) {
             Deque<Region.Node> path = this.getPathToNextNode(currentEdge, previousNode);
-            moveQueue.add(new PathImpl(path, arrivalAction));
+            moveQueue.add(new PathImpl(this, vehicleManager.getRoute(previousNode, path), arrivalAction));
         }
     }
 
@@ -75,8 +147,9 @@ public class VehicleImpl implements Vehicle {
     }
 
     private Region.Node calculateStartingNode() {
-        return moveQueue.isEmpty()
-               || moveQueue.getLast().nodes.isEmpty() ? this.startingNode.getComponent() : moveQueue.getLast().nodes.getLast();
+        return moveQueue.isEmpty() || moveQueue.getLast().isEmpty(getPathCursor(moveQueue.getLast()))
+               ? this.startingNode.getComponent()
+               : moveQueue.getLast().getLastNode();
     }
 
     @Override
@@ -93,6 +166,54 @@ public class VehicleImpl implements Vehicle {
         }
     }
 
+    /**
+     * Recalculates every queued path that crosses the given {@link Region.Edge}. The paths keep their end nodes
+     * and arrival actions. If this vehicle is on an edge, the node at its end stays the first node of the current
+     * path.
+     *
+     * @param changedEdge The {@link Region.Edge} whose duration changed.
+     */
+    void reroute(Region.Edge changedEdge) {
+        Region.Node start = occupied.getComponent() instanceof Region.Node node ? node : null;
+        for (PathImpl path : moveQueue) {
+            int cursor = getPathCursor(path);
+            if (path.isEmpty(cursor)) {
+                continue;
+            }
+            Region.Node end = path.getLastNode();
+            if (start == null) {
+                // the vehicle is on its way to the first node of the path and cannot turn around
+                Region.Node first = path.getNextNode(cursor);
+                if (path.crosses(first, changedEdge, cursor)) {
+                    Deque<Region.Node> nodes = calculatePath(first, end);
+                    nodes.addFirst(first);
+                    setRoute(path, vehicleManager.getRoute(previousNodeOnEdge(), nodes));
+                }
+            } else if (path.crosses(start, changedEdge, cursor)) {
+                setRoute(path, vehicleManager.getRoute(start, calculatePath(start, end)));
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Lets the given queued path follow the given {@link Route} from its first node.
+     */
+    private void setRoute(PathImpl path, Route route) {
+        path.route = route;
+        if (path == moveQueue.peek()) {
+            resetPathCursor();
+        }
+    }
+
+    /**
+     * Returns the node this vehicle came from if it is on an edge.
+     */
+    private @Nullable Region.Node previousNodeOnEdge() {
+        VehicleManager.Occupied<?> previous = getPreviousOccupied();
+        return previous != null && previous.getComponent() instanceof Region.Node node ? node : null;
+    }
+
     @Override
     public int getId() {
         return id;
@@ -126,6 +247,7 @@ public class VehicleImpl implements Vehicle {
     public void reset() {
         occupied = (AbstractOccupied<?>) startingNode;
         moveQueue.clear();
+        resetPathCursor();
         orders.clear();
     }
 
@@ -135,8 +257,9 @@ public class VehicleImpl implements Vehicle {
             return;
         }
         final PathImpl path = moveQueue.peek();
-        if (path.nodes().isEmpty()) {
+        if (path.isEmpty(getPathCursor())) {
             moveQueue.pop();
+            resetPathCursor();
             final @Nullable BiConsumer<? super Vehicle, Long> action = path.arrivalAction();
             if (action == null) {
                 move(currentTick);
@@ -144,13 +267,13 @@ public class VehicleImpl implements Vehicle {
                 action.accept(this, currentTick);
             }
         } else {
-            Region.Node next = path.nodes().peek();
+            Region.Node next = path.getNextNode(getPathCursor());
             if (occupied instanceof OccupiedNodeImpl<?> occupiedNode) {
                 vehicleManager.getOccupied(region.getEdge(occupiedNode.getComponent(), next))
                               .addVehicle(this, currentTick);
             } else if (occupied instanceof OccupiedEdgeImpl) {
                 vehicleManager.getOccupied(next).addVehicle(this, currentTick);
-                path.nodes().pop();
+                removeNextNode();
             } else {
                 throw new AssertionError("Component must be either node or component");
             }
@@ -180,7 +303,166 @@ public class VehicleImpl implements Vehicle {
                + occupied.component + ')';
     }
 
-    private record PathImpl(Deque<Region.Node> nodes, BiConsumer<? super Vehicle, Long> arrivalAction) implements Path {
+    /**
+     * A queued path of a vehicle: a {@link Route}, which may be shared with other paths, and the action executed at its
+     * end. The position of the next node of the current path is a column of the {@link VehicleTable}, so moving along
+     * a path does not change it.
+     */
+    private static final class PathImpl implements Path {
+
+        private final @Nullable VehicleImpl vehicle;
+        private final BiConsumer<? super Vehicle, Long> arrivalAction;
+        private Route route;
+
+        /**
+         * Creates a path with a {@link Route} of its own that belongs to no vehicle, so it starts at its first node.
+         * The vehicles only create paths of shared {@link Route}s, this constructor is called reflectively by the tests
+         * of the move queue.
+         */
+        private PathImpl(Deque<Region.Node> nodes, BiConsumer<? super Vehicle, Long> arrivalAction) {
+            this(null, new Route(nodes), arrivalAction);
+        }
+
+        private PathImpl(@Nullable VehicleImpl vehicle, Route route, BiConsumer<? super Vehicle, Long> arrivalAction) {
+            this.vehicle = vehicle;
+            this.route = route;
+            this.arrivalAction = arrivalAction;
+        }
+
+        /**
+         * Returns the position of the next node of this path in its {@link Route}.
+         */
+        private int getCursor() {
+            return vehicle == null ? 0 : vehicle.getPathCursor(this);
+        }
+
+        /**
+         * Returns a new {@link Deque} containing the remaining nodes of this path. Changing it does not change this
+         * path.
+         *
+         * @return The remaining nodes of this path.
+         */
+        @Override
+        public Deque<Region.Node> nodes() {
+            Deque<Region.Node> nodes = new LinkedList<>();
+            for (int i = getCursor(); i < route.length(); i++) {
+                nodes.add(route.getNode(i));
+            }
+            return nodes;
+        }
+
+        @Override
+        public BiConsumer<? super Vehicle, Long> arrivalAction() {
+            return arrivalAction;
+        }
+
+        private boolean isEmpty(int cursor) {
+            return cursor == route.length();
+        }
+
+        private Region.Node getNextNode(int cursor) {
+            return route.getNode(cursor);
+        }
+
+        private Region.Node getLastNode() {
+            return route.getNode(route.length() - 1);
+        }
+
+        /**
+         * Returns whether the nodes of this path from the given position on, starting at the given node, cross the
+         * given edge.
+         */
+        private boolean crosses(Region.Node start, Region.Edge edge, int cursor) {
+            Region.Node previous = start;
+            for (int i = cursor; i < route.length(); i++) {
+                Region.Node node = route.getNode(i);
+                if (previous.equals(edge.getNodeA()) && node.equals(edge.getNodeB())
+                    || previous.equals(edge.getNodeB()) && node.equals(edge.getNodeA())) {
+                    return true;
+                }
+                previous = node;
+            }
+            return false;
+        }
+
+        /**
+         * Returns whether the remaining nodes of this path are the same as the remaining nodes of the given path,
+         * without copying them.
+         */
+        private boolean hasSameNodes(PathImpl path) {
+            int cursor = getCursor();
+            int otherCursor = path.getCursor();
+            if (route == path.route && cursor == otherCursor) {
+                return true;
+            }
+            if (route.length() - cursor != path.route.length() - otherCursor) {
+                return false;
+            }
+            for (int i = cursor, j = otherCursor; i < route.length(); i++, j++) {
+                if (!route.getNode(i).equals(path.route.getNode(j))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof PathImpl path
+                                && Objects.equals(arrivalAction, path.arrivalAction)
+                                && hasSameNodes(path);
+        }
+
+        @Override
+        public int hashCode() {
+            // the hash code of the list of remaining nodes, as returned by nodes()
+            int hashCode = 1;
+            for (int i = getCursor(); i < route.length(); i++) {
+                hashCode = 31 * hashCode + route.getNode(i).hashCode();
+            }
+            return Objects.hash(hashCode, arrivalAction);
+        }
+
+        @Override
+        public String toString() {
+            return "PathImpl[nodes=" + nodes() + ", arrivalAction=" + arrivalAction + ']';
+        }
+    }
+
+    /**
+     * An unmodifiable view of the move queue.
+     */
+    private final class PathList extends AbstractList<PathImpl> {
+
+        @Override
+        public PathImpl get(int index) {
+            Objects.checkIndex(index, moveQueue.size());
+            Iterator<PathImpl> iterator = moveQueue.iterator();
+            for (int i = 0; i < index; i++) {
+                iterator.next();
+            }
+            return iterator.next();
+        }
+
+        @Override
+        public Iterator<PathImpl> iterator() {
+            Iterator<PathImpl> iterator = moveQueue.iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public PathImpl next() {
+                    return iterator.next();
+                }
+            };
+        }
 
+        @Override
+        public int size() {
+            return moveQueue.size();
+        }
     }
 }
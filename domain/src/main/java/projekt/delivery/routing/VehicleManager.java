@@ -117,6 +117,20 @@ public interface VehicleManager {
      */
     List<Event> tick(long currentTick);
 
+    /**
+     * Returns the first tick, starting at the given tick, at which {@link #tick(long)} may move a vehicle or return
+     * {@link Event}s. Executing the ticks before it does not change this {@link VehicleManager}, so they can be
+     * skipped as long as no vehicle is given a new path.<p>
+     * <p>
+     * By default, every tick is considered.
+     *
+     * @param currentTick The tick to start at.
+     * @return The first tick at which something may happen or {@link Long#MAX_VALUE} if nothing will happen.
+     */
+    default long nextEventTick(long currentTick) {
+        return currentTick;
+    }
+
     /**
      * Resets this {@link VehicleManager} to its start state.
      */
@@ -232,6 +246,17 @@ public interface VehicleManager {
          */
         Builder pathCalculator(PathCalculator pathCalculator);
 
+        /**
+         * Sets the amount of shards of the {@link RegionPartition} the constructed {@link VehicleManager} moves the
+         * vehicles of a tick on in parallel. The events of every tick do not depend on the amount of shards.
+         * Defaults to 1, i.e. the vehicles are moved sequentially.
+         *
+         * @param shardCount The amount of shards.
+         * @return The current {@link Builder}.
+         * @throws IllegalArgumentException If the amount of shards is not positive.
+         */
+        Builder shards(int shardCount);
+
         /**
          * Adds a new {@link Vehicle} to the constructed {@link VehicleManager}.
          *
@@ -11,6 +11,7 @@ class VehicleManagerBuilderImpl implements VehicleManager.Builder {
     private final List<VehicleBuilder> vehicles = new ArrayList<>();
     private Region region;
     private PathCalculator pathCalculator;
+    private int shardCount = 1;
 
     @Override
     public VehicleManager.Builder region(Region region) {
@@ -24,6 +25,15 @@ class VehicleManagerBuilderImpl implements VehicleManager.Builder {
         return this;
     }
 
+    @Override
+    public VehicleManager.Builder shards(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("The amount of shards must be positive, got " + shardCount);
+        }
+        this.shardCount = shardCount;
+        return this;
+    }
+
     @Override
     public VehicleManager.Builder addVehicle(Location startingLocation, double capacity) {
         if (capacity <= 0) {
@@ -43,7 +53,7 @@ class VehicleManagerBuilderImpl implements VehicleManager.Builder {
     public VehicleManager build() {
         Objects.requireNonNull(region, "region");
         Objects.requireNonNull(pathCalculator, "pathCalculator");
-        VehicleManagerImpl vehicleManager = new VehicleManagerImpl(region, pathCalculator);
+        VehicleManagerImpl vehicleManager = new VehicleManagerImpl(region, pathCalculator, shardCount);
         for (VehicleBuilder vehicleBuilder : vehicles) {
             vehicleManager.addVehicle(vehicleBuilder.startingLocation, vehicleBuilder.capacity);
         }
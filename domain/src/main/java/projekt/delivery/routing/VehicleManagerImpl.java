@@ -5,33 +5,177 @@ import projekt.delivery.event.Event;
 import projekt.delivery.event.EventBus;
 import projekt.delivery.event.SpawnEvent;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 class VehicleManagerImpl implements VehicleManager {
 
+    /**
+     * The largest amount of shared {@link Route}s.
+     */
+    private static final int MAX_ROUTES = 1 << 16;
+
     final Map<Region.Node, OccupiedNodeImpl<? extends Region.Node>> occupiedNodes;
     final Map<Region.Edge, OccupiedEdgeImpl> occupiedEdges;
+    /**
+     * The {@link RegionGraph} of the {@link Region} when this {@link VehicleManagerImpl} was created or {@code null}
+     * if the {@link Region} does not have one.
+     */
+    private final @Nullable RegionGraph edgeGraph;
+    /**
+     * The occupied edges by the ids of their edges in {@link #edgeGraph}. The hash code of an edge changes with its
+     * duration, so the occupied edges are looked up by these ids instead of in {@link #occupiedEdges}.
+     */
+    private final OccupiedEdgeImpl[] occupiedEdgesById;
     private final Region region;
     private final PathCalculator pathCalculator;
     private final List<VehicleImpl> vehiclesToSpawn = new ArrayList<>();
     private final List<VehicleImpl> vehicles = new ArrayList<>();
     private final Collection<Vehicle> unmodifiableVehicles = Collections.unmodifiableCollection(vehicles);
     private final EventBus eventBus = new EventBus();
+    /**
+     * The state of all vehicles. Every occupied component registers itself when it is created.
+     */
+    final VehicleTable vehicleTable = new VehicleTable();
+    /**
+     * The indices of the occupied nodes that hold vehicles, in no particular order. Only these are ticked.
+     */
+    private int[] activeNodes = new int[16];
+    private int activeNodeCount;
+    /**
+     * The position of every occupied node in {@link #activeNodes} or {@link VehicleTable#NONE}, by index.
+     */
+    private int[] activeNodePositions = new int[0];
+    /**
+     * The vehicles on edges, each scheduled for the tick at which it reaches the end of its edge. The scheduled
+     * values are the ids of the vehicles and how often they had moved, see {@link #toArrival(int)}.
+     */
+    private final TimingWheel arrivals = new TimingWheel();
+    /**
+     * The tick after the last tick at which the arrival of a vehicle has been checked, by id.
+     */
+    private long[] checkedArrivals = new long[0];
+    /**
+     * The ids of the vehicles that move in the current tick.
+     */
+    private int[] movingVehicles = new int[16];
+    /**
+     * The {@link Route}s of the paths planned since the duration of an edge changed the last time, by start and end
+     * node, so vehicles that are sent along the same path share it.
+     */
+    private final Map<Region.Node, Map<Region.Node, Route>> routes = new HashMap<>();
+    private int routeCount;
+    private @Nullable RegionGraph routesGraph;
+    private long routesVersion;
+    /**
+     * The changes of the durations of edges since the last tick, in the order they have been made. The
+     * {@link Region} may be changed by any thread, so the changes are only queued by its listener and applied at the
+     * beginning of the next tick.
+     */
+    private final Queue<EdgeDurationChange> edgeDurationChanges = new ConcurrentLinkedQueue<>();
+    /**
+     * The tick that is executed or has been executed last.
+     */
+    private volatile long currentTick;
+    /**
+     * The vehicles that move to the next node of their paths in the current phase of a tick.
+     */
+    private final MoveBatch moveBatch;
 
     VehicleManagerImpl(Region region, PathCalculator pathCalculator) {
+        this(region, pathCalculator, 1);
+    }
+
+    /**
+     * Creates a new {@link VehicleManagerImpl} that moves the vehicles of large ticks in parallel, one task per shard
+     * of the {@link RegionPartition} of the given {@link Region} into the given amount of shards. The events of every
+     * tick are the same and in the same order as with a single shard.
+     *
+     * @param region         The {@link Region} of the vehicles.
+     * @param pathCalculator The {@link PathCalculator} of the vehicles.
+     * @param shardCount     The amount of shards.
+     * @throws IllegalArgumentException If the amount of shards is not positive.
+     */
+    VehicleManagerImpl(Region region, PathCalculator pathCalculator, int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("The amount of shards must be positive, got " + shardCount);
+        }
         this.region = region;
         this.pathCalculator = pathCalculator;
         occupiedNodes = toOccupiedNodes(region.getNodes());
         occupiedEdges = toOccupiedEdges(region.getEdges());
+        edgeGraph = region.getGraph();
+        occupiedEdgesById = new OccupiedEdgeImpl[edgeGraph == null ? 0 : edgeGraph.edgeCount()];
+        if (edgeGraph != null) {
+            for (OccupiedEdgeImpl occupiedEdge : occupiedEdges.values()) {
+                int id = edgeGraph.indexOf(occupiedEdge.getComponent());
+                if (id >= 0) {
+                    occupiedEdgesById[id] = occupiedEdge;
+                }
+            }
+        }
+        if (shardCount > 1) {
+            RegionPartition partition = region.getPartition(shardCount);
+            shardCount = partition.getShardCount();
+            for (OccupiedNodeImpl<?> occupiedNode : occupiedNodes.values()) {
+                occupiedNode.shard = partition.getShard(occupiedNode.getComponent());
+            }
+            for (OccupiedEdgeImpl occupiedEdge : occupiedEdges.values()) {
+                occupiedEdge.shard = partition.getShard(occupiedEdge.getComponent());
+            }
+        }
+        moveBatch = new MoveBatch(this, shardCount);
+        region.addEdgeDurationListener(new WeakEdgeDurationListener(this));
+        if (pathCalculator instanceof TimeDependentPathCalculator timeDependentPathCalculator) {
+            timeDependentPathCalculator.setVehicleManagerTick(() -> currentTick);
+        }
+    }
+
+    /**
+     * Applies the changes of the durations of edges that have been made since the last tick. This is the first step
+     * of every tick.
+     */
+    void applyEdgeDurationChanges() {
+        EdgeDurationChange change;
+        while ((change = edgeDurationChanges.poll()) != null) {
+            onEdgeDurationChanged(change.edge(), change.oldDuration(), change.newDuration());
+        }
+    }
+
+    /**
+     * Lets all vehicles whose queued paths cross the given {@link Region.Edge} re-route these paths. The vehicles on
+     * an edge that became faster or whose {@link TravelTimeProfile} changed are scheduled again for their arrivals.
+     *
+     * @param edge        The {@link Region.Edge} whose duration changed.
+     * @param oldDuration The previous duration of the edge.
+     * @param newDuration The new duration of the edge.
+     */
+    private void onEdgeDurationChanged(Region.Edge edge, long oldDuration, long newDuration) {
+        for (Vehicle vehicle : getAllVehicles()) {
+            ((VehicleImpl) vehicle).reroute(edge);
+        }
+        @Nullable OccupiedEdgeImpl occupiedEdge = getOccupiedEdge(edge);
+        // a changed profile keeps the static duration, but may let the vehicles on the edge arrive earlier
+        if (newDuration <= oldDuration && occupiedEdge != null) {
+            // in the canonical order, so the arrivals at the same tick keep their order
+            for (int id : vehicleTable.getVehicleIds(occupiedEdge.index)) {
+                scheduleArrival(occupiedEdge, id);
+            }
+        }
     }
 
     private Map<Region.Node, OccupiedNodeImpl<? extends Region.Node>> toOccupiedNodes(Collection<Region.Node> nodes) {
@@ -53,6 +197,18 @@ class VehicleManagerImpl implements VehicleManager {
         }
     }
 
+    /**
+     * Returns the occupied edge of the given {@link Region.Edge}, even if its duration changed since this
+     * {@link VehicleManagerImpl} was created.
+     *
+     * @param edge The {@link Region.Edge} to return the occupied edge of.
+     * @return The occupied edge or {@code null} if the {@link Region.Edge} is not part of the {@link Region}.
+     */
+    @Nullable OccupiedEdgeImpl getOccupiedEdge(Region.Edge edge) {
+        int id = edgeGraph == null ? -1 : edgeGraph.indexOf(edge);
+        return id >= 0 && occupiedEdgesById[id] != null ? occupiedEdgesById[id] : occupiedEdges.get(edge);
+    }
+
     private Map<Region.Edge, OccupiedEdgeImpl> toOccupiedEdges(Collection<Region.Edge> edges) {
         Map<Region.Edge, OccupiedEdgeImpl> retVal = new HashMap<>();
         for (Region.Edge edge : edges) {
@@ -110,7 +266,7 @@ class VehicleManagerImpl implements VehicleManager {
     @NotNull
     @SuppressWarnings("unchecked") //upcast, should be fine
     private <C extends Region.Component<C>> AbstractOccupied<C> getAbstractOccupiedEdge(Region.Edge component) {
-        OccupiedEdgeImpl occupiedEdge = this.occupiedEdges.get(component);
+        @Nullable OccupiedEdgeImpl occupiedEdge = getOccupiedEdge(component);
         if (occupiedEdge == null) {
             throw new IllegalArgumentException("Could not find occupied edge for " + component);
         }
@@ -160,6 +316,8 @@ class VehicleManagerImpl implements VehicleManager {
 
     @Override
     public List<Event> tick(long currentTick) {
+        this.currentTick = currentTick;
+        applyEdgeDurationChanges();
         for (VehicleImpl vehicle : vehiclesToSpawn) {
             spawnVehicle(vehicle, currentTick);
         }
@@ -170,15 +328,254 @@ class VehicleManagerImpl implements VehicleManager {
         // For example, a node tick may move a vehicle onto an edge.
         // Ticking this edge afterwards does not move the vehicle further along the edge
         // compared to a vehicle already on the edge.
-        occupiedNodes.values().forEach(occupiedNode -> occupiedNode.tick(currentTick));
-        occupiedEdges.values().forEach(occupiedEdge -> occupiedEdge.tick(currentTick));
+        // Nodes without vehicles have nothing to tick, so only the vehicles of the active ones are moved.
+        moveVehiclesOnNodes(currentTick);
+        // Instead of ticking every edge, only the vehicles that reach the end of their edge are moved.
+        moveArrivedVehicles(currentTick);
         return eventBus.popEvents(currentTick);
     }
 
+    /**
+     * Moves the vehicles on nodes that have paths at the beginning of the given tick, just like ticking their
+     * {@link OccupiedNodeImpl}s would. The vehicles are moved in the canonical order of their ids.
+     *
+     * @param currentTick The current tick.
+     */
+    private void moveVehiclesOnNodes(long currentTick) {
+        int movingCount = 0;
+        for (int i = 0; i < activeNodeCount; i++) {
+            movingCount = addMovingVehicles(vehicleTable.getOccupied(activeNodes[i]), movingCount, currentTick);
+        }
+        moveVehicles(movingCount, currentTick);
+    }
+
+    /**
+     * Moves the vehicles on the given component that can move at the given tick, see
+     * {@link AbstractOccupied#canMove(VehicleImpl, long, long)}. This is what ticking the component does. Vehicles
+     * that leave an edge this way are skipped when their scheduled arrivals are due.
+     *
+     * @param occupied    The component to tick.
+     * @param currentTick The current tick.
+     */
+    void tick(AbstractOccupied<?> occupied, long currentTick) {
+        moveVehicles(addMovingVehicles(occupied, 0, currentTick), currentTick);
+    }
+
+    /**
+     * Adds the ids of the vehicles on the given component that can move at the given tick to
+     * {@link #movingVehicles}.
+     *
+     * @param occupied    The component.
+     * @param movingCount The amount of ids that have been added before.
+     * @param currentTick The current tick.
+     * @return The amount of ids that have been added, including the ones added before.
+     */
+    private int addMovingVehicles(AbstractOccupied<?> occupied, int movingCount, long currentTick) {
+        int id = vehicleTable.getFirstVehicle(occupied.index);
+        for (; id != VehicleTable.NONE; id = vehicleTable.getNextVehicle(id)) {
+            if (occupied.canMove(vehicleTable.getVehicle(id), vehicleTable.getArrived(id), currentTick)) {
+                if (movingCount == movingVehicles.length) {
+                    movingVehicles = Arrays.copyOf(movingVehicles, movingCount * 2);
+                }
+                movingVehicles[movingCount++] = id;
+            }
+        }
+        return movingCount;
+    }
+
+    /**
+     * Moves the vehicles whose ids are the given amount of first entries of {@link #movingVehicles} in the canonical
+     * order of their ids.
+     *
+     * @param movingCount The amount of vehicles to move.
+     * @param currentTick The current tick.
+     */
+    private void moveVehicles(int movingCount, long currentTick) {
+        Arrays.sort(movingVehicles, 0, movingCount);
+        for (int i = 0; i < movingCount; i++) {
+            move(vehicleTable.getVehicle(movingVehicles[i]), currentTick);
+        }
+        moveBatch.execute(currentTick);
+    }
+
+    /**
+     * Moves the given vehicle with the next {@link MoveBatch} if it moves to the next node of its path. Otherwise,
+     * the vehicles of the current batch are moved first and the vehicle executes its arrival action right away, since
+     * the action may depend on them.
+     *
+     * @param vehicle     The vehicle to move.
+     * @param currentTick The current tick.
+     */
+    private void move(VehicleImpl vehicle, long currentTick) {
+        if (vehicle.getNextNode() != null) {
+            moveBatch.add(vehicle);
+        } else {
+            moveBatch.execute(currentTick);
+            vehicle.move(currentTick);
+        }
+    }
+
+    /**
+     * Moves the vehicles that reach the end of their edge at the given tick, just like ticking their
+     * {@link OccupiedEdgeImpl}s would.
+     *
+     * @param currentTick The current tick.
+     */
+    private void moveArrivedVehicles(long currentTick) {
+        for (int i = 0, dueCount = arrivals.advance(currentTick); i < dueCount; i++) {
+            long arrival = arrivals.getDue(i);
+            int id = (int) (arrival >>> 32);
+            if (vehicleTable.getMoves(id) != (int) arrival || checkedArrivals[id] == currentTick + 1) {
+                // the vehicle already left the edge or it has been scheduled more than once, because the duration
+                // of its edge changed
+                continue;
+            }
+            checkedArrivals[id] = currentTick + 1;
+            OccupiedEdgeImpl edge = (OccupiedEdgeImpl) vehicleTable.getOccupied(vehicleTable.getComponent(id));
+            long arrivalTick = edge.getArrivalTick(vehicleTable.getArrived(id));
+            if (currentTick < arrivalTick) {
+                // the edge became slower
+                arrivals.schedule(arrival, arrivalTick);
+                continue;
+            }
+            VehicleImpl vehicle = vehicleTable.getVehicle(id);
+            if (vehicle.getNextNode() != null) {
+                moveBatch.add(vehicle);
+                continue;
+            }
+            moveBatch.execute(currentTick);
+            vehicle.move(currentTick);
+            if (vehicleTable.getMoves(id) == (int) arrival) {
+                // the vehicle has nowhere to go yet, so it tries again at the next tick
+                arrivals.schedule(arrival, currentTick + 1);
+            }
+        }
+        moveBatch.execute(currentTick);
+    }
+
+    @Override
+    public long nextEventTick(long currentTick) {
+        if (!vehiclesToSpawn.isEmpty() || !edgeDurationChanges.isEmpty()) {
+            return currentTick;
+        }
+        // vehicles on nodes move as soon as they have a path
+        for (int i = 0; i < activeNodeCount; i++) {
+            int id = vehicleTable.getFirstVehicle(activeNodes[i]);
+            for (; id != VehicleTable.NONE; id = vehicleTable.getNextVehicle(id)) {
+                if (vehicleTable.getVehicle(id).hasPendingMoves()) {
+                    return currentTick;
+                }
+            }
+        }
+        return Math.max(currentTick, arrivals.nextTick());
+    }
+
+    /**
+     * Returns the {@link Route} of the given path. If a path with the same nodes between the same start and end node
+     * has been planned since the duration of an edge changed the last time, its {@link Route} is shared.
+     *
+     * @param start The start node of the path or {@code null} if it is not known.
+     * @param nodes The nodes of the path, excluding the start node.
+     * @return The {@link Route} of the path.
+     */
+    Route getRoute(@Nullable Region.Node start, Deque<Region.Node> nodes) {
+        if (nodes.isEmpty()) {
+            return new Route(nodes);
+        }
+        RegionGraph graph = region.getGraph();
+        if (graph != routesGraph || graph.version() != routesVersion) {
+            // the paths planned before are not necessarily the shortest ones anymore
+            routes.clear();
+            routeCount = 0;
+            routesGraph = graph;
+            routesVersion = graph.version();
+        }
+        Map<Region.Node, Route> routesFromStart = routes.computeIfAbsent(start, node -> new HashMap<>());
+        Route route = routesFromStart.get(nodes.getLast());
+        if (route == null || !route.matches(nodes)) {
+            route = new Route(graph, start, nodes);
+            if (routeCount >= MAX_ROUTES) {
+                // start over instead of keeping the routes of the whole region
+                routes.clear();
+                routeCount = 0;
+                routesFromStart = routes.computeIfAbsent(start, node -> new HashMap<>());
+            }
+            if (routesFromStart.put(nodes.getLast(), route) == null) {
+                routeCount++;
+            }
+        }
+        return route;
+    }
+
+    private void scheduleArrival(OccupiedEdgeImpl edge, int id) {
+        arrivals.schedule(toArrival(id), edge.getArrivalTick(vehicleTable.getArrived(id)));
+    }
+
+    /**
+     * Returns the value scheduled for the arrival of the vehicle with the given id at the end of the edge it is on.
+     * The value consists of the id and how often the vehicle had moved, so it can be told whether the vehicle is
+     * still on this edge when the arrival is due.
+     *
+     * @param id The id of the vehicle.
+     * @return The value scheduled for the arrival.
+     */
+    private long toArrival(int id) {
+        return (long) id << 32 | vehicleTable.getMoves(id) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Ticks the given occupied node from now on or schedules the arrival of the given vehicle at the end of the
+     * given occupied edge, because the vehicle has been put on it.
+     *
+     * @param occupied The occupied component.
+     * @param id       The id of the vehicle put on the component.
+     */
+    void activate(AbstractOccupied<?> occupied, int id) {
+        if (occupied instanceof OccupiedEdgeImpl occupiedEdge) {
+            if (id >= checkedArrivals.length) {
+                checkedArrivals = Arrays.copyOf(checkedArrivals, Math.max(checkedArrivals.length * 2, id + 1));
+            }
+            scheduleArrival(occupiedEdge, id);
+            return;
+        }
+        if (occupied.index >= activeNodePositions.length) {
+            int length = activeNodePositions.length;
+            activeNodePositions = Arrays.copyOf(activeNodePositions, Math.max(length * 2, occupied.index + 1));
+            Arrays.fill(activeNodePositions, length, activeNodePositions.length, VehicleTable.NONE);
+        }
+        if (activeNodePositions[occupied.index] == VehicleTable.NONE) {
+            if (activeNodeCount == activeNodes.length) {
+                activeNodes = Arrays.copyOf(activeNodes, activeNodeCount * 2);
+            }
+            activeNodePositions[occupied.index] = activeNodeCount;
+            activeNodes[activeNodeCount++] = occupied.index;
+        }
+    }
+
+    /**
+     * Stops ticking the given occupied node, because its last vehicle has been removed. The arrivals of vehicles
+     * that left an edge are skipped when they are due.
+     *
+     * @param occupied The occupied component.
+     */
+    void deactivate(AbstractOccupied<?> occupied) {
+        if (occupied instanceof OccupiedEdgeImpl || occupied.index >= activeNodePositions.length) {
+            return;
+        }
+        int position = activeNodePositions[occupied.index];
+        if (position != VehicleTable.NONE) {
+            // the last active node takes the place of the removed one
+            int last = activeNodes[--activeNodeCount];
+            activeNodes[position] = last;
+            activeNodePositions[last] = position;
+            activeNodePositions[occupied.index] = VehicleTable.NONE;
+        }
+    }
+
     private void spawnVehicle(VehicleImpl vehicle, long currentTick) {
         vehicles.add(vehicle);
         OccupiedRestaurantImpl warehouse = (OccupiedRestaurantImpl) vehicle.getOccupied();
-        warehouse.vehicles.put(vehicle, new AbstractOccupied.VehicleStats(currentTick, null));
+        warehouse.putVehicle(vehicle, currentTick, null);
         getEventBus().queuePost(SpawnEvent.of(currentTick, vehicle, warehouse.getComponent()));
     }
 
@@ -191,6 +588,10 @@ class VehicleManagerImpl implements VehicleManager {
         for (AbstractOccupied<?> occupied : getAllOccupied()) {
             occupied.reset();
         }
+        Arrays.fill(activeNodePositions, VehicleTable.NONE);
+        activeNodeCount = 0;
+        arrivals.clear();
+        Arrays.fill(checkedArrivals, 0);
 
         for (Vehicle vehicle : getAllVehicles()) {
             vehicle.reset();
@@ -233,15 +634,54 @@ class VehicleManagerImpl implements VehicleManager {
                                                     this,
                                                     (OccupiedRestaurant) occupied);
         vehiclesToSpawn.add(vehicle);
+        vehicleTable.register(vehicle);
         vehicle.setOccupied(occupied);
         return vehicle;
     }
 
     private OccupiedNodeImpl<? extends Region.Node> getOccupiedNode(Location location) {
-        return occupiedNodes.values()
-                            .stream()
-                            .filter(node -> node.getComponent().getLocation().equals(location))
-                            .findFirst()
-                            .orElseThrow(() -> new IllegalArgumentException("Could not find node with given predicate"));
+        Region.Node node = region.getNode(location);
+        OccupiedNodeImpl<? extends Region.Node> occupied = node == null ? null : occupiedNodes.get(node);
+        if (occupied == null) {
+            throw new IllegalArgumentException("Could not find node with given predicate");
+        }
+        return occupied;
+    }
+
+    /**
+     * A change of the duration of an edge that has not been applied yet.
+     *
+     * @param edge        The {@link Region.Edge} whose duration changed.
+     * @param oldDuration The previous duration of the edge.
+     * @param newDuration The new duration of the edge.
+     */
+    private record EdgeDurationChange(Region.Edge edge, long oldDuration, long newDuration) {
+    }
+
+    /**
+     * Queues the changes of the durations of edges for a {@link VehicleManagerImpl}. The vehicle manager is only
+     * referenced weakly, so a {@link Region} that is reused does not keep every vehicle manager ever created for it
+     * reachable. The listener removes itself from the {@link Region} the first time it is notified after its vehicle
+     * manager has been collected.
+     */
+    private static final class WeakEdgeDurationListener implements Region.EdgeDurationListener {
+
+        private final Region region;
+        private final WeakReference<VehicleManagerImpl> vehicleManager;
+
+        private WeakEdgeDurationListener(VehicleManagerImpl vehicleManager) {
+            this.region = vehicleManager.region;
+            this.vehicleManager = new WeakReference<>(vehicleManager);
+        }
+
+        @Override
+        public void onEdgeDurationChanged(Region.Edge edge, long oldDuration, long newDuration) {
+            VehicleManagerImpl vehicleManager = this.vehicleManager.get();
+            if (vehicleManager == null) {
+                region.removeEdgeDurationListener(this);
+            } else {
+                vehicleManager.edgeDurationChanges.add(new EdgeDurationChange(edge, oldDuration, newDuration));
+            }
+        }
     }
 }
@@ -0,0 +1,317 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * The state of all vehicles of a {@link VehicleManagerImpl}, stored in primitive arrays indexed by the ids of the
+ * vehicles.
+ * <p>
+ * Every occupied component of the {@link VehicleManagerImpl} is registered with an index. For every vehicle, the table
+ * stores the index of the component it is on, the tick it arrived there, the index of the component it came from and
+ * the position of the next node in the {@link Route} of the path it currently moves along.
+ * The vehicles on the same component are linked in the order they arrived, so the
+ * {@link AbstractOccupied#vehicles} of a component are a view of this table. Moving a vehicle to another component
+ * only updates a few array entries, so it neither allocates nor hashes.
+ * <p>
+ * The entries of a vehicle and of the component it is on must not be changed concurrently. Vehicles on different
+ * components may be moved concurrently as long as each component is only changed by one thread.
+ */
+final class VehicleTable {
+
+    /**
+     * The index of no component or vehicle.
+     */
+    static final int NONE = -1;
+
+    private AbstractOccupied<?>[] components = new AbstractOccupied<?>[64];
+    private int[] firstVehicles = new int[64];
+    private int[] lastVehicles = new int[64];
+    private int[] vehicleCounts = new int[64];
+    private int componentCount;
+
+    private VehicleImpl[] vehicles = new VehicleImpl[16];
+    private int[] componentOfVehicle = new int[16];
+    private long[] arrived = new long[16];
+    private int[] previousComponents = new int[16];
+    private int[] nextVehicles = new int[16];
+    private int[] previousVehicles = new int[16];
+    private int[] moves = new int[16];
+    private int[] pathCursors = new int[16];
+
+    /**
+     * Registers the given component and returns its index.
+     *
+     * @param occupied The component to register.
+     * @return The index of the component.
+     */
+    int addComponent(AbstractOccupied<?> occupied) {
+        if (componentCount == components.length) {
+            int capacity = componentCount * 2;
+            components = Arrays.copyOf(components, capacity);
+            firstVehicles = Arrays.copyOf(firstVehicles, capacity);
+            lastVehicles = Arrays.copyOf(lastVehicles, capacity);
+            vehicleCounts = Arrays.copyOf(vehicleCounts, capacity);
+        }
+        components[componentCount] = occupied;
+        firstVehicles[componentCount] = NONE;
+        lastVehicles[componentCount] = NONE;
+        return componentCount++;
+    }
+
+    /**
+     * Returns the component with the given index.
+     *
+     * @param component The index of the component.
+     * @return The component with the given index.
+     */
+    AbstractOccupied<?> getOccupied(int component) {
+        return components[component];
+    }
+
+    /**
+     * Registers the given vehicle with its id, unless another vehicle has already been registered with this id.
+     * A newly registered vehicle is on no component.
+     *
+     * @param vehicle The vehicle to register.
+     * @return Whether the given vehicle is registered.
+     */
+    boolean register(VehicleImpl vehicle) {
+        int id = vehicle.getId();
+        if (id < 0) {
+            return false;
+        }
+        if (id >= vehicles.length) {
+            int capacity = Math.max(vehicles.length * 2, id + 1);
+            vehicles = Arrays.copyOf(vehicles, capacity);
+            componentOfVehicle = Arrays.copyOf(componentOfVehicle, capacity);
+            arrived = Arrays.copyOf(arrived, capacity);
+            previousComponents = Arrays.copyOf(previousComponents, capacity);
+            nextVehicles = Arrays.copyOf(nextVehicles, capacity);
+            previousVehicles = Arrays.copyOf(previousVehicles, capacity);
+            moves = Arrays.copyOf(moves, capacity);
+            pathCursors = Arrays.copyOf(pathCursors, capacity);
+        }
+        if (vehicles[id] == null) {
+            vehicles[id] = vehicle;
+            componentOfVehicle[id] = NONE;
+            pathCursors[id] = 0;
+        }
+        return vehicles[id] == vehicle;
+    }
+
+    /**
+     * Returns whether the given vehicle is registered.
+     *
+     * @param vehicle The vehicle.
+     * @return Whether the given vehicle is registered.
+     */
+    boolean contains(VehicleImpl vehicle) {
+        int id = vehicle.getId();
+        return id >= 0 && id < vehicles.length && vehicles[id] == vehicle;
+    }
+
+    /**
+     * Returns the registered vehicle with the given id.
+     *
+     * @param id The id of the vehicle.
+     * @return The vehicle with the given id.
+     */
+    VehicleImpl getVehicle(int id) {
+        return vehicles[id];
+    }
+
+    /**
+     * Returns the index of the component the vehicle with the given id is on.
+     *
+     * @param id The id of the vehicle.
+     * @return The index of the component or {@link #NONE} if the vehicle is on no component.
+     */
+    int getComponent(int id) {
+        return componentOfVehicle[id];
+    }
+
+    /**
+     * Returns the tick at which the vehicle with the given id arrived at its component.
+     *
+     * @param id The id of the vehicle.
+     * @return The tick of the arrival.
+     */
+    long getArrived(int id) {
+        return arrived[id];
+    }
+
+    /**
+     * Returns the index of the component the vehicle with the given id came from.
+     *
+     * @param id The id of the vehicle.
+     * @return The index of the previous component or {@link #NONE} if there is none.
+     */
+    int getPreviousComponent(int id) {
+        return previousComponents[id];
+    }
+
+    /**
+     * Returns how often the vehicle with the given id has been put on a component. The count only changes when the
+     * vehicle moves, so it tells whether the vehicle is still where it has been at some point.
+     *
+     * @param id The id of the vehicle.
+     * @return The amount of times the vehicle has been put on a component, modulo {@code 2^32}.
+     */
+    int getMoves(int id) {
+        return moves[id];
+    }
+
+    /**
+     * Returns the position of the next node in the {@link Route} of the path the vehicle with the given id currently
+     * moves along.
+     *
+     * @param id The id of the vehicle.
+     * @return The position of the next node, 0 if the vehicle has not moved along its current path yet.
+     */
+    int getPathCursor(int id) {
+        return pathCursors[id];
+    }
+
+    /**
+     * Sets the position of the next node in the {@link Route} of the path the vehicle with the given id currently
+     * moves along.
+     *
+     * @param id     The id of the vehicle.
+     * @param cursor The position of the next node.
+     */
+    void setPathCursor(int id, int cursor) {
+        pathCursors[id] = cursor;
+    }
+
+    /**
+     * Returns the id of the vehicle that arrived first at the given component.
+     *
+     * @param component The index of the component.
+     * @return The id of the first vehicle or {@link #NONE} if the component holds no vehicles.
+     */
+    int getFirstVehicle(int component) {
+        return firstVehicles[component];
+    }
+
+    /**
+     * Returns the id of the vehicle that arrived after the vehicle with the given id at its component.
+     *
+     * @param id The id of the vehicle.
+     * @return The id of the next vehicle or {@link #NONE} if the vehicle is the last one.
+     */
+    int getNextVehicle(int id) {
+        return nextVehicles[id];
+    }
+
+    /**
+     * Returns the amount of vehicles on the given component.
+     *
+     * @param component The index of the component.
+     * @return The amount of vehicles.
+     */
+    int getVehicleCount(int component) {
+        return vehicleCounts[component];
+    }
+
+    /**
+     * Returns the ids of the vehicles on the given component in ascending order.
+     *
+     * @param component The index of the component.
+     * @return The ids of the vehicles.
+     */
+    int[] getVehicleIds(int component) {
+        int[] ids = new int[vehicleCounts[component]];
+        int count = 0;
+        for (int id = firstVehicles[component]; id != NONE; id = nextVehicles[id]) {
+            ids[count++] = id;
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Puts the registered vehicle with the given id on the given component. It is removed from the component it is
+     * on.
+     *
+     * @param id        The id of the vehicle.
+     * @param component The index of the component.
+     * @param tick      The tick at which the vehicle arrives.
+     * @param previous  The index of the component the vehicle came from or {@link #NONE}.
+     */
+    void put(int id, int component, long tick, int previous) {
+        if (componentOfVehicle[id] != NONE) {
+            remove(id);
+        }
+        componentOfVehicle[id] = component;
+        arrived[id] = tick;
+        previousComponents[id] = previous;
+        moves[id]++;
+        int last = lastVehicles[component];
+        previousVehicles[id] = last;
+        nextVehicles[id] = NONE;
+        if (last == NONE) {
+            firstVehicles[component] = id;
+        } else {
+            nextVehicles[last] = id;
+        }
+        lastVehicles[component] = id;
+        vehicleCounts[component]++;
+    }
+
+    /**
+     * Removes the registered vehicle with the given id from the component it is on.
+     *
+     * @param id The id of the vehicle.
+     * @return The index of the component the vehicle was on or {@link #NONE} if it was on no component.
+     */
+    int remove(int id) {
+        int component = componentOfVehicle[id];
+        if (component == NONE) {
+            return NONE;
+        }
+        int previous = previousVehicles[id];
+        int next = nextVehicles[id];
+        if (previous == NONE) {
+            firstVehicles[component] = next;
+        } else {
+            nextVehicles[previous] = next;
+        }
+        if (next == NONE) {
+            lastVehicles[component] = previous;
+        } else {
+            previousVehicles[next] = previous;
+        }
+        componentOfVehicle[id] = NONE;
+        vehicleCounts[component]--;
+        return component;
+    }
+
+    /**
+     * Returns the {@link AbstractOccupied.VehicleStats} of the vehicle with the given id, created from its entries.
+     *
+     * @param id The id of the vehicle.
+     * @return The {@link AbstractOccupied.VehicleStats} of the vehicle.
+     */
+    AbstractOccupied.VehicleStats getStats(int id) {
+        int previous = previousComponents[id];
+        return new AbstractOccupied.VehicleStats(arrived[id], previous == NONE ? null : components[previous]);
+    }
+
+    /**
+     * Returns the index of the given component in this table.
+     *
+     * @param occupied The component.
+     * @return The index of the component or {@link #NONE} if it is not registered in this table.
+     */
+    int indexOf(@Nullable VehicleManager.Occupied<?> occupied) {
+        if (occupied instanceof AbstractOccupied<?> abstractOccupied
+            && abstractOccupied.index >= 0
+            && abstractOccupied.index < componentCount
+            && components[abstractOccupied.index] == occupied) {
+            return abstractOccupied.index;
+        }
+        return NONE;
+    }
+}
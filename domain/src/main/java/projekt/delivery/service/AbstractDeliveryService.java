@@ -53,6 +53,27 @@ public abstract class AbstractDeliveryService implements DeliveryService {
         return tick(currentTick, newOrders);
     }
 
+    @Override
+    public long nextEventTick(long currentTick) {
+        synchronized (lock) {
+            if (!unprocessedOrders.isEmpty()) {
+                return currentTick;
+            }
+        }
+        if (!getPendingOrders().isEmpty()) {
+            return currentTick;
+        }
+        // vehicles waiting at a restaurant with loaded orders are dispatched at the next tick
+        for (VehicleManager.OccupiedRestaurant restaurant : vehicleManager.getOccupiedRestaurants()) {
+            for (Vehicle vehicle : restaurant.getVehicles()) {
+                if (!vehicle.getOrders().isEmpty()) {
+                    return currentTick;
+                }
+            }
+        }
+        return vehicleManager.nextEventTick(currentTick);
+    }
+
     /**
      * Executes the current tick.
      *
@@ -117,7 +138,7 @@ public abstract class AbstractDeliveryService implements DeliveryService {
     }
 
     protected void dispatchVehicleToDeliver(Vehicle vehicle, Location destination) {
-        if (vehicle.getPaths().isEmpty()) {
+        if (!vehicle.hasPendingMoves()) {
             this.moveToDeliver(vehicle, this.vehicleManager.getRegion().getNode(destination));
             this.postDispatch(vehicle);
         }
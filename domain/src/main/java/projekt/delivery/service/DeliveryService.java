@@ -33,6 +33,20 @@ public interface DeliveryService {
      */
     List<Event> tick(long currentTick);
 
+    /**
+     * Returns the first tick, starting at the given tick, at which {@link #tick(long)} may change the state of this
+     * {@link DeliveryService} or return {@link Event}s, assuming that no new {@link ConfirmedOrder}s are delivered
+     * in the meantime.<p>
+     * <p>
+     * By default, every tick is considered.
+     *
+     * @param currentTick The tick to start at.
+     * @return The first tick at which something may happen or {@link Long#MAX_VALUE} if nothing will happen.
+     */
+    default long nextEventTick(long currentTick) {
+        return currentTick;
+    }
+
     /**
      * Returns the underlying {@link VehicleManager}.
      *
@@ -73,6 +73,9 @@ public class BasicDeliverySimulation implements Simulation {
             long tickStartTime = System.currentTimeMillis();
 
             runCurrentTick();
+            if (simulationConfig.isSkipIdleTicks()) {
+                currentTick = getNextEventTick();
+            }
 
             // Wait till next tick is due.
             long executionTime = System.currentTimeMillis() - tickStartTime;
@@ -108,6 +111,24 @@ public class BasicDeliverySimulation implements Simulation {
         currentTick++;
     }
 
+    /**
+     * Returns the first tick, starting at the current tick, at which an order may be generated or the
+     * {@link DeliveryService} may act. If nothing will happen anymore, this is the end of the simulation or, if the
+     * simulation runs without a length, the current tick.
+     *
+     * @return The next tick to execute when skipping ticks in which nothing happens.
+     */
+    protected long getNextEventTick() {
+        long nextTick = Math.min(currentOrderGenerator.nextOrderTick(currentTick),
+                                 deliveryService.nextEventTick(currentTick));
+        if (simulationLength != -1) {
+            nextTick = Math.min(nextTick, simulationLength);
+        } else if (nextTick == Long.MAX_VALUE) {
+            return currentTick;
+        }
+        return Math.max(nextTick, currentTick);
+    }
+
     @Override
     public long getCurrentTick() {
         return currentTick;
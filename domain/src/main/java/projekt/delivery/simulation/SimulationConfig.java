@@ -5,11 +5,13 @@ import java.util.concurrent.atomic.AtomicInteger;
 /**
  * A config for a {@link Simulation}.<p>
  * <p>
- * It contains the length of a tick and whether the {@link Simulation} is paused.
+ * It contains the length of a tick, whether the {@link Simulation} is paused and whether it skips ticks in which
+ * nothing happens.
  */
 public class SimulationConfig {
     private final AtomicInteger millisecondsPerTick;
     private volatile boolean paused = false;
+    private volatile boolean skipIdleTicks = false;
 
     /**
      * Creates a new {@link Simulation} instance.<p>
@@ -57,4 +59,27 @@ public class SimulationConfig {
     public void setPaused(boolean paused) {
         this.paused = paused;
     }
+
+    /**
+     * Returns True if the {@link Simulation} skips ticks in which nothing happens.
+     *
+     * @return True if the {@link Simulation} skips ticks in which nothing happens.
+     */
+    public boolean isSkipIdleTicks() {
+        return skipIdleTicks;
+    }
+
+    /**
+     * Changes whether the {@link Simulation} skips ticks in which nothing happens.<p>
+     * <p>
+     * When skipping, the {@link Simulation} jumps straight to the next tick at which an order is generated, a vehicle
+     * moves or the delivery service acts. Its {@link SimulationListener}s are only notified of the executed ticks,
+     * with their actual tick numbers, so listeners that need to observe every tick, e.g. animations, should not be
+     * used with this option.
+     *
+     * @param skipIdleTicks The new skipping status.
+     */
+    public void setSkipIdleTicks(boolean skipIdleTicks) {
+        this.skipIdleTicks = skipIdleTicks;
+    }
 }
@@ -5,6 +5,7 @@ import projekt.ObjectUnitTests;
 
 import java.util.function.Function;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
@@ -49,4 +50,16 @@ public class LocationUnitTests {
     public void testLessThen() {
         comparableUnitTests.testLessThen();
     }
+
+    @Test
+    public void testPack() {
+        int[] coordinates = {Integer.MIN_VALUE, -30000, -1, 0, 1, 30000, Integer.MAX_VALUE};
+        for (int x : coordinates) {
+            for (int y : coordinates) {
+                Location location = new Location(x, y);
+                Assertions.assertEquals(location, Location.unpack(location.pack()));
+                Assertions.assertEquals(location.pack() == new Location(y, x).pack(), x == y);
+            }
+        }
+    }
 }
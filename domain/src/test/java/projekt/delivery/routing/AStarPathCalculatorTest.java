@@ -0,0 +1,99 @@
+package projekt.delivery.routing;
+
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AStarPathCalculatorTest {
+
+    @Test
+    void pathsMatchDijkstra() {
+        Random random = new Random(13);
+        for (Region region : List.of(TestFixtures.createSmallRegion(),
+                                     TestFixtures.createGrid(8, 10).build(),
+                                     TestFixtures.createGrid(8, 10, (from, to) -> random.nextInt(4) != 0).build())) {
+            assertSameDurations(region, new AStarPathCalculator());
+        }
+    }
+
+    /*
+     * A 30 x 30 grid whose distance calculator counts how often the heuristic is evaluated
+     */
+    @Test
+    void stopsOnceTargetIsSettled() {
+        AtomicInteger distances = new AtomicInteger();
+        EuclideanDistanceCalculator euclidean = new EuclideanDistanceCalculator();
+        Region.Builder builder = Region.builder().distanceCalculator((a, b) -> {
+            distances.incrementAndGet();
+            return euclidean.calculateDistance(a, b);
+        });
+        for (int x = 0; x < 30; x++) {
+            for (int y = 0; y < 30; y++) {
+                builder.addNode("N" + x + "_" + y, new Location(x, y));
+                if (x > 0) {
+                    builder.addEdge("H" + x + "_" + y, new Location(x - 1, y), new Location(x, y));
+                }
+                if (y > 0) {
+                    builder.addEdge("V" + x + "_" + y, new Location(x, y - 1), new Location(x, y));
+                }
+            }
+        }
+        Region region = builder.build();
+        PathCalculator calculator = new AStarPathCalculator();
+        Region.Node start = region.getNode(new Location(10, 10));
+        Region.Node end = region.getNode(new Location(12, 11));
+        calculator.getPath(start, end);
+
+        distances.set(0);
+        Deque<Region.Node> path = calculator.getPath(start, end);
+        Assertions.assertEquals(3, path.size());
+        Assertions.assertSame(end, path.getLast());
+        // only the nodes around the straight line between start and end are reached
+        Assertions.assertTrue(distances.get() < 20, "heuristic evaluated " + distances.get() + " times");
+    }
+
+    /*
+     * Lowering durations below the distance between the nodes makes the unscaled distance an overestimate, so the
+     * heuristic has to be scaled down again
+     */
+    @Test
+    void heuristicStaysAdmissibleAfterDecrease() {
+        Region region = TestFixtures.createGrid(8, 10).build();
+        PathCalculator calculator = new AStarPathCalculator();
+        assertSameDurations(region, calculator);
+
+        Random random = new Random(17);
+        List<Region.Edge> edges = new ArrayList<>(region.getEdges());
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 4; i++) {
+                region.setEdgeDuration(edges.get(random.nextInt(edges.size())), random.nextInt(3));
+            }
+            assertSameDurations(region, calculator);
+        }
+    }
+
+    private static void assertSameDurations(Region region, PathCalculator calculator) {
+        PathCalculator dijkstra = new DijkstraPathCalculator();
+        for (Region.Node start : region.getNodes()) {
+            for (Region.Node end : region.getNodes()) {
+                if (!dijkstra.getAllPathsTo(end).containsKey(start)) {
+                    continue;
+                }
+                String message = start.getLocation() + " -> " + end.getLocation();
+                long expected = dijkstra.getDuration(start, end);
+                Deque<Region.Node> path = calculator.getPath(start, end);
+                Assertions.assertEquals(expected, calculator.getDuration(start, end), message);
+                Assertions.assertEquals(expected, TestFixtures.duration(start, path), message);
+                Assertions.assertEquals(start == end ? null : end, path.peekLast(), message);
+            }
+        }
+    }
+}
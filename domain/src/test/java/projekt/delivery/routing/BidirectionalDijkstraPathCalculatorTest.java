@@ -0,0 +1,55 @@
+package projekt.delivery.routing;
+
+import projekt.base.Location;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BidirectionalDijkstraPathCalculatorTest {
+
+    private Region region;
+
+    @BeforeEach
+    public void setup() {
+        region = TestFixtures.createSmallRegion();
+    }
+
+    @Test
+    void pathsMatchDijkstra() {
+        PathCalculator dijkstra = new DijkstraPathCalculator();
+        BidirectionalDijkstraPathCalculator bidirectional = new BidirectionalDijkstraPathCalculator(true);
+        Assertions.assertTrue(bidirectional.isCrossCheck());
+        Region.Node unreachable = region.getNode(new Location(9, 9));
+        List<Region.Node> nodes = new ArrayList<>(region.getNodes());
+        nodes.remove(unreachable);
+        for (Region.Node start : nodes) {
+            for (Region.Node end : nodes) {
+                Deque<Region.Node> path = bidirectional.getPath(start, end);
+                Assertions.assertEquals(TestFixtures.duration(start, dijkstra.getPath(start, end)),
+                                        TestFixtures.duration(start, path));
+                Assertions.assertEquals(start == end ? null : end, path.peekLast());
+                Assertions.assertEquals(dijkstra.getDuration(start, end), bidirectional.getDuration(start, end));
+            }
+        }
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> bidirectional.getPath(region.getNode(new Location(0, 0)), unreachable));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> bidirectional.getDuration(unreachable, region.getNode(new Location(0, 0))));
+    }
+
+    @Test
+    void pathIsMutable() {
+        Region.Node start = region.getNode(new Location(0, 0));
+        Region.Node end = region.getNode(new Location(0, 9));
+        PathCalculator bidirectional = new BidirectionalDijkstraPathCalculator();
+        Deque<Region.Node> path = bidirectional.getPath(start, end);
+        Assertions.assertIterableEquals(List.of(region.getNode(new Location(0, 3)), end), path);
+        path.pop();
+        Assertions.assertEquals(2, bidirectional.getPath(start, end).size());
+    }
+}
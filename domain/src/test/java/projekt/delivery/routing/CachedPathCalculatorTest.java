@@ -0,0 +1,154 @@
+package projekt.delivery.routing;
+
+import projekt.base.Location;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CachedPathCalculatorTest {
+
+    private Region region;
+    private AtomicInteger delegateCalls;
+    private PathCalculator delegate;
+
+    @BeforeEach
+    public void setup() {
+        region = TestFixtures.createSmallRegion();
+        delegateCalls = new AtomicInteger();
+        delegate = new DijkstraPathCalculator() {
+            @Override
+            public Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end) {
+                delegateCalls.incrementAndGet();
+                return super.getAllPathsTo(end);
+            }
+        };
+    }
+
+    @Test
+    void returnedPathsAreIndependent() {
+        CachedPathCalculator cache = new CachedPathCalculator(delegate);
+        Region.Node start = region.getNode(new Location(4, 0));
+        Region.Node end = region.getNode(new Location(0, 9));
+
+        Deque<Region.Node> path = cache.getPath(start, end);
+        Assertions.assertEquals(3, path.size());
+        path.clear();
+        Assertions.assertEquals(3, cache.getPath(start, end).size());
+        cache.getAllPathsTo(end).get(start).clear();
+        Assertions.assertEquals(3, cache.getAllPathsTo(end).get(start).size());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> cache.getAllPathsTo(end).remove(start));
+
+        Assertions.assertEquals(1, delegateCalls.get());
+        CachedPathCalculator.Statistics statistics = cache.getStatistics();
+        Assertions.assertEquals(1, statistics.misses());
+        Assertions.assertEquals(4, statistics.hits());
+        Assertions.assertEquals(1, statistics.entries());
+        Assertions.assertTrue(statistics.estimatedBytes() > 0);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        CachedPathCalculator cache = new CachedPathCalculator(delegate, 2);
+        Region.Node a = region.getNode(new Location(0, 0));
+        Region.Node b = region.getNode(new Location(0, 3));
+        Region.Node c = region.getNode(new Location(4, 0));
+
+        cache.getAllPathsTo(a);
+        cache.getAllPathsTo(b);
+        cache.getAllPathsTo(a);
+        cache.getAllPathsTo(c);
+        Assertions.assertEquals(3, delegateCalls.get());
+        Assertions.assertEquals(1, cache.getStatistics().evictions());
+
+        cache.getAllPathsTo(a);
+        Assertions.assertEquals(3, delegateCalls.get());
+        cache.getAllPathsTo(b);
+        Assertions.assertEquals(4, delegateCalls.get());
+        Assertions.assertEquals(2, cache.getStatistics().entries());
+    }
+
+    @Test
+    void evictsByBytes() {
+        CachedPathCalculator cache = new CachedPathCalculator(delegate, 1024, 0);
+        Region.Node a = region.getNode(new Location(0, 0));
+        cache.getAllPathsTo(a);
+        cache.getAllPathsTo(a);
+        Assertions.assertEquals(2, delegateCalls.get());
+        Assertions.assertEquals(0, cache.getStatistics().entries());
+        Assertions.assertEquals(0, cache.getStatistics().estimatedBytes());
+    }
+
+    @Test
+    void failedLookupsAreNotKept() {
+        Region.Node a = region.getNode(new Location(0, 0));
+        Region.Node b = region.getNode(new Location(0, 3));
+        CachedPathCalculator cache = new CachedPathCalculator(new DijkstraPathCalculator() {
+            @Override
+            public Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end) {
+                if (end == b) {
+                    throw new IllegalArgumentException("unreachable");
+                }
+                return super.getAllPathsTo(end);
+            }
+        }, 1);
+
+        cache.getAllPathsTo(a);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> cache.getAllPathsTo(b));
+        }
+        Assertions.assertEquals(1, cache.getStatistics().entries());
+        Assertions.assertEquals(0, cache.getStatistics().evictions());
+        Assertions.assertEquals(4, cache.getStatistics().misses());
+        cache.getAllPathsTo(a);
+        Assertions.assertEquals(1, cache.getStatistics().hits());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedAcrossStripes() {
+        List<Region.Node> nodes = new ArrayList<>(region.getNodes());
+        CachedPathCalculator cache = new CachedPathCalculator(delegate, nodes.size() - 1);
+        for (Region.Node node : nodes) {
+            cache.getAllPathsTo(node);
+        }
+        // the first node has been evicted, touching the second keeps it
+        cache.getAllPathsTo(nodes.get(1));
+        cache.getAllPathsTo(nodes.get(0));
+        Assertions.assertEquals(nodes.size() + 1, delegateCalls.get());
+        cache.getAllPathsTo(nodes.get(1));
+        Assertions.assertEquals(nodes.size() + 1, delegateCalls.get());
+        cache.getAllPathsTo(nodes.get(2));
+        Assertions.assertEquals(nodes.size() + 2, delegateCalls.get());
+        Assertions.assertEquals(nodes.size() - 1, cache.getStatistics().entries());
+    }
+
+    @Test
+    void concurrentMissesAreComputedOnce() throws InterruptedException {
+        CachedPathCalculator cache = new CachedPathCalculator(delegate);
+        List<Region.Node> nodes = new ArrayList<>(region.getNodes());
+        // (9,9) cannot reach the end node
+        nodes.remove(region.getNode(new Location(9, 9)));
+        Region.Node end = region.getNode(new Location(0, 9));
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                for (Region.Node start : nodes) {
+                    cache.getPath(start, end);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(1, delegateCalls.get());
+        Assertions.assertEquals(8L * nodes.size(), cache.getStatistics().hits() + cache.getStatistics().misses());
+    }
+}
@@ -0,0 +1,70 @@
+package projekt.delivery.routing;
+
+import projekt.base.Location;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ContractionHierarchyTest {
+
+    private Region region;
+
+    /*
+     * A 5x5 grid with a spacing of 10 and a few missing edges, so that some shortest paths need detours.
+     */
+    @BeforeEach
+    public void setup() {
+        region = TestFixtures.createGrid(5, 10, (from, to) -> {
+            int x = from.getX() / 10;
+            int y = from.getY() / 10;
+            return from.getY() == to.getY() ? (x + y) % 3 != 0 : (x * y) % 4 != 1;
+        }).build();
+    }
+
+    @Test
+    void pathsMatchDijkstra() {
+        PathCalculator dijkstra = new DijkstraPathCalculator();
+        PathCalculator contractionHierarchy = new ContractionHierarchyPathCalculator();
+        List<Region.Node> nodes = new ArrayList<>(region.getNodes());
+        for (Region.Node start : nodes) {
+            for (Region.Node end : nodes) {
+                Deque<Region.Node> path = contractionHierarchy.getPath(start, end);
+                Assertions.assertEquals(TestFixtures.duration(start, dijkstra.getPath(start, end)),
+                                        TestFixtures.duration(start, path));
+                if (start != end) {
+                    Assertions.assertSame(end, path.peekLast());
+                }
+            }
+        }
+    }
+
+    @Test
+    void restore() {
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(region.getGraph());
+        ContractionHierarchy restored = ContractionHierarchy.restore(region.getGraph(),
+                                                                     hierarchy.getRanks(),
+                                                                     hierarchy.getOffsets(),
+                                                                     hierarchy.getTargets(),
+                                                                     hierarchy.getWeights(),
+                                                                     hierarchy.getMiddles());
+        ContractionHierarchyPathCalculator calculator = new ContractionHierarchyPathCalculator();
+        calculator.setHierarchy(restored);
+        Assertions.assertTrue(calculator.hasHierarchy(region));
+        Assertions.assertSame(restored, calculator.getHierarchy(region));
+
+        Region.Node start = region.getNode(new Location(0, 0));
+        Region.Node end = region.getNode(new Location(40, 40));
+        Assertions.assertEquals(TestFixtures.duration(start, new DijkstraPathCalculator().getPath(start, end)),
+                                TestFixtures.duration(start, calculator.getPath(start, end)));
+
+        int[] ranks = hierarchy.getRanks();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ContractionHierarchy.restore(
+            region.getGraph(), new int[ranks.length + 1], hierarchy.getOffsets(), hierarchy.getTargets(),
+            hierarchy.getWeights(), hierarchy.getMiddles()));
+    }
+}
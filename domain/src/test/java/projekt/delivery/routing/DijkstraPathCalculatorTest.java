@@ -0,0 +1,167 @@
+package projekt.delivery.routing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class DijkstraPathCalculatorTest {
+
+    /*
+     * Grids with equal durations everywhere, so most nodes have several shortest paths to each other
+     */
+    @Test
+    void tiesMatchPriorityQueueSearch() {
+        for (int size = 3; size <= 9; size++) {
+            assertSamePaths(TestFixtures.createGrid(size, 10).build());
+        }
+    }
+
+    @Test
+    void tiesMatchPriorityQueueSearchWithMissingEdges() {
+        Random random = new Random(3);
+        for (int size = 3; size <= 9; size++) {
+            assertSamePaths(TestFixtures.createGrid(size, 10, (from, to) -> random.nextInt(5) != 0).build());
+        }
+    }
+
+    /*
+     * Lowering durations while nodes are queued let the PriorityQueue search settle nodes too early, e.g. (40,0) in
+     * the last round, so the durations are compared with the Floyd-Warshall algorithm
+     */
+    @Test
+    void durationsStayShortestWhenQueuedDurationsChange() {
+        Region region = TestFixtures.createGrid(8, 10).build();
+        List<Region.Node> nodes = new ArrayList<>(region.getNodes());
+        List<Region.Edge> edges = new ArrayList<>(region.getEdges());
+        PathCalculator calculator = new DijkstraPathCalculator();
+        Random random = new Random(17);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 4; i++) {
+                region.setEdgeDuration(edges.get(random.nextInt(edges.size())), random.nextInt(3));
+            }
+            long[][] expected = floydWarshall(nodes);
+            for (int i = 0; i < nodes.size(); i++) {
+                for (int j = 0; j < nodes.size(); j++) {
+                    Region.Node start = nodes.get(i);
+                    Region.Node end = nodes.get(j);
+                    String message = start.getLocation() + " -> " + end.getLocation();
+                    Assertions.assertEquals(expected[i][j], calculator.getDuration(start, end), message);
+                    long duration = TestFixtures.duration(start, calculator.getPath(start, end));
+                    Assertions.assertEquals(expected[i][j], duration, message);
+                }
+            }
+        }
+    }
+
+    private static long[][] floydWarshall(List<Region.Node> nodes) {
+        long[][] durations = new long[nodes.size()][nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            for (int j = 0; j < nodes.size(); j++) {
+                Region.Edge edge = nodes.get(i).getEdge(nodes.get(j));
+                durations[i][j] = i == j ? 0 : edge == null ? Long.MAX_VALUE / 2 : edge.getDuration();
+            }
+        }
+        for (int k = 0; k < nodes.size(); k++) {
+            for (int i = 0; i < nodes.size(); i++) {
+                for (int j = 0; j < nodes.size(); j++) {
+                    durations[i][j] = Math.min(durations[i][j], durations[i][k] + durations[k][j]);
+                }
+            }
+        }
+        return durations;
+    }
+
+    private static void assertSamePaths(Region region) {
+        DijkstraPathCalculator calculator = new DijkstraPathCalculator();
+        for (Region.Node end : region.getNodes()) {
+            Map<Region.Node, Region.Node> previous = searchWithPriorityQueue(end);
+            Map<Region.Node, ? extends Iterable<Region.Node>> allPaths = calculator.getAllPathsTo(end);
+            for (Region.Node start : region.getNodes()) {
+                if (start == end || !previous.containsKey(start)) {
+                    continue;
+                }
+                List<Region.Node> expected = new ArrayList<>();
+                for (Region.Node node = previous.get(start); node != null; node = previous.get(node)) {
+                    expected.add(node);
+                }
+                String message = start.getLocation() + " -> " + end.getLocation();
+                Assertions.assertEquals(expected, List.copyOf(calculator.getPath(start, end)), message);
+                Assertions.assertEquals(expected, toList(allPaths.get(start)), message);
+            }
+        }
+    }
+
+    private static List<Region.Node> toList(Iterable<Region.Node> path) {
+        List<Region.Node> list = new ArrayList<>();
+        path.forEach(list::add);
+        return list;
+    }
+
+    /**
+     * The search {@link DijkstraPathCalculator} ran before it used the {@link RegionGraph}: nodes are added to a
+     * {@link PriorityQueue} again whenever their duration is lowered, the queue compares their current durations
+     * and the adjacent nodes are relaxed in the iteration order of {@link Region.Node#getAdjacentNodes()}.
+     *
+     * @param end The node to search from.
+     * @return The predecessor of every reached node, {@code null} for {@code end}.
+     */
+    private static Map<Region.Node, Region.Node> searchWithPriorityQueue(Region.Node end) {
+        Map<Region.Node, QueuedNode> references = new HashMap<>();
+        for (Region.Node node : end.getRegion().getNodes()) {
+            references.put(node, new QueuedNode(node));
+        }
+        PriorityQueue<QueuedNode> queue = new PriorityQueue<>();
+        QueuedNode root = references.get(end);
+        root.duration = 0L;
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            QueuedNode u = queue.poll();
+            if (u.visited) {
+                continue;
+            }
+            u.visited = true;
+            for (Region.Node node : u.node.getAdjacentNodes()) {
+                QueuedNode v = references.get(node);
+                if (v.visited) {
+                    continue;
+                }
+                long weight = u.duration + u.node.getEdge(node).getDuration();
+                if (v.duration == null || weight < v.duration) {
+                    v.duration = weight;
+                    v.previous = u;
+                    queue.add(v);
+                }
+            }
+        }
+        Map<Region.Node, Region.Node> previous = new HashMap<>();
+        for (QueuedNode node : references.values()) {
+            if (node.duration != null) {
+                previous.put(node.node, node.previous == null ? null : node.previous.node);
+            }
+        }
+        return previous;
+    }
+
+    private static final class QueuedNode implements Comparable<QueuedNode> {
+
+        private final Region.Node node;
+        private Long duration;
+        private QueuedNode previous;
+        private boolean visited;
+
+        private QueuedNode(Region.Node node) {
+            this.node = node;
+        }
+
+        @Override
+        public int compareTo(QueuedNode other) {
+            return duration.compareTo(other.duration);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package projekt.delivery.routing;
+
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DynamicEdgeDurationTest {
+
+    private static final int SIZE = 8;
+
+    private Region region;
+    private List<Region.Edge> edges;
+
+    /*
+     * A grid of SIZE x SIZE nodes with a distance of 10 between neighbors and a restaurant at (0,0)
+     */
+    @BeforeEach
+    public void setup() {
+        region = TestFixtures.createGrid(SIZE, 10).build();
+        edges = new ArrayList<>(region.getEdges());
+    }
+
+    @Test
+    void setEdgeDuration() {
+        Region.Edge edge = edges.get(0);
+        RegionGraph graph = region.getGraph();
+        int arc = graph.findArc(graph.indexOf(edge.getNodeA()), graph.indexOf(edge.getNodeB()));
+        List<Long> notified = new ArrayList<>();
+        region.addEdgeDurationListener((changed, oldDuration, newDuration) -> {
+            Assertions.assertSame(edge, changed);
+            notified.add(oldDuration);
+            notified.add(newDuration);
+        });
+
+        region.setEdgeDuration(edge, 25);
+
+        Assertions.assertEquals(25, edge.getDuration());
+        Assertions.assertEquals(25, graph.arcDuration(arc));
+        Assertions.assertEquals(1, graph.version());
+        Assertions.assertEquals(List.of(10L, 25L), notified);
+        Assertions.assertSame(graph, region.getGraph());
+        Assertions.assertEquals(Objects.hash(edge.getName(), edge.getNodeA().getLocation(),
+                                             edge.getNodeB().getLocation(), 25L),
+                                edge.hashCode());
+    }
+
+    @Test
+    void occupiedEdgesSurviveChanges() {
+        VehicleManager vehicleManager = TestFixtures.createVehicleManager(region, 1);
+        Region.Edge edge = region.getEdge(new Location(0, 0), new Location(10, 0));
+        VehicleManager.Occupied<Region.Edge> occupied = vehicleManager.getOccupied(edge);
+
+        region.setEdgeDuration(edge, 25);
+
+        Assertions.assertSame(occupied, vehicleManager.getOccupied(edge));
+        Vehicle vehicle = vehicleManager.getAllVehicles().iterator().next();
+        Region.Node end = region.getNode(new Location(10, 0));
+        vehicle.moveDirect(end);
+        int ticksOnEdge = 0;
+        for (long tick = 0; tick < 50; tick++) {
+            vehicleManager.tick(tick);
+            if (occupied.getVehicles().contains(vehicle)) {
+                ticksOnEdge++;
+            }
+        }
+        Assertions.assertEquals(25, ticksOnEdge);
+        Assertions.assertSame(vehicleManager.getOccupied(end), vehicle.getOccupied());
+    }
+
+    @Test
+    void setEdgeDurationInvalid() {
+        Region.Edge edge = edges.get(0);
+        Region other = Region.builder()
+                             .distanceCalculator(new EuclideanDistanceCalculator())
+                             .addNode("A", new Location(0, 0))
+                             .addNode("B", new Location(0, 10))
+                             .addEdge("AB", new Location(0, 0), new Location(0, 10))
+                             .build();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> region.setEdgeDuration(edge, -1));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> region.setEdgeDuration(edge, Integer.MAX_VALUE + 1L));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> region.setEdgeDuration(other.getEdges().iterator().next(), 5));
+        Assertions.assertEquals(10, edge.getDuration());
+        Assertions.assertEquals(0, region.getGraph().version());
+    }
+
+    @Test
+    void repairMatchesDijkstra() {
+        Random random = new Random(42);
+        Region.Node root = region.getNode(new Location(30, 40));
+        ShortestPathTree tree = (ShortestPathTree) new DijkstraPathCalculator().getAllPathsTo(root);
+        RegionGraph graph = region.getGraph();
+
+        for (int round = 0; round < 50; round++) {
+            long version = graph.version();
+            for (int i = random.nextInt(3) + 1; i > 0; i--) {
+                region.setEdgeDuration(edges.get(random.nextInt(edges.size())), random.nextInt(40));
+            }
+            tree = tree.repair(graph.changedEdgesSince(version));
+            assertTree(tree, (ShortestPathTree) new DijkstraPathCalculator().getAllPathsTo(root));
+        }
+    }
+
+    @Test
+    void calculatorsFollowChanges() {
+        Random random = new Random(7);
+        List<PathCalculator> calculators = List.of(new AStarPathCalculator(),
+                                                   new LandmarkPathCalculator(),
+                                                   new ContractionHierarchyPathCalculator(),
+                                                   new MatrixPathCalculator(),
+                                                   new CachedPathCalculator(new DijkstraPathCalculator()));
+        List<Region.Node> nodes = new ArrayList<>(region.getNodes());
+        PathCalculator dijkstra = new DijkstraPathCalculator();
+
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 20; i++) {
+                Region.Node start = nodes.get(random.nextInt(nodes.size()));
+                Region.Node end = nodes.get(random.nextInt(nodes.size()));
+                long expected = dijkstra.getDuration(start, end);
+                for (PathCalculator calculator : calculators) {
+                    String name = calculator.getClass().getName();
+                    Assertions.assertEquals(expected, calculator.getDuration(start, end), name);
+                    Assertions.assertEquals(expected, TestFixtures.duration(start, calculator.getPath(start, end)),
+                                            name);
+                }
+            }
+            region.setEdgeDuration(edges.get(random.nextInt(edges.size())), random.nextInt(40));
+        }
+    }
+
+    @Test
+    void vehiclesReroute() {
+        VehicleManager vehicleManager = VehicleManager.builder()
+                                                      .region(region)
+                                                      .pathCalculator(new CachedPathCalculator(
+                                                          new DijkstraPathCalculator()))
+                                                      .addVehicle(new Location(0, 0), 10)
+                                                      .build();
+        Vehicle vehicle = vehicleManager.getAllVehicles().iterator().next();
+        Region.Node start = region.getNode(new Location(0, 0));
+        Region.Node middle = region.getNode(new Location(30, 0));
+        Region.Node end = region.getNode(new Location(30, 30));
+        vehicle.moveQueued(middle);
+        vehicle.moveQueued(end);
+        Vehicle.Path first = vehicle.getPaths().get(0);
+        Vehicle.Path second = vehicle.getPaths().get(1);
+        Assertions.assertEquals(30, TestFixtures.duration(start, first.nodes()));
+        Region.Edge firstBlocked = region.getEdge(region.getNode(new Location(10, 0)),
+                                                  region.getNode(new Location(20, 0)));
+        Region.Edge secondBlocked = region.getEdge(middle, region.getNode(new Location(30, 10)));
+        List<Region.Node> secondNodes = List.copyOf(second.nodes());
+
+        region.setEdgeDuration(secondBlocked, 1000);
+        region.setEdgeDuration(firstBlocked, 1000);
+        // the changes are applied at the beginning of the next tick
+        Assertions.assertEquals(secondNodes, List.copyOf(second.nodes()));
+        Assertions.assertEquals(0, vehicleManager.nextEventTick(0));
+        vehicleManager.tick(0);
+
+        Assertions.assertSame(first, vehicle.getPaths().get(0));
+        Assertions.assertEquals(50, TestFixtures.duration(start, first.nodes()));
+        Assertions.assertSame(middle, first.nodes().getLast());
+        Assertions.assertEquals(50, TestFixtures.duration(middle, second.nodes()));
+        Assertions.assertNotEquals(secondNodes, List.copyOf(second.nodes()));
+        Assertions.assertSame(end, second.nodes().getLast());
+    }
+
+    @Test
+    void regionDoesNotKeepVehicleManagers() throws InterruptedException {
+        WeakReference<VehicleManager> vehicleManager = new WeakReference<>(
+            VehicleManager.builder()
+                          .region(region)
+                          .pathCalculator(new DijkstraPathCalculator())
+                          .addVehicle(new Location(0, 0), 10)
+                          .build());
+        for (int i = 0; i < 50 && vehicleManager.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assertions.assertNull(vehicleManager.get());
+        // the listener of the collected vehicle manager removes itself
+        region.setEdgeDuration(edges.get(0), 20);
+        Assertions.assertEquals(20, edges.get(0).getDuration());
+    }
+
+    private void assertTree(ShortestPathTree actual, ShortestPathTree expected) {
+        Assertions.assertEquals(expected.size(), actual.size());
+        for (Region.Node node : region.getNodes()) {
+            Assertions.assertEquals(expected.getDuration(node), actual.getDuration(node), node.toString());
+            Assertions.assertEquals(expected.getDuration(node), TestFixtures.duration(node, actual.get(node)),
+                                    node.toString());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package projekt.delivery.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class IndexedHeapTest {
+
+    @Test
+    void pollsInOrderOfPriority() {
+        IndexedHeap heap = new IndexedHeap();
+        heap.clear(10);
+        long[] keys = {50, 20, 90, 10, 70, 30, 80, 0, 60, 40};
+        for (int id = 0; id < keys.length; id++) {
+            heap.insertOrDecrease(id, keys[id]);
+        }
+        Assertions.assertEquals(10, heap.size());
+        List<Integer> polled = new ArrayList<>();
+        while (!heap.isEmpty()) {
+            Assertions.assertEquals(keys[heap.peek()], heap.peekKey());
+            polled.add(heap.poll());
+        }
+        Assertions.assertEquals(List.of(7, 3, 1, 5, 9, 0, 8, 4, 6, 2), polled);
+    }
+
+    @Test
+    void decreasesKeys() {
+        IndexedHeap heap = new IndexedHeap();
+        heap.clear(5);
+        for (int id = 0; id < 5; id++) {
+            heap.insertOrDecrease(id, 100 + id);
+        }
+        heap.insertOrDecrease(4, 50);
+        // a larger priority does not increase the key
+        heap.insertOrDecrease(0, 200);
+        heap.insertOrDecrease(3, 101);
+        Assertions.assertEquals(5, heap.size());
+
+        Assertions.assertEquals(50, heap.peekKey());
+        Assertions.assertEquals(4, heap.poll());
+        Assertions.assertFalse(heap.contains(4));
+        Assertions.assertTrue(heap.contains(0));
+        Assertions.assertEquals(0, heap.poll());
+        Assertions.assertEquals(1, heap.poll());
+        Assertions.assertEquals(101, heap.peekKey());
+        Assertions.assertEquals(3, heap.poll());
+        Assertions.assertEquals(2, heap.poll());
+        Assertions.assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    void breaksTiesById() {
+        IndexedHeap heap = new IndexedHeap();
+        heap.clear(20);
+        for (int id = 19; id >= 0; id--) {
+            heap.insertOrDecrease(id, id % 2 == 0 ? 5 : 10);
+        }
+        // lowering a key to an existing one keeps the order of the ids
+        heap.insertOrDecrease(3, 5);
+        List<Integer> polled = new ArrayList<>();
+        while (!heap.isEmpty()) {
+            polled.add(heap.poll());
+        }
+        Assertions.assertEquals(List.of(0, 2, 3, 4, 6, 8, 10, 12, 14, 16, 18, 1, 5, 7, 9, 11, 13, 15, 17, 19), polled);
+    }
+
+    @Test
+    void growsAndClears() {
+        IndexedHeap heap = new IndexedHeap();
+        heap.clear(2);
+        heap.insertOrDecrease(0, 1);
+        heap.insertOrDecrease(1, 2);
+
+        heap.clear(1000);
+        Assertions.assertTrue(heap.isEmpty());
+        Assertions.assertFalse(heap.contains(0));
+        Assertions.assertFalse(heap.contains(1));
+        Random random = new Random(5);
+        long[] keys = new long[1000];
+        for (int id = 0; id < keys.length; id++) {
+            keys[id] = random.nextInt(100);
+            heap.insertOrDecrease(id, keys[id]);
+        }
+        int previous = heap.poll();
+        for (int i = 1; i < keys.length; i++) {
+            int id = heap.poll();
+            Assertions.assertTrue(keys[previous] < keys[id] || keys[previous] == keys[id] && previous < id);
+            previous = id;
+        }
+
+        // clearing to a smaller capacity keeps the arrays, but removes the remaining ids
+        heap.insertOrDecrease(999, 0);
+        heap.insertOrDecrease(500, 0);
+        heap.clear(10);
+        Assertions.assertFalse(heap.contains(999));
+        Assertions.assertFalse(heap.contains(500));
+        heap.insertOrDecrease(999, 3);
+        Assertions.assertEquals(999, heap.poll());
+    }
+}
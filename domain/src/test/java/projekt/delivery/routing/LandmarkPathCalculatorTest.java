@@ -0,0 +1,70 @@
+package projekt.delivery.routing;
+
+import projekt.base.Location;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LandmarkPathCalculatorTest {
+
+    private Region region;
+
+    @BeforeEach
+    public void setup() {
+        region = TestFixtures.createSmallRegion();
+    }
+
+    @Test
+    void pathsMatchDijkstra() {
+        PathCalculator dijkstra = new DijkstraPathCalculator();
+        LandmarkPathCalculator landmark = new LandmarkPathCalculator(2);
+        Region.Node unreachable = region.getNode(new Location(9, 9));
+        List<Region.Node> nodes = new ArrayList<>(region.getNodes());
+        nodes.remove(unreachable);
+        for (Region.Node start : nodes) {
+            for (Region.Node end : nodes) {
+                Deque<Region.Node> expected = dijkstra.getPath(start, end);
+                Assertions.assertEquals(TestFixtures.duration(start, expected),
+                                        TestFixtures.duration(start, landmark.getPath(start, end)));
+                Assertions.assertEquals(TestFixtures.duration(start, expected), landmark.getDuration(start, end));
+            }
+        }
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> landmark.getPath(region.getNode(new Location(0, 0)), unreachable));
+        Assertions.assertTrue(landmark.hasLandmarks(region));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LandmarkPathCalculator(0));
+    }
+
+    @Test
+    void landmarks() {
+        RegionGraph graph = region.getGraph();
+        Landmarks landmarks = Landmarks.select(graph, 10);
+        Assertions.assertEquals(graph.nodeCount(), landmarks.size());
+        // the node farthest away from the first node (0,0) is (0,9), followed by the unconnected node (9,9)
+        int[] nodes = landmarks.getNodes();
+        Assertions.assertEquals(graph.indexOf(new Location(0, 9)), nodes[0]);
+        Assertions.assertEquals(graph.indexOf(new Location(9, 9)), nodes[1]);
+
+        PathCalculator dijkstra = new DijkstraPathCalculator();
+        for (int from = 0; from < graph.nodeCount(); from++) {
+            for (int to = 0; to < graph.nodeCount(); to++) {
+                if (graph.getNode(to) != region.getNode(new Location(9, 9))
+                    && graph.getNode(from) != region.getNode(new Location(9, 9))) {
+                    Assertions.assertTrue(landmarks.lowerBound(from, to)
+                        <= dijkstra.getDuration(graph.getNode(from), graph.getNode(to)));
+                }
+            }
+        }
+
+        Landmarks restored = Landmarks.restore(graph, landmarks.getNodes(), landmarks.getDurations());
+        Assertions.assertArrayEquals(landmarks.getDurations(), restored.getDurations());
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> Landmarks.restore(graph, landmarks.getNodes(), new long[1]));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Landmarks.select(graph, 0));
+    }
+}
@@ -0,0 +1,57 @@
+package projekt.delivery.routing;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LazyHeapTest {
+
+    /*
+     * Adds and polls ids with few distinct distances, lowering the distances of queued ids on the way, and compares
+     * the order with a PriorityQueue whose elements compare the same distances
+     */
+    @Test
+    void pollsLikePriorityQueue() {
+        Random random = new Random(11);
+        for (int round = 0; round < 100; round++) {
+            long[] distances = new long[50];
+            Arrays.fill(distances, Long.MAX_VALUE);
+            LazyHeap heap = new LazyHeap();
+            PriorityQueue<Integer> queue = new PriorityQueue<>((a, b) -> Long.compare(distances[a], distances[b]));
+            for (int operation = 0; operation < 500; operation++) {
+                if (heap.isEmpty() || random.nextInt(3) != 0) {
+                    int id = random.nextInt(distances.length);
+                    distances[id] = Math.min(distances[id], random.nextInt(8));
+                    heap.add(id, distances);
+                    queue.add(id);
+                } else {
+                    Assertions.assertEquals((int) queue.poll(), heap.poll(distances));
+                }
+                Assertions.assertEquals(queue.size(), heap.size());
+            }
+        }
+    }
+
+    @Test
+    void keepsDuplicatesAndClears() {
+        long[] distances = {3, 1, 2};
+        LazyHeap heap = new LazyHeap();
+        for (int i = 0; i < 40; i++) {
+            heap.add(i % 3, distances);
+        }
+        Assertions.assertEquals(40, heap.size());
+        for (int i = 0; i < 13; i++) {
+            Assertions.assertEquals(1, heap.poll(distances));
+        }
+        Assertions.assertEquals(2, heap.poll(distances));
+
+        heap.clear();
+        Assertions.assertTrue(heap.isEmpty());
+        heap.add(0, distances);
+        Assertions.assertEquals(0, heap.poll(distances));
+        Assertions.assertTrue(heap.isEmpty());
+    }
+}
@@ -0,0 +1,73 @@
+package projekt.delivery.routing;
+
+import projekt.base.Location;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MatrixPathCalculatorTest {
+
+    private Region region;
+
+    @BeforeEach
+    public void setup() {
+        region = TestFixtures.createSmallRegion();
+    }
+
+    @Test
+    void pathsMatchDijkstra() {
+        PathCalculator dijkstra = new DijkstraPathCalculator();
+        MatrixPathCalculator matrix = new MatrixPathCalculator();
+        Assertions.assertTrue(matrix.usesMatrix(region));
+        Region.Node unreachable = region.getNode(new Location(9, 9));
+        List<Region.Node> nodes = new ArrayList<>(region.getNodes());
+        nodes.remove(unreachable);
+        for (Region.Node start : nodes) {
+            for (Region.Node end : nodes) {
+                Deque<Region.Node> expected = dijkstra.getPath(start, end);
+                Assertions.assertEquals(TestFixtures.duration(start, expected),
+                                        TestFixtures.duration(start, matrix.getPath(start, end)));
+                Assertions.assertEquals(TestFixtures.duration(start, expected), matrix.getDuration(start, end));
+            }
+        }
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> matrix.getPath(region.getNode(new Location(0, 0)), unreachable));
+
+        Map<Region.Node, Deque<Region.Node>> paths = matrix.getAllPathsTo(region.getNode(new Location(0, 9)));
+        Assertions.assertEquals(5, paths.size());
+        Assertions.assertTrue(paths.get(region.getNode(new Location(0, 9))).isEmpty());
+        Assertions.assertFalse(paths.containsKey(unreachable));
+    }
+
+    @Test
+    void fallsBackToDelegate() {
+        int[] calls = new int[1];
+        PathCalculator delegate = new DijkstraPathCalculator() {
+            @Override
+            public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
+                calls[0]++;
+                return super.getPath(start, end);
+            }
+
+            @Override
+            public long getDuration(Region.Node start, Region.Node end) {
+                calls[0]++;
+                return super.getDuration(start, end);
+            }
+        };
+        MatrixPathCalculator matrix = new MatrixPathCalculator(delegate, MatrixPathCalculator.requiredBytes(6) - 1);
+        Assertions.assertFalse(matrix.usesMatrix(region));
+
+        Region.Node start = region.getNode(new Location(4, 0));
+        Region.Node end = region.getNode(new Location(0, 9));
+        Assertions.assertEquals(3, matrix.getPath(start, end).size());
+        Assertions.assertEquals(13, matrix.getDuration(start, end));
+        Assertions.assertEquals(2, calls[0]);
+    }
+}
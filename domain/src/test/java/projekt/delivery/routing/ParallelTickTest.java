@@ -0,0 +1,103 @@
+package projekt.delivery.routing;
+
+import projekt.delivery.event.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ParallelTickTest {
+
+    private static final int TICKS = 200;
+    private static final int SHARDS = 4;
+
+    @Test
+    void ticksLikeSequentialVehicleManager() {
+        for (RegionGenerator.Layout layout : RegionGenerator.Layout.values()) {
+            Region region = Region.generator(11)
+                                  .layout(layout)
+                                  .nodeCount(400)
+                                  .restaurantCount(8)
+                                  .neighborhoodCount(60)
+                                  .spacing(3)
+                                  .generate();
+            assertSameTicks(region, layout.name());
+        }
+    }
+
+    @Test
+    void resetKeepsTicksEqual() {
+        Region region = Region.generator(4).nodeCount(200).restaurantCount(4).generate();
+        VehicleManager sequential = TestFixtures.createVehicleManager(region, 100);
+        VehicleManager parallel = TestFixtures.createVehicleManager(region, 100, SHARDS);
+        List<Region.Node> nodes = new ArrayList<>(region.getNodes());
+        Random sequentialRandom = new Random(2);
+        Random parallelRandom = new Random(2);
+        for (long tick = 0; tick < 40; tick++) {
+            sequential.tick(tick);
+            parallel.tick(tick);
+            TestFixtures.sendVehicles(sequential, nodes, sequentialRandom, 3, true);
+            TestFixtures.sendVehicles(parallel, nodes, parallelRandom, 3, true);
+        }
+
+        sequential.reset();
+        parallel.reset();
+
+        for (long tick = 0; tick < 40; tick++) {
+            Assertions.assertEquals(toStrings(sequential.tick(tick)), toStrings(parallel.tick(tick)), "tick " + tick);
+            TestFixtures.sendVehicles(sequential, nodes, sequentialRandom, 3, true);
+            TestFixtures.sendVehicles(parallel, nodes, parallelRandom, 3, true);
+        }
+    }
+
+    @Test
+    void shardsMustBePositive() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> VehicleManager.builder().shards(0));
+    }
+
+    /**
+     * Ticks a sequential and a parallel {@link VehicleManager} of the given {@link Region} side by side and compares
+     * their events, in the order they have been posted, and the positions of their vehicles after every tick.
+     */
+    private static void assertSameTicks(Region region, String name) {
+        VehicleManager sequential = TestFixtures.createVehicleManager(region, 100);
+        VehicleManager parallel = TestFixtures.createVehicleManager(region, 100, SHARDS);
+        List<Region.Node> nodes = new ArrayList<>(region.getNodes());
+        List<Region.Edge> edges = new ArrayList<>(region.getEdges());
+        Random sequentialRandom = new Random(7);
+        Random parallelRandom = new Random(7);
+        Random durationRandom = new Random(8);
+        int largestTick = 0;
+
+        for (long tick = 0; tick < TICKS; tick++) {
+            List<String> sequentialEvents = toStrings(sequential.tick(tick));
+            List<String> parallelEvents = toStrings(parallel.tick(tick));
+            Assertions.assertEquals(sequentialEvents, parallelEvents, name + " tick " + tick);
+            Assertions.assertEquals(positions(sequential), positions(parallel), name + " tick " + tick);
+            largestTick = Math.max(largestTick, parallelEvents.size());
+            TestFixtures.sendVehicles(sequential, nodes, sequentialRandom, 3, true);
+            TestFixtures.sendVehicles(parallel, nodes, parallelRandom, 3, true);
+            // both vehicle managers share the region, so they see the same durations
+            if (tick % 3 == 0) {
+                region.setEdgeDuration(edges.get(durationRandom.nextInt(edges.size())), durationRandom.nextInt(20));
+            }
+        }
+        // otherwise every tick would have been executed sequentially
+        Assertions.assertTrue(largestTick >= MoveBatch.PARALLEL_THRESHOLD, name + ": " + largestTick);
+    }
+
+    private static List<String> positions(VehicleManager vehicleManager) {
+        return vehicleManager.getVehicles()
+                             .stream()
+                             .sorted()
+                             .map(vehicle -> vehicle.getId() + "@" + vehicle.getOccupied().getComponent())
+                             .toList();
+    }
+
+    private static List<String> toStrings(List<Event> events) {
+        return events.stream().map(Event::toString).toList();
+    }
+}
@@ -0,0 +1,78 @@
+package projekt.delivery.routing;
+
+import projekt.base.Location;
+
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PathCalculatorDurationTest {
+
+    private Region region;
+    private Region.Node a;
+    private Region.Node c;
+    private Region.Node e;
+    private Region.Node f;
+
+    @BeforeEach
+    public void setup() {
+        region = TestFixtures.createSmallRegion();
+        a = region.getNode(new Location(0, 0));
+        c = region.getNode(new Location(4, 0));
+        e = region.getNode(new Location(0, 9));
+        f = region.getNode(new Location(9, 9));
+    }
+
+    private List<PathCalculator> calculators() {
+        return List.of(new DijkstraPathCalculator(),
+                       new AStarPathCalculator(),
+                       new BidirectionalDijkstraPathCalculator(true),
+                       new LandmarkPathCalculator(),
+                       new ContractionHierarchyPathCalculator(),
+                       new MatrixPathCalculator(),
+                       new CachedPathCalculator(new DijkstraPathCalculator()),
+                       new PathCalculator() {
+                           private final PathCalculator dijkstra = new DijkstraPathCalculator();
+
+                           @Override
+                           public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
+                               return dijkstra.getPath(start, end);
+                           }
+
+                           @Override
+                           public Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end) {
+                               return dijkstra.getAllPathsTo(end);
+                           }
+                       });
+    }
+
+    @Test
+    void duration() {
+        for (PathCalculator calculator : calculators()) {
+            Assertions.assertEquals(13, calculator.getDuration(c, e), calculator.getClass().getName());
+            Assertions.assertEquals(13, calculator.getDuration(e, c), calculator.getClass().getName());
+            Assertions.assertEquals(0, calculator.getDuration(a, a), calculator.getClass().getName());
+            Assertions.assertThrows(IllegalArgumentException.class, () -> calculator.getDuration(a, f));
+        }
+    }
+
+    @Test
+    void durationTable() {
+        long[][] expected = {
+            {0, 4, 9, PathCalculator.UNREACHABLE},
+            {9, 13, 0, PathCalculator.UNREACHABLE},
+        };
+        for (PathCalculator calculator : calculators()) {
+            long[][] table = calculator.getDurationTable(List.of(a, e), List.of(a, c, e, f));
+            Assertions.assertEquals(2, table.length);
+            for (int i = 0; i < expected.length; i++) {
+                Assertions.assertArrayEquals(expected[i], table[i]);
+            }
+            Assertions.assertEquals(0, calculator.getDurationTable(List.of(), List.of(a)).length);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package projekt.delivery.routing;
+
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RegionBulkBuilderTest {
+
+    @Test
+    void buildsSameRegionAsBuilder() {
+        Random random = new Random(3);
+        Region.Builder builder = Region.builder().distanceCalculator(new EuclideanDistanceCalculator());
+        Region.BulkBuilder bulkBuilder = Region.bulkBuilder(4, 4).distanceCalculator(new EuclideanDistanceCalculator());
+        List<Location> locations = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Location location = new Location(random.nextInt(1000) - 500, random.nextInt(1000) - 500);
+            if (!builder.checkNode("N" + i, location)) {
+                continue;
+            }
+            locations.add(location);
+            switch (i % 3) {
+                case 0 -> {
+                    builder.addNode("N" + i, location);
+                    bulkBuilder.addNode("N" + i, location);
+                }
+                case 1 -> {
+                    builder.addNeighborhood("N" + i, location);
+                    bulkBuilder.addNeighborhood("N" + i, location);
+                }
+                default -> {
+                    builder.addRestaurant("N" + i, location, List.of("food" + i));
+                    bulkBuilder.addRestaurant("N" + i, location, List.of("food" + i));
+                }
+            }
+        }
+        for (int i = 0; i < 900; i++) {
+            Location locationA = locations.get(random.nextInt(locations.size()));
+            Location locationB = locations.get(random.nextInt(locations.size()));
+            if (locationA.compareTo(locationB) > 0) {
+                Location swap = locationA;
+                locationA = locationB;
+                locationB = swap;
+            }
+            if (!builder.checkEdge("E" + i, locationA, locationB)) {
+                continue;
+            }
+            builder.addEdge("E" + i, locationB, locationA);
+            bulkBuilder.addEdge("E" + i, locationB, locationA);
+        }
+
+        Region expected = builder.build();
+        Region actual = bulkBuilder.build();
+
+        Assertions.assertEquals(expected, actual);
+        Assertions.assertEquals(expected.hashCode(), actual.hashCode());
+        Assertions.assertEquals(List.copyOf(expected.getEdges()), List.copyOf(actual.getEdges()));
+        for (Region.Node node : expected.getNodes()) {
+            Region.Node other = actual.getNode(node.getLocation());
+            Assertions.assertNotNull(other);
+            Assertions.assertEquals(node.getClass(), other.getClass());
+            Assertions.assertEquals(node, other);
+            Assertions.assertEquals(node.getAdjacentNodes(), other.getAdjacentNodes());
+            if (node instanceof Region.Restaurant restaurant) {
+                Assertions.assertEquals(restaurant.getAvailableFood(), ((Region.Restaurant) other).getAvailableFood());
+            }
+        }
+        for (Region.Edge edge : expected.getEdges()) {
+            Region.Edge other = actual.getEdge(edge.getNodeA().getLocation(), edge.getNodeB().getLocation());
+            Assertions.assertNotNull(other);
+            Assertions.assertEquals(edge.getDuration(), other.getDuration());
+        }
+        Assertions.assertEquals(expected.getGraph().nodeCount(), actual.getGraph().nodeCount());
+    }
+
+    @Test
+    void rejectsDuplicates() {
+        Region.BulkBuilder builder = Region.bulkBuilder(2, 1)
+                                           .addNode("A", new Location(0, 0))
+                                           .addNode("B", new Location(0, 10))
+                                           .addEdge("AB", new Location(0, 10), new Location(0, 0));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> builder.addNode("A", new Location(5, 5)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> builder.addNode("C", new Location(0, 0)));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> builder.addEdge("BA", new Location(0, 0), new Location(0, 10)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Region.bulkBuilder(-1, 0));
+
+        // rejected names can be used again
+        builder.addNode("C", new Location(5, 5));
+        builder.addEdge("BA", new Location(0, 0), new Location(5, 5));
+        Region region = builder.distanceCalculator(new EuclideanDistanceCalculator()).build();
+        Assertions.assertEquals(3, region.getNodes().size());
+        Assertions.assertEquals(2, region.getEdges().size());
+    }
+
+    @Test
+    void keepsGivenDurations() {
+        Region region = Region.bulkBuilder(3, 2)
+                              .distanceCalculator(new EuclideanDistanceCalculator())
+                              .addNode("A", new Location(0, 0))
+                              .addNode("B", new Location(0, 10))
+                              .addNode("C", new Location(10, 10))
+                              .addEdge("AB", new Location(0, 10), new Location(0, 0), 25)
+                              .addEdge("BC", new Location(0, 10), new Location(10, 10))
+                              .build();
+
+        Assertions.assertEquals(25, region.getEdge(new Location(0, 0), new Location(0, 10)).getDuration());
+        Assertions.assertEquals(10, region.getEdge(new Location(0, 10), new Location(10, 10)).getDuration());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Region.bulkBuilder(0, 0)
+            .addEdge("AB", new Location(0, 0), new Location(0, 10), -1));
+    }
+
+    @Test
+    void rejectsEdgesWithoutNodes() {
+        Region.BulkBuilder builder = Region.bulkBuilder(0, 0)
+                                           .distanceCalculator(new EuclideanDistanceCalculator())
+                                           .addNode("A", new Location(0, 0))
+                                           .addEdge("AB", new Location(0, 0), new Location(0, 10));
+
+        Assertions.assertThrows(IllegalArgumentException.class, builder::build);
+    }
+}
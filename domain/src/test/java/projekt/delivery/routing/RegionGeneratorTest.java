@@ -0,0 +1,69 @@
+package projekt.delivery.routing;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RegionGeneratorTest {
+
+    @Test
+    void generatesConnectedRegion() {
+        for (RegionGenerator.Layout layout : RegionGenerator.Layout.values()) {
+            Region region = Region.generator(11)
+                                  .layout(layout)
+                                  .nodeCount(2000)
+                                  .restaurantCount(5)
+                                  .neighborhoodCount(300)
+                                  .averageDegree(3.5)
+                                  .generate();
+
+            Assertions.assertEquals(2000, region.getNodes().size());
+            Assertions.assertEquals(5, count(region, Region.Restaurant.class));
+            Assertions.assertEquals(300, count(region, Region.Neighborhood.class));
+            Assertions.assertEquals(3500, region.getEdges().size(), layout.name());
+            Region.Node root = region.getNodes().iterator().next();
+            Assertions.assertEquals(2000, new DijkstraPathCalculator().getAllPathsTo(root).size(), layout.name());
+        }
+    }
+
+    @Test
+    void generatesSpanningTreeForSmallDegrees() {
+        for (RegionGenerator.Layout layout : RegionGenerator.Layout.values()) {
+            Region region = Region.generator(5).layout(layout).nodeCount(500).averageDegree(0).generate();
+
+            Assertions.assertEquals(499, region.getEdges().size());
+            Region.Node root = region.getNodes().iterator().next();
+            Assertions.assertEquals(500, new DijkstraPathCalculator().getAllPathsTo(root).size(), layout.name());
+        }
+    }
+
+    @Test
+    void isDeterministic() {
+        for (RegionGenerator.Layout layout : RegionGenerator.Layout.values()) {
+            Region first = Region.generator(3).layout(layout).nodeCount(700).averageDegree(4).generate();
+            Region second = Region.generator(3).layout(layout).nodeCount(700).averageDegree(4).generate();
+            Region other = Region.generator(4).layout(layout).nodeCount(700).averageDegree(4).generate();
+
+            Assertions.assertEquals(first, second);
+            Assertions.assertNotEquals(first, other);
+        }
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        RegionGenerator generator = Region.generator(0);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> generator.nodeCount(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> generator.restaurantCount(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> generator.neighborhoodCount(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> generator.averageDegree(Double.NaN));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> generator.spacing(1));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> generator.nodeCount(10).restaurantCount(6).neighborhoodCount(5).generate());
+    }
+
+    private static long count(Region region, Class<?> type) {
+        return Stream.of(region.getNodes().toArray()).filter(type::isInstance).count();
+    }
+}
@@ -0,0 +1,96 @@
+package projekt.delivery.routing;
+
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RegionGraphTest {
+
+    private Region region;
+    private RegionGraph graph;
+
+    /*
+     * (0,0) --- (0,3)
+     *   |         |
+     * (4,0) --- (4,3)    (9,9) no connecting edges
+     */
+    @BeforeEach
+    public void setup() {
+        region = Region.builder()
+                       .distanceCalculator(new EuclideanDistanceCalculator())
+                       .addNode("A", new Location(0, 0))
+                       .addNode("B", new Location(0, 3))
+                       .addNeighborhood("C", new Location(4, 0))
+                       .addRestaurant("D", new Location(4, 3), List.of("food"))
+                       .addNode("E", new Location(9, 9))
+                       .addEdge("AB", new Location(0, 0), new Location(0, 3))
+                       .addEdge("AC", new Location(0, 0), new Location(4, 0))
+                       .addEdge("BD", new Location(4, 3), new Location(0, 3))
+                       .addEdge("CD", new Location(4, 0), new Location(4, 3))
+                       .build();
+        graph = region.getGraph();
+    }
+
+    @Test
+    void nodeIds() {
+        Assertions.assertEquals(5, graph.nodeCount());
+        Assertions.assertEquals(4, graph.edgeCount());
+        for (int id = 0; id < graph.nodeCount(); id++) {
+            Region.Node node = graph.getNode(id);
+            Assertions.assertEquals(id, graph.indexOf(node));
+            Assertions.assertEquals(id, graph.indexOf(node.getLocation()));
+            Assertions.assertEquals(node.getLocation().getX(), graph.getX(id));
+            Assertions.assertEquals(node.getLocation().getY(), graph.getY(id));
+        }
+        Assertions.assertEquals(-1, graph.indexOf(new Location(1, 1)));
+    }
+
+    @Test
+    void arcs() {
+        int a = graph.indexOf(new Location(0, 0));
+        int d = graph.indexOf(new Location(4, 3));
+        int e = graph.indexOf(new Location(9, 9));
+        Assertions.assertEquals(2, graph.arcEnd(a) - graph.arcStart(a));
+        Assertions.assertEquals(0, graph.arcEnd(e) - graph.arcStart(e));
+        Assertions.assertEquals(-1, graph.findArc(a, d));
+
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            Region.Node node = graph.getNode(u);
+            Assertions.assertEquals(node.getAdjacentNodes().size(), graph.arcEnd(u) - graph.arcStart(u));
+            for (int arc = graph.arcStart(u); arc < graph.arcEnd(u); arc++) {
+                Region.Node target = graph.getNode(graph.arcTarget(arc));
+                Region.Edge edge = region.getEdge(node, target);
+                Assertions.assertNotNull(edge);
+                Assertions.assertSame(edge, graph.getEdge(graph.arcEdge(arc)));
+                Assertions.assertEquals(edge.getDuration(), graph.arcDuration(arc));
+                Assertions.assertEquals(arc, graph.findArc(u, graph.arcTarget(arc)));
+            }
+        }
+    }
+
+    @Test
+    void adjacentArcsFollowAdjacentNodes() {
+        Region grid = TestFixtures.createGrid(6, 10).build();
+        RegionGraph gridGraph = grid.getGraph();
+        for (int u = 0; u < gridGraph.nodeCount(); u++) {
+            List<Region.Node> targets = new ArrayList<>();
+            for (int position = gridGraph.arcStart(u); position < gridGraph.arcEnd(u); position++) {
+                int arc = gridGraph.adjacentArc(position);
+                Assertions.assertTrue(arc >= gridGraph.arcStart(u) && arc < gridGraph.arcEnd(u));
+                targets.add(gridGraph.getNode(gridGraph.arcTarget(arc)));
+            }
+            Assertions.assertEquals(List.copyOf(gridGraph.getNode(u).getAdjacentNodes()), targets);
+        }
+    }
+
+    @Test
+    void snapshotIsShared() {
+        Assertions.assertSame(graph, region.getGraph());
+    }
+}
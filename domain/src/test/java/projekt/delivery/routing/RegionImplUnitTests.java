@@ -1,9 +1,12 @@
 package projekt.delivery.routing;
 
 import projekt.ObjectUnitTests;
+import projekt.base.EuclideanDistanceCalculator;
 import projekt.base.Location;
 
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Assertions;
@@ -92,4 +95,60 @@ public class RegionImplUnitTests {
                                 () -> testRegion.putEdge(invalidEdgeNodeB),
                                 "NodeB " + invalidEdgeNodeB + " has incorrect region");
     }
+
+    @Test
+    public void testFreeze() {
+        Region.Builder builder = Region.builder()
+                                       .distanceCalculator(new EuclideanDistanceCalculator())
+                                       .addNode("node", testLocation0_0)
+                                       .addNode("node2", testLocation1_1)
+                                       .addEdge("edge", testLocation0_0, testLocation1_1);
+        RegionImpl region = (RegionImpl) builder.build();
+        Assertions.assertTrue(region.isFrozen());
+        Assertions.assertSame(region.getNodes(), region.getNodes());
+        Assertions.assertSame(region.getEdges(), region.getEdges());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> region.getNodes().clear());
+
+        Region.Edge edge = region.getEdge(testLocation0_0, testLocation1_1);
+        Assertions.assertNotNull(edge);
+        Assertions.assertSame(region.getNode(testLocation0_0), edge.getNodeA());
+        Assertions.assertSame(region.getNode(testLocation1_1), edge.getNodeB());
+        Assertions.assertEquals(Set.of(edge.getNodeB()), edge.getNodeA().getAdjacentNodes());
+
+        Region other = builder.build();
+        Assertions.assertEquals(region, other);
+        Assertions.assertEquals(region.hashCode(), other.hashCode());
+
+        Assertions.assertThrows(IllegalStateException.class,
+                                () -> region.putNode(new NodeImpl(region, "node3", new Location(2, 2), Set.of())));
+        EdgeImpl edge2 = new EdgeImpl(region, "edge2", testLocation0_0, testLocation1_1, 2);
+        Assertions.assertThrows(IllegalStateException.class, () -> region.putEdge(edge2));
+    }
+
+    @Test
+    public void testFreezeKeepsAdjacencyOrder() {
+        Region.Builder builder = Region.builder()
+                                       .distanceCalculator(new EuclideanDistanceCalculator())
+                                       .addNode("hub", testLocation0_0);
+        for (int i = 1; i <= 20; i++) {
+            Location location = new Location(i, i * i % 7);
+            builder.addNode("node" + i, location).addEdge("edge" + i, testLocation0_0, location);
+        }
+        RegionImpl region = (RegionImpl) builder.build();
+        NodeImpl hub = (NodeImpl) region.getNode(testLocation0_0);
+        Assertions.assertNotNull(hub);
+
+        // the order of the sets an unfrozen node creates on every call
+        List<Region.Node> adjacentNodes = List.copyOf(hub.getConnections()
+                                                         .stream()
+                                                         .map(region::getNode)
+                                                         .collect(Collectors.toSet()));
+        List<Region.Edge> adjacentEdges = List.copyOf(hub.getConnections()
+                                                         .stream()
+                                                         .map(location -> region.getEdge(testLocation0_0, location))
+                                                         .collect(Collectors.toSet()));
+        Assertions.assertEquals(adjacentNodes, List.copyOf(hub.getAdjacentNodes()));
+        Assertions.assertEquals(adjacentEdges, List.copyOf(hub.getAdjacentEdges()));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> hub.getAdjacentNodes().clear());
+    }
 }
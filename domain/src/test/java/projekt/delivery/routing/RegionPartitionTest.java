@@ -0,0 +1,97 @@
+package projekt.delivery.routing;
+
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RegionPartitionTest {
+
+    private static final int SIZE = 20;
+
+    private Region region;
+
+    /*
+     * A grid of SIZE x SIZE nodes and two connected nodes that are not connected to the grid
+     */
+    @BeforeEach
+    public void setup() {
+        Region.Builder builder = TestFixtures.createGrid(SIZE, 1);
+        builder.addNode("I1", new Location(100, 100))
+               .addNode("I2", new Location(100, 101))
+               .addEdge("I", new Location(100, 100), new Location(100, 101));
+        region = builder.build();
+    }
+
+    @Test
+    void shards() {
+        RegionPartition partition = region.getPartition(4);
+        Assertions.assertSame(partition, region.getPartition(4));
+        Assertions.assertEquals(4, partition.getShardCount());
+
+        Set<Region.Node> nodes = new HashSet<>();
+        Set<Region.Edge> edges = new HashSet<>();
+        int cutSize = 0;
+        for (RegionPartition.Shard shard : partition.getShards()) {
+            for (Region.Node node : shard.getNodes()) {
+                Assertions.assertTrue(nodes.add(node));
+                Assertions.assertEquals(shard.getIndex(), partition.getShard(node));
+                boolean boundary = node.getAdjacentNodes()
+                                       .stream()
+                                       .anyMatch(other -> partition.getShard(other) != shard.getIndex());
+                Assertions.assertEquals(boundary, shard.getBoundaryNodes().contains(node), node.toString());
+            }
+            for (Region.Edge edge : shard.getEdges()) {
+                Assertions.assertTrue(edges.add(edge));
+                Assertions.assertEquals(shard.getIndex(), partition.getShard(edge.getNodeA()));
+                Assertions.assertEquals(shard.getIndex(), partition.getShard(edge));
+                if (partition.getShard(edge.getNodeB()) != shard.getIndex()) {
+                    cutSize++;
+                    Assertions.assertTrue(shard.getBoundaryEdges().contains(edge));
+                }
+            }
+        }
+        Assertions.assertEquals(Set.copyOf(region.getNodes()), nodes);
+        Assertions.assertEquals(Set.copyOf(region.getEdges()), edges);
+
+        RegionPartition.Report report = partition.getReport();
+        Assertions.assertEquals(cutSize, report.cutSize());
+        Assertions.assertEquals(region.getEdges().size(), report.edgeCount());
+        Assertions.assertTrue(report.imbalance() <= RegionPartition.MAXIMUM_IMBALANCE + 0.01, report.toString());
+        // splitting the grid into quarters cuts 40 edges
+        Assertions.assertTrue(report.cutSize() <= 60, report.toString());
+    }
+
+    @Test
+    void moreShardsThanNodes() {
+        Region small = Region.builder()
+                             .distanceCalculator(new EuclideanDistanceCalculator())
+                             .addNode("A", new Location(0, 0))
+                             .addNode("B", new Location(0, 1))
+                             .addEdge("AB", new Location(0, 0), new Location(0, 1))
+                             .build();
+        RegionPartition partition = small.getPartition(3);
+        Assertions.assertEquals(3, partition.getShardCount());
+        Assertions.assertEquals(List.of(1, 1, 0), partition.getShards()
+                                                           .stream()
+                                                           .map(shard -> shard.getNodes().size())
+                                                           .toList());
+        Assertions.assertEquals(1, partition.getReport().cutSize());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> small.getPartition(0));
+    }
+
+    @Test
+    void singleShard() {
+        RegionPartition partition = region.getPartition(1);
+        Assertions.assertEquals(0, partition.getReport().cutSize());
+        Assertions.assertEquals(0, partition.getReport().imbalance());
+        Assertions.assertTrue(partition.getShards().get(0).getBoundaryNodes().isEmpty());
+        Assertions.assertEquals(region.getNodes().size(), partition.getShards().get(0).getNodes().size());
+    }
+}
@@ -0,0 +1,118 @@
+package projekt.delivery.routing;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RouteTest {
+
+    @Test
+    void sharesRoutesUntilDurationsChange() {
+        VehicleManagerImpl vehicleManager = createVehicleManager();
+        Region region = vehicleManager.getRegion();
+        List<Region.Node> nodes = List.copyOf(region.getNodes());
+        Region.Node start = nodes.get(0);
+        Region.Node end = nodes.get(nodes.size() - 1);
+        PathCalculator pathCalculator = vehicleManager.getPathCalculator();
+
+        Route route = vehicleManager.getRoute(start, pathCalculator.getPath(start, end));
+
+        Assertions.assertSame(route, vehicleManager.getRoute(start, pathCalculator.getPath(start, end)));
+        Assertions.assertTrue(route.matches(pathCalculator.getPath(start, end)));
+        Assertions.assertNotSame(route, vehicleManager.getRoute(nodes.get(1), pathCalculator.getPath(start, end)));
+        Region.Edge edge = region.getEdges().iterator().next();
+        region.setEdgeDuration(edge, edge.getDuration() + 1);
+        Assertions.assertNotSame(route, vehicleManager.getRoute(start, pathCalculator.getPath(start, end)));
+    }
+
+    @Test
+    void durationFollowsEdges() {
+        VehicleManagerImpl vehicleManager = createVehicleManager();
+        Region region = vehicleManager.getRegion();
+        List<Region.Node> nodes = List.copyOf(region.getNodes());
+        Region.Node start = nodes.get(0);
+        Deque<Region.Node> path = vehicleManager.getPathCalculator().getPath(start, nodes.get(nodes.size() - 1));
+        Route route = vehicleManager.getRoute(start, path);
+
+        Assertions.assertEquals(TestFixtures.duration(start, path), route.getDuration());
+        Assertions.assertEquals(path.getLast(), route.getNode(route.length() - 1));
+        Region.Edge first = region.getEdge(start, path.getFirst());
+        region.setEdgeDuration(first, first.getDuration() + 7);
+        Assertions.assertEquals(TestFixtures.duration(start, path), route.getDuration());
+        // without a start node, the route starts at its first node
+        long withoutFirst = TestFixtures.duration(start, path) - first.getDuration();
+        Assertions.assertEquals(withoutFirst, new Route(path).getDuration());
+        Assertions.assertEquals(0, vehicleManager.getRoute(start, new ArrayDeque<>()).getDuration());
+    }
+
+    @Test
+    void pathsAdvanceAlongRoute() {
+        VehicleManagerImpl vehicleManager = createVehicleManager();
+        Vehicle vehicle = vehicleManager.getAllVehicles().iterator().next();
+        Region.Node restaurant = vehicle.getStartingNode().getComponent();
+        Region.Node target = restaurant.getAdjacentNodes().iterator().next();
+        Region.Node next = target.getAdjacentNodes().stream().filter(node -> node != restaurant).findFirst().get();
+        vehicleManager.tick(0);
+        Assertions.assertFalse(vehicle.hasPendingMoves());
+
+        vehicle.moveQueued(next);
+        vehicle.moveQueued(restaurant);
+        List<? extends Vehicle.Path> paths = vehicle.getPaths();
+        Vehicle.Path path = paths.get(0);
+        Deque<Region.Node> nodes = path.nodes();
+
+        Assertions.assertTrue(vehicle.hasPendingMoves());
+        Assertions.assertEquals(2, paths.size());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> vehicle.getPaths().remove(0));
+        long tick = 1;
+        while (vehicle.getOccupied().getComponent() != nodes.getFirst()) {
+            vehicleManager.tick(tick++);
+        }
+        Assertions.assertEquals(List.copyOf(nodes).subList(1, nodes.size()), List.copyOf(path.nodes()));
+        Assertions.assertSame(path, vehicle.getPaths().get(0));
+    }
+
+    @Test
+    void pathsCompareRemainingNodes() {
+        VehicleManagerImpl vehicleManager = TestFixtures.createVehicleManager(
+            Region.generator(5).nodeCount(60).restaurantCount(1).generate(), 2);
+        List<Vehicle> vehicles = vehicleManager.getAllVehicles().stream().sorted().toList();
+        Region.Node restaurant = vehicles.get(0).getStartingNode().getComponent();
+        Region.Node target = vehicleManager.getRegion()
+                                           .getNodes()
+                                           .stream()
+                                           .filter(node -> node != restaurant)
+                                           .filter(node -> !restaurant.getAdjacentNodes().contains(node))
+                                           .findFirst()
+                                           .get();
+        vehicleManager.tick(0);
+
+        vehicles.get(0).moveQueued(target);
+        Vehicle.Path first = vehicles.get(0).getPaths().get(0);
+        int length = first.nodes().size();
+        long tick = 1;
+        while (first.nodes().size() == length) {
+            vehicleManager.tick(tick++);
+        }
+        vehicles.get(1).moveQueued(target);
+        Vehicle.Path second = vehicles.get(1).getPaths().get(0);
+
+        // both paths share their route, but the first one has advanced
+        Assertions.assertNotEquals(first, second);
+        Assertions.assertEquals(Objects.hash(first.nodes(), first.arrivalAction()), first.hashCode());
+        Assertions.assertEquals(Objects.hash(second.nodes(), second.arrivalAction()), second.hashCode());
+        while (vehicles.get(0).getOccupied().getComponent() != target) {
+            vehicleManager.tick(tick++);
+        }
+        Assertions.assertEquals(List.of(), List.copyOf(first.nodes()));
+        Assertions.assertEquals(Objects.hash(first.nodes(), first.arrivalAction()), first.hashCode());
+    }
+
+    private static VehicleManagerImpl createVehicleManager() {
+        return TestFixtures.createVehicleManager(Region.generator(5).nodeCount(60).restaurantCount(2).generate(), 1);
+    }
+}
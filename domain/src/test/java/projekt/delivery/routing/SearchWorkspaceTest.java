@@ -0,0 +1,71 @@
+package projekt.delivery.routing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SearchWorkspaceTest {
+
+    @Test
+    void resetForgetsPreviousSearches() {
+        SearchWorkspace workspace = SearchWorkspace.forward(100);
+        for (int node = 0; node < 100; node++) {
+            workspace.reach(node, node, node, node - 1);
+            workspace.relax(node, node, node - 1);
+        }
+        workspace.settleNext();
+        workspace.settleNextQueued();
+
+        // a smaller search reuses the arrays, a larger one replaces them
+        for (int size : new int[] {10, 1000, 100}) {
+            SearchWorkspace reset = SearchWorkspace.forward(size);
+            Assertions.assertSame(workspace, reset);
+            Assertions.assertTrue(reset.heap.isEmpty());
+            Assertions.assertTrue(reset.queue.isEmpty());
+            for (int node = 0; node < Math.max(size, 100); node++) {
+                Assertions.assertFalse(reset.isReached(node), "node " + node);
+                Assertions.assertFalse(reset.isSettled(node), "node " + node);
+                Assertions.assertEquals(SearchWorkspace.INFINITY, reset.distance(node));
+                Assertions.assertEquals(-1, reset.predecessor(node));
+            }
+            Assertions.assertEquals(-1, reset.settleNextQueued());
+            reset.reach(size - 1, 7, 7, 3);
+            reset.relax(5, 2, -1);
+            Assertions.assertEquals(5, reset.settleNextQueued());
+        }
+        Assertions.assertNotSame(workspace, SearchWorkspace.backward(100));
+    }
+
+    /*
+     * Searches regions of different sizes one after another on this thread and compares the results with searches
+     * on new threads, whose workspaces have not been used before
+     */
+    @Test
+    void reuseAcrossRegionsOfDifferentSizes() throws InterruptedException {
+        List<Region> regions = new ArrayList<>();
+        for (int size : new int[] {9, 3, 6, 2, 9, 4}) {
+            regions.add(TestFixtures.createGrid(size, 10, (from, to) -> (from.getX() + to.getY()) % 30 != 10).build());
+        }
+        PathCalculator calculator = new DijkstraPathCalculator();
+        for (Region region : regions) {
+            for (Region.Node end : region.getNodes()) {
+                Map<Region.Node, List<Region.Node>> actual = getAllPathsTo(calculator, end);
+                List<Map<Region.Node, List<Region.Node>>> expected = new ArrayList<>();
+                Thread thread = new Thread(() -> expected.add(getAllPathsTo(calculator, end)));
+                thread.start();
+                thread.join();
+                Assertions.assertEquals(expected.get(0), actual, end.toString());
+            }
+        }
+    }
+
+    private static Map<Region.Node, List<Region.Node>> getAllPathsTo(PathCalculator calculator, Region.Node end) {
+        Map<Region.Node, List<Region.Node>> paths = new HashMap<>();
+        calculator.getAllPathsTo(end).forEach((node, path) -> paths.put(node, List.copyOf(path)));
+        return paths;
+    }
+}
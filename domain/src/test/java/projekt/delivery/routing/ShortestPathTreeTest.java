@@ -0,0 +1,65 @@
+package projekt.delivery.routing;
+
+import projekt.base.Location;
+
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ShortestPathTreeTest {
+
+    private Region region;
+    private Region.Node a;
+    private Region.Node b;
+    private Region.Node e;
+    private Region.Node f;
+    private ShortestPathTree tree;
+
+    @BeforeEach
+    public void setup() {
+        region = TestFixtures.createSmallRegion();
+        a = region.getNode(new Location(0, 0));
+        b = region.getNode(new Location(0, 3));
+        e = region.getNode(new Location(0, 9));
+        f = region.getNode(new Location(9, 9));
+        tree = (ShortestPathTree) new DijkstraPathCalculator().getAllPathsTo(e);
+    }
+
+    @Test
+    void paths() {
+        Assertions.assertSame(e, tree.getRoot());
+        Assertions.assertEquals(5, tree.size());
+        Assertions.assertIterableEquals(List.of(b, e), tree.get(a));
+        Assertions.assertTrue(tree.get(e).isEmpty());
+        Assertions.assertNull(tree.get(f));
+        Assertions.assertFalse(tree.containsKey(f));
+        Assertions.assertEquals(9, tree.getDuration(a));
+        Assertions.assertSame(b, tree.getNextNode(a));
+        Assertions.assertNull(tree.getNextNode(e));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tree.getDuration(f));
+    }
+
+    @Test
+    void pathsAreCreatedOnAccess() {
+        Deque<Region.Node> path = tree.get(a);
+        path.pop();
+        Assertions.assertEquals(2, tree.get(a).size());
+        Assertions.assertNotSame(tree.get(a), tree.get(a));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> tree.put(f, path));
+    }
+
+    @Test
+    void entries() {
+        Map<Region.Node, Deque<Region.Node>> copy = new HashMap<>(tree);
+        Assertions.assertEquals(5, copy.size());
+        for (Map.Entry<Region.Node, Deque<Region.Node>> entry : copy.entrySet()) {
+            Assertions.assertIterableEquals(tree.get(entry.getKey()), entry.getValue());
+        }
+        Assertions.assertFalse(copy.containsKey(f));
+    }
+}
@@ -0,0 +1,103 @@
+package projekt.delivery.routing;
+
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SpatialIndexTest {
+
+    private Region region;
+    private List<Region.Node> nodes;
+
+    @BeforeEach
+    public void setup() {
+        Random random = new Random(42);
+        Region.Builder builder = Region.builder().distanceCalculator(new EuclideanDistanceCalculator());
+        Set<Location> locations = new HashSet<>();
+        while (locations.size() < 500) {
+            Location location = new Location(random.nextInt(200) - 100, random.nextInt(200) - 100);
+            if (locations.add(location)) {
+                if (locations.size() % 10 == 0) {
+                    builder.addNeighborhood("N" + locations.size(), location);
+                } else {
+                    builder.addNode("N" + locations.size(), location);
+                }
+            }
+        }
+        region = builder.build();
+        nodes = new ArrayList<>(region.getNodes());
+    }
+
+    @Test
+    void exact() {
+        SpatialIndex index = region.getSpatialIndex();
+        Assertions.assertSame(index, region.getSpatialIndex());
+        for (Region.Node node : nodes) {
+            Assertions.assertSame(node, index.getNode(node.getLocation()));
+        }
+        Assertions.assertNull(index.getNode(new Location(1000, 1000)));
+    }
+
+    @Test
+    void nearest() {
+        SpatialIndex index = region.getSpatialIndex();
+        Random random = new Random(7);
+        for (int i = 0; i < 100; i++) {
+            Location location = new Location(random.nextInt(240) - 120, random.nextInt(240) - 120);
+            Comparator<Region.Node> byDistance = Comparator.<Region.Node>comparingLong(
+                node -> squaredDistance(node.getLocation(), location)).thenComparing(Region.Node::getLocation);
+
+            List<Region.Node> expected = nodes.stream().sorted(byDistance).limit(5).toList();
+            Assertions.assertEquals(expected, index.getNearestNodes(location, 5));
+            Assertions.assertEquals(expected.get(0), index.getNearestNode(location));
+
+            Region.Node expectedNeighborhood = nodes.stream()
+                                                    .filter(Region.Neighborhood.class::isInstance)
+                                                    .min(byDistance)
+                                                    .orElseThrow();
+            Assertions.assertEquals(expectedNeighborhood,
+                                    index.getNearestNode(location, Region.Neighborhood.class::isInstance));
+        }
+        Assertions.assertEquals(nodes.size(), index.getNearestNodes(new Location(0, 0), 1000).size());
+        Assertions.assertTrue(index.getNearestNodes(new Location(0, 0), 0).isEmpty());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> index.getNearestNodes(new Location(0, 0), -1));
+    }
+
+    @Test
+    void range() {
+        SpatialIndex index = region.getSpatialIndex();
+        Random random = new Random(13);
+        for (int i = 0; i < 100; i++) {
+            int minX = random.nextInt(200) - 100;
+            int minY = random.nextInt(200) - 100;
+            int maxX = minX + random.nextInt(80);
+            int maxY = minY + random.nextInt(80);
+            List<Region.Node> expected = nodes.stream()
+                                              .filter(node -> node.getLocation().getX() >= minX
+                                                  && node.getLocation().getX() <= maxX
+                                                  && node.getLocation().getY() >= minY
+                                                  && node.getLocation().getY() <= maxY)
+                                              .sorted(Comparator.comparing(Region.Node::getLocation))
+                                              .toList();
+            Assertions.assertEquals(expected, index.getNodesInRange(minX, minY, maxX, maxY));
+        }
+        Assertions.assertEquals(nodes.size(), index.getNodesInRange(-100, -100, 100, 100).size());
+    }
+
+    private static long squaredDistance(Location a, Location b) {
+        long dx = a.getX() - b.getX();
+        long dy = a.getY() - b.getY();
+        return dx * dx + dy * dy;
+    }
+}
@@ -0,0 +1,185 @@
+package projekt.delivery.routing;
+
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiPredicate;
+
+/**
+ * The regions and vehicle managers shared by the tests of this package.
+ */
+final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    /**
+     * Creates a small {@link Region} whose node at (0,0) is a restaurant, so vehicles can be added to it.
+     * <pre>
+     * (0,0) --- (0,3) --- (0,9)
+     *   |         |
+     * (4,0) --- (4,3)    (9,9) no connecting edges
+     * </pre>
+     *
+     * @return The created {@link Region}.
+     */
+    static Region createSmallRegion() {
+        return Region.builder()
+                     .distanceCalculator(new EuclideanDistanceCalculator())
+                     .addRestaurant("A", new Location(0, 0), List.of("food"))
+                     .addNode("B", new Location(0, 3))
+                     .addNode("C", new Location(4, 0))
+                     .addNode("D", new Location(4, 3))
+                     .addNode("E", new Location(0, 9))
+                     .addNode("F", new Location(9, 9))
+                     .addEdge("AB", new Location(0, 0), new Location(0, 3))
+                     .addEdge("AC", new Location(0, 0), new Location(4, 0))
+                     .addEdge("BD", new Location(0, 3), new Location(4, 3))
+                     .addEdge("CD", new Location(4, 0), new Location(4, 3))
+                     .addEdge("BE", new Location(0, 3), new Location(0, 9))
+                     .build();
+    }
+
+    /**
+     * Creates a {@link Region.Builder} containing a grid of size x size nodes with the given spacing. The node at
+     * (0,0) is a restaurant, so vehicles can be added to it. Two neighbors are connected if the given filter accepts
+     * their locations, the one with the smaller coordinate first.
+     *
+     * @param size    The amount of nodes in each direction.
+     * @param spacing The distance between two neighbors.
+     * @param filter  Whether to connect two neighbors.
+     * @return The created {@link Region.Builder}.
+     */
+    static Region.Builder createGrid(int size, int spacing, BiPredicate<Location, Location> filter) {
+        Region.Builder builder = Region.builder().distanceCalculator(new EuclideanDistanceCalculator());
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                if (x == 0 && y == 0) {
+                    builder.addRestaurant("R", new Location(0, 0), List.of("food"));
+                } else {
+                    builder.addNode("N" + x + "_" + y, new Location(x * spacing, y * spacing));
+                }
+            }
+        }
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                Location location = new Location(x * spacing, y * spacing);
+                Location right = new Location(x * spacing + spacing, y * spacing);
+                Location up = new Location(x * spacing, y * spacing + spacing);
+                if (x + 1 < size && filter.test(location, right)) {
+                    builder.addEdge("H" + x + "_" + y, location, right);
+                }
+                if (y + 1 < size && filter.test(location, up)) {
+                    builder.addEdge("V" + x + "_" + y, location, up);
+                }
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Creates a {@link Region.Builder} containing a fully connected grid of size x size nodes with the given spacing.
+     *
+     * @param size    The amount of nodes in each direction.
+     * @param spacing The distance between two neighbors.
+     * @return The created {@link Region.Builder}.
+     * @see #createGrid(int, int, BiPredicate)
+     */
+    static Region.Builder createGrid(int size, int spacing) {
+        return createGrid(size, spacing, (from, to) -> true);
+    }
+
+    /**
+     * Creates a sequentially ticking {@link VehicleManagerImpl} with the given amount of vehicles at every restaurant
+     * of the given {@link Region} that use a {@link DijkstraPathCalculator}.
+     *
+     * @param region                The {@link Region} of the vehicles.
+     * @param vehiclesPerRestaurant The amount of vehicles at every restaurant.
+     * @return The created {@link VehicleManagerImpl}.
+     */
+    static VehicleManagerImpl createVehicleManager(Region region, int vehiclesPerRestaurant) {
+        return createVehicleManager(region, vehiclesPerRestaurant, 1);
+    }
+
+    /**
+     * Creates a {@link VehicleManagerImpl} with the given amount of vehicles at every restaurant of the given
+     * {@link Region} that use a {@link DijkstraPathCalculator}.
+     *
+     * @param region                The {@link Region} of the vehicles.
+     * @param vehiclesPerRestaurant The amount of vehicles at every restaurant.
+     * @param shardCount            The amount of shards the vehicle manager ticks in parallel.
+     * @return The created {@link VehicleManagerImpl}.
+     */
+    static VehicleManagerImpl createVehicleManager(Region region, int vehiclesPerRestaurant, int shardCount) {
+        VehicleManager.Builder builder = VehicleManager.builder()
+                                                       .region(region)
+                                                       .pathCalculator(new DijkstraPathCalculator())
+                                                       .shards(shardCount);
+        for (Region.Node node : region.getNodes()) {
+            if (node instanceof Region.Restaurant) {
+                for (int i = 0; i < vehiclesPerRestaurant; i++) {
+                    builder.addVehicle(node.getLocation(), 10);
+                }
+            }
+        }
+        return (VehicleManagerImpl) builder.build();
+    }
+
+    /**
+     * Sends every vehicle without paths, in the order of their ids, with a chance of one in the given amount to a
+     * random node and back to its restaurant, since vehicles without paths are at their restaurants.
+     *
+     * @param vehicleManager The {@link VehicleManager} of the vehicles.
+     * @param nodes          The nodes to choose from.
+     * @param random         The source of randomness.
+     * @param chance         The inverse of the chance that a vehicle is sent.
+     * @param detours        Whether a vehicle may be sent on a detour when it reaches the random node. Which vehicle
+     *                       takes a detour depends on the order the vehicles arrive in.
+     */
+    static void sendVehicles(VehicleManager vehicleManager,
+                             List<Region.Node> nodes,
+                             Random random,
+                             int chance,
+                             boolean detours) {
+        for (Vehicle vehicle : List.copyOf(vehicleManager.getVehicles()).stream().sorted().toList()) {
+            if (vehicle.getPaths().isEmpty() && random.nextInt(chance) == 0) {
+                Region.Node node = nodes.get(random.nextInt(nodes.size()));
+                Region.Node restaurant = vehicle.getStartingNode().getComponent();
+                if (node.equals(restaurant)) {
+                    continue;
+                }
+                if (detours) {
+                    vehicle.moveQueued(node, (v, t) -> {
+                        Region.Node detour = nodes.get(random.nextInt(nodes.size()));
+                        if (random.nextInt(4) == 0 && !detour.equals(restaurant)) {
+                            v.moveQueued(detour);
+                            v.moveQueued(restaurant);
+                        }
+                    });
+                } else {
+                    vehicle.moveQueued(node);
+                }
+                vehicle.moveQueued(restaurant);
+            }
+        }
+    }
+
+    /**
+     * Returns the sum of the current durations of the edges along the given path.
+     *
+     * @param start The start node of the path.
+     * @param path  The nodes of the path, excluding the start node.
+     * @return The duration of the path.
+     */
+    static long duration(Region.Node start, Iterable<Region.Node> path) {
+        long duration = 0;
+        Region.Node previous = start;
+        for (Region.Node node : path) {
+            duration += start.getRegion().getEdge(previous, node).getDuration();
+            previous = node;
+        }
+        return duration;
+    }
+}
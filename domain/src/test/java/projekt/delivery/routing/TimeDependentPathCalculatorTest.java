@@ -0,0 +1,129 @@
+package projekt.delivery.routing;
+
+import projekt.base.Location;
+import projekt.delivery.event.ArrivedAtNodeEvent;
+import projekt.delivery.event.Event;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TimeDependentPathCalculatorTest {
+
+    private Region region;
+    private Region.Node a;
+    private Region.Node b;
+    private Region.Node c;
+    private Region.Node d;
+    private Region.Node e;
+    private Region.Edge ab;
+
+    /*
+     * The edge between (0,0) and (0,3) takes 40 instead of 3 ticks between tick 50 and 60 of every 100 ticks.
+     */
+    @BeforeEach
+    public void setup() {
+        region = TestFixtures.createSmallRegion();
+        a = region.getNode(new Location(0, 0));
+        b = region.getNode(new Location(0, 3));
+        c = region.getNode(new Location(4, 0));
+        d = region.getNode(new Location(4, 3));
+        e = region.getNode(new Location(0, 9));
+        ab = region.getEdge(a, b);
+        region.setEdgeProfile(ab, TravelTimeProfile.of(100, new int[] {0, 40, 50, 60}, new int[] {3, 3, 40, 40}));
+    }
+
+    @Test
+    void profile() {
+        Assertions.assertEquals(3, ab.getDuration());
+        Assertions.assertEquals(40, ab.getDuration(155));
+        Assertions.assertEquals(0, region.getGraph().version());
+        Assertions.assertEquals(1, region.getGraph().profileVersion());
+        Assertions.assertTrue(region.getGraph().hasProfiles());
+        Assertions.assertEquals(4, region.getEdge(a, c).getDuration(55));
+    }
+
+    @Test
+    void departureTick() {
+        TimeDependentPathCalculator calculator = new TimeDependentPathCalculator(() -> 55, 1, 16);
+        Assertions.assertIterableEquals(List.of(b, e), calculator.getPath(a, e, 0));
+        Assertions.assertEquals(9, calculator.getDuration(a, e, 0));
+        Assertions.assertIterableEquals(List.of(c, d, b, e), calculator.getPath(a, e));
+        Assertions.assertEquals(17, calculator.getDuration(a, e));
+        // the travel time of AB rises from 3 at tick 40 to 40 at tick 50
+        Assertions.assertEquals(25, ab.getDuration(46));
+        Assertions.assertIterableEquals(List.of(c, d, b, e), calculator.getPath(a, e, 46));
+        Assertions.assertIterableEquals(List.of(b, e), calculator.getPath(a, e, 41));
+        Assertions.assertEquals(12, calculator.getDuration(a, e, 41));
+        Assertions.assertIterableEquals(List.of(c, d, b, e), calculator.getAllPathsTo(e).get(a));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> calculator.getPath(a, region.getNode(new Location(9, 9)), 0));
+    }
+
+    @Test
+    void buckets() {
+        TimeDependentPathCalculator calculator = new TimeDependentPathCalculator(() -> 0, 100, 16);
+        Assertions.assertIterableEquals(List.of(b, e), calculator.getPath(a, e, 0));
+        // the path of the bucket is reused, but its duration is evaluated at the given tick
+        Assertions.assertIterableEquals(List.of(b, e), calculator.getPath(a, e, 55));
+        Assertions.assertEquals(46, calculator.getDuration(a, e, 55));
+        Assertions.assertEquals(46, calculator.getDuration(a, e, 155));
+
+        region.setEdgeProfile(ab, TravelTimeProfile.of(100, new int[] {0, 10}, new int[] {40, 40}));
+        Assertions.assertIterableEquals(List.of(c, d, b, e), calculator.getPath(a, e, 55));
+        region.setEdgeProfile(ab, null);
+        Assertions.assertFalse(region.getGraph().hasProfiles());
+        Assertions.assertEquals(9, calculator.getDuration(a, e, 55));
+    }
+
+    @Test
+    void vehiclesDepartAtCurrentTick() {
+        TimeDependentPathCalculator calculator = new TimeDependentPathCalculator(1, 16);
+        VehicleManager vehicleManager = VehicleManager.builder()
+                                                      .region(region)
+                                                      .pathCalculator(calculator)
+                                                      .addVehicle(a.getLocation(), 10)
+                                                      .build();
+        Vehicle vehicle = vehicleManager.getAllVehicles().iterator().next();
+
+        Assertions.assertTrue(calculator.usesVehicleManagerTick());
+        Assertions.assertIterableEquals(List.of(b), calculator.getPath(a, b));
+        for (long tick = 0; tick <= 55; tick++) {
+            vehicleManager.tick(tick);
+        }
+        vehicle.moveQueued(b);
+
+        Assertions.assertIterableEquals(List.of(c, d, b), vehicle.getPaths().get(0).nodes());
+        Assertions.assertFalse(new TimeDependentPathCalculator(() -> 0, 1, 16).usesVehicleManagerTick());
+    }
+
+    @Test
+    void vehiclesTravelWithProfile() {
+        VehicleManager vehicleManager = TestFixtures.createVehicleManager(region, 1);
+        Vehicle vehicle = vehicleManager.getAllVehicles().iterator().next();
+        for (long tick = 0; tick < 45; tick++) {
+            vehicleManager.tick(tick);
+        }
+        vehicle.moveQueued(b);
+        vehicleManager.tick(45);
+        long arrivalTick = 45 + ab.getDuration(45);
+        Assertions.assertTrue(arrivalTick > 45 + ab.getDuration());
+
+        Assertions.assertEquals(arrivalTick, vehicleManager.nextEventTick(46));
+        for (long tick = 46; tick < arrivalTick; tick++) {
+            Assertions.assertEquals(List.of(), vehicleManager.tick(tick));
+        }
+        List<Event> events = vehicleManager.tick(arrivalTick);
+        Assertions.assertEquals(1, events.size());
+        Assertions.assertTrue(events.get(0) instanceof ArrivedAtNodeEvent);
+        Assertions.assertSame(b, vehicle.getOccupied().getComponent());
+    }
+
+    @Test
+    void invalid() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TimeDependentPathCalculator(() -> 0, 0, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TimeDependentPathCalculator(() -> 0, 1, -1));
+    }
+}
@@ -0,0 +1,75 @@
+package projekt.delivery.routing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+    @Test
+    void advanceReturnsDueValuesInOrder() {
+        Random random = new Random(23);
+        TimingWheel wheel = new TimingWheel();
+        // the due tick of every scheduled value, the values are scheduled in ascending order
+        Map<Long, Long> scheduled = new HashMap<>();
+        long tick = 0;
+        long value = 0;
+
+        for (int round = 0; round < 2000; round++) {
+            for (int i = random.nextInt(4); i > 0; i--) {
+                // mostly near ticks, sometimes far ahead or in the past
+                long due = switch (random.nextInt(4)) {
+                    case 0 -> tick + random.nextInt(100_000_000);
+                    case 1 -> tick - random.nextInt(10);
+                    default -> tick + random.nextInt(300);
+                };
+                wheel.schedule(value, due);
+                scheduled.put(value++, Math.max(due, tick));
+            }
+            long next = scheduled.values().stream().mapToLong(Long::longValue).min().orElse(Long.MAX_VALUE);
+            Assertions.assertEquals(next, wheel.nextTick());
+
+            long target = random.nextInt(10) == 0 ? tick + random.nextInt(1_000_000) : tick + random.nextInt(50);
+            long limit = target;
+            List<Long> expected = scheduled.keySet()
+                                           .stream()
+                                           .filter(key -> scheduled.get(key) <= limit)
+                                           .sorted(Comparator.<Long>comparingLong(scheduled::get)
+                                                             .thenComparing(Comparator.naturalOrder()))
+                                           .toList();
+            expected.forEach(scheduled::remove);
+            Assertions.assertEquals(expected, advance(wheel, target));
+            Assertions.assertEquals(scheduled.size(), wheel.size());
+            tick = target + 1;
+        }
+    }
+
+    @Test
+    void clear() {
+        TimingWheel wheel = new TimingWheel();
+        wheel.schedule(1, 5);
+        wheel.schedule(2, 1 << 20);
+        wheel.advance(100);
+
+        wheel.clear();
+
+        Assertions.assertEquals(0, wheel.size());
+        Assertions.assertEquals(Long.MAX_VALUE, wheel.nextTick());
+        wheel.schedule(3, 3);
+        Assertions.assertEquals(List.of(3L), advance(wheel, 10));
+    }
+
+    private static List<Long> advance(TimingWheel wheel, long tick) {
+        List<Long> due = new ArrayList<>();
+        for (int i = 0, count = wheel.advance(tick); i < count; i++) {
+            due.add(wheel.getDue(i));
+        }
+        return due;
+    }
+}
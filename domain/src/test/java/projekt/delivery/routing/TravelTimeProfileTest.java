@@ -0,0 +1,52 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TravelTimeProfileTest {
+
+    @Test
+    void interpolation() {
+        TravelTimeProfile profile = TravelTimeProfile.of(100, new int[] {10, 40, 50}, new int[] {5, 5, 25});
+        Assertions.assertEquals(5, profile.getDuration(10));
+        Assertions.assertEquals(5, profile.getDuration(30));
+        Assertions.assertEquals(15, profile.getDuration(45));
+        Assertions.assertEquals(25, profile.getDuration(50));
+        // from 25 at tick 50 to 5 at tick 110
+        Assertions.assertEquals(15, profile.getDuration(80));
+        Assertions.assertEquals(8, profile.getDuration(101));
+        Assertions.assertEquals(15, profile.getDuration(180));
+        Assertions.assertEquals(15, profile.getDuration(-20));
+        Assertions.assertEquals(5, profile.getMinDuration());
+        Assertions.assertEquals(25, profile.getMaxDuration());
+        Assertions.assertEquals(7, TravelTimeProfile.constant(7).getDuration(123));
+    }
+
+    @Test
+    void fifo() {
+        TravelTimeProfile profile = TravelTimeProfile.of(60, new int[] {0, 20, 30}, new int[] {2, 2, 12});
+        for (long tick = -120; tick < 120; tick++) {
+            Assertions.assertTrue(tick + profile.getDuration(tick) <= tick + 1 + profile.getDuration(tick + 1));
+        }
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> TravelTimeProfile.of(100, new int[] {0, 10}, new int[] {20, 5}));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> TravelTimeProfile.of(20, new int[] {0, 10}, new int[] {5, 20}));
+    }
+
+    @Test
+    void invalid() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> TravelTimeProfile.of(0, new int[] {0}, new int[] {1}));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> TravelTimeProfile.of(10, new int[0], new int[0]));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> TravelTimeProfile.of(10, new int[] {0, 5}, new int[] {1}));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> TravelTimeProfile.of(10, new int[] {5, 5}, new int[] {1, 1}));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> TravelTimeProfile.of(10, new int[] {10}, new int[] {1}));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> TravelTimeProfile.of(10, new int[] {0}, new int[] {-1}));
+    }
+}
@@ -0,0 +1,87 @@
+package projekt.delivery.routing;
+
+import projekt.delivery.event.Event;
+import projekt.delivery.event.SpawnEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class VehicleManagerTickTest {
+
+    private static final int TICKS = 400;
+
+    @Test
+    void ticksLikeAllComponents() {
+        Region region = Region.generator(17)
+                              .layout(RegionGenerator.Layout.RADIAL)
+                              .nodeCount(300)
+                              .restaurantCount(3)
+                              .neighborhoodCount(40)
+                              .spacing(3)
+                              .generate();
+        VehicleManager actual = TestFixtures.createVehicleManager(region, 2);
+        VehicleManager expected = TestFixtures.createVehicleManager(region, 2);
+        List<Region.Node> nodes = new ArrayList<>(region.getNodes());
+        List<Region.Edge> edges = new ArrayList<>(region.getEdges());
+        Random actualRandom = new Random(5);
+        Random expectedRandom = new Random(5);
+        Random durationRandom = new Random(6);
+
+        for (long tick = 0; tick < TICKS; tick++) {
+            List<String> actualEvents = toStrings(actual.tick(tick));
+            List<String> expectedEvents = toStrings(tickAllComponents(expected, tick));
+            Assertions.assertEquals(expectedEvents, actualEvents, "tick " + tick);
+            TestFixtures.sendVehicles(actual, nodes, actualRandom, 4, false);
+            TestFixtures.sendVehicles(expected, nodes, expectedRandom, 4, false);
+            // both vehicle managers share the region, so they see the same durations
+            if (tick % 5 == 0) {
+                region.setEdgeDuration(edges.get(durationRandom.nextInt(edges.size())), durationRandom.nextInt(20));
+            }
+        }
+    }
+
+    @Test
+    void resetRespawnsVehicles() {
+        Region region = Region.generator(3).nodeCount(50).generate();
+        VehicleManager vehicleManager = TestFixtures.createVehicleManager(region, 2);
+        List<Region.Node> nodes = new ArrayList<>(region.getNodes());
+        Random random = new Random(1);
+        for (long tick = 0; tick < 30; tick++) {
+            vehicleManager.tick(tick);
+            TestFixtures.sendVehicles(vehicleManager, nodes, random, 4, false);
+        }
+
+        vehicleManager.reset();
+
+        List<Event> events = vehicleManager.tick(0);
+        Assertions.assertEquals(2, events.size());
+        Assertions.assertTrue(events.stream().allMatch(SpawnEvent.class::isInstance));
+        for (Vehicle vehicle : vehicleManager.getVehicles()) {
+            Assertions.assertSame(vehicle.getStartingNode(), vehicle.getOccupied());
+        }
+        Assertions.assertEquals(List.of(), vehicleManager.tick(1));
+    }
+
+    /**
+     * Applies the changed durations of edges and ticks every occupied node and then every occupied edge of the given
+     * {@link VehicleManager}.
+     */
+    private static List<Event> tickAllComponents(VehicleManager vehicleManager, long tick) {
+        if (tick == 0) {
+            // spawns the vehicles
+            return vehicleManager.tick(tick);
+        }
+        ((VehicleManagerImpl) vehicleManager).applyEdgeDurationChanges();
+        vehicleManager.getOccupiedNodes().forEach(occupied -> occupied.tick(tick));
+        vehicleManager.getOccupiedEdges().forEach(occupied -> occupied.tick(tick));
+        return vehicleManager.getEventBus().popEvents(tick);
+    }
+
+    private static List<String> toStrings(List<Event> events) {
+        return events.stream().map(Event::toString).sorted().toList();
+    }
+}
@@ -0,0 +1,117 @@
+package projekt.delivery.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class VehicleTableTest {
+
+    @Test
+    void linksVehiclesOfComponents() {
+        VehicleManagerImpl vehicleManager = createVehicleManager();
+        VehicleTable table = vehicleManager.vehicleTable;
+        AbstractOccupied<?> first = (AbstractOccupied<?>) vehicleManager.getOccupiedRestaurants().get(0);
+        AbstractOccupied<?> second = (AbstractOccupied<?>) vehicleManager.getOccupiedRestaurants().get(1);
+
+        for (int id = 0; id < 4; id++) {
+            table.put(id, first.index, id, VehicleTable.NONE);
+        }
+        int moves = table.getMoves(2);
+        table.put(2, second.index, 10, first.index);
+        table.remove(0);
+
+        Assertions.assertEquals(List.of(1, 3), vehicleIds(table, first.index));
+        Assertions.assertEquals(List.of(2), vehicleIds(table, second.index));
+        Assertions.assertEquals(2, table.getVehicleCount(first.index));
+        Assertions.assertEquals(VehicleTable.NONE, table.getComponent(0));
+        Assertions.assertEquals(second.index, table.getComponent(2));
+        Assertions.assertEquals(10, table.getArrived(2));
+        Assertions.assertEquals(first.index, table.getPreviousComponent(2));
+        Assertions.assertEquals(moves + 1, table.getMoves(2));
+        Assertions.assertSame(first, table.getStats(2).previous);
+    }
+
+    @Test
+    void occupiedViewsFollowMoves() {
+        VehicleManagerImpl vehicleManager = createVehicleManager();
+        VehicleImpl vehicle = (VehicleImpl) vehicleManager.getAllVehicles().iterator().next();
+        AbstractOccupied<?> restaurant = (AbstractOccupied<?>) vehicle.getStartingNode();
+        vehicleManager.tick(0);
+        Assertions.assertTrue(restaurant.getVehicles().contains(vehicle));
+        Assertions.assertEquals(0, restaurant.vehicles.get(vehicle).arrived);
+
+        Region.Node start = vehicle.getStartingNode().getComponent();
+        vehicle.moveQueued(start.getAdjacentNodes().iterator().next());
+        vehicle.moveQueued(start);
+        vehicleManager.tick(1);
+
+        AbstractOccupied<?> edge = (AbstractOccupied<?>) vehicle.getOccupied();
+        Assertions.assertTrue(edge instanceof OccupiedEdgeImpl);
+        Assertions.assertFalse(restaurant.getVehicles().contains(vehicle));
+        Assertions.assertEquals(List.of(vehicle), List.copyOf(edge.getVehicles()));
+        Assertions.assertEquals(1, edge.vehicles.get(vehicle).arrived);
+        Assertions.assertSame(restaurant, edge.vehicles.get(vehicle).previous);
+
+        edge.reset();
+
+        Assertions.assertTrue(edge.getVehicles().isEmpty());
+        Assertions.assertEquals(VehicleTable.NONE, vehicleManager.vehicleTable.getComponent(vehicle.getId()));
+    }
+
+    @Test
+    void pathCursorFollowsMoves() {
+        VehicleManagerImpl vehicleManager = createVehicleManager();
+        VehicleTable table = vehicleManager.vehicleTable;
+        VehicleImpl vehicle = (VehicleImpl) vehicleManager.getAllVehicles().iterator().next();
+        Region.Node start = vehicle.getStartingNode().getComponent();
+        Region.Node next = start.getAdjacentNodes().iterator().next();
+        vehicleManager.tick(0);
+        vehicle.moveQueued(next);
+        vehicle.moveQueued(start);
+        vehicleManager.tick(1);
+
+        Assertions.assertEquals(0, table.getPathCursor(vehicle.getId()));
+        Assertions.assertEquals(List.of(next), List.copyOf(vehicle.getPaths().get(0).nodes()));
+        long tick = 2;
+        while (vehicle.getOccupied().getComponent() != next) {
+            vehicleManager.tick(tick++);
+        }
+        // the vehicle arrived at the last node of its first path
+        Assertions.assertEquals(1, table.getPathCursor(vehicle.getId()));
+        Assertions.assertTrue(vehicle.getPaths().get(0).nodes().isEmpty());
+        Assertions.assertEquals(List.of(start), List.copyOf(vehicle.getPaths().get(1).nodes()));
+
+        vehicleManager.tick(tick);
+
+        Assertions.assertEquals(1, vehicle.getPaths().size());
+        Assertions.assertEquals(0, table.getPathCursor(vehicle.getId()));
+        Assertions.assertEquals(List.of(start), List.copyOf(vehicle.getPaths().get(0).nodes()));
+    }
+
+    @Test
+    void rejectsVehiclesWithTakenIds() {
+        VehicleManagerImpl vehicleManager = createVehicleManager();
+        VehicleImpl vehicle = (VehicleImpl) vehicleManager.getAllVehicles().iterator().next();
+        AbstractOccupied<?> restaurant = (AbstractOccupied<?>) vehicle.getStartingNode();
+        VehicleImpl other = new VehicleImpl(vehicle.getId(), 1, vehicleManager, (OccupiedRestaurantImpl) restaurant);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> restaurant.putVehicle(other, 0, null));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> restaurant.vehicles.put(other, new AbstractOccupied.VehicleStats(0, null)));
+        Assertions.assertFalse(restaurant.getVehicles().contains(other));
+    }
+
+    private static VehicleManagerImpl createVehicleManager() {
+        return TestFixtures.createVehicleManager(Region.generator(2).nodeCount(40).restaurantCount(2).generate(), 2);
+    }
+
+    private static List<Integer> vehicleIds(VehicleTable table, int component) {
+        List<Integer> ids = new ArrayList<>();
+        for (int id = table.getFirstVehicle(component); id != VehicleTable.NONE; id = table.getNextVehicle(id)) {
+            ids.add(id);
+        }
+        return ids;
+    }
+}
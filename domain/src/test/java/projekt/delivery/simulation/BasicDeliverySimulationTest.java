@@ -0,0 +1,90 @@
+package projekt.delivery.simulation;
+
+import projekt.delivery.event.Event;
+import projekt.delivery.event.VehicleEvent;
+import projekt.delivery.generator.FridayOrderGenerator;
+import projekt.delivery.rating.AmountDeliveredRater;
+import projekt.delivery.rating.InTimeRater;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.rating.TravelDistanceRater;
+import projekt.delivery.routing.DijkstraPathCalculator;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.VehicleManager;
+import projekt.delivery.service.DeliveryService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class BasicDeliverySimulationTest {
+
+    private static final long LENGTH = 5000;
+
+    @Test
+    void skippingIdleTicksKeepsResults() {
+        Region region = Region.generator(9).nodeCount(200).restaurantCount(2).neighborhoodCount(30).generate();
+        VehicleManager.Builder builder = VehicleManager.builder()
+                                                       .region(region)
+                                                       .pathCalculator(new DijkstraPathCalculator());
+        for (Region.Node node : region.getNodes()) {
+            if (node instanceof Region.Restaurant) {
+                builder.addVehicle(node.getLocation(), 1).addVehicle(node.getLocation(), 1);
+            }
+        }
+        VehicleManager vehicleManager = builder.build();
+        SimulationConfig config = new SimulationConfig(0);
+        BasicDeliverySimulation simulation = new BasicDeliverySimulation(
+            config,
+            Map.of(RatingCriteria.AMOUNT_DELIVERED, AmountDeliveredRater.Factory.builder().build(),
+                   RatingCriteria.IN_TIME, InTimeRater.Factory.builder().build(),
+                   RatingCriteria.TRAVEL_DISTANCE,
+                   TravelDistanceRater.Factory.builder().setVehicleManager(vehicleManager).build()),
+            DeliveryService.BASIC.create(vehicleManager),
+            FridayOrderGenerator.Factory.builder()
+                                        .setVehicleManager(vehicleManager)
+                                        .setOrderCount(40)
+                                        .setLastTick(100)
+                                        .setSeed(3)
+                                        .build());
+        List<String> events = new ArrayList<>();
+        List<Long> ticks = new ArrayList<>();
+        simulation.addListener((tickEvents, tick) -> {
+            ticks.add(tick);
+            for (Event event : tickEvents) {
+                // the ids of the orders differ between the runs
+                String name = tick + " " + event.getClass().getSimpleName();
+                if (event instanceof VehicleEvent vehicleEvent) {
+                    name += " " + vehicleEvent.getVehicle().getId();
+                }
+                events.add(name);
+            }
+        });
+
+        simulation.runSimulation(LENGTH);
+        List<String> expectedEvents = List.copyOf(events);
+        List<Double> expectedScores = scores(simulation);
+        Assertions.assertEquals(LENGTH, ticks.size());
+        Assertions.assertTrue(expectedEvents.stream().anyMatch(event -> event.contains("DeliverOrderEvent")));
+        events.clear();
+        ticks.clear();
+        config.setSkipIdleTicks(true);
+        simulation.runSimulation(LENGTH);
+
+        Assertions.assertEquals(expectedEvents, events);
+        Assertions.assertEquals(expectedScores, scores(simulation));
+        Assertions.assertTrue(ticks.size() < LENGTH / 4, "executed " + ticks.size() + " ticks");
+        for (int i = 1; i < ticks.size(); i++) {
+            Assertions.assertTrue(ticks.get(i - 1) < ticks.get(i));
+        }
+        Assertions.assertTrue(ticks.get(ticks.size() - 1) < LENGTH);
+    }
+
+    private static List<Double> scores(Simulation simulation) {
+        return List.of(simulation.getRatingForCriterion(RatingCriteria.AMOUNT_DELIVERED),
+                       simulation.getRatingForCriterion(RatingCriteria.IN_TIME),
+                       simulation.getRatingForCriterion(RatingCriteria.TRAVEL_DISTANCE));
+    }
+}
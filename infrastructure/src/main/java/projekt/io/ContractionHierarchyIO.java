@@ -0,0 +1,98 @@
+package projekt.io;
+
+import org.jetbrains.annotations.Nullable;
+import projekt.delivery.routing.ContractionHierarchy;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.RegionGraph;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Reads and writes the preprocessed data of a {@link ContractionHierarchy} in a binary format.<p>
+ * <p>
+ * The data starts with a header containing the fingerprint of the {@link RegionGraph} it has been computed for,
+ * which is compared against the graph of the {@link Region} the data is read for.
+ */
+public class ContractionHierarchyIO {
+
+    private static final int MAGIC = 0x43484C53;
+    private static final int VERSION = 1;
+
+    /**
+     * Reads a {@link ContractionHierarchy} for the given {@link Region}.
+     *
+     * @param input  The input to read from.
+     * @param region The {@link Region} the {@link ContractionHierarchy} has been computed for.
+     * @return The read {@link ContractionHierarchy} or {@code null} if the stored data has been computed for a
+     * different {@link Region}.
+     * @throws IOException If an I/O error occurs or the input is not a stored {@link ContractionHierarchy}.
+     */
+    public static @Nullable ContractionHierarchy readContractionHierarchy(DataInputStream input, Region region)
+        throws IOException {
+        if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+            throw new IOException("input is not a contraction hierarchy of version " + VERSION);
+        }
+        RegionGraph graph = region.getGraph();
+        long fingerprint = input.readLong();
+        int nodeCount = input.readInt();
+        int arcCount = input.readInt();
+        if (fingerprint != graph.fingerprint() || nodeCount != graph.nodeCount()) {
+            return null;
+        }
+
+        int[] ranks = readInts(input, nodeCount);
+        int[] offsets = readInts(input, nodeCount + 1);
+        int[] targets = readInts(input, arcCount);
+        long[] weights = new long[arcCount];
+        for (int i = 0; i < arcCount; i++) {
+            weights[i] = input.readLong();
+        }
+        int[] middles = readInts(input, arcCount);
+
+        try {
+            return ContractionHierarchy.restore(graph, ranks, offsets, targets, weights, middles);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Writes the given {@link ContractionHierarchy}.
+     *
+     * @param output    The output to write to.
+     * @param hierarchy The {@link ContractionHierarchy} to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void writeContractionHierarchy(DataOutputStream output, ContractionHierarchy hierarchy)
+        throws IOException {
+        int[] targets = hierarchy.getTargets();
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeLong(hierarchy.getGraph().fingerprint());
+        output.writeInt(hierarchy.getGraph().nodeCount());
+        output.writeInt(targets.length);
+        writeInts(output, hierarchy.getRanks());
+        writeInts(output, hierarchy.getOffsets());
+        writeInts(output, targets);
+        for (long weight : hierarchy.getWeights()) {
+            output.writeLong(weight);
+        }
+        writeInts(output, hierarchy.getMiddles());
+    }
+
+    private static int[] readInts(DataInputStream input, int length) throws IOException {
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = input.readInt();
+        }
+        return values;
+    }
+
+    private static void writeInts(DataOutputStream output, int[] values) throws IOException {
+        for (int value : values) {
+            output.writeInt(value);
+        }
+    }
+}
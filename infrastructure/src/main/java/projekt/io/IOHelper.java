@@ -1,10 +1,23 @@
 package projekt.io;
 
 import projekt.delivery.archetype.ProblemArchetype;
-
+import projekt.delivery.routing.CachedPathCalculator;
+import projekt.delivery.routing.ContractionHierarchy;
+import projekt.delivery.routing.ContractionHierarchyPathCalculator;
+import projekt.delivery.routing.LandmarkPathCalculator;
+import projekt.delivery.routing.Landmarks;
+import projekt.delivery.routing.PathCalculator;
+import projekt.delivery.routing.Region;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -89,7 +102,8 @@ public class IOHelper {
 
     /**
      * Returns a {@link Set} of {@link File}s containing all {@link ProblemArchetype}s stored in
-     * the build dir (build/run/projekt/gui/problems).
+     * the build dir (build/run/projekt/gui/problems). Other files in this directory, like
+     * preprocessed routing data, are ignored.
      *
      * @return A {@link Set} of {@link File}s containing all {@link ProblemArchetype}s stored in
      * the build dir.
@@ -102,7 +116,8 @@ public class IOHelper {
             dir.mkdirs();
         }
 
-        return new HashSet<>(Arrays.asList(Objects.requireNonNull(dir.listFiles())));
+        File[] files = dir.listFiles((ignored, name) -> name.endsWith(".txt"));
+        return new HashSet<>(Arrays.asList(Objects.requireNonNull(files)));
     }
 
     private static List<ProblemArchetype> readProblemsInFiles(Set<File> files) {
@@ -110,7 +125,9 @@ public class IOHelper {
 
         for (File file : files) {
             try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                problems.add(ProblemArchetypeIO.readProblemArchetype(reader));
+                ProblemArchetype problem = ProblemArchetypeIO.readProblemArchetype(reader);
+                loadRoutingData(problem);
+                problems.add(problem);
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
@@ -118,4 +135,76 @@ public class IOHelper {
 
         return problems;
     }
+
+    /**
+     * Provides the preprocessed routing data to the {@link PathCalculator} of the given {@link ProblemArchetype}
+     * if it uses a {@link ContractionHierarchyPathCalculator} or a {@link LandmarkPathCalculator}.<p>
+     * <p>
+     * The data is read from a file next to the file of the {@link ProblemArchetype}
+     * (build/run/projekt/gui/problems/&lt;name&gt;.ch for a {@link ContractionHierarchy} and
+     * build/run/projekt/gui/problems/&lt;name&gt;.landmarks for {@link Landmarks}). If the file does not exist or
+     * has been computed for a different region, the data is computed and the file is (re)written.
+     *
+     * @param problem The {@link ProblemArchetype} to load the routing data for.
+     */
+    private static void loadRoutingData(ProblemArchetype problem) {
+        PathCalculator pathCalculator = problem.vehicleManager().getPathCalculator();
+        while (pathCalculator instanceof CachedPathCalculator cachedPathCalculator) {
+            pathCalculator = cachedPathCalculator.getDelegate();
+        }
+        Region region = problem.vehicleManager().getRegion();
+
+        if (pathCalculator instanceof ContractionHierarchyPathCalculator chPathCalculator) {
+            loadContractionHierarchy(chPathCalculator, region,
+                                     Path.of(PROBLEMS_DIR.getPath(), problem.name() + ".ch").toFile());
+        } else if (pathCalculator instanceof LandmarkPathCalculator landmarkPathCalculator) {
+            loadLandmarks(landmarkPathCalculator, region,
+                          Path.of(PROBLEMS_DIR.getPath(), problem.name() + ".landmarks").toFile());
+        }
+    }
+
+    private static void loadContractionHierarchy(ContractionHierarchyPathCalculator pathCalculator,
+                                                 Region region,
+                                                 File file) {
+        if (file.exists()) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                ContractionHierarchy hierarchy = ContractionHierarchyIO.readContractionHierarchy(input, region);
+                if (hierarchy != null) {
+                    pathCalculator.setHierarchy(hierarchy);
+                    return;
+                }
+            } catch (IOException ignored) {
+                // the file is outdated or damaged and will be replaced
+            }
+        }
+
+        ContractionHierarchy hierarchy = pathCalculator.getHierarchy(region);
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            ContractionHierarchyIO.writeContractionHierarchy(output, hierarchy);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void loadLandmarks(LandmarkPathCalculator pathCalculator, Region region, File file) {
+        if (file.exists()) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+                Landmarks landmarks = RegionIO.readLandmarks(reader, region);
+                if (landmarks != null && landmarks.size() == Math.min(pathCalculator.getLandmarkCount(),
+                                                                      region.getGraph().nodeCount())) {
+                    pathCalculator.setLandmarks(landmarks);
+                    return;
+                }
+            } catch (IOException | RuntimeException ignored) {
+                // the file is outdated or damaged and will be replaced
+            }
+        }
+
+        Landmarks landmarks = pathCalculator.getLandmarks(region);
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            RegionIO.writeLandmarks(writer, landmarks);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
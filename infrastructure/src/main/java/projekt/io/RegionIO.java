@@ -1,11 +1,14 @@
 package projekt.io;
 
+import org.jetbrains.annotations.Nullable;
 import projekt.base.ChessboardDistanceCalculator;
 import projekt.base.DistanceCalculator;
 import projekt.base.EuclideanDistanceCalculator;
 import projekt.base.Location;
 import projekt.base.ManhattanDistanceCalculator;
+import projekt.delivery.routing.Landmarks;
 import projekt.delivery.routing.Region;
+import projekt.delivery.routing.RegionGraph;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
@@ -27,8 +30,15 @@ public class RegionIO {
             ManhattanDistanceCalculator.class.getSimpleName(),
             ManhattanDistanceCalculator::new);
 
+    /**
+     * Reads a {@link Region} in the format written by {@link #writeRegion(BufferedWriter, Region)}. The components are
+     * collected by a {@link Region.BulkBuilder}, so large generated or imported regions can be read as well.
+     *
+     * @param reader The reader to read from.
+     * @return The read {@link Region}.
+     */
     public static Region readRegion(BufferedReader reader) {
-        Region.Builder builder = Region.builder();
+        Region.BulkBuilder builder = Region.bulkBuilder(0, 0);
 
         try {
 
@@ -44,7 +54,7 @@ public class RegionIO {
                     String[] serializedNode = line.substring(2).split(",", 3);
                     builder.addNode(serializedNode[0], parseLocation(serializedNode[1], serializedNode[2]));
                 } else if (line.startsWith("NH ")) {
-                    String[] serializedNode = line.substring(2).split(",", 3);
+                    String[] serializedNode = line.substring(3).split(",", 3);
                     builder.addNeighborhood(serializedNode[0], parseLocation(serializedNode[1], serializedNode[2]));
                 } else if (line.startsWith("R ")) {
                     String[] serializedNode = line.substring(2).split(",");
@@ -52,8 +62,9 @@ public class RegionIO {
                     List<String> availableFood = new ArrayList<>(Arrays.asList(serializedNode)
                                                                        .subList(3, serializedNode.length));
 
-                    builder.addRestaurant(parseLocation(serializedNode[1], serializedNode[2]),
-                                          new Region.Restaurant.Preset(serializedNode[0], availableFood));
+                    builder.addRestaurant(serializedNode[0],
+                                          parseLocation(serializedNode[1], serializedNode[2]),
+                                          availableFood);
                 } else if (line.startsWith("E ")) {
                     String[] serializedEdge = line.substring(2).split(",", 5);
                     builder.addEdge(serializedEdge[0],
@@ -111,6 +122,107 @@ public class RegionIO {
         }
     }
 
+    /**
+     * Reads the {@link Landmarks} of the given {@link Region}.<p>
+     * <p>
+     * The section starts with "START LANDMARKS" and ends with "END LANDMARKS". It contains the fingerprint of the
+     * {@link RegionGraph} the {@link Landmarks} have been selected for and one line per landmark with its location
+     * followed by the durations of all nodes in the order of the {@link RegionGraph}, -1 marking nodes that are not
+     * connected to the landmark.
+     *
+     * @param reader The reader to read from.
+     * @param region The {@link Region} the {@link Landmarks} have been selected for.
+     * @return The read {@link Landmarks} or {@code null} if they have been selected for a different {@link Region}.
+     */
+    public static @Nullable Landmarks readLandmarks(BufferedReader reader, Region region) {
+        RegionGraph graph = region.getGraph();
+        List<Integer> nodes = new ArrayList<>();
+        List<long[]> columns = new ArrayList<>();
+        boolean matches = true;
+
+        try {
+            String line = reader.readLine();
+
+            if (!Objects.equals(line, "START LANDMARKS")) {
+                throw new RuntimeException("input does not start with \"START LANDMARKS\"");
+            }
+
+            while (!Objects.equals(line = reader.readLine(), "END LANDMARKS")) {
+
+                if (line == null) {
+                    throw new RuntimeException("input does not end with \"END LANDMARKS\"");
+                } else if (line.startsWith("F ")) {
+                    matches &= Long.parseLong(line.substring(2)) == graph.fingerprint();
+                } else if (line.startsWith("L ")) {
+                    String[] serializedLandmark = line.substring(2).split(",");
+                    int node = graph.indexOf(parseLocation(serializedLandmark[0], serializedLandmark[1]));
+                    matches &= node >= 0 && serializedLandmark.length == graph.nodeCount() + 2;
+                    if (matches) {
+                        long[] column = new long[graph.nodeCount()];
+                        for (int v = 0; v < column.length; v++) {
+                            long duration = Long.parseLong(serializedLandmark[v + 2]);
+                            column[v] = duration < 0 ? Long.MAX_VALUE : duration;
+                        }
+                        nodes.add(node);
+                        columns.add(column);
+                    }
+                } else {
+                    throw new RuntimeException("Illegal line read: %s".formatted(line));
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        if (!matches) {
+            return null;
+        }
+
+        long[] durations = new long[graph.nodeCount() * nodes.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            for (int v = 0; v < graph.nodeCount(); v++) {
+                durations[v * nodes.size() + i] = columns.get(i)[v];
+            }
+        }
+        try {
+            return Landmarks.restore(graph, nodes.stream().mapToInt(Integer::intValue).toArray(), durations);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Writes the given {@link Landmarks} in the format read by {@link #readLandmarks(BufferedReader, Region)}.
+     *
+     * @param writer    The writer to write to.
+     * @param landmarks The {@link Landmarks} to write.
+     */
+    public static void writeLandmarks(BufferedWriter writer, Landmarks landmarks) {
+        RegionGraph graph = landmarks.getGraph();
+        int[] nodes = landmarks.getNodes();
+        long[] durations = landmarks.getDurations();
+
+        try {
+            writer.write("START LANDMARKS\n");
+
+            writer.write("F %d\n".formatted(graph.fingerprint()));
+
+            for (int i = 0; i < nodes.length; i++) {
+                Location location = graph.getNode(nodes[i]).getLocation();
+                StringBuilder builder = new StringBuilder("L %d,%d".formatted(location.getX(), location.getY()));
+                for (int v = 0; v < graph.nodeCount(); v++) {
+                    long duration = durations[v * nodes.length + i];
+                    builder.append(',').append(duration == Long.MAX_VALUE ? -1 : duration);
+                }
+                writer.write(builder.append('\n').toString());
+            }
+
+            writer.write("END LANDMARKS\n");
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private static String serializeNode(Region.Node node) {
         return "%s,%d,%d".formatted(node.getName(), node.getLocation().getX(), node.getLocation().getY());
     }
@@ -0,0 +1,428 @@
+package projekt.io;
+
+import projekt.base.DistanceCalculator;
+import projekt.base.Location;
+import projekt.delivery.routing.Region;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The road network read by an importer of {@link RoadNetworkIO}, stored in arrays until it is turned into a
+ * {@link Region}. Only the ids of points at the same {@link Location} are looked up in a {@link HashMap}.<p>
+ * <p>
+ * Importers add points, the ways between them and amenities at points, points at the same {@link Location} are
+ * merged. When the {@link Region} is built, every way is split at junctions, i.e. points at the end of a way or shared
+ * by several ways. The points in between, which have exactly two neighbors, are collapsed: every part of a way
+ * becomes a single {@link Region.Edge} whose duration is the length of the part. Amenities are moved to the closest
+ * point of a way, turning it into a junction that becomes a {@link Region.Restaurant} or {@link Region.Neighborhood}.
+ * Only the largest connected part of the network is kept.
+ */
+class RoadNetwork {
+
+    private final DistanceCalculator distanceCalculator;
+    private final Map<Location, Integer> pointsByLocation = new HashMap<>();
+    private Location[] locations = new Location[1024];
+    private int pointCount;
+    /**
+     * The points of way w are wayPoints[wayStarts[w]] to wayPoints[wayStarts[w + 1] - 1].
+     */
+    private int[] wayPoints = new int[1024];
+    private int[] wayStarts = new int[1025];
+    /**
+     * The duration of every way or -1 if it is the length of the way.
+     */
+    private long[] wayDurations = new long[1024];
+    private int wayCount;
+    private final List<Amenity> amenities = new ArrayList<>();
+
+    RoadNetwork(DistanceCalculator distanceCalculator) {
+        this.distanceCalculator = distanceCalculator;
+    }
+
+    /**
+     * Adds a point at the given {@link Location}. Points at the same {@link Location} are the same point.
+     *
+     * @return The id of the point.
+     */
+    int addPoint(Location location) {
+        Integer point = pointsByLocation.putIfAbsent(location, pointCount);
+        if (point != null) {
+            return point;
+        }
+        if (pointCount == locations.length) {
+            locations = Arrays.copyOf(locations, pointCount * 2);
+        }
+        locations[pointCount] = location;
+        return pointCount++;
+    }
+
+    /**
+     * Adds a way through the given points.
+     *
+     * @param points   The ids of the points.
+     * @param count    The amount of points of the way.
+     * @param duration The duration of the way or -1 if it is the length of the way.
+     */
+    void addWay(int[] points, int count, long duration) {
+        if (count < 2) {
+            return;
+        }
+        int start = wayStarts[wayCount];
+        if (start + count > wayPoints.length) {
+            wayPoints = Arrays.copyOf(wayPoints, Math.max(wayPoints.length * 2, start + count));
+        }
+        if (wayCount + 1 == wayDurations.length) {
+            wayDurations = Arrays.copyOf(wayDurations, wayDurations.length * 2);
+            wayStarts = Arrays.copyOf(wayStarts, wayDurations.length + 1);
+        }
+        System.arraycopy(points, 0, wayPoints, start, count);
+        wayDurations[wayCount] = duration;
+        wayStarts[++wayCount] = start + count;
+    }
+
+    /**
+     * Adds a {@link Region.Restaurant} at the given point.
+     */
+    void addRestaurant(int point, String name, List<String> availableFood) {
+        amenities.add(new Amenity(point, name, availableFood));
+    }
+
+    /**
+     * Adds a {@link Region.Neighborhood} at the given point.
+     */
+    void addNeighborhood(int point, String name) {
+        amenities.add(new Amenity(point, name, null));
+    }
+
+    /**
+     * Returns the amount of ways added so far.
+     */
+    int getWayCount() {
+        return wayCount;
+    }
+
+    /**
+     * Adds the nodes and edges of the largest connected part of this road network to the given
+     * {@link Region.BulkBuilder}.
+     *
+     * @return The statistics of the added network, without the times of the import.
+     */
+    Statistics build(Region.BulkBuilder builder) {
+        // a point is a junction if it ends a way or is shared by ways, i.e. if it occurs more than once as inner point
+        int[] occurrences = new int[pointCount];
+        boolean[] road = new boolean[pointCount];
+        for (int way = 0; way < wayCount; way++) {
+            occurrences[wayPoints[wayStarts[way]]] += 2;
+            occurrences[wayPoints[wayStarts[way + 1] - 1]] += 2;
+            for (int i = wayStarts[way]; i < wayStarts[way + 1]; i++) {
+                occurrences[wayPoints[i]]++;
+                road[wayPoints[i]] = true;
+            }
+        }
+        Amenity[] amenitiesByPoint = new Amenity[pointCount];
+        int droppedAmenities = snapAmenities(road, amenitiesByPoint);
+        boolean[] junction = new boolean[pointCount];
+        for (int point = 0; point < pointCount; point++) {
+            junction[point] = occurrences[point] > 1 || amenitiesByPoint[point] != null;
+        }
+
+        Segments segments = split(junction);
+        int[] parents = new int[pointCount];
+        int[] sizes = new int[pointCount];
+        for (int point = 0; point < pointCount; point++) {
+            parents[point] = point;
+            sizes[point] = junction[point] && road[point] ? 1 : 0;
+        }
+        for (int i = 0; i < segments.size; i++) {
+            int rootA = find(parents, segments.pointsA[i]);
+            int rootB = find(parents, segments.pointsB[i]);
+            if (rootA != rootB) {
+                parents[rootB] = rootA;
+                sizes[rootA] += sizes[rootB];
+            }
+        }
+        int largest = -1;
+        for (int point = 0; point < pointCount; point++) {
+            if (parents[point] == point && (largest < 0 || sizes[point] > sizes[largest])) {
+                largest = point;
+            }
+        }
+
+        Set<String> names = new HashSet<>();
+        int nodeCount = 0;
+        int restaurantCount = 0;
+        int neighborhoodCount = 0;
+        int roadPoints = 0;
+        for (int point = 0; point < pointCount; point++) {
+            roadPoints += road[point] ? 1 : 0;
+            if (!junction[point] || !road[point] || find(parents, point) != largest) {
+                continue;
+            }
+            nodeCount++;
+            Amenity amenity = amenitiesByPoint[point];
+            if (amenity == null) {
+                builder.addNode(uniqueName(names, "N" + point), locations[point]);
+            } else if (amenity.availableFood == null) {
+                builder.addNeighborhood(uniqueName(names, amenity.name), locations[point]);
+                neighborhoodCount++;
+            } else {
+                builder.addRestaurant(uniqueName(names, amenity.name), locations[point], amenity.availableFood);
+                restaurantCount++;
+            }
+        }
+        int edgeCount = 0;
+        for (int i = 0; i < segments.size; i++) {
+            if (find(parents, segments.pointsA[i]) == largest) {
+                builder.addEdge(uniqueName(names, "E" + i),
+                                locations[segments.pointsA[i]],
+                                locations[segments.pointsB[i]],
+                                segments.durations[i]);
+                edgeCount++;
+            }
+        }
+        for (Amenity amenity : amenitiesByPoint) {
+            if (amenity != null && find(parents, amenity.point) != largest) {
+                droppedAmenities++;
+            }
+        }
+        return new Statistics(pointCount,
+                              wayCount,
+                              nodeCount,
+                              edgeCount,
+                              restaurantCount,
+                              neighborhoodCount,
+                              roadPoints - nodeCount,
+                              droppedAmenities);
+    }
+
+    /**
+     * Moves every amenity to the closest point of a way. If several amenities end up at the same point, only the
+     * first one is kept.
+     *
+     * @return The amount of amenities that have not been kept.
+     */
+    private int snapAmenities(boolean[] road, Amenity[] amenitiesByPoint) {
+        if (amenities.isEmpty()) {
+            return 0;
+        }
+        Cells cells = new Cells(road);
+        int dropped = 0;
+        for (Amenity amenity : amenities) {
+            int point = road[amenity.point] ? amenity.point : cells.nearest(locations[amenity.point]);
+            if (point < 0 || amenitiesByPoint[point] != null) {
+                dropped++;
+            } else {
+                amenitiesByPoint[point] = new Amenity(point, amenity.name, amenity.availableFood);
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Splits all ways at the given junctions. Parts that start and end at the same junction are dropped, of parts
+     * connecting the same junctions only the fastest is kept.
+     */
+    private Segments split(boolean[] junction) {
+        Segments segments = new Segments();
+        Map<Long, Integer> segmentsByPoints = new HashMap<>();
+        for (int way = 0; way < wayCount; way++) {
+            int start = wayPoints[wayStarts[way]];
+            double length = 0;
+            for (int i = wayStarts[way] + 1; i < wayStarts[way + 1]; i++) {
+                int point = wayPoints[i];
+                length += distanceCalculator.calculateDistance(locations[wayPoints[i - 1]], locations[point]);
+                if (!junction[point]) {
+                    continue;
+                }
+                long duration = wayDurations[way] >= 0 ? wayDurations[way] : (long) Math.ceil(length);
+                if (point != start) {
+                    long key = (long) Math.min(start, point) << 32 | Math.max(start, point);
+                    Integer existing = segmentsByPoints.putIfAbsent(key, segments.size);
+                    if (existing == null) {
+                        segments.add(start, point, duration);
+                    } else {
+                        segments.durations[existing] = Math.min(segments.durations[existing], duration);
+                    }
+                }
+                start = point;
+                length = 0;
+            }
+        }
+        return segments;
+    }
+
+    private static int find(int[] parents, int point) {
+        while (parents[point] != point) {
+            parents[point] = parents[parents[point]];
+            point = parents[point];
+        }
+        return point;
+    }
+
+    private static String uniqueName(Set<String> names, String name) {
+        // names are written to comma separated files
+        String sanitized = name.replace(',', ' ').replace('\n', ' ').strip();
+        String unique = sanitized;
+        for (int i = 2; !names.add(unique); i++) {
+            unique = sanitized + " (" + i + ")";
+        }
+        return unique;
+    }
+
+    /**
+     * The statistics of a built road network.
+     *
+     * @param pointsRead        The amount of points read.
+     * @param waysRead          The amount of ways read.
+     * @param nodeCount         The amount of created nodes.
+     * @param edgeCount         The amount of created edges.
+     * @param restaurantCount   The amount of created restaurants.
+     * @param neighborhoodCount The amount of created neighborhoods.
+     * @param collapsedPoints   The amount of points of ways that did not become nodes, because they have been
+     *                          collapsed or are not part of the largest connected part.
+     * @param droppedAmenities  The amount of amenities that did not become nodes.
+     */
+    record Statistics(int pointsRead,
+                      int waysRead,
+                      int nodeCount,
+                      int edgeCount,
+                      int restaurantCount,
+                      int neighborhoodCount,
+                      int collapsedPoints,
+                      int droppedAmenities) {
+    }
+
+    /**
+     * An amenity at a point. Neighborhoods do not have any available food.
+     */
+    private record Amenity(int point, String name, @Nullable List<String> availableFood) {
+    }
+
+    /**
+     * The parts of the ways between junctions.
+     */
+    private static final class Segments {
+
+        private int[] pointsA = new int[1024];
+        private int[] pointsB = new int[1024];
+        private long[] durations = new long[1024];
+        private int size;
+
+        private void add(int pointA, int pointB, long duration) {
+            if (size == pointsA.length) {
+                pointsA = Arrays.copyOf(pointsA, size * 2);
+                pointsB = Arrays.copyOf(pointsB, size * 2);
+                durations = Arrays.copyOf(durations, size * 2);
+            }
+            pointsA[size] = pointA;
+            pointsB[size] = pointB;
+            durations[size++] = duration;
+        }
+    }
+
+    /**
+     * The points of ways sorted into a grid of square cells, with about one point per cell, for nearest point
+     * searches.
+     */
+    private final class Cells {
+
+        private final int minX;
+        private final int minY;
+        private final long size;
+        private final int columns;
+        private final int rows;
+        /**
+         * The points in cell c are points[starts[c]] to points[starts[c + 1] - 1].
+         */
+        private final int[] starts;
+        private final int[] points;
+
+        private Cells(boolean[] road) {
+            int count = 0;
+            int minX = Integer.MAX_VALUE;
+            int minY = Integer.MAX_VALUE;
+            int maxX = Integer.MIN_VALUE;
+            int maxY = Integer.MIN_VALUE;
+            for (int point = 0; point < pointCount; point++) {
+                if (road[point]) {
+                    count++;
+                    minX = Math.min(minX, locations[point].getX());
+                    minY = Math.min(minY, locations[point].getY());
+                    maxX = Math.max(maxX, locations[point].getX());
+                    maxY = Math.max(maxY, locations[point].getY());
+                }
+            }
+            this.minX = minX;
+            this.minY = minY;
+            long width = count == 0 ? 1 : (long) maxX - minX + 1;
+            long height = count == 0 ? 1 : (long) maxY - minY + 1;
+            this.size = Math.max(1, (long) Math.ceil(Math.sqrt((double) width * height / Math.max(count, 1))));
+            this.columns = (int) ((width + size - 1) / size);
+            this.rows = (int) ((height + size - 1) / size);
+            this.starts = new int[columns * rows + 1];
+            this.points = new int[count];
+            for (int point = 0; point < pointCount; point++) {
+                if (road[point]) {
+                    starts[cell(locations[point]) + 1]++;
+                }
+            }
+            for (int c = 0; c < columns * rows; c++) {
+                starts[c + 1] += starts[c];
+            }
+            int[] next = Arrays.copyOf(starts, columns * rows);
+            for (int point = 0; point < pointCount; point++) {
+                if (road[point]) {
+                    points[next[cell(locations[point])]++] = point;
+                }
+            }
+        }
+
+        private int cell(Location location) {
+            return (int) ((location.getY() - minY) / size) * columns + (int) ((location.getX() - minX) / size);
+        }
+
+        /**
+         * Returns the point closest to the given {@link Location} or -1 if there are no points, searching the cells
+         * ring by ring around the cell of the {@link Location}.
+         */
+        private int nearest(Location location) {
+            long x = Math.max(0, Math.min(columns - 1, ((long) location.getX() - minX) / size));
+            long y = Math.max(0, Math.min(rows - 1, ((long) location.getY() - minY) / size));
+            int nearest = -1;
+            long nearestDistance = Long.MAX_VALUE;
+            for (long ring = 0; ring < Math.max(columns, rows); ring++) {
+                for (long cy = Math.max(0, y - ring); cy <= Math.min(rows - 1, y + ring); cy++) {
+                    long step = cy == y - ring || cy == y + ring ? 1 : Math.max(1, 2 * ring);
+                    for (long cx = x - ring; cx <= x + ring; cx += step) {
+                        if (cx < 0 || cx >= columns) {
+                            continue;
+                        }
+                        int c = (int) (cy * columns + cx);
+                        for (int i = starts[c]; i < starts[c + 1]; i++) {
+                            long dx = (long) locations[points[i]].getX() - location.getX();
+                            long dy = (long) locations[points[i]].getY() - location.getY();
+                            if (dx * dx + dy * dy < nearestDistance) {
+                                nearest = points[i];
+                                nearestDistance = dx * dx + dy * dy;
+                            }
+                        }
+                    }
+                }
+                // points outside of the searched rings are at least ring * size away
+                double reach = (double) ring * size;
+                if (nearest >= 0 && nearestDistance <= reach * reach) {
+                    break;
+                }
+            }
+            return nearest;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package projekt.io;
+
+import projekt.base.DistanceCalculator;
+import projekt.base.Location;
+import projekt.delivery.routing.Region;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Imports {@link Region}s from road networks stored in local files.<p>
+ * <p>
+ * Both formats are read as a stream: only the points and ways of the road network are kept and the {@link Region} is
+ * created with a {@link Region.BulkBuilder}. The ways are stored in primitive arrays, the points are looked up by
+ * their OSM ids and {@link Location}s in {@link HashMap}s. Chains of road points with exactly two neighbors
+ * are collapsed into single edges whose durations are the lengths of the chains and amenities are moved to the
+ * closest road point. Only the largest connected part of the road network is imported.
+ */
+public class RoadNetworkIO {
+
+    private static final Set<String> RESTAURANT_AMENITIES = Set.of("restaurant", "fast_food", "cafe", "food_court");
+
+    private static final Set<String> NEIGHBORHOOD_PLACES = Set.of("neighbourhood",
+                                                                  "suburb",
+                                                                  "quarter",
+                                                                  "city_block",
+                                                                  "hamlet");
+
+    private static final Set<String> IGNORED_HIGHWAYS = Set.of("footway",
+                                                               "path",
+                                                               "cycleway",
+                                                               "steps",
+                                                               "pedestrian",
+                                                               "bridleway",
+                                                               "corridor",
+                                                               "platform",
+                                                               "elevator",
+                                                               "proposed",
+                                                               "construction",
+                                                               "raceway");
+
+    private static final double METERS_PER_DEGREE = 111_320;
+
+    /**
+     * Reads the road network of an OpenStreetMap XML extract.<p>
+     * <p>
+     * Ways with a {@code highway} tag, except for footways, cycleways and similar, are roads. Their points are
+     * projected to {@link Location}s in meters relative to the first node of the extract, with x growing to the east
+     * and y growing to the south. Nodes tagged with {@code amenity=restaurant}, {@code fast_food}, {@code cafe} or
+     * {@code food_court} become {@link Region.Restaurant}s serving the food of their {@code cuisine} tag, nodes tagged
+     * with {@code place=neighbourhood}, {@code suburb}, {@code quarter}, {@code city_block} or {@code hamlet} become
+     * {@link Region.Neighborhood}s. The durations of the edges are the lengths of the roads in meters.
+     *
+     * @param input              The extract to read.
+     * @param distanceCalculator The {@link DistanceCalculator} of the imported {@link Region}.
+     * @return The imported {@link Region} and the {@link Report} of the import.
+     */
+    public static Result readOsm(InputStream input, DistanceCalculator distanceCalculator) {
+        long start = System.nanoTime();
+        RoadNetwork network = new RoadNetwork(distanceCalculator);
+        Map<Long, Integer> points = new HashMap<>();
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        double originLatitude = Double.NaN;
+        double originLongitude = Double.NaN;
+        double scale = 1;
+        int[] way = new int[64];
+        int wayLength = 0;
+        boolean inWay = false;
+        boolean road = false;
+        int node = -1;
+        long nodeId = 0;
+        Map<String, String> tags = new HashMap<>();
+
+        try {
+            XMLStreamReader reader = factory.createXMLStreamReader(input);
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "node" -> {
+                            nodeId = Long.parseLong(reader.getAttributeValue(null, "id"));
+                            double latitude = Double.parseDouble(reader.getAttributeValue(null, "lat"));
+                            double longitude = Double.parseDouble(reader.getAttributeValue(null, "lon"));
+                            if (Double.isNaN(originLatitude)) {
+                                originLatitude = latitude;
+                                originLongitude = longitude;
+                                scale = Math.cos(Math.toRadians(latitude));
+                            }
+                            Location location = new Location(
+                                (int) Math.round((longitude - originLongitude) * scale * METERS_PER_DEGREE),
+                                (int) Math.round((originLatitude - latitude) * METERS_PER_DEGREE));
+                            node = network.addPoint(location);
+                            points.put(nodeId, node);
+                            tags.clear();
+                        }
+                        case "way" -> {
+                            inWay = true;
+                            road = false;
+                            wayLength = 0;
+                        }
+                        case "nd" -> {
+                            if (inWay) {
+                                if (wayLength == way.length) {
+                                    way = Arrays.copyOf(way, wayLength * 2);
+                                }
+                                Integer point = points.get(Long.parseLong(reader.getAttributeValue(null, "ref")));
+                                // points outside of the extract split the way
+                                way[wayLength++] = point == null ? -1 : point;
+                            }
+                        }
+                        case "tag" -> {
+                            String key = reader.getAttributeValue(null, "k");
+                            String value = reader.getAttributeValue(null, "v");
+                            if (inWay) {
+                                road |= key.equals("highway") && !IGNORED_HIGHWAYS.contains(value);
+                            } else if (node >= 0) {
+                                tags.put(key, value);
+                            }
+                        }
+                        default -> {
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "node" -> {
+                            addAmenity(network, node, nodeId, tags);
+                            node = -1;
+                        }
+                        case "way" -> {
+                            if (road) {
+                                addWay(network, way, wayLength);
+                            }
+                            inWay = false;
+                        }
+                        default -> {
+                        }
+                    }
+                }
+            }
+            reader.close();
+        } catch (XMLStreamException | RuntimeException e) {
+            throw new RuntimeException("Could not read OSM extract", e);
+        }
+
+        return build(network, distanceCalculator, start);
+    }
+
+    private static void addAmenity(RoadNetwork network, int node, long nodeId, Map<String, String> tags) {
+        String amenity = tags.get("amenity");
+        String place = tags.get("place");
+        if (amenity != null && RESTAURANT_AMENITIES.contains(amenity)) {
+            String cuisine = tags.get("cuisine");
+            List<String> availableFood = cuisine == null
+                ? List.of(amenity.replace('_', ' '))
+                : Arrays.stream(cuisine.split(";")).map(food -> food.strip().replace('_', ' ')).toList();
+            network.addRestaurant(node, tags.getOrDefault("name", "Restaurant " + nodeId), availableFood);
+        } else if (place != null && NEIGHBORHOOD_PLACES.contains(place)) {
+            network.addNeighborhood(node, tags.getOrDefault("name", "Neighborhood " + nodeId));
+        }
+    }
+
+    /**
+     * Adds the parts of the given way between points outside of the extract.
+     */
+    private static void addWay(RoadNetwork network, int[] way, int wayLength) {
+        int from = 0;
+        for (int i = 0; i <= wayLength; i++) {
+            if (i == wayLength || way[i] < 0) {
+                if (from > 0) {
+                    network.addWay(Arrays.copyOfRange(way, from, i), i - from, -1);
+                } else {
+                    network.addWay(way, i, -1);
+                }
+                from = i + 1;
+            }
+        }
+    }
+
+    /**
+     * Reads the road network of a comma separated edge list.<p>
+     * <p>
+     * Every line contains either a road from {@code xA,yA} to {@code xB,yB}, optionally followed by its duration
+     * ({@code xA,yA,xB,yB[,duration]}), a restaurant ({@code restaurant,x,y,name[,food...]}) or a neighborhood
+     * ({@code neighborhood,x,y,name}). Empty lines and lines starting with {@code #} are ignored. Roads without a
+     * duration take as long as their length.
+     *
+     * @param reader             The reader to read from.
+     * @param distanceCalculator The {@link DistanceCalculator} of the imported {@link Region}.
+     * @return The imported {@link Region} and the {@link Report} of the import.
+     */
+    public static Result readCsv(BufferedReader reader, DistanceCalculator distanceCalculator) {
+        long start = System.nanoTime();
+        RoadNetwork network = new RoadNetwork(distanceCalculator);
+        int[] way = new int[2];
+
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] values = line.split(",");
+                try {
+                    if (values[0].equals("restaurant") && values.length >= 4) {
+                        network.addRestaurant(network.addPoint(parseLocation(values[1], values[2])),
+                                              values[3],
+                                              List.of(values).subList(4, values.length));
+                    } else if (values[0].equals("neighborhood") && values.length == 4) {
+                        network.addNeighborhood(network.addPoint(parseLocation(values[1], values[2])), values[3]);
+                    } else if (values.length == 4 || values.length == 5) {
+                        way[0] = network.addPoint(parseLocation(values[0], values[1]));
+                        way[1] = network.addPoint(parseLocation(values[2], values[3]));
+                        network.addWay(way, 2, values.length == 5 ? Long.parseLong(values[4].strip()) : -1);
+                    } else {
+                        throw new RuntimeException("Illegal line read: %s".formatted(line));
+                    }
+                } catch (NumberFormatException e) {
+                    throw new RuntimeException("Illegal line read: %s".formatted(line), e);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        return build(network, distanceCalculator, start);
+    }
+
+    private static Location parseLocation(String x, String y) {
+        return new Location(Integer.parseInt(x.strip()), Integer.parseInt(y.strip()));
+    }
+
+    private static Result build(RoadNetwork network, DistanceCalculator distanceCalculator, long start) {
+        Region.BulkBuilder builder = Region.bulkBuilder(network.getWayCount(), network.getWayCount())
+                                           .distanceCalculator(distanceCalculator);
+        RoadNetwork.Statistics statistics = network.build(builder);
+        Region region = builder.build();
+        return new Result(region, new Report(statistics.pointsRead(),
+                                             statistics.waysRead(),
+                                             statistics.nodeCount(),
+                                             statistics.edgeCount(),
+                                             statistics.restaurantCount(),
+                                             statistics.neighborhoodCount(),
+                                             statistics.collapsedPoints(),
+                                             statistics.droppedAmenities(),
+                                             System.nanoTime() - start));
+    }
+
+    /**
+     * The result of an import.
+     *
+     * @param region The imported {@link Region}.
+     * @param report The {@link Report} of the import.
+     */
+    public record Result(Region region, Report report) {
+    }
+
+    /**
+     * The statistics of an import.
+     *
+     * @param pointsRead        The amount of points read, i.e. OSM nodes or distinct locations of a CSV file.
+     * @param waysRead          The amount of roads read.
+     * @param nodeCount         The amount of nodes of the imported {@link Region}.
+     * @param edgeCount         The amount of edges of the imported {@link Region}.
+     * @param restaurantCount   The amount of {@link Region.Restaurant}s of the imported {@link Region}.
+     * @param neighborhoodCount The amount of {@link Region.Neighborhood}s of the imported {@link Region}.
+     * @param collapsedPoints   The amount of road points that did not become nodes, because they have been
+     *                          collapsed or are not part of the largest connected part.
+     * @param droppedAmenities  The amount of amenities that did not become nodes.
+     * @param nanos             The duration of the import in nanoseconds.
+     */
+    public record Report(int pointsRead,
+                         int waysRead,
+                         int nodeCount,
+                         int edgeCount,
+                         int restaurantCount,
+                         int neighborhoodCount,
+                         int collapsedPoints,
+                         int droppedAmenities,
+                         long nanos) {
+
+        /**
+         * Returns the throughput of the import.
+         *
+         * @return The amount of points read per second.
+         */
+        public double nodesPerSecond() {
+            return nanos == 0 ? 0 : pointsRead * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return "%d points and %d roads read, %d nodes (%d restaurants, %d neighborhoods) and %d edges imported, "
+                .formatted(pointsRead, waysRead, nodeCount, restaurantCount, neighborhoodCount, edgeCount)
+                + "%d points collapsed, %d amenities dropped in %d ms (%.0f nodes/s)"
+                .formatted(collapsedPoints, droppedAmenities, nanos / 1_000_000, nodesPerSecond());
+        }
+    }
+}
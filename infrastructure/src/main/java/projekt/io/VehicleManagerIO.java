@@ -1,27 +1,77 @@
 package projekt.io;
 
 import projekt.base.Location;
+import projekt.delivery.routing.AStarPathCalculator;
+import projekt.delivery.routing.BidirectionalDijkstraPathCalculator;
 import projekt.delivery.routing.CachedPathCalculator;
+import projekt.delivery.routing.ContractionHierarchyPathCalculator;
 import projekt.delivery.routing.DijkstraPathCalculator;
+import projekt.delivery.routing.LandmarkPathCalculator;
+import projekt.delivery.routing.MatrixPathCalculator;
 import projekt.delivery.routing.PathCalculator;
 import projekt.delivery.routing.Region;
+import projekt.delivery.routing.TimeDependentPathCalculator;
 import projekt.delivery.routing.Vehicle;
 import projekt.delivery.routing.VehicleManager;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
-import java.util.function.Function;
+import java.util.Set;
+import java.util.function.BiFunction;
 
 public class VehicleManagerIO {
 
-    private static final Map<String, Function<Object, ? extends PathCalculator>> DESERIALIZED_PATH_CALCULATOR = Map.of(
-            CachedPathCalculator.class.getSimpleName(),
-            pathCalculator -> new CachedPathCalculator((PathCalculator) pathCalculator),
-            DijkstraPathCalculator.class.getSimpleName(),
-            ignored -> new DijkstraPathCalculator());
+    /**
+     * The deserializers of the {@link PathCalculator}s by their serialized names.
+     */
+    private static final Map<String, Deserializer> DESERIALIZED_PATH_CALCULATOR = Map.of(
+        CachedPathCalculator.class.getSimpleName(),
+        new Deserializer(Set.of(0, 2), true, true, (arguments, delegate) -> arguments.length == 0
+            ? new CachedPathCalculator(delegate)
+            : new CachedPathCalculator(delegate, Integer.parseInt(arguments[0]), Long.parseLong(arguments[1]))),
+        DijkstraPathCalculator.class.getSimpleName(),
+        new Deserializer(Set.of(0), false, false, (arguments, ignored) -> new DijkstraPathCalculator()),
+        AStarPathCalculator.class.getSimpleName(),
+        new Deserializer(Set.of(0), false, false, (arguments, ignored) -> new AStarPathCalculator()),
+        BidirectionalDijkstraPathCalculator.class.getSimpleName(),
+        new Deserializer(Set.of(0, 1), false, false, (arguments, ignored) -> new BidirectionalDijkstraPathCalculator(
+            arguments.length != 0 && Boolean.parseBoolean(arguments[0]))),
+        ContractionHierarchyPathCalculator.class.getSimpleName(),
+        new Deserializer(Set.of(0), false, false, (arguments, ignored) -> new ContractionHierarchyPathCalculator()),
+        LandmarkPathCalculator.class.getSimpleName(),
+        new Deserializer(Set.of(0, 1), false, false, (arguments, ignored) -> arguments.length == 0
+            ? new LandmarkPathCalculator()
+            : new LandmarkPathCalculator(Integer.parseInt(arguments[0]))),
+        TimeDependentPathCalculator.class.getSimpleName(),
+        new Deserializer(Set.of(0, 2), false, false, (arguments, ignored) -> arguments.length == 0
+            ? new TimeDependentPathCalculator()
+            : new TimeDependentPathCalculator(Long.parseLong(arguments[0]), Integer.parseInt(arguments[1]))),
+        MatrixPathCalculator.class.getSimpleName(),
+        new Deserializer(Set.of(0, 1), true, false, (arguments, delegate) -> arguments.length == 0 && delegate == null
+            ? new MatrixPathCalculator()
+            : new MatrixPathCalculator(delegate == null ? new DijkstraPathCalculator() : delegate,
+                                       arguments.length == 0
+                                           ? MatrixPathCalculator.DEFAULT_MAXIMUM_BYTES
+                                           : Long.parseLong(arguments[0]))));
+
+    /**
+     * Creates a {@link PathCalculator} from the arguments of its serialized name and the already deserialized
+     * {@link PathCalculator} that follows it, which is {@code null} for the last one.
+     *
+     * @param argumentCounts   The amounts of arguments the serialized name may have.
+     * @param acceptsDelegate  Whether a {@link PathCalculator} may follow, which is then wrapped.
+     * @param requiresDelegate Whether a {@link PathCalculator} has to follow.
+     * @param factory          Creates the {@link PathCalculator} from its arguments and the one that follows it.
+     */
+    private record Deserializer(Set<Integer> argumentCounts,
+                                boolean acceptsDelegate,
+                                boolean requiresDelegate,
+                                BiFunction<String[], PathCalculator, ? extends PathCalculator> factory) {
+    }
 
     public static VehicleManager readVehicleManager(BufferedReader reader, Region region) {
 
@@ -60,23 +110,32 @@ public class VehicleManagerIO {
 
     private static PathCalculator parsePathCalculator(String serializedPathCalculator) {
         String[] split = serializedPathCalculator.split(",");
-        PathCalculator currentPC;
-        try {
-            currentPC = DESERIALIZED_PATH_CALCULATOR.get(split[split.length - 1]).apply(null);
-        } catch (NullPointerException e) {
-            throw new RuntimeException("unknown name of pathCalculator: %s".formatted(serializedPathCalculator));
-        }
-
-        PathCalculator returnPC = currentPC;
-
-        //handle cached Path Calculators
-        for (int i = split.length - 2; i >= 0; i--) {
-            PathCalculator PC;
-            PC = DESERIALIZED_PATH_CALCULATOR.get(split[i]).apply(currentPC);
-            currentPC = PC;
+        PathCalculator currentPC = null;
+
+        //handle Path Calculators that wrap another one, like cached Path Calculators
+        for (int i = split.length - 1; i >= 0; i--) {
+            String[] nameAndArguments = split[i].split(":");
+            Deserializer deserializer = DESERIALIZED_PATH_CALCULATOR.get(nameAndArguments[0]);
+            if (deserializer == null) {
+                throw new RuntimeException("unknown name of pathCalculator: %s".formatted(serializedPathCalculator));
+            }
+            String[] arguments = Arrays.copyOfRange(nameAndArguments, 1, nameAndArguments.length);
+            if (!deserializer.argumentCounts().contains(arguments.length)) {
+                throw new RuntimeException("illegal amount of arguments for %s in pathCalculator: %s".formatted(
+                    nameAndArguments[0], serializedPathCalculator));
+            }
+            if (currentPC != null && !deserializer.acceptsDelegate()) {
+                throw new RuntimeException("%s cannot be followed by another pathCalculator: %s".formatted(
+                    nameAndArguments[0], serializedPathCalculator));
+            }
+            if (currentPC == null && deserializer.requiresDelegate()) {
+                throw new RuntimeException("%s has to be followed by another pathCalculator: %s".formatted(
+                    nameAndArguments[0], serializedPathCalculator));
+            }
+            currentPC = deserializer.factory().apply(arguments, currentPC);
         }
 
-        return returnPC;
+        return currentPC;
     }
 
     public static void writeVehicleManager(BufferedWriter writer, VehicleManager vehicleManager) {
@@ -102,15 +161,54 @@ public class VehicleManagerIO {
                                     Double.toString(vehicle.getCapacity()));
     }
 
+    /**
+     * Serializes the given {@link PathCalculator} and the {@link PathCalculator}s it delegates to as a comma separated
+     * list of their names, each followed by the colon separated arguments of its constructor.
+     *
+     * @throws IllegalArgumentException If a {@link PathCalculator} cannot be serialized, so reading it back would
+     *                                  silently change its configuration.
+     */
     private static String serializePathCalculator(PathCalculator pathCalculator) {
         StringBuilder sb = new StringBuilder();
-        sb.append(pathCalculator.getClass().getSimpleName());
+        sb.append(serializeName(pathCalculator));
+
+        while (true) {
+            if (pathCalculator instanceof CachedPathCalculator cachedPathCalculator) {
+                sb.append(":%d:%d".formatted(cachedPathCalculator.getSize(), cachedPathCalculator.getMaximumBytes()));
+                pathCalculator = cachedPathCalculator.getDelegate();
+            } else if (pathCalculator instanceof MatrixPathCalculator matrixPathCalculator) {
+                sb.append(":%d".formatted(matrixPathCalculator.getMaximumBytes()));
+                pathCalculator = matrixPathCalculator.getDelegate();
+            } else {
+                break;
+            }
+            sb.append(",%s".formatted(serializeName(pathCalculator)));
+        }
 
-        while (pathCalculator instanceof CachedPathCalculator cachedPathCalculator) {
-            pathCalculator = cachedPathCalculator.getDelegate();
-            sb.append(",%s".formatted(pathCalculator.getClass().getSimpleName()));
+        if (pathCalculator instanceof LandmarkPathCalculator landmarkPathCalculator) {
+            sb.append(":%d".formatted(landmarkPathCalculator.getLandmarkCount()));
+        } else if (pathCalculator instanceof BidirectionalDijkstraPathCalculator bidirectionalPathCalculator) {
+            sb.append(":%b".formatted(bidirectionalPathCalculator.isCrossCheck()));
+        } else if (pathCalculator instanceof TimeDependentPathCalculator timeDependentPathCalculator) {
+            if (!timeDependentPathCalculator.usesVehicleManagerTick()) {
+                throw new IllegalArgumentException("cannot serialize the departure tick of pathCalculator: %s"
+                                                       .formatted(pathCalculator.getClass().getName()));
+            }
+            sb.append(":%d:%d".formatted(timeDependentPathCalculator.getBucketSize(),
+                                         timeDependentPathCalculator.getCacheSize()));
         }
 
         return sb.toString();
     }
+
+    private static String serializeName(PathCalculator pathCalculator) {
+        String name = pathCalculator.getClass().getSimpleName();
+        // subclasses and other path calculators cannot be created again
+        if (!DESERIALIZED_PATH_CALCULATOR.containsKey(name)
+            || !pathCalculator.getClass().getPackage().equals(PathCalculator.class.getPackage())) {
+            throw new IllegalArgumentException("cannot serialize pathCalculator: %s".formatted(
+                pathCalculator.getClass().getName()));
+        }
+        return name;
+    }
 }
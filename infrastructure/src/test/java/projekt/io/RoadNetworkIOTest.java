@@ -0,0 +1,129 @@
+package projekt.io;
+
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+import projekt.delivery.routing.Region;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RoadNetworkIOTest {
+
+    /*
+     * road-network.osm, projected to meters:
+     *
+     * (0,0) ----- (111,0) ----- (223,0)
+     *   |         Pizzeria         |
+     * (0,111) ..... footway ..... (223,111)
+     *                                |
+     *                             (223,223)    (1113,1113) --- (1225,1113)
+     *                                              Nord
+     *
+     * (223,0) is collapsed, the service road is split between (223,223) and (0,111) at a node outside of the
+     * extract and the road at (1113,1113) is not part of the largest connected part.
+     */
+    @Test
+    void readsOsm() throws IOException {
+        RoadNetworkIO.Result result;
+        try (InputStream input = RoadNetworkIOTest.class.getResourceAsStream("road-network.osm")) {
+            result = RoadNetworkIO.readOsm(input, new EuclideanDistanceCalculator());
+        }
+        Region region = result.region();
+
+        Assertions.assertEquals(5, region.getNodes().size());
+        assertNode(region, "N0", 0, 0);
+        assertNode(region, "N3", 223, 111);
+        assertNode(region, "N4", 223, 223);
+        assertNode(region, "N5", 0, 111);
+        Region.Restaurant restaurant = (Region.Restaurant) assertNode(region, "Pizzeria", 111, 0);
+        Assertions.assertEquals(List.of("pizza", "ice cream"), restaurant.getAvailableFood());
+
+        Assertions.assertEquals(4, region.getEdges().size());
+        assertEdge(region, 0, 0, 111, 0, 111);
+        assertEdge(region, 111, 0, 223, 111, 223);
+        assertEdge(region, 223, 111, 223, 223, 112);
+        assertEdge(region, 0, 111, 0, 0, 111);
+        Assertions.assertNull(region.getEdge(new Location(223, 223), new Location(0, 111)));
+
+        RoadNetworkIO.Report report = result.report();
+        Assertions.assertEquals(10, report.pointsRead());
+        Assertions.assertEquals(4, report.waysRead());
+        Assertions.assertEquals(5, report.nodeCount());
+        Assertions.assertEquals(4, report.edgeCount());
+        Assertions.assertEquals(1, report.restaurantCount());
+        Assertions.assertEquals(0, report.neighborhoodCount());
+        Assertions.assertEquals(3, report.collapsedPoints());
+        Assertions.assertEquals(1, report.droppedAmenities());
+    }
+
+    /*
+     * road-network.csv:
+     *
+     * (0,0) --- (30,0) Imbiss
+     *     \       |
+     *      \      |
+     *      (30,40) Sued           (100,100) --- (103,104)
+     */
+    @Test
+    void readsCsv() throws IOException {
+        RoadNetworkIO.Result result;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            RoadNetworkIOTest.class.getResourceAsStream("road-network.csv"), StandardCharsets.UTF_8))) {
+            result = RoadNetworkIO.readCsv(reader, new EuclideanDistanceCalculator());
+        }
+        Region region = result.region();
+
+        Assertions.assertEquals(3, region.getNodes().size());
+        assertNode(region, "N0", 0, 0);
+        Region.Restaurant restaurant = (Region.Restaurant) assertNode(region, "Imbiss", 30, 0);
+        Assertions.assertEquals(List.of("doner", "fries"), restaurant.getAvailableFood());
+        Assertions.assertInstanceOf(Region.Neighborhood.class, assertNode(region, "Sued", 30, 40));
+
+        // the fastest of the parallel roads is kept and the loop is dropped
+        Assertions.assertEquals(3, region.getEdges().size());
+        assertEdge(region, 0, 0, 30, 0, 12);
+        assertEdge(region, 30, 0, 30, 40, 7);
+        assertEdge(region, 30, 40, 0, 0, 50);
+
+        RoadNetworkIO.Report report = result.report();
+        Assertions.assertEquals(7, report.pointsRead());
+        Assertions.assertEquals(6, report.waysRead());
+        Assertions.assertEquals(3, report.nodeCount());
+        Assertions.assertEquals(3, report.edgeCount());
+        Assertions.assertEquals(1, report.restaurantCount());
+        Assertions.assertEquals(1, report.neighborhoodCount());
+        Assertions.assertEquals(2, report.collapsedPoints());
+        Assertions.assertEquals(0, report.droppedAmenities());
+    }
+
+    @Test
+    void rejectsIllegalCsvLines() {
+        for (String line : List.of("0,0,1", "0,0,1,x", "restaurant,0,0", "neighborhood,0,0,A,B")) {
+            BufferedReader reader = new BufferedReader(new StringReader(line));
+            Assertions.assertThrows(RuntimeException.class,
+                                    () -> RoadNetworkIO.readCsv(reader, new EuclideanDistanceCalculator()),
+                                    line);
+        }
+    }
+
+    private static Region.Node assertNode(Region region, String name, int x, int y) {
+        Region.Node node = region.getNode(new Location(x, y));
+        Assertions.assertNotNull(node, name);
+        Assertions.assertEquals(name, node.getName());
+        return node;
+    }
+
+    private static void assertEdge(Region region, int xA, int yA, int xB, int yB, long duration) {
+        Region.Edge edge = region.getEdge(new Location(xA, yA), new Location(xB, yB));
+        Assertions.assertNotNull(edge, "(%d,%d) - (%d,%d)".formatted(xA, yA, xB, yB));
+        Assertions.assertEquals(duration, edge.getDuration());
+    }
+}
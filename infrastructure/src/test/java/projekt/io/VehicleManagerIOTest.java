@@ -0,0 +1,122 @@
+package projekt.io;
+
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+import projekt.delivery.routing.AStarPathCalculator;
+import projekt.delivery.routing.BidirectionalDijkstraPathCalculator;
+import projekt.delivery.routing.CachedPathCalculator;
+import projekt.delivery.routing.ContractionHierarchyPathCalculator;
+import projekt.delivery.routing.DijkstraPathCalculator;
+import projekt.delivery.routing.LandmarkPathCalculator;
+import projekt.delivery.routing.MatrixPathCalculator;
+import projekt.delivery.routing.PathCalculator;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.TimeDependentPathCalculator;
+import projekt.delivery.routing.VehicleManager;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class VehicleManagerIOTest {
+
+    private Region region;
+
+    /*
+     * (0,0) Pizzeria --- (0,10) --- (10,10)
+     */
+    @BeforeEach
+    public void setup() {
+        region = Region.builder()
+                       .distanceCalculator(new EuclideanDistanceCalculator())
+                       .addRestaurant("Pizzeria", new Location(0, 0), List.of("pizza"))
+                       .addNode("A", new Location(0, 10))
+                       .addNode("B", new Location(10, 10))
+                       .addEdge("PA", new Location(0, 0), new Location(0, 10))
+                       .addEdge("AB", new Location(0, 10), new Location(10, 10))
+                       .build();
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        List<PathCalculator> pathCalculators = List.of(
+            new DijkstraPathCalculator(),
+            new AStarPathCalculator(),
+            new ContractionHierarchyPathCalculator(),
+            new BidirectionalDijkstraPathCalculator(true),
+            new LandmarkPathCalculator(3),
+            new TimeDependentPathCalculator(30, 64),
+            new MatrixPathCalculator(),
+            new CachedPathCalculator(new LandmarkPathCalculator(2), 100, 4096),
+            new MatrixPathCalculator(new CachedPathCalculator(new AStarPathCalculator(), 7, 1 << 20), 1 << 16));
+
+        for (PathCalculator pathCalculator : pathCalculators) {
+            VehicleManager vehicleManager = VehicleManager.builder()
+                                                          .region(region)
+                                                          .pathCalculator(pathCalculator)
+                                                          .addVehicle(new Location(0, 0), 10)
+                                                          .addVehicle(new Location(0, 0), 2.5)
+                                                          .build();
+            String written = write(vehicleManager);
+            VehicleManager read = VehicleManagerIO.readVehicleManager(new BufferedReader(new StringReader(written)),
+                                                                      region);
+
+            Assertions.assertEquals(written, write(read));
+            Assertions.assertEquals(2, read.getAllVehicles().size());
+            PathCalculator expected = pathCalculator;
+            PathCalculator actual = read.getPathCalculator();
+            while (expected != null) {
+                Assertions.assertNotNull(actual, written);
+                Assertions.assertSame(expected.getClass(), actual.getClass(), written);
+                if (expected instanceof CachedPathCalculator cached) {
+                    CachedPathCalculator actualCached = (CachedPathCalculator) actual;
+                    Assertions.assertEquals(cached.getSize(), actualCached.getSize());
+                    Assertions.assertEquals(cached.getMaximumBytes(), actualCached.getMaximumBytes());
+                    expected = cached.getDelegate();
+                    actual = actualCached.getDelegate();
+                } else if (expected instanceof MatrixPathCalculator matrix) {
+                    MatrixPathCalculator actualMatrix = (MatrixPathCalculator) actual;
+                    Assertions.assertEquals(matrix.getMaximumBytes(), actualMatrix.getMaximumBytes());
+                    expected = matrix.getDelegate();
+                    actual = actualMatrix.getDelegate();
+                } else {
+                    expected = null;
+                }
+            }
+        }
+    }
+
+    @Test
+    void rejectsIllegalPathCalculators() {
+        for (String pathCalculator : List.of("CachedPathCalculator:5,DijkstraPathCalculator",
+                                             "CachedPathCalculator:5:6:7,DijkstraPathCalculator",
+                                             "DijkstraPathCalculator:1",
+                                             "LandmarkPathCalculator:1:2",
+                                             "TimeDependentPathCalculator:15",
+                                             "DijkstraPathCalculator,CachedPathCalculator",
+                                             "AStarPathCalculator,DijkstraPathCalculator",
+                                             "CachedPathCalculator",
+                                             "FloydWarshallPathCalculator")) {
+            String input = "START VEHICLE MANAGER\nP %s\nEND VEHICLE MANAGER\n".formatted(pathCalculator);
+            RuntimeException exception = Assertions.assertThrows(RuntimeException.class,
+                () -> VehicleManagerIO.readVehicleManager(new BufferedReader(new StringReader(input)), region));
+            // the message names the whole path calculator instead of a failing index
+            Assertions.assertTrue(exception.getMessage().endsWith(pathCalculator), exception.getMessage());
+        }
+    }
+
+    private static String write(VehicleManager vehicleManager) throws IOException {
+        StringWriter stringWriter = new StringWriter();
+        try (BufferedWriter writer = new BufferedWriter(stringWriter)) {
+            VehicleManagerIO.writeVehicleManager(writer, vehicleManager);
+        }
+        return stringWriter.toString();
+    }
+}